@@ -0,0 +1,444 @@
+package tech.cassandre.trading.bot.test.analysis;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.dto.util.GainDTO;
+import tech.cassandre.trading.bot.util.bus.EventBus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING_FAILURE;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+
+/**
+ * Backtest analyzer - calculates the performance of a backtest while it runs.
+ * <p>
+ * The analyzer receives the tickers, trades and positions from the event bus and updates running aggregates:
+ * equity and drawdown, mean and variance of the closed positions returns (Welford's algorithm) for the Sharpe and
+ * Sortino ratios, time spent with a position open and statistics by currency pair. Nothing is kept by trade or by
+ * closed position (except one bit by position id to count each position once), so the memory used doesn't grow with
+ * the length of the backtest.
+ * <p>
+ * The equity is calculated at each ticker: the quote currency balance (the initial balance plus the amounts received
+ * minus the amounts spent by the positions trades) plus the open positions amounts valued at the last price of their
+ * currency pair. Currency pairs are expected to have the same quote currency.
+ * <p>
+ * Import it in a backtest (with {@code TickerFluxMock}) and call {@link #getReport()} when the flux is done.
+ */
+@SuppressWarnings("checkstyle:DesignForExtension")
+@TestConfiguration
+public class BacktestAnalyzer {
+
+    /** Gain percentage to return ratio. */
+    private static final double ONE_HUNDRED = 100;
+
+    /** Positions not closed by id. */
+    private final Map<Long, PositionValue> openPositions = new HashMap<>();
+
+    /** Ids of the closed positions counted. */
+    private final BitSet closedPositions = new BitSet();
+
+    /** Statistics by currency pair. */
+    private final Map<CurrencyPairDTO, PairAccumulator> pairs = new LinkedHashMap<>();
+
+    /** Equity listener (receives each point of the equity curve). */
+    private BiConsumer<ZonedDateTime, Double> equityListener;
+
+    /** Time of the first event. */
+    private ZonedDateTime startTime;
+
+    /** Time of the last event. */
+    private ZonedDateTime lastTime;
+
+    /** Time spent with at least one position open. */
+    private Duration exposedTime = Duration.ZERO;
+
+    /** Number of trades. */
+    private long tradeCount;
+
+    /** Number of closed positions. */
+    private long closedPositionCount;
+
+    /** Number of closed positions with a positive gain. */
+    private long winningPositionCount;
+
+    /** Quote currency balance at the start of the backtest. */
+    private BigDecimal initialBalance = BigDecimal.ZERO;
+
+    /** Quote currency received minus quote currency spent by the closed positions. */
+    private BigDecimal closedPositionsBalance = BigDecimal.ZERO;
+
+    /** Equity. */
+    private double equity;
+
+    /** Highest equity. */
+    private double peakEquity;
+
+    /** Maximum drawdown. */
+    private double maxDrawdown;
+
+    /** Mean return. */
+    private double meanReturn;
+
+    /** Sum of squared differences from the mean return. */
+    private double returnSquaredDeviations;
+
+    /** Sum of squared negative returns. */
+    private double downsideSquaredReturns;
+
+    /**
+     * Constructor.
+     *
+     * @param eventBus event bus
+     */
+    public BacktestAnalyzer(final EventBus eventBus) {
+        eventBus.subscribe(TickerDTO.class, this::tickerUpdate);
+        eventBus.subscribe(TradeDTO.class, this::tradeUpdate);
+        eventBus.subscribe(PositionDTO.class, this::positionUpdate);
+    }
+
+    /**
+     * Setter for initialBalance - to call before the backtest starts.
+     *
+     * @param newInitialBalance quote currency balance at the start of the backtest
+     */
+    public synchronized void setInitialBalance(final BigDecimal newInitialBalance) {
+        initialBalance = newInitialBalance;
+        equity = newInitialBalance.doubleValue();
+        peakEquity = equity;
+    }
+
+    /**
+     * Setter for equityListener.
+     *
+     * @param newEquityListener the equityListener to set
+     */
+    public synchronized void setEquityListener(final BiConsumer<ZonedDateTime, Double> newEquityListener) {
+        equityListener = newEquityListener;
+    }
+
+    /**
+     * Method called when a ticker is received.
+     *
+     * @param ticker ticker
+     */
+    private synchronized void tickerUpdate(final TickerDTO ticker) {
+        updateTime(ticker.getTimestamp());
+        if (ticker.getLast() != null) {
+            getPair(ticker.getCurrencyPair()).lastPrice = ticker.getLast();
+            updateEquity();
+        }
+    }
+
+    /**
+     * Method called when a trade is received.
+     *
+     * @param trade trade
+     */
+    private synchronized void tradeUpdate(final TradeDTO trade) {
+        updateTime(trade.getTimestamp());
+        tradeCount++;
+        getPair(trade.getCurrencyPair()).tradeCount++;
+    }
+
+    /**
+     * Method called when a position is received.
+     *
+     * @param position position
+     */
+    private synchronized void positionUpdate(final PositionDTO position) {
+        final PositionStatusDTO status = position.getStatus();
+        final PairAccumulator pair = getPair(position.getCurrencyPair());
+        final PositionValue previousValue = openPositions.remove(position.getId());
+        if (previousValue != null) {
+            pair.remove(previousValue);
+        }
+        if (status == OPENING_FAILURE) {
+            return;
+        }
+        final PositionValue value = new PositionValue(position);
+        if (status != CLOSED) {
+            openPositions.put(position.getId(), value);
+            pair.add(value);
+        } else if (!closedPositions.get(Math.toIntExact(position.getId()))) {
+            // A position is counted once, the first time we see it closed (after its gain is calculated).
+            final GainDTO gain = position.getGain();
+            closedPositions.set(Math.toIntExact(position.getId()));
+            closedPositionsBalance = closedPositionsBalance.add(value.balance);
+            positionClosed(position, gain);
+        }
+    }
+
+    /**
+     * Updates the aggregates with a closed position.
+     *
+     * @param position closed position
+     * @param gain     gain of the position
+     */
+    private void positionClosed(final PositionDTO position, final GainDTO gain) {
+        final double positionReturn = gain.getPercentage() / ONE_HUNDRED;
+
+        // Return mean, variance and downside deviation.
+        closedPositionCount++;
+        final double delta = positionReturn - meanReturn;
+        meanReturn += delta / closedPositionCount;
+        returnSquaredDeviations += delta * (positionReturn - meanReturn);
+        if (positionReturn < 0) {
+            downsideSquaredReturns += positionReturn * positionReturn;
+        }
+        if (positionReturn > 0) {
+            winningPositionCount++;
+        }
+
+        updateEquity();
+
+        // Currency pair statistics.
+        final PairAccumulator pair = getPair(position.getCurrencyPair());
+        pair.closedPositionCount++;
+        if (positionReturn > 0) {
+            pair.winningPositionCount++;
+        }
+        if (gain.getAmount().getValue() != null) {
+            pair.totalGain = pair.totalGain.add(gain.getAmount().getValue());
+        }
+        if (gain.getFees().getValue() != null) {
+            pair.totalFees = pair.totalFees.add(gain.getFees().getValue());
+        }
+        pair.bestGainPercentage = Math.max(pair.bestGainPercentage, gain.getPercentage());
+        pair.worstGainPercentage = Math.min(pair.worstGainPercentage, gain.getPercentage());
+    }
+
+    /**
+     * Calculates the equity with the last prices and updates the drawdown.
+     */
+    private void updateEquity() {
+        BigDecimal newEquity = initialBalance.add(closedPositionsBalance);
+        for (PairAccumulator pair : pairs.values()) {
+            newEquity = newEquity.add(pair.getOpenPositionsValue());
+        }
+        equity = newEquity.doubleValue();
+        peakEquity = Math.max(peakEquity, equity);
+        if (peakEquity > 0) {
+            maxDrawdown = Math.max(maxDrawdown, 1 - equity / peakEquity);
+        }
+        if (equityListener != null) {
+            equityListener.accept(lastTime, equity);
+        }
+    }
+
+    /**
+     * Moves the backtest time and accumulates the time spent with a position open.
+     *
+     * @param time event time
+     */
+    private void updateTime(final ZonedDateTime time) {
+        if (time == null) {
+            return;
+        }
+        if (startTime == null) {
+            startTime = time;
+            lastTime = time;
+        } else if (time.isAfter(lastTime)) {
+            if (!openPositions.isEmpty()) {
+                exposedTime = exposedTime.plus(Duration.between(lastTime, time));
+            }
+            lastTime = time;
+        }
+    }
+
+    /**
+     * Returns the statistics of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return statistics
+     */
+    private PairAccumulator getPair(final CurrencyPairDTO currencyPair) {
+        return pairs.computeIfAbsent(currencyPair, cp -> new PairAccumulator());
+    }
+
+    /**
+     * Returns the backtest report (it can be called at any time, the report is calculated from the events received).
+     *
+     * @return report
+     */
+    public synchronized BacktestReport getReport() {
+        double standardDeviation = 0;
+        double sharpeRatio = Double.NaN;
+        double sortinoRatio = Double.NaN;
+        if (closedPositionCount > 1) {
+            standardDeviation = Math.sqrt(returnSquaredDeviations / (closedPositionCount - 1));
+            if (standardDeviation > 0) {
+                sharpeRatio = meanReturn / standardDeviation;
+            }
+        }
+        if (downsideSquaredReturns > 0) {
+            sortinoRatio = meanReturn / Math.sqrt(downsideSquaredReturns / closedPositionCount);
+        }
+        double exposure = 0;
+        if (startTime != null && lastTime.isAfter(startTime)) {
+            exposure = (double) exposedTime.toMillis() / Duration.between(startTime, lastTime).toMillis();
+        }
+
+        final Map<CurrencyPairDTO, PairStatistics> pairStatistics = new LinkedHashMap<>();
+        pairs.forEach((currencyPair, pair) -> pairStatistics.put(currencyPair, pair.getStatistics(currencyPair)));
+        return BacktestReport.builder()
+                .startTime(startTime)
+                .endTime(lastTime)
+                .tradeCount(tradeCount)
+                .closedPositionCount(closedPositionCount)
+                .winningPositionCount(winningPositionCount)
+                .openPositionCount(openPositions.size())
+                .equity(equity)
+                .peakEquity(peakEquity)
+                .maxDrawdown(maxDrawdown)
+                .meanReturn(meanReturn)
+                .returnStandardDeviation(standardDeviation)
+                .sharpeRatio(sharpeRatio)
+                .sortinoRatio(sortinoRatio)
+                .exposure(exposure)
+                .pairStatistics(pairStatistics)
+                .create();
+    }
+
+    /**
+     * Running statistics of a currency pair.
+     */
+    private static final class PairAccumulator {
+
+        /** Number of trades. */
+        private long tradeCount;
+
+        /** Number of closed positions. */
+        private long closedPositionCount;
+
+        /** Number of closed positions with a positive gain. */
+        private long winningPositionCount;
+
+        /** Sum of the closed positions gains. */
+        private BigDecimal totalGain = BigDecimal.ZERO;
+
+        /** Sum of the closed positions fees. */
+        private BigDecimal totalFees = BigDecimal.ZERO;
+
+        /** Best gain percentage. */
+        private double bestGainPercentage = Double.NEGATIVE_INFINITY;
+
+        /** Worst gain percentage. */
+        private double worstGainPercentage = Double.POSITIVE_INFINITY;
+
+        /** Quote currency received minus quote currency spent by the open positions. */
+        private BigDecimal openPositionsBalance = BigDecimal.ZERO;
+
+        /** Amount held by the open positions. */
+        private BigDecimal openPositionsAmount = BigDecimal.ZERO;
+
+        /** Last price (null until a ticker is received). */
+        private BigDecimal lastPrice;
+
+        /**
+         * Adds an open position.
+         *
+         * @param value position value
+         */
+        void add(final PositionValue value) {
+            openPositionsBalance = openPositionsBalance.add(value.balance);
+            openPositionsAmount = openPositionsAmount.add(value.amount);
+        }
+
+        /**
+         * Removes an open position.
+         *
+         * @param value position value
+         */
+        void remove(final PositionValue value) {
+            openPositionsBalance = openPositionsBalance.subtract(value.balance);
+            openPositionsAmount = openPositionsAmount.subtract(value.amount);
+        }
+
+        /**
+         * Returns the value of the open positions at the last price (balance and amount held).
+         *
+         * @return value
+         */
+        BigDecimal getOpenPositionsValue() {
+            if (lastPrice == null) {
+                // No price yet : the amounts held are valued at their cost.
+                return BigDecimal.ZERO;
+            }
+            return openPositionsBalance.add(openPositionsAmount.multiply(lastPrice));
+        }
+
+        /**
+         * Returns the statistics.
+         *
+         * @param currencyPair currency pair
+         * @return statistics
+         */
+        PairStatistics getStatistics(final CurrencyPairDTO currencyPair) {
+            if (closedPositionCount == 0) {
+                return new PairStatistics(currencyPair, tradeCount, 0, 0, totalGain, totalFees, Double.NaN, Double.NaN);
+            }
+            return new PairStatistics(currencyPair, tradeCount, closedPositionCount, winningPositionCount,
+                    totalGain, totalFees, bestGainPercentage, worstGainPercentage);
+        }
+
+    }
+
+    /**
+     * Quote currency balance and amount held of a position, calculated from its trades.
+     */
+    private static final class PositionValue {
+
+        /** Quote currency received minus quote currency spent. */
+        private final BigDecimal balance;
+
+        /** Amount bought minus amount sold. */
+        private final BigDecimal amount;
+
+        /**
+         * Constructor.
+         *
+         * @param position position
+         */
+        PositionValue(final PositionDTO position) {
+            BigDecimal newBalance = BigDecimal.ZERO;
+            BigDecimal newAmount = BigDecimal.ZERO;
+            for (TradeDTO trade : position.getTrades()) {
+                if (trade.getOriginalAmount() == null || trade.getPrice() == null) {
+                    continue;
+                }
+                final BigDecimal tradeValue = trade.getOriginalAmount().multiply(trade.getPrice());
+                if (trade.getType() == BID) {
+                    newBalance = newBalance.subtract(tradeValue);
+                    newAmount = newAmount.add(trade.getOriginalAmount());
+                } else {
+                    newBalance = newBalance.add(tradeValue);
+                    newAmount = newAmount.subtract(trade.getOriginalAmount());
+                }
+                if (trade.getFee() != null && trade.getFee().getValue() != null) {
+                    if (position.getCurrencyPair().getQuoteCurrency().equals(trade.getFee().getCurrency())) {
+                        newBalance = newBalance.subtract(trade.getFee().getValue());
+                    } else if (position.getCurrencyPair().getBaseCurrency().equals(trade.getFee().getCurrency())) {
+                        newAmount = newAmount.subtract(trade.getFee().getValue());
+                    }
+                }
+            }
+            this.balance = newBalance;
+            this.amount = newAmount;
+        }
+
+    }
+
+}
@@ -0,0 +1,476 @@
+package tech.cassandre.trading.bot.test.analysis;
+
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Backtest report - performance of a backtest calculated by {@link BacktestAnalyzer}.
+ * Returns are the closed positions gain percentages divided by 100 and ratios are not annualized. The equity is in
+ * quote currency and calculated at each ticker.
+ */
+public final class BacktestReport {
+
+    /** Time of the first event received (null if no event was received). */
+    private final ZonedDateTime startTime;
+
+    /** Time of the last event received (null if no event was received). */
+    private final ZonedDateTime endTime;
+
+    /** Number of trades. */
+    private final long tradeCount;
+
+    /** Number of closed positions. */
+    private final long closedPositionCount;
+
+    /** Number of closed positions with a positive gain. */
+    private final long winningPositionCount;
+
+    /** Number of positions not closed at the end of the backtest. */
+    private final long openPositionCount;
+
+    /** Final equity (quote currency balance plus the open positions valued at the last price). */
+    private final double equity;
+
+    /** Highest equity. */
+    private final double peakEquity;
+
+    /** Maximum drawdown (fraction of the peak equity lost). */
+    private final double maxDrawdown;
+
+    /** Mean closed position return. */
+    private final double meanReturn;
+
+    /** Closed position returns standard deviation. */
+    private final double returnStandardDeviation;
+
+    /** Sharpe ratio of the closed position returns (NaN if it can't be calculated). */
+    private final double sharpeRatio;
+
+    /** Sortino ratio of the closed position returns (NaN if it can't be calculated). */
+    private final double sortinoRatio;
+
+    /** Fraction of the backtest time with at least one position open. */
+    private final double exposure;
+
+    /** Statistics by currency pair. */
+    private final Map<CurrencyPairDTO, PairStatistics> pairStatistics;
+
+    /**
+     * Constructor.
+     *
+     * @param builder builder
+     */
+    private BacktestReport(final Builder builder) {
+        this.startTime = builder.startTime;
+        this.endTime = builder.endTime;
+        this.tradeCount = builder.tradeCount;
+        this.closedPositionCount = builder.closedPositionCount;
+        this.winningPositionCount = builder.winningPositionCount;
+        this.openPositionCount = builder.openPositionCount;
+        this.equity = builder.equity;
+        this.peakEquity = builder.peakEquity;
+        this.maxDrawdown = builder.maxDrawdown;
+        this.meanReturn = builder.meanReturn;
+        this.returnStandardDeviation = builder.returnStandardDeviation;
+        this.sharpeRatio = builder.sharpeRatio;
+        this.sortinoRatio = builder.sortinoRatio;
+        this.exposure = builder.exposure;
+        this.pairStatistics = Collections.unmodifiableMap(new LinkedHashMap<>(builder.pairStatistics));
+    }
+
+    /**
+     * Returns builder.
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Getter for startTime.
+     *
+     * @return startTime
+     */
+    public ZonedDateTime getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Getter for endTime.
+     *
+     * @return endTime
+     */
+    public ZonedDateTime getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Getter for tradeCount.
+     *
+     * @return tradeCount
+     */
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    /**
+     * Getter for closedPositionCount.
+     *
+     * @return closedPositionCount
+     */
+    public long getClosedPositionCount() {
+        return closedPositionCount;
+    }
+
+    /**
+     * Getter for winningPositionCount.
+     *
+     * @return winningPositionCount
+     */
+    public long getWinningPositionCount() {
+        return winningPositionCount;
+    }
+
+    /**
+     * Getter for openPositionCount.
+     *
+     * @return openPositionCount
+     */
+    public long getOpenPositionCount() {
+        return openPositionCount;
+    }
+
+    /**
+     * Getter for equity.
+     *
+     * @return equity
+     */
+    public double getEquity() {
+        return equity;
+    }
+
+    /**
+     * Getter for peakEquity.
+     *
+     * @return peakEquity
+     */
+    public double getPeakEquity() {
+        return peakEquity;
+    }
+
+    /**
+     * Getter for maxDrawdown.
+     *
+     * @return maxDrawdown
+     */
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    /**
+     * Getter for meanReturn.
+     *
+     * @return meanReturn
+     */
+    public double getMeanReturn() {
+        return meanReturn;
+    }
+
+    /**
+     * Getter for returnStandardDeviation.
+     *
+     * @return returnStandardDeviation
+     */
+    public double getReturnStandardDeviation() {
+        return returnStandardDeviation;
+    }
+
+    /**
+     * Getter for sharpeRatio.
+     *
+     * @return sharpeRatio
+     */
+    public double getSharpeRatio() {
+        return sharpeRatio;
+    }
+
+    /**
+     * Getter for sortinoRatio.
+     *
+     * @return sortinoRatio
+     */
+    public double getSortinoRatio() {
+        return sortinoRatio;
+    }
+
+    /**
+     * Getter for exposure.
+     *
+     * @return exposure
+     */
+    public double getExposure() {
+        return exposure;
+    }
+
+    /**
+     * Getter for pairStatistics.
+     *
+     * @return pairStatistics
+     */
+    public Map<CurrencyPairDTO, PairStatistics> getPairStatistics() {
+        return pairStatistics;
+    }
+
+    @Override
+    public String toString() {
+        return "BacktestReport{"
+                + " startTime=" + startTime
+                + ", endTime=" + endTime
+                + ", tradeCount=" + tradeCount
+                + ", closedPositionCount=" + closedPositionCount
+                + ", winningPositionCount=" + winningPositionCount
+                + ", openPositionCount=" + openPositionCount
+                + ", equity=" + equity
+                + ", peakEquity=" + peakEquity
+                + ", maxDrawdown=" + maxDrawdown
+                + ", meanReturn=" + meanReturn
+                + ", returnStandardDeviation=" + returnStandardDeviation
+                + ", sharpeRatio=" + sharpeRatio
+                + ", sortinoRatio=" + sortinoRatio
+                + ", exposure=" + exposure
+                + ", pairStatistics=" + pairStatistics
+                + '}';
+    }
+
+    /**
+     * Builder.
+     */
+    public static final class Builder {
+
+        /** Time of the first event received (null if no event was received). */
+        private ZonedDateTime startTime;
+
+        /** Time of the last event received (null if no event was received). */
+        private ZonedDateTime endTime;
+
+        /** Number of trades. */
+        private long tradeCount;
+
+        /** Number of closed positions. */
+        private long closedPositionCount;
+
+        /** Number of closed positions with a positive gain. */
+        private long winningPositionCount;
+
+        /** Number of positions not closed at the end of the backtest. */
+        private long openPositionCount;
+
+        /** Final equity (quote currency balance plus the open positions valued at the last price). */
+        private double equity;
+
+        /** Highest equity. */
+        private double peakEquity;
+
+        /** Maximum drawdown (fraction of the peak equity lost). */
+        private double maxDrawdown;
+
+        /** Mean closed position return. */
+        private double meanReturn;
+
+        /** Closed position returns standard deviation. */
+        private double returnStandardDeviation;
+
+        /** Sharpe ratio of the closed position returns (NaN if it can't be calculated). */
+        private double sharpeRatio;
+
+        /** Sortino ratio of the closed position returns (NaN if it can't be calculated). */
+        private double sortinoRatio;
+
+        /** Fraction of the backtest time with at least one position open. */
+        private double exposure;
+
+        /** Statistics by currency pair. */
+        private Map<CurrencyPairDTO, PairStatistics> pairStatistics = new LinkedHashMap<>();
+
+        /**
+         * Start time.
+         *
+         * @param newStartTime startTime
+         * @return builder
+         */
+        public Builder startTime(final ZonedDateTime newStartTime) {
+            this.startTime = newStartTime;
+            return this;
+        }
+
+        /**
+         * End time.
+         *
+         * @param newEndTime endTime
+         * @return builder
+         */
+        public Builder endTime(final ZonedDateTime newEndTime) {
+            this.endTime = newEndTime;
+            return this;
+        }
+
+        /**
+         * Trade count.
+         *
+         * @param newTradeCount tradeCount
+         * @return builder
+         */
+        public Builder tradeCount(final long newTradeCount) {
+            this.tradeCount = newTradeCount;
+            return this;
+        }
+
+        /**
+         * Closed position count.
+         *
+         * @param newClosedPositionCount closedPositionCount
+         * @return builder
+         */
+        public Builder closedPositionCount(final long newClosedPositionCount) {
+            this.closedPositionCount = newClosedPositionCount;
+            return this;
+        }
+
+        /**
+         * Winning position count.
+         *
+         * @param newWinningPositionCount winningPositionCount
+         * @return builder
+         */
+        public Builder winningPositionCount(final long newWinningPositionCount) {
+            this.winningPositionCount = newWinningPositionCount;
+            return this;
+        }
+
+        /**
+         * Open position count.
+         *
+         * @param newOpenPositionCount openPositionCount
+         * @return builder
+         */
+        public Builder openPositionCount(final long newOpenPositionCount) {
+            this.openPositionCount = newOpenPositionCount;
+            return this;
+        }
+
+        /**
+         * Equity.
+         *
+         * @param newEquity equity
+         * @return builder
+         */
+        public Builder equity(final double newEquity) {
+            this.equity = newEquity;
+            return this;
+        }
+
+        /**
+         * Peak equity.
+         *
+         * @param newPeakEquity peakEquity
+         * @return builder
+         */
+        public Builder peakEquity(final double newPeakEquity) {
+            this.peakEquity = newPeakEquity;
+            return this;
+        }
+
+        /**
+         * Max drawdown.
+         *
+         * @param newMaxDrawdown maxDrawdown
+         * @return builder
+         */
+        public Builder maxDrawdown(final double newMaxDrawdown) {
+            this.maxDrawdown = newMaxDrawdown;
+            return this;
+        }
+
+        /**
+         * Mean return.
+         *
+         * @param newMeanReturn meanReturn
+         * @return builder
+         */
+        public Builder meanReturn(final double newMeanReturn) {
+            this.meanReturn = newMeanReturn;
+            return this;
+        }
+
+        /**
+         * Return standard deviation.
+         *
+         * @param newReturnStandardDeviation returnStandardDeviation
+         * @return builder
+         */
+        public Builder returnStandardDeviation(final double newReturnStandardDeviation) {
+            this.returnStandardDeviation = newReturnStandardDeviation;
+            return this;
+        }
+
+        /**
+         * Sharpe ratio.
+         *
+         * @param newSharpeRatio sharpeRatio
+         * @return builder
+         */
+        public Builder sharpeRatio(final double newSharpeRatio) {
+            this.sharpeRatio = newSharpeRatio;
+            return this;
+        }
+
+        /**
+         * Sortino ratio.
+         *
+         * @param newSortinoRatio sortinoRatio
+         * @return builder
+         */
+        public Builder sortinoRatio(final double newSortinoRatio) {
+            this.sortinoRatio = newSortinoRatio;
+            return this;
+        }
+
+        /**
+         * Exposure.
+         *
+         * @param newExposure exposure
+         * @return builder
+         */
+        public Builder exposure(final double newExposure) {
+            this.exposure = newExposure;
+            return this;
+        }
+
+        /**
+         * Pair statistics.
+         *
+         * @param newPairStatistics pairStatistics
+         * @return builder
+         */
+        public Builder pairStatistics(final Map<CurrencyPairDTO, PairStatistics> newPairStatistics) {
+            this.pairStatistics = newPairStatistics;
+            return this;
+        }
+
+        /**
+         * Creates report.
+         *
+         * @return report
+         */
+        public BacktestReport create() {
+            return new BacktestReport(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package tech.cassandre.trading.bot.test.analysis;
+
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Backtest statistics of a currency pair (gains are in the quote currency).
+ */
+public final class PairStatistics {
+
+    /** Currency pair. */
+    private final CurrencyPairDTO currencyPair;
+
+    /** Number of trades. */
+    private final long tradeCount;
+
+    /** Number of closed positions. */
+    private final long closedPositionCount;
+
+    /** Number of closed positions with a positive gain. */
+    private final long winningPositionCount;
+
+    /** Sum of the closed positions gains. */
+    private final BigDecimal totalGain;
+
+    /** Sum of the closed positions fees. */
+    private final BigDecimal totalFees;
+
+    /** Best closed position gain percentage. */
+    private final double bestGainPercentage;
+
+    /** Worst closed position gain percentage. */
+    private final double worstGainPercentage;
+
+    /**
+     * Constructor.
+     *
+     * @param newCurrencyPair         currency pair
+     * @param newTradeCount           number of trades
+     * @param newClosedPositionCount  number of closed positions
+     * @param newWinningPositionCount number of winning positions
+     * @param newTotalGain            total gain
+     * @param newTotalFees            total fees
+     * @param newBestGainPercentage   best gain percentage
+     * @param newWorstGainPercentage  worst gain percentage
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public PairStatistics(final CurrencyPairDTO newCurrencyPair,
+                          final long newTradeCount,
+                          final long newClosedPositionCount,
+                          final long newWinningPositionCount,
+                          final BigDecimal newTotalGain,
+                          final BigDecimal newTotalFees,
+                          final double newBestGainPercentage,
+                          final double newWorstGainPercentage) {
+        this.currencyPair = newCurrencyPair;
+        this.tradeCount = newTradeCount;
+        this.closedPositionCount = newClosedPositionCount;
+        this.winningPositionCount = newWinningPositionCount;
+        this.totalGain = newTotalGain;
+        this.totalFees = newTotalFees;
+        this.bestGainPercentage = newBestGainPercentage;
+        this.worstGainPercentage = newWorstGainPercentage;
+    }
+
+    /**
+     * Getter for currencyPair.
+     *
+     * @return currencyPair
+     */
+    public CurrencyPairDTO getCurrencyPair() {
+        return currencyPair;
+    }
+
+    /**
+     * Getter for tradeCount.
+     *
+     * @return tradeCount
+     */
+    public long getTradeCount() {
+        return tradeCount;
+    }
+
+    /**
+     * Getter for closedPositionCount.
+     *
+     * @return closedPositionCount
+     */
+    public long getClosedPositionCount() {
+        return closedPositionCount;
+    }
+
+    /**
+     * Getter for winningPositionCount.
+     *
+     * @return winningPositionCount
+     */
+    public long getWinningPositionCount() {
+        return winningPositionCount;
+    }
+
+    /**
+     * Getter for totalGain.
+     *
+     * @return totalGain
+     */
+    public BigDecimal getTotalGain() {
+        return totalGain;
+    }
+
+    /**
+     * Getter for totalFees.
+     *
+     * @return totalFees
+     */
+    public BigDecimal getTotalFees() {
+        return totalFees;
+    }
+
+    /**
+     * Getter for bestGainPercentage (NaN if no position was closed).
+     *
+     * @return bestGainPercentage
+     */
+    public double getBestGainPercentage() {
+        return bestGainPercentage;
+    }
+
+    /**
+     * Getter for worstGainPercentage (NaN if no position was closed).
+     *
+     * @return worstGainPercentage
+     */
+    public double getWorstGainPercentage() {
+        return worstGainPercentage;
+    }
+
+    @Override
+    public String toString() {
+        return "PairStatistics{"
+                + " currencyPair=" + currencyPair
+                + ", tradeCount=" + tradeCount
+                + ", closedPositionCount=" + closedPositionCount
+                + ", winningPositionCount=" + winningPositionCount
+                + ", totalGain=" + totalGain
+                + ", totalFees=" + totalFees
+                + ", bestGainPercentage=" + bestGainPercentage
+                + ", worstGainPercentage=" + worstGainPercentage
+                + '}';
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Backtest analysis.
+ */
+package tech.cassandre.trading.bot.test.analysis;
@@ -1,9 +1,8 @@
 package tech.cassandre.trading.bot.test.mock;
 
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -14,20 +13,18 @@ import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.service.MarketService;
+import tech.cassandre.trading.bot.util.candle.CandleStore;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Scanner;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +42,12 @@ import static org.mockito.Mockito.when;
  * low      Lowest price
  * volume   Transaction volume
  * turnover Transaction amount
+ * <p>
+ * Files must be sorted by time. The tickers of the currency pairs requested by the strategy are replayed in timestamp
+ * order whatever the currency pair, so a strategy trading several currency pairs receives them as they happened.
+ * <p>
+ * If cassandre.trading.bot.candle-store.directory and cassandre.trading.bot.candle-store.replayTimeframe are set, the
+ * candles of this timeframe saved in the candle store are replayed for the requested currency pairs without file.
  */
 @SuppressWarnings("checkstyle:DesignForExtension")
 @TestConfiguration
@@ -59,13 +62,33 @@ public class TickerFluxMock {
     /** Tickers file suffix. */
     private static final String TICKERS_FILE_SUFFIX = ".*sv";
 
-    /** Flux status - true if the flux is over. */
-    private final HashMap<CurrencyPairDTO, Boolean> fluxTerminated = new LinkedHashMap<>();
+    /** Tickers replay. */
+    private final TickerReplay tickerReplay = new TickerReplay();
+
+    /** Candle store directory (no replay from the candle store if empty). */
+    @Value("${cassandre.trading.bot.candle-store.directory:}")
+    private String candleStoreDirectory;
+
+    /** Timeframe of the candles replayed from the candle store (no replay from the candle store if not set). */
+    @Value("${cassandre.trading.bot.candle-store.replayTimeframe:#{null}}")
+    private Duration candleStoreReplayTimeframe;
 
     @Bean
     @Primary
     public TickerFlux tickerFlux() {
-        return new TickerFlux(marketService());
+        return new TickerFlux(marketService()) {
+            @Override
+            public synchronized void updateRequestedCurrencyPairs(final Set<CurrencyPairDTO> newRequestedCurrencyPairs) {
+                super.updateRequestedCurrencyPairs(newRequestedCurrencyPairs);
+                // Tickers of the requested currency pairs are replayed in timestamp order.
+                tickerReplay.addRequestedCurrencyPairs(newRequestedCurrencyPairs);
+            }
+
+            @Override
+            protected Optional<TickerDTO> getNextTicker() {
+                return tickerReplay.next();
+            }
+        };
     }
 
     @Bean
@@ -74,35 +97,23 @@ public class TickerFluxMock {
         // Creates the mock.
         MarketService marketService = mock(MarketService.class);
 
+        // Candles saved in the candle store.
+        if (candleStoreDirectory != null && !candleStoreDirectory.isBlank() && candleStoreReplayTimeframe != null) {
+            logger.info("Adding tests data from the candle store " + candleStoreDirectory);
+            tickerReplay.setCandleStore(new CandleStore(Paths.get(candleStoreDirectory)), candleStoreReplayTimeframe);
+        }
+
         // For every files.
         getFilesToLoad()
                 .stream().filter(resource -> resource.getFilename() != null)
                 .forEach(resource -> {
                     // Adding data.
-                    final CurrencyPairDTO cp = getCurrencyPairFromFileName(resource);
                     logger.info("Adding tests data from " + resource.getFilename().substring(resource.getFilename().indexOf(TICKERS_FILE_PREFIX)));
-                    fluxTerminated.put(cp, false);
-                    //noinspection rawtypes
-                    when(marketService.getTicker(cp)).thenAnswer(new Answer() {
-                        // Tickers
-                        private final Iterator<TickerDTO> tickers = getTickersFromFile(resource).iterator();
-
-                        @Override
-                        public Object answer(final InvocationOnMock invocationOnMock) {
-                            try {
-                                TimeUnit.SECONDS.sleep(1);
-                            } catch (InterruptedException e) {
-                                logger.debug("InterruptedException");
-                            }
-                            if (tickers.hasNext()) {
-                                return Optional.of(tickers.next());
-                            } else {
-                                fluxTerminated.put(cp, true);
-                                return Optional.empty();
-                            }
-                        }
-                    });
+                    tickerReplay.addFile(getCurrencyPairFromFileName(resource), resource);
                 });
+        // The ticker flux replays the tickers as fast as the strategy receives them, the market service returns the next
+        // ticker of the currency pair asked.
+        when(marketService.getTicker(any())).thenAnswer(invocationOnMock -> tickerReplay.getTicker(invocationOnMock.getArgument(0)));
 
         return marketService;
     }
@@ -136,65 +147,12 @@ public class TickerFluxMock {
             final int currencyPairIndexStop = file.getFilename().indexOf("sv") - 2;
             final String currencyPairAsString = file.getFilename().substring(currencyPairIndexStart, currencyPairIndexStop);
             final String[] currencyPairAsSplit = currencyPairAsString.split("-");
-            return new CurrencyPairDTO(new CurrencyDTO(currencyPairAsSplit[0].toUpperCase()), new CurrencyDTO(currencyPairAsSplit[1].toUpperCase()));
+            return CurrencyPairDTO.getInstance(CurrencyDTO.getInstance(currencyPairAsSplit[0].toUpperCase()), CurrencyDTO.getInstance(currencyPairAsSplit[1].toUpperCase()));
         } else {
             return null;
         }
     }
 
-    /**
-     * Returns tickers loaded from a file.
-     *
-     * @param file file
-     * @return tickers
-     */
-    private List<TickerDTO> getTickersFromFile(final Resource file) {
-        final CurrencyPairDTO currencyPair = getCurrencyPairFromFileName(file);
-        final List<TickerDTO> tickers = new LinkedList<>();
-        // Replies from TSV files.
-        try (Scanner scanner = new Scanner(file.getFile())) {
-            while (scanner.hasNextLine()) {
-                try (Scanner rowScanner = new Scanner(scanner.nextLine())) {
-                    if (file.getFilename().endsWith("tsv")) {
-                        rowScanner.useDelimiter("\t");
-                    } else {
-                        rowScanner.useDelimiter(",");
-                    }
-                    while (rowScanner.hasNext()) {
-                        // Data retrieved from file.
-                        final String time = rowScanner.next().replaceAll("\"", "");
-                        final String open = rowScanner.next().replaceAll("\"", "");
-                        final String close = rowScanner.next().replaceAll("\"", "");
-                        final String high = rowScanner.next().replaceAll("\"", "");
-                        final String low = rowScanner.next().replaceAll("\"", "");
-                        final String volume = rowScanner.next().replaceAll("\"", "");
-                        final String turnover = rowScanner.next().replaceAll("\"", "");
-
-                        // Creating the ticker.
-                        TickerDTO t = TickerDTO.builder()
-                                .currencyPair(currencyPair)
-                                .timestampAsEpochInSeconds(Long.parseLong(time))
-                                .open(open)
-                                .last(close)
-                                .bid(high)
-                                .ask(low)
-                                .volume(volume)
-                                .quoteVolume(turnover)
-                                .create();
-
-                        // Add the ticker.
-                        tickers.add(t);
-                    }
-                }
-            }
-        } catch (FileNotFoundException e) {
-            logger.error("{} not found !", file.getFilename());
-        } catch (IOException e) {
-            logger.error("IOException : " + e);
-        }
-        return tickers;
-    }
-
     /**
      * Returns true is a specific flux is done.
      *
@@ -202,7 +160,7 @@ public class TickerFluxMock {
      * @return true if the flux is done
      */
     public boolean isFluxDone(final CurrencyPairDTO currencyPair) {
-        return fluxTerminated.getOrDefault(currencyPair, false);
+        return tickerReplay.isDone(currencyPair);
     }
 
     /**
@@ -211,7 +169,7 @@ public class TickerFluxMock {
      * @return true if all are done
      */
     public boolean isFluxDone() {
-        return !fluxTerminated.containsValue(false);
+        return tickerReplay.isDone();
     }
 
 }
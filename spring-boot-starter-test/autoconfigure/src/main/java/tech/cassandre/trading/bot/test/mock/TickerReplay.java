@@ -0,0 +1,364 @@
+package tech.cassandre.trading.bot.test.mock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.candle.CandleStore;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Ticker replay - replays the tickers of several files in timestamp order.
+ * <p>
+ * Each file is read lazily, one line at a time, and must be sorted by time. The tickers of the requested currency
+ * pairs are merged with a heap holding the next ticker of each file: {@link #next()} returns the oldest ticker not
+ * replayed yet, whatever its currency pair. {@link #getTicker(CurrencyPairDTO)} returns the next ticker of a currency
+ * pair.
+ * <p>
+ * If a candle store is set, the candles saved for a requested currency pair without tickers file are replayed as
+ * tickers, read from the store a batch at a time.
+ */
+final class TickerReplay {
+
+    /** Logger. */
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /** Number of candles read from the candle store at a time. */
+    private static final int CANDLE_BATCH_SIZE = 1_000;
+
+    /** Files by currency pair. */
+    private final Map<CurrencyPairDTO, TickerSource> files = new LinkedHashMap<>();
+
+    /** Next ticker of each requested currency pair file (oldest first, then in file order). */
+    private final PriorityQueue<TickerSource> requestedFiles = new PriorityQueue<>(Comparator
+            .comparing((TickerSource file) -> file.next.getTimestamp())
+            .thenComparingInt(file -> file.order));
+
+    /** Candle store (null if tickers only come from files). */
+    private CandleStore candleStore;
+
+    /** Timeframe of the candles replayed from the candle store. */
+    private Duration candleTimeframe;
+
+    /**
+     * Sets the candle store replaying the candles of the requested currency pairs without tickers file.
+     *
+     * @param newCandleStore     candle store
+     * @param newCandleTimeframe timeframe of the candles replayed
+     */
+    synchronized void setCandleStore(final CandleStore newCandleStore, final Duration newCandleTimeframe) {
+        this.candleStore = newCandleStore;
+        this.candleTimeframe = newCandleTimeframe;
+    }
+
+    /**
+     * Adds a tickers file.
+     *
+     * @param currencyPair currency pair
+     * @param resource     tickers file
+     */
+    synchronized void addFile(final CurrencyPairDTO currencyPair, final Resource resource) {
+        files.put(currencyPair, new TickerFile(currencyPair, resource, files.size()));
+    }
+
+    /**
+     * Adds requested currency pairs - their tickers are merged in timestamp order.
+     *
+     * @param currencyPairs currency pairs
+     */
+    synchronized void addRequestedCurrencyPairs(final Set<CurrencyPairDTO> currencyPairs) {
+        if (candleStore != null) {
+            currencyPairs.stream()
+                    .filter(cp -> !files.containsKey(cp))
+                    .forEach(cp -> {
+                        final TickerSource candles = new StoredCandles(cp, files.size());
+                        if (candles.next != null) {
+                            logger.info("Adding tests data from the {} candles of {} in the candle store", candleTimeframe, cp);
+                            files.put(cp, candles);
+                        }
+                    });
+        }
+        currencyPairs.stream()
+                .map(files::get)
+                .filter(file -> file != null && !file.requested)
+                .forEach(file -> {
+                    file.requested = true;
+                    if (file.next != null) {
+                        requestedFiles.add(file);
+                    }
+                });
+    }
+
+    /**
+     * Returns the next ticker of the requested currency pairs - the oldest ticker not replayed yet.
+     *
+     * @return ticker (empty once all the tickers of the requested currency pairs were replayed)
+     */
+    synchronized Optional<TickerDTO> next() {
+        // A currency pair is done when a ticker is asked after its last one was replayed.
+        files.values().stream().filter(f -> f.requested && f.next == null).forEach(f -> f.done = true);
+        final TickerSource file = requestedFiles.poll();
+        if (file == null) {
+            return Optional.empty();
+        }
+        final TickerDTO ticker = file.next;
+        file.readNext();
+        if (file.next != null) {
+            requestedFiles.add(file);
+        }
+        return Optional.of(ticker);
+    }
+
+    /**
+     * Returns the next ticker of a currency pair.
+     *
+     * @param currencyPair currency pair
+     * @return ticker (empty once all the tickers of the currency pair were replayed)
+     */
+    synchronized Optional<TickerDTO> getTicker(final CurrencyPairDTO currencyPair) {
+        final TickerSource file = files.get(currencyPair);
+        if (file == null) {
+            return Optional.empty();
+        }
+        file.done = file.next == null;
+        if (file.next == null) {
+            return Optional.empty();
+        }
+        // The file changes its place in the heap.
+        final boolean merged = file.requested && requestedFiles.remove(file);
+        final TickerDTO ticker = file.next;
+        file.readNext();
+        if (merged && file.next != null) {
+            requestedFiles.add(file);
+        }
+        return Optional.of(ticker);
+    }
+
+    /**
+     * Returns true if all the tickers of a currency pair were replayed.
+     *
+     * @param currencyPair currency pair
+     * @return true if done
+     */
+    synchronized boolean isDone(final CurrencyPairDTO currencyPair) {
+        final TickerSource file = files.get(currencyPair);
+        return file != null && file.done;
+    }
+
+    /**
+     * Returns true if all the tickers of all currency pairs were replayed.
+     *
+     * @return true if done
+     */
+    synchronized boolean isDone() {
+        return files.values().stream().allMatch(file -> file.done);
+    }
+
+    /**
+     * Tickers of a currency pair read one at a time.
+     */
+    private abstract static class TickerSource {
+
+        /** Currency pair. */
+        private final CurrencyPairDTO currencyPair;
+
+        /** Source order (used to sort tickers with the same timestamp). */
+        private final int order;
+
+        /** Next ticker (null once all the tickers have been read). */
+        private TickerDTO next;
+
+        /** True if the currency pair is requested. */
+        private boolean requested;
+
+        /** True if all the tickers were replayed. */
+        private boolean done;
+
+        /**
+         * Constructor.
+         *
+         * @param newCurrencyPair currency pair
+         * @param newOrder        source order
+         */
+        TickerSource(final CurrencyPairDTO newCurrencyPair, final int newOrder) {
+            this.currencyPair = newCurrencyPair;
+            this.order = newOrder;
+        }
+
+        /**
+         * Getter currencyPair.
+         *
+         * @return currencyPair
+         */
+        final CurrencyPairDTO getCurrencyPair() {
+            return currencyPair;
+        }
+
+        /**
+         * Reads the next ticker.
+         */
+        final void readNext() {
+            next = read();
+        }
+
+        /**
+         * Reads a ticker.
+         *
+         * @return ticker (null if all the tickers have been read)
+         */
+        abstract TickerDTO read();
+
+    }
+
+    /**
+     * Tickers file read one line at a time.
+     */
+    private final class TickerFile extends TickerSource {
+
+        /** File name. */
+        private final String fileName;
+
+        /** Field delimiter. */
+        private final String delimiter;
+
+        /** Reader (null once the file has been read). */
+        private BufferedReader reader;
+
+        /**
+         * Constructor - opens the file and reads the first ticker.
+         *
+         * @param newCurrencyPair currency pair
+         * @param resource        tickers file
+         * @param newOrder        file order
+         */
+        TickerFile(final CurrencyPairDTO newCurrencyPair, final Resource resource, final int newOrder) {
+            super(newCurrencyPair, newOrder);
+            this.fileName = resource.getFilename();
+            if (fileName != null && fileName.endsWith("tsv")) {
+                this.delimiter = "\t";
+            } else {
+                this.delimiter = ",";
+            }
+            try {
+                reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                logger.error("{} not found !", fileName);
+            }
+            readNext();
+        }
+
+        @Override
+        TickerDTO read() {
+            try {
+                while (reader != null) {
+                    final String line = reader.readLine();
+                    if (line == null) {
+                        reader.close();
+                        reader = null;
+                    } else if (!line.isBlank()) {
+                        return getTicker(line.split(delimiter));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error reading {} : {}", fileName, e.toString());
+                reader = null;
+            }
+            return null;
+        }
+
+        /**
+         * Returns the ticker of a line.
+         * Fields are : time, open, close, high, low, volume and turnover.
+         *
+         * @param fields line fields
+         * @return ticker
+         */
+        @SuppressWarnings("checkstyle:MagicNumber")
+        private TickerDTO getTicker(final String[] fields) {
+            return TickerDTO.builder()
+                    .currencyPair(getCurrencyPair())
+                    .timestampAsEpochInSeconds(Long.parseLong(clean(fields[0])))
+                    .open(clean(fields[1]))
+                    .last(clean(fields[2]))
+                    .bid(clean(fields[3]))
+                    .ask(clean(fields[4]))
+                    .volume(clean(fields[5]))
+                    .quoteVolume(clean(fields[6]))
+                    .create();
+        }
+
+        /**
+         * Removes quotes and spaces around a field.
+         *
+         * @param field field
+         * @return value
+         */
+        private String clean(final String field) {
+            return field.replaceAll("\"", "").trim();
+        }
+
+    }
+
+    /**
+     * Candles of a currency pair read from the candle store a batch at a time.
+     */
+    private final class StoredCandles extends TickerSource {
+
+        /** Candles of the current batch. */
+        private Iterator<TickerDTO> batch;
+
+        /** Start of the next batch. */
+        private ZonedDateTime nextBatchStart;
+
+        /** Timestamp of the last candle saved. */
+        private final ZonedDateTime lastTimestamp;
+
+        /**
+         * Constructor - reads the first candle.
+         *
+         * @param newCurrencyPair currency pair
+         * @param newOrder        source order
+         */
+        StoredCandles(final CurrencyPairDTO newCurrencyPair, final int newOrder) {
+            super(newCurrencyPair, newOrder);
+            nextBatchStart = candleStore.getFirstTimestamp(newCurrencyPair, candleTimeframe).orElse(null);
+            lastTimestamp = candleStore.getLastTimestamp(newCurrencyPair, candleTimeframe).orElse(null);
+            readNext();
+        }
+
+        @Override
+        TickerDTO read() {
+            try {
+                while ((batch == null || !batch.hasNext()) && nextBatchStart != null && !nextBatchStart.isAfter(lastTimestamp)) {
+                    final ZonedDateTime batchEnd = nextBatchStart.plus(candleTimeframe.multipliedBy(CANDLE_BATCH_SIZE));
+                    batch = candleStore.getCandles(getCurrencyPair(), candleTimeframe, nextBatchStart, batchEnd).iterator();
+                    nextBatchStart = batchEnd;
+                }
+            } catch (UncheckedIOException e) {
+                logger.error("Error reading the candles of {} : {}", getCurrencyPair(), e.getMessage());
+                nextBatchStart = null;
+            }
+            if (batch != null && batch.hasNext()) {
+                return batch.next();
+            }
+            return null;
+        }
+
+    }
+
+}
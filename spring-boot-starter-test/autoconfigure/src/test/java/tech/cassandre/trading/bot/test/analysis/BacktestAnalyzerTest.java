@@ -0,0 +1,179 @@
+package tech.cassandre.trading.bot.test.analysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.bus.EventBus;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Backtest analyzer test")
+public class BacktestAnalyzerTest {
+
+    private final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    private final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(BTC, USDT);
+
+    private final ZonedDateTime start = ZonedDateTime.of(2020, 8, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    @Test
+    @DisplayName("Check report calculated from the events")
+    public void checkReport() {
+        final EventBus eventBus = new EventBus(64);
+        final BacktestAnalyzer analyzer = new BacktestAnalyzer(eventBus);
+        analyzer.setInitialBalance(new BigDecimal("100"));
+        final List<Double> equityCurve = new ArrayList<>();
+        analyzer.setEquityListener((time, equity) -> equityCurve.add(equity));
+        eventBus.start();
+
+        // Position 1 : 10 ETH bought at 1, valued at each ticker, then sold at 1.5 (+50 %).
+        eventBus.publish(getTicker(cp1, 0, "1"));
+        eventBus.publish(getPosition(1, OPENED, cp1, "1", null));
+        eventBus.publish(getTicker(cp1, 1, "2"));
+        eventBus.publish(getTicker(cp1, 2, "0.5"));
+        eventBus.publish(getPosition(1, CLOSED, cp1, "1", "1.5"));
+
+        // Position 2 : only seen closed (+10 %), then received again.
+        eventBus.publish(getPosition(2, CLOSED, cp2, "1", "1.1"));
+        eventBus.publish(getPosition(2, CLOSED, cp2, "1", "1.1"));
+        eventBus.publish(getTrade(cp2, 5));
+
+        await().atMost(10, SECONDS).until(() -> analyzer.getReport().getTradeCount() == 1);
+        eventBus.stop();
+        final BacktestReport report = analyzer.getReport();
+
+        // Equity : balance plus the position valued at the last price.
+        assertEquals(List.of(100d, 110d, 95d, 105d, 106d), equityCurve);
+        assertEquals(106, report.getEquity(), 1e-6);
+        assertEquals(110, report.getPeakEquity(), 1e-6);
+        assertEquals(1 - 95d / 110, report.getMaxDrawdown(), 1e-6);
+
+        // Global statistics.
+        assertTrue(start.isEqual(report.getStartTime()));
+        assertTrue(start.plusHours(5).isEqual(report.getEndTime()));
+        assertEquals(2, report.getClosedPositionCount());
+        assertEquals(2, report.getWinningPositionCount());
+        assertEquals(0, report.getOpenPositionCount());
+        assertEquals(0.3, report.getMeanReturn(), 1e-6);
+        final double deviation = Math.sqrt(2 * 0.2 * 0.2);
+        assertEquals(deviation, report.getReturnStandardDeviation(), 1e-6);
+        assertEquals(0.3 / deviation, report.getSharpeRatio(), 1e-6);
+        assertTrue(Double.isNaN(report.getSortinoRatio()));
+        assertEquals(0.4, report.getExposure(), 1e-6);
+
+        // Currency pair statistics.
+        assertEquals(2, report.getPairStatistics().size());
+        final PairStatistics pair1 = report.getPairStatistics().get(cp1);
+        assertEquals(1, pair1.getClosedPositionCount());
+        assertEquals(1, pair1.getWinningPositionCount());
+        assertEquals(0, new BigDecimal("5").compareTo(pair1.getTotalGain()));
+        assertEquals(50, pair1.getBestGainPercentage(), 1e-3);
+        final PairStatistics pair2 = report.getPairStatistics().get(cp2);
+        assertEquals(1, pair2.getClosedPositionCount());
+        assertEquals(1, pair2.getTradeCount());
+        assertEquals(0, new BigDecimal("1").compareTo(pair2.getTotalGain()));
+        assertTrue(report.toString().contains("closedPositionCount=2"));
+    }
+
+    @Test
+    @DisplayName("Check gain without exact decimal representation")
+    public void checkNonTerminatingGain() {
+        final EventBus eventBus = new EventBus(64);
+        final BacktestAnalyzer analyzer = new BacktestAnalyzer(eventBus);
+        analyzer.setInitialBalance(new BigDecimal("100"));
+        eventBus.start();
+
+        // Bought at 3 and sold at 4 : gain is 1/3.
+        eventBus.publish(getPosition(1, CLOSED, cp1, "3", "4"));
+        eventBus.publish(getTrade(cp1, 1));
+
+        await().atMost(10, SECONDS).until(() -> analyzer.getReport().getTradeCount() == 1);
+        eventBus.stop();
+        final BacktestReport report = analyzer.getReport();
+        assertEquals(1, report.getClosedPositionCount());
+        assertEquals(1, report.getWinningPositionCount());
+        assertEquals(1d / 3, report.getMeanReturn(), 1e-6);
+        assertEquals(100d / 3, report.getPairStatistics().get(cp1).getBestGainPercentage(), 1e-4);
+    }
+
+    /**
+     * Returns a ticker.
+     *
+     * @param currencyPair currency pair
+     * @param hours        hours since the start
+     * @param last         last price
+     * @return ticker
+     */
+    private TickerDTO getTicker(final CurrencyPairDTO currencyPair, final int hours, final String last) {
+        return TickerDTO.builder().currencyPair(currencyPair).last(new BigDecimal(last)).timestampAsEpochInSeconds(start.plusHours(hours).toEpochSecond()).create();
+    }
+
+    /**
+     * Returns a trade.
+     *
+     * @param currencyPair currency pair
+     * @param hours        hours since the start
+     * @return trade
+     */
+    private TradeDTO getTrade(final CurrencyPairDTO currencyPair, final int hours) {
+        return TradeDTO.builder()
+                .id("T" + hours)
+                .orderId("O" + hours)
+                .type(BID)
+                .currencyPair(currencyPair)
+                .originalAmount(BigDecimal.ONE)
+                .price(BigDecimal.ONE)
+                .timestamp(start.plusHours(hours))
+                .create();
+    }
+
+    /**
+     * Returns a position of 10 with the open price and the close price.
+     *
+     * @param id           position id
+     * @param status       status
+     * @param currencyPair currency pair
+     * @param openPrice    open price
+     * @param closePrice   close price (null if not closed)
+     * @return position
+     */
+    private PositionDTO getPosition(final long id,
+                                    final PositionStatusDTO status,
+                                    final CurrencyPairDTO currencyPair,
+                                    final String openPrice,
+                                    final String closePrice) {
+        final TradeDTO openTrade = TradeDTO.builder().id("OPEN" + id).orderId("OPEN" + id).type(BID).currencyPair(currencyPair)
+                .originalAmount(BigDecimal.TEN).price(new BigDecimal(openPrice)).create();
+        if (closePrice == null) {
+            return new PositionDTO(id, status, currencyPair, BigDecimal.TEN, PositionRulesDTO.builder().create(),
+                    "OPEN" + id, null, Set.of(openTrade), null, null);
+        }
+        final TradeDTO closeTrade = TradeDTO.builder().id("CLOSE" + id).orderId("CLOSE" + id).type(ASK).currencyPair(currencyPair)
+                .originalAmount(BigDecimal.TEN).price(new BigDecimal(closePrice)).create();
+        return new PositionDTO(id, status, currencyPair, BigDecimal.TEN, PositionRulesDTO.builder().create(),
+                "OPEN" + id, "CLOSE" + id, Set.of(openTrade, closeTrade), null, null);
+    }
+
+}
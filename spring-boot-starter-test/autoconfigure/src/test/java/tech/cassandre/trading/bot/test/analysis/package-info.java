@@ -0,0 +1,4 @@
+/**
+ * Tests for backtest analysis.
+ */
+package tech.cassandre.trading.bot.test.analysis;
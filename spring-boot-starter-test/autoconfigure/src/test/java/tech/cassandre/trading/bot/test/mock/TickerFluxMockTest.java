@@ -43,9 +43,9 @@ public class TickerFluxMockTest extends BaseTest {
     @Test
     @DisplayName("Check tickers received")
     public void checkTickersReceived() {
-        CurrencyPairDTO cp1 = new CurrencyPairDTO(BTC, USDT);
-        CurrencyPairDTO cp2 = new CurrencyPairDTO(ETH, BTC);
-        CurrencyPairDTO cp3 = new CurrencyPairDTO(KCS, USDT);
+        CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(BTC, USDT);
+        CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(ETH, BTC);
+        CurrencyPairDTO cp3 = CurrencyPairDTO.getInstance(KCS, USDT);
 
         // Check the files we found.
         List<Resource> resources = tickerFluxMock.getFilesToLoad();
@@ -77,13 +77,16 @@ public class TickerFluxMockTest extends BaseTest {
         await().untilAsserted(() -> assertTrue(tickerFluxMock.isFluxDone(cp2)));
         assertFalse(tickerFluxMock.isFluxDone(cp3));
         assertFalse(tickerFluxMock.isFluxDone());
+        // Tickers of both currency pairs are received in timestamp order.
         List<TickerDTO> tickersReceived = strategy.getTickersUpdateReceived();
         assertEquals(1508371200000L, tickersReceived.get(0).getTimestamp().toInstant().toEpochMilli());
-        assertEquals(1508544000000L, tickersReceived.get(1).getTimestamp().toInstant().toEpochMilli());
-        assertEquals(1508457600000L, tickersReceived.get(2).getTimestamp().toInstant().toEpochMilli());
+        assertEquals(1508457600000L, tickersReceived.get(1).getTimestamp().toInstant().toEpochMilli());
+        assertEquals(1508544000000L, tickersReceived.get(2).getTimestamp().toInstant().toEpochMilli());
         assertEquals(1508630400000L, tickersReceived.get(3).getTimestamp().toInstant().toEpochMilli());
-        assertEquals(1508803200000L, tickersReceived.get(4).getTimestamp().toInstant().toEpochMilli());
-        assertEquals(1508716800000L, tickersReceived.get(5).getTimestamp().toInstant().toEpochMilli());
+        assertEquals(1508716800000L, tickersReceived.get(4).getTimestamp().toInstant().toEpochMilli());
+        assertEquals(1508803200000L, tickersReceived.get(5).getTimestamp().toInstant().toEpochMilli());
+        assertEquals(cp1, tickersReceived.get(1).getCurrencyPair());
+        assertEquals(cp2, tickersReceived.get(2).getCurrencyPair());
 
         // Checking some data.
         final Optional<TickerDTO> ticker1 = marketService.getTicker(cp3);
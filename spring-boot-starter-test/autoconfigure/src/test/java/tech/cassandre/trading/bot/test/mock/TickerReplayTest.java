@@ -0,0 +1,134 @@
+package tech.cassandre.trading.bot.test.mock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.candle.CandleStore;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.KCS;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Ticker replay test")
+public class TickerReplayTest {
+
+    private final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(BTC, USDT);
+
+    private final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    private final CurrencyPairDTO cp3 = CurrencyPairDTO.getInstance(KCS, USDT);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Check tickers of requested currency pairs are merged in timestamp order")
+    public void checkMergedReplay() {
+        final TickerReplay replay = new TickerReplay();
+        replay.addFile(cp1, getFile("tickers-BTC-USDT.tsv", "\t", 1, 2, 3, 10, 11, 12));
+        replay.addFile(cp2, getFile("tickers-ETH-BTC.tsv", "\t", 2, 4, 5));
+        replay.addFile(cp3, getFile("tickers-KCS-USDT.csv", ",", 0, 1));
+        replay.addRequestedCurrencyPairs(Set.of(cp1, cp2));
+
+        // A currency pair asked gets its own ticker.
+        assertEquals(cp2, replay.getTicker(cp2).orElseThrow().getCurrencyPair());
+
+        // Then the oldest ticker is returned (the first file first if same time).
+        final List<Long> times = new ArrayList<>();
+        final List<CurrencyPairDTO> currencyPairs = new ArrayList<>();
+        Optional<TickerDTO> ticker = replay.next();
+        while (ticker.isPresent()) {
+            times.add(ticker.get().getTimestamp().toEpochSecond());
+            currencyPairs.add(ticker.get().getCurrencyPair());
+            ticker = replay.next();
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 10L, 11L, 12L), times);
+        assertEquals(List.of(cp1, cp1, cp1, cp2, cp2, cp1, cp1, cp1), currencyPairs);
+        assertTrue(replay.isDone(cp1));
+        assertTrue(replay.isDone(cp2));
+        assertFalse(replay.isDone());
+        assertFalse(replay.getTicker(cp1).isPresent());
+
+        // Currency pairs not requested are replayed on their own.
+        assertEquals(0, replay.getTicker(cp3).orElseThrow().getTimestamp().toEpochSecond());
+        assertEquals(0, new BigDecimal("1").compareTo(replay.getTicker(cp3).orElseThrow().getLast()));
+        assertFalse(replay.getTicker(cp3).isPresent());
+        assertTrue(replay.isDone());
+    }
+
+    @Test
+    @DisplayName("Check candles of the candle store replayed for currency pairs without file")
+    public void checkCandleStoreReplay() {
+        // 2 500 hourly candles of ETH/BTC saved (several batches), a file for BTC/USDT.
+        final Duration timeframe = Duration.ofHours(1);
+        final CandleStore store = new CandleStore(directory);
+        store.append(cp2, timeframe, IntStream.range(0, 2_500)
+                .mapToObj(i -> TickerDTO.builder()
+                        .currencyPair(cp2)
+                        .timestamp(new Date(Duration.ofHours(i + 1).toMillis()))
+                        .last(new BigDecimal(i))
+                        .create())
+                .collect(Collectors.toList()));
+        final TickerReplay replay = new TickerReplay();
+        replay.setCandleStore(store, timeframe);
+        replay.addFile(cp1, getFile("tickers-BTC-USDT.tsv", "\t", 7_200, 10_000_000));
+        replay.addRequestedCurrencyPairs(Set.of(cp1, cp2, cp3));
+
+        // Candles and file tickers are merged, nothing is saved for KCS/USDT.
+        final List<TickerDTO> tickers = new ArrayList<>();
+        Optional<TickerDTO> ticker = replay.next();
+        while (ticker.isPresent()) {
+            tickers.add(ticker.get());
+            ticker = replay.next();
+        }
+        assertEquals(2_502, tickers.size());
+        assertEquals(cp2, tickers.get(0).getCurrencyPair());
+        assertEquals(cp1, tickers.get(1).getCurrencyPair());
+        assertEquals(0, new BigDecimal("2499").compareTo(tickers.get(2_500).getLast()));
+        assertEquals(cp1, tickers.get(2_501).getCurrencyPair());
+        assertTrue(replay.isDone(cp2));
+        assertFalse(replay.getTicker(cp3).isPresent());
+    }
+
+    /**
+     * Returns a tickers file with one ticker for each time (the close price is the time).
+     *
+     * @param name      file name
+     * @param delimiter field delimiter
+     * @param times     times
+     * @return file
+     */
+    private Resource getFile(final String name, final String delimiter, final long... times) {
+        final StringBuilder content = new StringBuilder();
+        for (long time : times) {
+            content.append(String.join(delimiter, "\"" + time + "\"", "1", String.valueOf(time), "1", "1", "1", "1")).append('\n');
+        }
+        return new ByteArrayResource(content.toString().getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return name;
+            }
+        };
+    }
+
+}
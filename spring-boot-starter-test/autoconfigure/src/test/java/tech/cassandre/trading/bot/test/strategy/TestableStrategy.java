@@ -28,8 +28,8 @@ public final class TestableStrategy extends BasicCassandreStrategy {
     @Override
     public Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
         Set<CurrencyPairDTO> list = new LinkedHashSet<>();
-        list.add(new CurrencyPairDTO(BTC, USDT));
-        list.add(new CurrencyPairDTO(ETH, BTC));
+        list.add(CurrencyPairDTO.getInstance(BTC, USDT));
+        list.add(CurrencyPairDTO.getInstance(ETH, BTC));
         return list;
     }
 
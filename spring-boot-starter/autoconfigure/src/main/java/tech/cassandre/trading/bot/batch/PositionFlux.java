@@ -11,14 +11,17 @@ import java.util.Set;
 
 /**
  * Position flux - push {@link PositionDTO}.
+ * Positions notify the flux when they change, so nothing is done while no position changes. By default, a position
+ * update is emitted immediately; with coalescing, the updates are emitted when the flux is updated and a position
+ * changing several times in the meantime is emitted once.
  */
 public class PositionFlux extends BaseFlux<PositionDTO> {
 
-    /** Position service. */
-    private final PositionService positionService;
+    /** Positions changed and not emitted yet. */
+    private final Map<Long, PositionDTO> changedPositions = new LinkedHashMap<>();
 
-    /** Previous values. */
-    private final Map<Long, Long> previousValues = new LinkedHashMap<>();
+    /** True if position updates are coalesced until the next flux update. */
+    private volatile boolean coalescing;
 
     /**
      * Constructor.
@@ -26,36 +29,45 @@ public class PositionFlux extends BaseFlux<PositionDTO> {
      * @param newPositionService position service
      */
     public PositionFlux(final PositionService newPositionService) {
-        this.positionService = newPositionService;
+        newPositionService.setPositionUpdateListener(this::positionUpdate);
     }
 
-    @Override
-    protected final Set<PositionDTO> getNewValues() {
-        getLogger().debug("PositionFlux - Retrieving new values");
-        Set<PositionDTO> newValues = new LinkedHashSet<>();
-
-        // Finding which positions has been updated.
-        positionService.getPositions().forEach(position -> {
-            getLogger().debug("PositionFlux - Treating position : {}", position.getId());
-            Long previousVersion = previousValues.get(position.getId());
-            if (previousVersion == null || !previousVersion.equals(position.getVersion())) {
-                getLogger().debug("PositionFlux - Flux {} has changed : {}", position.getId(), position);
-                previousValues.put(position.getId(), position.getVersion());
-                newValues.add(position);
-            }
-        });
-
-        getLogger().debug("PositionFlux - {} position(s) updated", newValues.size());
-        return newValues;
+    /**
+     * Setter for coalescing.
+     *
+     * @param newCoalescing true to coalesce position updates until the next flux update
+     */
+    public final void setCoalescing(final boolean newCoalescing) {
+        this.coalescing = newCoalescing;
     }
 
     /**
-     * Restore position.
+     * Method called when a position is created or changes.
      *
      * @param position position
      */
-    public final void restorePosition(final PositionDTO position) {
-        previousValues.put(position.getId(), position.getVersion());
+    public final void positionUpdate(final PositionDTO position) {
+        if (coalescing || !isSubscribed()) {
+            synchronized (changedPositions) {
+                changedPositions.put(position.getId(), position);
+            }
+        } else {
+            getLogger().debug("PositionFlux - Position {} has changed : {}", position.getId(), position);
+            emitValue(position);
+        }
+    }
+
+    @Override
+    protected final Set<PositionDTO> getNewValues() {
+        synchronized (changedPositions) {
+            if (changedPositions.isEmpty()) {
+                return Set.of();
+            }
+            final Set<PositionDTO> newValues = new LinkedHashSet<>(changedPositions.values());
+            changedPositions.clear();
+            getLogger().debug("PositionFlux - {} position(s) updated", newValues.size());
+            return newValues;
+        }
     }
 
 }
@@ -1,9 +1,12 @@
 package tech.cassandre.trading.bot.batch;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.service.MarketService;
 import tech.cassandre.trading.bot.util.base.BaseFlux;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.trace.LatencyTracer;
 
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -30,6 +33,12 @@ public class TickerFlux extends BaseFlux<TickerDTO> {
     /** Previous values. */
     private final Map<CurrencyPairDTO, TickerDTO> previousValues = new LinkedHashMap<>();
 
+    /** New tickers received per currency pair. */
+    private final Map<CurrencyPairDTO, Counter> tickerCounters = new LinkedHashMap<>();
+
+    /** Last price gauges per currency pair. */
+    private final Map<CurrencyPairDTO, Gauge> lastPriceGauges = new LinkedHashMap<>();
+
     /**
      * Constructor.
      *
@@ -44,27 +53,79 @@ public class TickerFlux extends BaseFlux<TickerDTO> {
      *
      * @param newRequestedCurrencyPairs new list of requested currency pairs.
      */
-    public void updateRequestedCurrencyPairs(final Set<CurrencyPairDTO> newRequestedCurrencyPairs) {
+    public synchronized void updateRequestedCurrencyPairs(final Set<CurrencyPairDTO> newRequestedCurrencyPairs) {
         requestedCurrencyPairs.addAll(newRequestedCurrencyPairs);
         requestedCurrencyPairs.forEach(cp -> previousValues.put(cp, null));
+
+        // Metrics.
+        newRequestedCurrencyPairs.forEach(cp -> {
+            tickerCounters.put(cp, Counter.builder("cassandre.tickers")
+                    .description("New tickers received")
+                    .tag("currency.pair", cp.toString())
+                    .register(getMeterRegistry()));
+            lastPriceGauges.put(cp, Gauge.builder("cassandre.ticker.last", previousValues, values -> getLastPrice(values.get(cp)))
+                    .description("Last price received")
+                    .tag("currency.pair", cp.toString())
+                    .register(getMeterRegistry()));
+        });
+    }
+
+    /**
+     * Replace the list of requested currency pairs.
+     * Previous values and metrics of the currency pairs no longer requested are removed.
+     *
+     * @param newRequestedCurrencyPairs new list of requested currency pairs.
+     */
+    public synchronized void setRequestedCurrencyPairs(final Set<CurrencyPairDTO> newRequestedCurrencyPairs) {
+        new LinkedHashSet<>(previousValues.keySet())
+                .stream()
+                .filter(cp -> !newRequestedCurrencyPairs.contains(cp))
+                .forEach(cp -> {
+                    previousValues.remove(cp);
+                    final Counter tickerCounter = tickerCounters.remove(cp);
+                    if (tickerCounter != null) {
+                        getMeterRegistry().remove(tickerCounter);
+                    }
+                    final Gauge lastPriceGauge = lastPriceGauges.remove(cp);
+                    if (lastPriceGauge != null) {
+                        getMeterRegistry().remove(lastPriceGauge);
+                    }
+                });
+        requestedCurrencyPairs.clear();
+        lastRequestedCurrencyPairs = null;
+        updateRequestedCurrencyPairs(newRequestedCurrencyPairs);
     }
 
     @Override
-    protected final Set<TickerDTO> getNewValues() {
+    protected final synchronized Set<TickerDTO> getNewValues() {
         getLogger().debug("TickerFlux - Retrieving new values");
         Set<TickerDTO> newValues = new LinkedHashSet<>();
-        getCurrencyPairToTreat()
-                .flatMap(marketService::getTicker)
+        getNextTicker()
                 .ifPresent(t -> {
                     if (!t.equals(previousValues.get(t.getCurrencyPair()))) {
                         getLogger().debug("TickerFlux - New ticker received : {}", t);
-                        previousValues.replace(t.getCurrencyPair(), t);
-                        newValues.add(t);
+                        final TickerDTO emittedTicker = LatencyTracer.emitted(t);
+                        previousValues.replace(t.getCurrencyPair(), emittedTicker);
+                        newValues.add(emittedTicker);
+                        final Counter tickerCounter = tickerCounters.get(t.getCurrencyPair());
+                        if (tickerCounter != null) {
+                            tickerCounter.increment();
+                        }
                     }
                 });
         return newValues;
     }
 
+    /**
+     * Returns the next ticker - the ticker of the next requested currency pair, asked to the market service.
+     * Override it to change the order in which tickers are received (for example to replay historical tickers).
+     *
+     * @return ticker
+     */
+    protected Optional<TickerDTO> getNextTicker() {
+        return getCurrencyPairToTreat().flatMap(marketService::getTicker);
+    }
+
     /**
      * Returns the next currency pair to test.
      *
@@ -95,4 +156,18 @@ public class TickerFlux extends BaseFlux<TickerDTO> {
         return Optional.of(nextCurrencyPairToTreat);
     }
 
+    /**
+     * Returns the last price of a ticker (for metrics).
+     *
+     * @param ticker ticker
+     * @return last price or NaN if unknown
+     */
+    private static double getLastPrice(final TickerDTO ticker) {
+        if (ticker == null || ticker.getLast() == null) {
+            return Double.NaN;
+        } else {
+            return ticker.getLast().doubleValue();
+        }
+    }
+
 }
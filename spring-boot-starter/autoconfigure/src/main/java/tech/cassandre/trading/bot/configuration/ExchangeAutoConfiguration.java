@@ -26,17 +26,29 @@ import tech.cassandre.trading.bot.service.dry.ExchangeServiceDryModeImplementati
 import tech.cassandre.trading.bot.service.dry.TradeServiceDryModeImplementation;
 import tech.cassandre.trading.bot.service.dry.UserServiceDryModeImplementation;
 import tech.cassandre.trading.bot.service.intern.PositionServiceImplementation;
+import tech.cassandre.trading.bot.service.shared.MarketServiceSharedMemoryImplementation;
 import tech.cassandre.trading.bot.service.xchange.ExchangeServiceXChangeImplementation;
 import tech.cassandre.trading.bot.service.xchange.MarketServiceXChangeImplementation;
 import tech.cassandre.trading.bot.service.xchange.TradeServiceXChangeImplementation;
 import tech.cassandre.trading.bot.service.xchange.UserServiceXChangeImplementation;
+import tech.cassandre.trading.bot.util.base.Base;
 import tech.cassandre.trading.bot.util.base.BaseConfiguration;
+import tech.cassandre.trading.bot.util.base.ExchangeExecutor;
+import tech.cassandre.trading.bot.util.base.ExchangeHttpTransport;
+import tech.cassandre.trading.bot.util.candle.CandleStore;
 import tech.cassandre.trading.bot.util.exception.ConfigurationException;
+import tech.cassandre.trading.bot.util.parameters.CandleStoreParameters;
+import tech.cassandre.trading.bot.util.parameters.PositionFluxParameters;
 import tech.cassandre.trading.bot.util.parameters.ExchangeParameters;
+import tech.cassandre.trading.bot.util.parameters.SharedTickersParameters;
+import tech.cassandre.trading.bot.util.shared.TickerRingBuffer;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.StringJoiner;
+import java.util.stream.Stream;
 
 /**
  * ExchangeConfiguration configures the exchange connection.
@@ -44,7 +56,11 @@ import java.util.StringJoiner;
 @Configuration
 @EnableConfigurationProperties({ExchangeParameters.class,
         ExchangeParameters.Modes.class,
-        ExchangeParameters.Rates.class})
+        ExchangeParameters.Rates.class,
+        ExchangeParameters.Http.class,
+        SharedTickersParameters.class,
+        CandleStoreParameters.class,
+        PositionFluxParameters.class})
 public class ExchangeAutoConfiguration extends BaseConfiguration {
 
     /** XChange user sandbox parameter. */
@@ -62,6 +78,18 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
     /** Exchange parameters. */
     private final ExchangeParameters exchangeParameters;
 
+    /** Shared tickers parameters. */
+    private final SharedTickersParameters sharedTickersParameters;
+
+    /** Candle store parameters. */
+    private final CandleStoreParameters candleStoreParameters;
+
+    /** Position flux parameters. */
+    private final PositionFluxParameters positionFluxParameters;
+
+    /** Exchange executor (asynchronous exchange calls). */
+    private ExchangeExecutor exchangeExecutor;
+
     /** Exchange service. */
     private ExchangeService exchangeService;
 
@@ -101,19 +129,28 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
     /**
      * Constructor.
      *
-     * @param newApplicationContext application context
-     * @param newExchangeParameters exchange parameters
-     * @param newTradeRepository    trade repository
-     * @param newPositionRepository position repository
+     * @param newApplicationContext      application context
+     * @param newExchangeParameters      exchange parameters
+     * @param newTradeRepository         trade repository
+     * @param newPositionRepository      position repository
+     * @param newSharedTickersParameters shared tickers parameters
+     * @param newCandleStoreParameters   candle store parameters
+     * @param newPositionFluxParameters  position flux parameters
      */
     public ExchangeAutoConfiguration(final ApplicationContext newApplicationContext,
                                      final ExchangeParameters newExchangeParameters,
                                      final TradeRepository newTradeRepository,
-                                     final PositionRepository newPositionRepository) {
+                                     final PositionRepository newPositionRepository,
+                                     final SharedTickersParameters newSharedTickersParameters,
+                                     final CandleStoreParameters newCandleStoreParameters,
+                                     final PositionFluxParameters newPositionFluxParameters) {
         this.applicationContext = newApplicationContext;
         this.exchangeParameters = newExchangeParameters;
         this.tradeRepository = newTradeRepository;
         this.positionRepository = newPositionRepository;
+        this.sharedTickersParameters = newSharedTickersParameters;
+        this.candleStoreParameters = newCandleStoreParameters;
+        this.positionFluxParameters = newPositionFluxParameters;
     }
 
     /**
@@ -143,6 +180,11 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
                 exchangeSpecification.setProxyPort(exchangeParameters.getProxyPort());
             }
 
+            // HTTP connections (keep-alive, timeouts) shared by all the services.
+            final ExchangeHttpTransport exchangeHttpTransport = new ExchangeHttpTransport(exchangeParameters.getHttp());
+            exchangeHttpTransport.setMeterRegistry(getMeterRegistry());
+            exchangeHttpTransport.configure(exchangeSpecification);
+
             // Creates XChange services.
             final Exchange xChangeExchange = ExchangeFactory.INSTANCE.createExchange(exchangeSpecification);
             final AccountService xChangeAccountService = xChangeExchange.getAccountService();
@@ -154,6 +196,18 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
             long tickerRate = getRateValue(exchangeParameters.getRates().getTicker());
             long tradeRate = getRateValue(exchangeParameters.getRates().getTrade());
 
+            // Retrieve retries after a connection error.
+            final int accountRetries = ExchangeHttpTransport.getRetries(exchangeParameters.getHttp().getAccountRetries());
+            final int tickerRetries = ExchangeHttpTransport.getRetries(exchangeParameters.getHttp().getTickerRetries());
+            final int tradeRetries = ExchangeHttpTransport.getRetries(exchangeParameters.getHttp().getTradeRetries());
+
+            // Creates the threads used by asynchronous exchange calls.
+            if (exchangeParameters.getMaxConcurrentCalls() != null) {
+                exchangeExecutor = new ExchangeExecutor(exchangeParameters.getMaxConcurrentCalls());
+            } else {
+                exchangeExecutor = new ExchangeExecutor(ExchangeExecutor.DEFAULT_MAX_CONCURRENT_CALLS);
+            }
+
             // Creates Cassandre services.
             UserServiceDryModeImplementation userServiceDryMode;
             TradeServiceDryModeImplementation tradeServiceDryMode = null;
@@ -161,9 +215,16 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
                 // Normal mode.
                 getLogger().info("Dry mode is off");
                 this.exchangeService = new ExchangeServiceXChangeImplementation(xChangeExchange);
-                this.userService = new UserServiceXChangeImplementation(accountRate, xChangeAccountService);
-                this.marketService = new MarketServiceXChangeImplementation(tickerRate, xChangeMarketDataService);
-                this.tradeService = new TradeServiceXChangeImplementation(tradeRate, xChangeTradeService, tradeRepository);
+                final UserServiceXChangeImplementation userServiceXChange = new UserServiceXChangeImplementation(accountRate, xChangeAccountService);
+                userServiceXChange.setRetries(accountRetries);
+                this.userService = userServiceXChange;
+                final MarketServiceXChangeImplementation marketServiceXChange = new MarketServiceXChangeImplementation(tickerRate, xChangeMarketDataService);
+                marketServiceXChange.setRetries(tickerRetries);
+                this.marketService = marketServiceXChange;
+                final TradeServiceXChangeImplementation tradeServiceXChange = new TradeServiceXChangeImplementation(tradeRate, xChangeTradeService, tradeRepository);
+                tradeServiceXChange.setExchangeExecutor(exchangeExecutor);
+                tradeServiceXChange.setRetries(tradeRetries);
+                this.tradeService = tradeServiceXChange;
                 this.positionService = new PositionServiceImplementation(tradeService, positionRepository);
             } else {
                 // Dry mode.
@@ -171,18 +232,42 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
                 this.exchangeService = new ExchangeServiceDryModeImplementation(applicationContext);
                 userServiceDryMode = new UserServiceDryModeImplementation();
                 this.userService = userServiceDryMode;
-                this.marketService = new MarketServiceXChangeImplementation(tickerRate, xChangeMarketDataService);
+                final MarketServiceXChangeImplementation marketServiceXChange = new MarketServiceXChangeImplementation(tickerRate, xChangeMarketDataService);
+                marketServiceXChange.setRetries(tickerRetries);
+                this.marketService = marketServiceXChange;
                 tradeServiceDryMode = new TradeServiceDryModeImplementation(userServiceDryMode, tradeRepository);
                 this.tradeService = tradeServiceDryMode;
                 this.positionService = new PositionServiceImplementation(tradeService, positionRepository);
             }
 
+            // Historical bars saved in the local candle store.
+            if (candleStoreParameters.getDirectory() != null && marketService instanceof MarketServiceXChangeImplementation) {
+                getLogger().info("Historical bars are saved in {}", candleStoreParameters.getDirectory());
+                ((MarketServiceXChangeImplementation) marketService).setCandleStore(new CandleStore(Paths.get(candleStoreParameters.getDirectory())));
+            }
+
+            // Tickers published by another bot running on the same host.
+            if (sharedTickersParameters.isConsumer()) {
+                getLogger().info("Tickers are read from {}", sharedTickersParameters.getFile());
+                this.marketService = new MarketServiceSharedMemoryImplementation(new TickerRingBuffer(Paths.get(sharedTickersParameters.getFile()),
+                        sharedTickersParameters.getCapacity(),
+                        sharedTickersParameters.getMaxTickerAge()));
+            }
+
             // Creates Cassandre flux.
             accountFlux = new AccountFlux(userService);
             tickerFlux = new TickerFlux(marketService);
             orderFlux = new OrderFlux(tradeService);
             tradeFlux = new TradeFlux(tradeService);
             positionFlux = new PositionFlux(positionService);
+            positionFlux.setCoalescing(positionFluxParameters.isCoalescing());
+
+            // Meters registered in the application meter registry.
+            Stream.of(exchangeService, userService, marketService, tradeService, positionService)
+                    .filter(Base.class::isInstance)
+                    .forEach(service -> ((Base) service).setMeterRegistry(getMeterRegistry()));
+            Stream.of(accountFlux, tickerFlux, orderFlux, tradeFlux, positionFlux)
+                    .forEach(flux -> flux.setMeterRegistry(getMeterRegistry()));
 
             // Force login to check credentials.
             xChangeAccountService.getAccountInfo();
@@ -220,6 +305,16 @@ public class ExchangeAutoConfiguration extends BaseConfiguration {
         }
     }
 
+    /**
+     * Stops the exchange executor.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (exchangeExecutor != null) {
+            exchangeExecutor.shutdown();
+        }
+    }
+
     /**
      * Returns the XChange class based on the exchange name.
      *
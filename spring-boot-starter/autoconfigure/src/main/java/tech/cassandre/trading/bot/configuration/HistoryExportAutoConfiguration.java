@@ -0,0 +1,74 @@
+package tech.cassandre.trading.bot.configuration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.util.base.BaseConfiguration;
+import tech.cassandre.trading.bot.util.export.HistoryExporter;
+import tech.cassandre.trading.bot.util.parameters.HistoryExportParameters;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+
+/**
+ * HistoryExportAutoConfiguration schedules the export of the trades and positions saved in database.
+ */
+@Configuration
+@EnableConfigurationProperties(HistoryExportParameters.class)
+public class HistoryExportAutoConfiguration extends BaseConfiguration {
+
+    /** History export parameters. */
+    private final HistoryExportParameters historyExportParameters;
+
+    /** Trade repository. */
+    private final TradeRepository tradeRepository;
+
+    /** Position repository. */
+    private final PositionRepository positionRepository;
+
+    /** History exporter (null if not configured). */
+    private HistoryExporter historyExporter;
+
+    /**
+     * Constructor.
+     *
+     * @param newHistoryExportParameters history export parameters
+     * @param newTradeRepository         trade repository
+     * @param newPositionRepository      position repository
+     */
+    public HistoryExportAutoConfiguration(final HistoryExportParameters newHistoryExportParameters,
+                                          final TradeRepository newTradeRepository,
+                                          final PositionRepository newPositionRepository) {
+        this.historyExportParameters = newHistoryExportParameters;
+        this.tradeRepository = newTradeRepository;
+        this.positionRepository = newPositionRepository;
+    }
+
+    /**
+     * Starts the exports if a directory is set.
+     */
+    @PostConstruct
+    public void configure() {
+        if (historyExportParameters.getDirectory() != null) {
+            historyExporter = new HistoryExporter(Paths.get(historyExportParameters.getDirectory()),
+                    tradeRepository,
+                    positionRepository);
+            historyExporter.start(historyExportParameters.getInterval());
+            getLogger().info("History is exported to {} every {}",
+                    historyExportParameters.getDirectory(), historyExportParameters.getInterval());
+        }
+    }
+
+    /**
+     * Stops the exports.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (historyExporter != null) {
+            historyExporter.stop();
+        }
+    }
+
+}
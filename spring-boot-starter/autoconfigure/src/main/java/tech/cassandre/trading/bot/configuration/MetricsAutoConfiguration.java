@@ -0,0 +1,27 @@
+package tech.cassandre.trading.bot.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import tech.cassandre.trading.bot.util.base.BaseConfiguration;
+import tech.cassandre.trading.bot.util.trace.LatencyTracer;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * MetricsAutoConfiguration configures metrics.
+ * Cassandre meters are registered in the meter registry declared in the application (for example, the one created by
+ * spring boot actuator), or in the micrometer global registry if there is none. Services and flux get it from the
+ * exchange configuration, this configuration gives it to the latency tracer.
+ */
+@Configuration
+public class MetricsAutoConfiguration extends BaseConfiguration {
+
+    /**
+     * Sets the meter registry of the latency tracer.
+     */
+    @PostConstruct
+    public void configure() {
+        getLogger().info("MetricsConfiguration - Publishing metrics to {}", getMeterRegistry().getClass().getSimpleName());
+        LatencyTracer.setMeterRegistry(getMeterRegistry());
+    }
+
+}
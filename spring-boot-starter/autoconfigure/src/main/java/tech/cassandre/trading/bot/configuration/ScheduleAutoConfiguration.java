@@ -90,7 +90,7 @@ public class ScheduleAutoConfiguration {
     }
 
     /**
-     * Recurrent calls the position flux.
+     * Recurrent calls the position flux (emits the position updates coalesced or received before the subscription).
      */
     @Scheduled(fixedDelay = ONE_SECOND, initialDelay = ONE_SECOND)
     public void setPositionFlux() {
@@ -1,8 +1,10 @@
 package tech.cassandre.trading.bot.configuration;
 
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import reactor.core.publisher.ConnectableFlux;
 import tech.cassandre.trading.bot.batch.AccountFlux;
 import tech.cassandre.trading.bot.batch.OrderFlux;
 import tech.cassandre.trading.bot.batch.PositionFlux;
@@ -10,41 +12,59 @@ import tech.cassandre.trading.bot.batch.TickerFlux;
 import tech.cassandre.trading.bot.batch.TradeFlux;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.position.PositionDTO;
-import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
-import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
-import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
 import tech.cassandre.trading.bot.dto.user.UserDTO;
-import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
-import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.repository.NodeRepository;
 import tech.cassandre.trading.bot.repository.PositionRepository;
 import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.service.MarketService;
 import tech.cassandre.trading.bot.service.PositionService;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.service.UserService;
 import tech.cassandre.trading.bot.service.dry.TradeServiceDryModeImplementation;
 import tech.cassandre.trading.bot.service.dry.UserServiceDryModeImplementation;
+import tech.cassandre.trading.bot.service.intern.PositionServiceImplementation;
+import tech.cassandre.trading.bot.strategy.BasicTa4jCassandreStrategy;
 import tech.cassandre.trading.bot.strategy.CassandreStrategy;
 import tech.cassandre.trading.bot.strategy.CassandreStrategyInterface;
 import tech.cassandre.trading.bot.strategy.GenericCassandreStrategy;
 import tech.cassandre.trading.bot.util.base.BaseConfiguration;
+import tech.cassandre.trading.bot.util.bus.EventBus;
 import tech.cassandre.trading.bot.util.exception.ConfigurationException;
+import tech.cassandre.trading.bot.util.journal.EventJournal;
+import tech.cassandre.trading.bot.util.parameters.JournalParameters;
+import tech.cassandre.trading.bot.util.parameters.ShardingParameters;
+import tech.cassandre.trading.bot.util.parameters.SharedTickersParameters;
+import tech.cassandre.trading.bot.util.shared.TickerRingBuffer;
+import tech.cassandre.trading.bot.util.sharding.PositionRebalancer;
+import tech.cassandre.trading.bot.util.sharding.ShardCoordinator;
+import tech.cassandre.trading.bot.util.trace.LatencyTracer;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static tech.cassandre.trading.bot.util.mapper.EntityMapper.getPositionDTO;
+import static tech.cassandre.trading.bot.util.mapper.EntityMapper.getTradeDTO;
 
 /**
  * StrategyAutoConfiguration configures the strategy.
  */
 @Configuration
+@EnableConfigurationProperties({JournalParameters.class,
+        ShardingParameters.class})
 public class StrategyAutoConfiguration extends BaseConfiguration {
 
     /** Application context. */
@@ -56,6 +76,9 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
     /** Position service. */
     private final PositionService positionService;
 
+    /** Market service. */
+    private final MarketService marketService;
+
     /** User service. */
     private final UserService userService;
 
@@ -80,37 +103,69 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
     /** Trade repository. */
     private final TradeRepository tradeRepository;
 
+    /** Journal parameters. */
+    private final JournalParameters journalParameters;
+
+    /** Node repository. */
+    private final NodeRepository nodeRepository;
+
+    /** Sharding parameters. */
+    private final ShardingParameters shardingParameters;
+
+    /** Shared tickers parameters. */
+    private final SharedTickersParameters sharedTickersParameters;
+
+    /** Event bus. */
+    private EventBus eventBus;
+
+    /** Event journal (null if not configured). */
+    private EventJournal journal;
+
+    /** Shard coordinator (null if sharding is disabled). */
+    private ShardCoordinator shardCoordinator;
+
     /**
      * Constructor.
      *
-     * @param newApplicationContext application context
-     * @param newUserService        user service
-     * @param newTradeService       trade service
-     * @param newPositionService    position service
-     * @param newAccountFlux        account flux
-     * @param newTickerFlux         ticker flux
-     * @param newOrderFlux          order flux
-     * @param newTradeFlux          trade flux
-     * @param newPositionFlux       position flux
-     * @param newPositionRepository position repository
-     * @param newTradeRepository    trade repository
+     * @param newApplicationContext      application context
+     * @param newUserService             user service
+     * @param newTradeService            trade service
+     * @param newPositionService         position service
+     * @param newMarketService           market service
+     * @param newAccountFlux             account flux
+     * @param newTickerFlux              ticker flux
+     * @param newOrderFlux               order flux
+     * @param newTradeFlux               trade flux
+     * @param newPositionFlux            position flux
+     * @param newPositionRepository      position repository
+     * @param newTradeRepository         trade repository
+     * @param newJournalParameters       journal parameters
+     * @param newNodeRepository          node repository
+     * @param newShardingParameters      sharding parameters
+     * @param newSharedTickersParameters shared tickers parameters
      */
     @SuppressWarnings("checkstyle:ParameterNumber")
     public StrategyAutoConfiguration(final ApplicationContext newApplicationContext,
                                      final UserService newUserService,
                                      final TradeService newTradeService,
                                      final PositionService newPositionService,
+                                     final MarketService newMarketService,
                                      final AccountFlux newAccountFlux,
                                      final TickerFlux newTickerFlux,
                                      final OrderFlux newOrderFlux,
                                      final TradeFlux newTradeFlux,
                                      final PositionFlux newPositionFlux,
                                      final PositionRepository newPositionRepository,
-                                     final TradeRepository newTradeRepository) {
+                                     final TradeRepository newTradeRepository,
+                                     final JournalParameters newJournalParameters,
+                                     final NodeRepository newNodeRepository,
+                                     final ShardingParameters newShardingParameters,
+                                     final SharedTickersParameters newSharedTickersParameters) {
         this.applicationContext = newApplicationContext;
         this.userService = newUserService;
         this.tradeService = newTradeService;
         this.positionService = newPositionService;
+        this.marketService = newMarketService;
         this.accountFlux = newAccountFlux;
         this.tickerFlux = newTickerFlux;
         this.orderFlux = newOrderFlux;
@@ -118,6 +173,10 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
         this.positionFlux = newPositionFlux;
         this.positionRepository = newPositionRepository;
         this.tradeRepository = newTradeRepository;
+        this.journalParameters = newJournalParameters;
+        this.nodeRepository = newNodeRepository;
+        this.shardingParameters = newShardingParameters;
+        this.sharedTickersParameters = newSharedTickersParameters;
     }
 
     /**
@@ -188,41 +247,72 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
         // Setting services.
         strategy.setTradeService(tradeService);
         strategy.setPositionService(positionService);
+        if (journalParameters.getDirectory() != null) {
+            journal = new EventJournal(Paths.get(journalParameters.getDirectory()),
+                    journalParameters.getSnapshotInterval(),
+                    journalParameters.getSegmentSize());
+        }
         restoreData(strategy);
+        if (journal != null) {
+            journal.start();
+        }
+        warmUp(strategy);
 
-        // Account flux.
-        final ConnectableFlux<AccountDTO> connectableAccountFlux = accountFlux.getFlux().publish();
-        connectableAccountFlux.subscribe(strategy::accountUpdate);
-        connectableAccountFlux.connect();
-
-        // Position flux.
-        final ConnectableFlux<PositionDTO> connectablePositionFlux = positionFlux.getFlux().publish();
-        connectablePositionFlux.subscribe(strategy::positionUpdate);        // For strategy.
-        connectablePositionFlux.subscribe(positionService::backupPosition); // For position backup.
-        connectablePositionFlux.connect();
-
-        // Order flux.
-        final ConnectableFlux<OrderDTO> connectableOrderFlux = orderFlux.getFlux().publish();
-        connectableOrderFlux.subscribe(strategy::orderUpdate);
-        connectableOrderFlux.connect();
-
-        // Trade flux to strategy.
-        final ConnectableFlux<TradeDTO> connectableTradeFlux = tradeFlux.getFlux().publish();
-        connectableTradeFlux.subscribe(strategy::tradeUpdate);              // For strategy.
-        connectableTradeFlux.subscribe(positionService::tradeUpdate);       // For position service.
-        connectableTradeFlux.subscribe(tradeService::backupTrade);          // For trade backup.
-        connectableTradeFlux.connect();
-
-        // Ticker flux.
-        tickerFlux.updateRequestedCurrencyPairs(strategy.getRequestedCurrencyPairs());
-        final ConnectableFlux<TickerDTO> connectableTickerFlux = tickerFlux.getFlux().publish();
-        connectableTickerFlux.subscribe(strategy::tickerUpdate);            // For strategy.
-        connectableTickerFlux.subscribe(positionService::tickerUpdate);     // For position service.
+        // Events are dispatched to the strategy, services and backups by the event bus thread.
+        eventBus = new EventBus(EventBus.DEFAULT_CAPACITY);
+        if (positionService instanceof PositionServiceImplementation) {
+            // Asynchronous position creations are completed by the event bus thread.
+            ((PositionServiceImplementation) positionService).setCallbackExecutor(eventBus);
+        }
+
+        // Account events.
+        eventBus.subscribe(AccountDTO.class, timed("accountUpdate", strategy::accountUpdate));
+
+        // Position events.
+        eventBus.subscribe(PositionDTO.class, timed("positionUpdate", strategy::positionUpdate));  // For strategy.
+        eventBus.subscribe(PositionDTO.class, positionService::backupPosition);                     // For position backup.
+        if (journal != null) {
+            eventBus.subscribe(PositionDTO.class, journal::positionUpdate);                         // For journal.
+        }
+
+        // Order events.
+        eventBus.subscribe(OrderDTO.class, timed("orderUpdate", strategy::orderUpdate));
+        if (journal != null) {
+            eventBus.subscribe(OrderDTO.class, journal::orderUpdate);
+        }
+
+        // Trade events.
+        eventBus.subscribe(TradeDTO.class, timed("tradeUpdate", strategy::tradeUpdate));           // For strategy.
+        eventBus.subscribe(TradeDTO.class, positionService::tradeUpdate);                           // For position service.
+        eventBus.subscribe(TradeDTO.class, tradeService::backupTrade);                              // For trade backup.
+        if (journal != null) {
+            eventBus.subscribe(TradeDTO.class, journal::tradeUpdate);                               // For journal.
+        }
+
+        // Ticker events.
+        eventBus.subscribe(TickerDTO.class, timed("tickerUpdate", traced(strategy::tickerUpdate))); // For strategy.
+        eventBus.subscribe(TickerDTO.class, traced(positionService::tickerUpdate));                  // For position service.
+        if (journal != null) {
+            eventBus.subscribe(TickerDTO.class, journal::tickerUpdate);                              // For journal.
+        }
+        // If publisher, tickers are shared with the other bots running on the same host.
+        if (sharedTickersParameters.isPublisher()) {
+            final TickerRingBuffer tickerRingBuffer = new TickerRingBuffer(Paths.get(sharedTickersParameters.getFile()),
+                    sharedTickersParameters.getCapacity());
+            eventBus.subscribe(TickerDTO.class, tickerRingBuffer::publish);
+        }
         // if in dry mode, we also send the ticker to the dry mode.
         if (tradeService instanceof TradeServiceDryModeImplementation) {
-            connectableTickerFlux.subscribe(((TradeServiceDryModeImplementation) tradeService)::tickerUpdate);
+            eventBus.subscribe(TickerDTO.class, ((TradeServiceDryModeImplementation) tradeService)::tickerUpdate);
         }
-        connectableTickerFlux.connect();
+        eventBus.start();
+
+        // Fluxes publish their values to the event bus.
+        accountFlux.getFlux().subscribe(eventBus::publish);
+        positionFlux.getFlux().subscribe(eventBus::publish);
+        orderFlux.getFlux().subscribe(eventBus::publish);
+        tradeFlux.getFlux().subscribe(eventBus::publish);
+        startTickerFlux(strategy);
 
         // If in dry mode, we setup dependencies.
         if (userService instanceof UserServiceDryModeImplementation) {
@@ -231,36 +321,134 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
     }
 
     /**
-     * Restore data from database.
+     * Sets the currency pairs requested to the ticker flux and publishes its tickers to the event bus.
+     *
+     * @param strategy strategy
+     */
+    private void startTickerFlux(final CassandreStrategyInterface strategy) {
+        if (shardingParameters.isEnabled()) {
+            // Currency pairs are shared with the other nodes.
+            String nodeId = shardingParameters.getNodeId();
+            if (nodeId == null) {
+                nodeId = UUID.randomUUID().toString();
+            }
+            // Positions follow their currency pair (all of them were restored at startup).
+            final PositionRebalancer positionRebalancer = new PositionRebalancer(positionRepository,
+                    tradeRepository,
+                    positionService,
+                    p -> restorePosition(strategy, p),
+                    p -> removePosition(strategy, p),
+                    eventBus,
+                    strategy.getRequestedCurrencyPairs());
+            shardCoordinator = new ShardCoordinator(nodeId,
+                    nodeRepository,
+                    strategy.getRequestedCurrencyPairs(),
+                    shardingParameters.getNodeTimeout(),
+                    currencyPairs -> {
+                        positionRebalancer.accept(currencyPairs);
+                        tickerFlux.setRequestedCurrencyPairs(currencyPairs);
+                    });
+            // Positions that couldn't be loaded are loaded again at the next heartbeat.
+            shardCoordinator.setHeartbeatListener(positionRebalancer::retry);
+            shardCoordinator.start(shardingParameters.getHeartbeatInterval());
+        } else {
+            tickerFlux.updateRequestedCurrencyPairs(strategy.getRequestedCurrencyPairs());
+        }
+        tickerFlux.getFlux().subscribe(eventBus::publish);
+    }
+
+    /**
+     * Getter for eventBus.
+     *
+     * @return eventBus
+     */
+    @Bean
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Stops the event bus and the shard coordinator and closes the journal.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (eventBus != null) {
+            eventBus.stop();
+        }
+        if (shardCoordinator != null) {
+            shardCoordinator.stop();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Returns a strategy callback that records its execution time.
+     *
+     * @param callbackName callback name
+     * @param callback     strategy callback
+     * @param <T>          callback parameter type
+     * @return timed callback
+     */
+    private <T> Consumer<T> timed(final String callbackName, final Consumer<T> callback) {
+        final Timer timer = Timer.builder("cassandre.strategy.callback")
+                .description("Time spent in strategy callbacks")
+                .tag("callback", callbackName)
+                .register(getMeterRegistry());
+        return value -> timer.record(() -> callback.accept(value));
+    }
+
+    /**
+     * Returns a ticker callback that binds the ticker latency trace to the orders it creates.
+     *
+     * @param callback ticker callback
+     * @return traced callback
+     */
+    private Consumer<TickerDTO> traced(final Consumer<TickerDTO> callback) {
+        return ticker -> LatencyTracer.runWith(ticker.getTrace(), () -> callback.accept(ticker));
+    }
+
+    /**
+     * Loads historical bars in the series of a ta4j strategy so its indicators are meaningful from the first ticker.
+     *
+     * @param strategy strategy
+     */
+    private void warmUp(final CassandreStrategyInterface strategy) {
+        if (strategy instanceof BasicTa4jCassandreStrategy) {
+            final BasicTa4jCassandreStrategy ta4jStrategy = (BasicTa4jCassandreStrategy) strategy;
+            final int barCount = ta4jStrategy.warmUp(marketService.getHistoricalTickers(ta4jStrategy.getRequestedCurrencyPair(),
+                    ta4jStrategy.getDelayBetweenTwoBars(),
+                    ta4jStrategy.getMaximumBarCount()));
+            getLogger().info("StrategyConfiguration - {} historical bar(s) loaded in the series", barCount);
+        }
+    }
+
+    /**
+     * Restore data from database then, if there is a journal, the trades and positions saved since then.
+     * The journal only keeps the positions not closed and the latest trades, the database keeps the history.
      *
      * @param strategy strategy
      */
     private void restoreData(final CassandreStrategyInterface strategy) {
+        // Read before the database data is restored in the journal.
+        Set<TradeDTO> journalTrades = Collections.emptySet();
+        Set<PositionDTO> journalPositions = Collections.emptySet();
+        if (journal != null && journal.hasRestoredData()) {
+            journalTrades = journal.getRestoredTrades();
+            journalPositions = journal.getRestoredPositions();
+        }
+
         // Restoring all trades.
-        final Map<String, TradeDTO> tradesByOrderId = new LinkedHashMap<>();
         final Map<String, TradeDTO> tradesById = new LinkedHashMap<>();
         getLogger().info("Restoring trades from database");
         AtomicInteger tradeCount = new AtomicInteger(0);
         tradeRepository.findByOrderByTimestampAsc()
                 .forEach(trade -> {
-                    TradeDTO t = TradeDTO.builder()
-                            .id(trade.getId())
-                            .orderId(trade.getOrderId())
-                            .type(OrderTypeDTO.valueOf(trade.getType()))
-                            .originalAmount(trade.getOriginalAmount())
-                            .currencyPair(new CurrencyPairDTO(trade.getCurrencyPair()))
-                            .price(trade.getPrice())
-                            .timestamp(trade.getTimestamp())
-                            .feeAmount(trade.getFeeAmount())
-                            .feeCurrency(new CurrencyDTO(trade.getFeeCurrency()))
-                            .create();
-                    tradesByOrderId.put(t.getOrderId(), t);
+                    TradeDTO t = getTradeDTO(trade);
                     tradesById.put(t.getId(), t);
-                    strategy.restoreTrade(t);
-                    tradeService.restoreTrade(t);
-                    tradeFlux.restoreTrade(t);
+                    restoreTrade(strategy, t);
                     tradeCount.incrementAndGet();
-                    getLogger().info("Trade " + trade.getOrderId() + " restored : " + t);
                 });
         getLogger().info(tradeCount.get() + " trade(s) restored");
 
@@ -268,48 +456,65 @@ public class StrategyAutoConfiguration extends BaseConfiguration {
         getLogger().info("Restoring positions from database");
         AtomicInteger positionCount = new AtomicInteger(0);
         positionRepository.findAll().forEach(position -> {
-            PositionRulesDTO rules = PositionRulesDTO.builder().create();
-            boolean stopGainRuleSet = position.getStopGainPercentageRule() != null;
-            boolean stopLossRuleSet = position.getStopLossPercentageRule() != null;
-            // Two rules set.
-            if (stopGainRuleSet && stopLossRuleSet) {
-                rules = PositionRulesDTO.builder()
-                        .stopGainPercentage(position.getStopGainPercentageRule())
-                        .stopLossPercentage(position.getStopLossPercentageRule())
-                        .create();
-            }
-            // Stop gain set.
-            if (stopGainRuleSet && !stopLossRuleSet) {
-                rules = PositionRulesDTO.builder()
-                        .stopGainPercentage(position.getStopGainPercentageRule())
-                        .create();
-            }
-            // Stop loss set.
-            if (!stopGainRuleSet && stopLossRuleSet) {
-                rules = PositionRulesDTO.builder()
-                        .stopLossPercentage(position.getStopLossPercentageRule())
-                        .create();
-            }
-            Set<TradeDTO> positionTrades = new LinkedHashSet<>();
-            position.getTrades()
-                    .forEach(s -> positionTrades.add(tradesById.get(s)));
-            PositionDTO p = new PositionDTO(position.getId(),
-                    PositionStatusDTO.valueOf(position.getStatus()),
-                    new CurrencyPairDTO(position.getCurrencyPair()),
-                    position.getAmount(),
-                    rules,
-                    position.getOpenOrderId(),
-                    position.getCloseOrderId(),
-                    positionTrades,
-                    position.getLowestPrice(),
-                    position.getHighestPrice());
-            positionService.restorePosition(p);
-            strategy.restorePosition(p);
-            positionFlux.restorePosition(p);
+            PositionDTO p = getPositionDTO(position, tradesById);
+            restorePosition(strategy, p);
             positionCount.incrementAndGet();
-            getLogger().info("Position " + position.getId() + " restored : " + p);
         });
         getLogger().info(positionCount.get() + " position(s) restored");
+
+        // Restoring the trades and positions of the journal (more recent than the database ones).
+        if (!journalTrades.isEmpty() || !journalPositions.isEmpty()) {
+            getLogger().info("Restoring trades and positions from journal");
+            journalTrades.forEach(t -> restoreTrade(strategy, t));
+            getLogger().info(journalTrades.size() + " trade(s) restored");
+            journalPositions.forEach(p -> restorePosition(strategy, p));
+            getLogger().info(journalPositions.size() + " position(s) restored");
+        }
+    }
+
+    /**
+     * Restore a trade.
+     *
+     * @param strategy strategy
+     * @param trade    trade
+     */
+    private void restoreTrade(final CassandreStrategyInterface strategy, final TradeDTO trade) {
+        strategy.restoreTrade(trade);
+        tradeService.restoreTrade(trade);
+        tradeFlux.restoreTrade(trade);
+        if (journal != null) {
+            journal.restoreTrade(trade);
+        }
+        getLogger().info("Trade " + trade.getOrderId() + " restored : " + trade);
+    }
+
+    /**
+     * Restore a position.
+     *
+     * @param strategy strategy
+     * @param position position
+     */
+    private void restorePosition(final CassandreStrategyInterface strategy, final PositionDTO position) {
+        positionService.restorePosition(position);
+        strategy.restorePosition(position);
+        if (journal != null) {
+            journal.restorePosition(position);
+        }
+        getLogger().info("Position " + position.getId() + " restored : " + position);
+    }
+
+    /**
+     * Remove a position moved to another node.
+     *
+     * @param strategy strategy
+     * @param position position
+     */
+    private void removePosition(final CassandreStrategyInterface strategy, final PositionDTO position) {
+        strategy.removePosition(position);
+        if (journal != null) {
+            journal.removePosition(position);
+        }
+        getLogger().info("Position " + position.getId() + " removed : " + position);
     }
 
 }
@@ -0,0 +1,61 @@
+package tech.cassandre.trading.bot.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.ZonedDateTime;
+
+/**
+ * Node (used to share currency pairs between bots running the same strategy).
+ */
+@Entity
+@Table(name = "NODES")
+public class Node {
+
+    /** Node id. */
+    @Id
+    @Column(name = "ID")
+    private String id;
+
+    /** Last time the node said it was alive. */
+    @Column(name = "HEARTBEAT")
+    private ZonedDateTime heartbeat;
+
+    /**
+     * Getter id.
+     *
+     * @return id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Setter id.
+     *
+     * @param newId the id to set
+     */
+    public void setId(final String newId) {
+        id = newId;
+    }
+
+    /**
+     * Getter heartbeat.
+     *
+     * @return heartbeat
+     */
+    public ZonedDateTime getHeartbeat() {
+        return heartbeat;
+    }
+
+    /**
+     * Setter heartbeat.
+     *
+     * @param newHeartbeat the heartbeat to set
+     */
+    public void setHeartbeat(final ZonedDateTime newHeartbeat) {
+        heartbeat = newHeartbeat;
+    }
+
+}
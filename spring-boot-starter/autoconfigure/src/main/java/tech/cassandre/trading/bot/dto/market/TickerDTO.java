@@ -1,6 +1,7 @@
 package tech.cassandre.trading.bot.dto.market;
 
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.dto.util.LatencyTraceDTO;
 
 import java.math.BigDecimal;
 import java.time.ZoneId;
@@ -53,6 +54,9 @@ public final class TickerDTO {
     /** Information timestamp. */
     private final ZonedDateTime timestamp;
 
+    /** Latency trace (not part of equals/hashCode). */
+    private final LatencyTraceDTO trace;
+
     /**
      * Builder constructor.
      *
@@ -76,6 +80,30 @@ public final class TickerDTO {
         } else {
             timestamp = ZonedDateTime.now();
         }
+        trace = new LatencyTraceDTO(timestamp.toInstant().toEpochMilli());
+    }
+
+    /**
+     * Constructor of a ticker with another latency trace.
+     *
+     * @param ticker   ticker
+     * @param newTrace latency trace
+     */
+    private TickerDTO(final TickerDTO ticker, final LatencyTraceDTO newTrace) {
+        this.currencyPair = ticker.currencyPair;
+        this.bidSize = ticker.bidSize;
+        this.ask = ticker.ask;
+        this.low = ticker.low;
+        this.volume = ticker.volume;
+        this.askSize = ticker.askSize;
+        this.bid = ticker.bid;
+        this.vwap = ticker.vwap;
+        this.open = ticker.open;
+        this.last = ticker.last;
+        this.high = ticker.high;
+        this.quoteVolume = ticker.quoteVolume;
+        this.timestamp = ticker.timestamp;
+        this.trace = newTrace;
     }
 
     /**
@@ -204,6 +232,25 @@ public final class TickerDTO {
         return timestamp;
     }
 
+    /**
+     * Getter for trace.
+     *
+     * @return trace
+     */
+    public LatencyTraceDTO getTrace() {
+        return trace;
+    }
+
+    /**
+     * Returns a copy of this ticker with another latency trace.
+     *
+     * @param newTrace latency trace
+     * @return ticker
+     */
+    public TickerDTO withTrace(final LatencyTraceDTO newTrace) {
+        return new TickerDTO(this, newTrace);
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
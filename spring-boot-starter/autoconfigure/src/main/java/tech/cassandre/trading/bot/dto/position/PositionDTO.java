@@ -8,6 +8,7 @@ import tech.cassandre.trading.bot.dto.util.GainDTO;
 import tech.cassandre.trading.bot.util.exception.PositionException;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
 import java.util.HashSet;
@@ -17,6 +18,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
@@ -59,8 +63,29 @@ public class PositionDTO {
     /** The trades that closed the position. */
     private final Map<String, TradeDTO> trades = new LinkedHashMap<>();
 
-    /** Last calculated gain from the last ticker received. */
-    private GainDTO lastCalculatedGain;
+    /** Amount bought by the open trades. */
+    private BigDecimal openedAmount = BigDecimal.ZERO;
+
+    /** Cost of the open trades (amount * price). */
+    private BigDecimal openedCost = BigDecimal.ZERO;
+
+    /** Amount sold by the close trades. */
+    private BigDecimal closedAmount = BigDecimal.ZERO;
+
+    /** Value of the close trades (amount * price). */
+    private BigDecimal closedValue = BigDecimal.ZERO;
+
+    /** Fees of all the trades. */
+    private BigDecimal fees = BigDecimal.ZERO;
+
+    /** Price from which the stop gain rule triggers (null if no rule or no open trade). */
+    private BigDecimal stopGainPrice;
+
+    /** Price from which the stop loss rule triggers (null if no rule or no open trade). */
+    private BigDecimal stopLossPrice;
+
+    /** Last price received (used to calculate the last gain - may be shared by the positions of the same currency pair). */
+    private AtomicReference<BigDecimal> lastPrice = new AtomicReference<>();
 
     /** Lowest price for this position. */
     private BigDecimal lowestPrice;
@@ -68,12 +93,24 @@ public class PositionDTO {
     /** Highest price for this position. */
     private BigDecimal highestPrice;
 
+    /** Highest price of the currency pair since the position shares its prices (null if not shared). */
+    private volatile Supplier<BigDecimal> sharedHighestPrice;
+
+    /** Lowest price of the currency pair since the position shares its prices (null if not shared). */
+    private volatile Supplier<BigDecimal> sharedLowestPrice;
+
+    /** Listener notified when the position changes. */
+    private Consumer<PositionDTO> updateListener;
+
     /** Percentage. */
     private static final int ONE_HUNDRED = 100;
 
     /** Big integer scale. */
     private static final int BIGINTEGER_SCALE = 4;
 
+    /** Precision used to calculate trigger prices. */
+    private static final int TRIGGER_PRICE_PRECISION = MathContext.DECIMAL128.getPrecision();
+
     /**
      * Constructor.
      *
@@ -129,7 +166,7 @@ public class PositionDTO {
         this.amount = newAmount;
         this.closeOrderId = newCloseOrderId;
         if (newTrades != null) {
-            newTrades.forEach(t -> trades.put(t.getId(), t));
+            newTrades.forEach(this::addTrade);
         }
         this.lowestPrice = newLowestPrice;
         this.highestPrice = newHighestPrice;
@@ -147,7 +184,82 @@ public class PositionDTO {
         }
         status = CLOSING;
         closeOrderId = newCloseOrderId;
+        // The last gain calculated, the highest and lowest prices don't change anymore.
+        lastPrice = new AtomicReference<>(lastPrice.get());
+        stopSharingPriceRange();
+        updated();
+    }
+
+    /**
+     * Sets the listener notified each time the position changes (each time its version increments).
+     *
+     * @param newUpdateListener update listener
+     */
+    public final void setUpdateListener(final Consumer<PositionDTO> newUpdateListener) {
+        this.updateListener = newUpdateListener;
+    }
+
+    /**
+     * Increments the position version and notifies the update listener.
+     */
+    private void updated() {
         version.incrementAndGet();
+        if (updateListener != null) {
+            updateListener.accept(this);
+        }
+    }
+
+    /**
+     * Makes the position use a last price shared by all the positions of the same currency pair.
+     * The position service sets it once per ticker instead of evaluating every position.
+     *
+     * @param newLastPrice shared last price
+     */
+    public final void shareLastPrice(final AtomicReference<BigDecimal> newLastPrice) {
+        if (closeOrderId == null) {
+            lastPrice = newLastPrice;
+        }
+    }
+
+    /**
+     * Makes the position use the highest and lowest prices reached by its currency pair from now on.
+     * The position service keeps them once per currency pair instead of updating every position for each ticker.
+     *
+     * @param newHighestPrice highest price reached by the currency pair since now
+     * @param newLowestPrice  lowest price reached by the currency pair since now
+     */
+    public final void sharePriceRange(final Supplier<BigDecimal> newHighestPrice, final Supplier<BigDecimal> newLowestPrice) {
+        stopSharingPriceRange();
+        if (closeOrderId == null) {
+            sharedHighestPrice = newHighestPrice;
+            sharedLowestPrice = newLowestPrice;
+        }
+    }
+
+    /**
+     * Stops sharing the highest and lowest prices of the currency pair (the prices reached so far are kept).
+     */
+    private void stopSharingPriceRange() {
+        highestPrice = getHighestPrice();
+        lowestPrice = getLowestPrice();
+        sharedHighestPrice = null;
+        sharedLowestPrice = null;
+    }
+
+    /**
+     * Copies the highest and lowest prices reached by the currency pair since the position was opened.
+     * Called when the currency pair reaches a new extreme: the position version increments if its own prices changed,
+     * so they are saved with the position.
+     */
+    public final void refreshPriceRange() {
+        final BigDecimal newHighestPrice = getHighestPrice();
+        final BigDecimal newLowestPrice = getLowestPrice();
+        // The getters return the position prices themselves when the shared ones are not beyond.
+        if (newHighestPrice != highestPrice || newLowestPrice != lowestPrice) {
+            highestPrice = newHighestPrice;
+            lowestPrice = newLowestPrice;
+            updated();
+        }
     }
 
     /**
@@ -158,30 +270,102 @@ public class PositionDTO {
     public void tradeUpdate(final TradeDTO trade) {
         // If status is OPENING and the trades for the open order arrives for the whole amount ==> status = OPENED.
         if (trade.getOrderId().equals(openOrderId) && status == OPENING) {
-            trades.put(trade.getId(), trade);
+            addTrade(trade);
 
             // We calculate the sum of amount in the all the trades.
             // If it reaches the original amount we order, we consider the trade opened.
-            if (amount.compareTo(getTotalAmountFromOpenTrades()) == 0) {
+            if (amount.compareTo(openedAmount) == 0) {
                 status = OPENED;
             }
-            version.incrementAndGet();
+            updated();
         }
         // If status is CLOSING and the trades for the close order arrives for the whole amount ==> status = CLOSED.
         if (trade.getOrderId().equals(closeOrderId) && status == CLOSING) {
-            trades.put(trade.getId(), trade);
+            addTrade(trade);
 
             // We calculate the sum of amount in the all the trades.
             // If it reaches the original amount we order, we consider the trade opened.
-            if (amount.compareTo(getTotalAmountFromCloseTrades()) == 0) {
+            if (amount.compareTo(closedAmount) == 0) {
                 status = CLOSED;
             }
-            version.incrementAndGet();
+            updated();
         }
     }
 
+    /**
+     * Adds a trade to the position and updates the running aggregates.
+     *
+     * @param trade trade
+     */
+    private void addTrade(final TradeDTO trade) {
+        final TradeDTO previousTrade = trades.put(trade.getId(), trade);
+        if (previousTrade != null) {
+            // The same trade was received twice, we replace its values.
+            updateAggregates(previousTrade, false);
+        }
+        updateAggregates(trade, true);
+        updateTriggerPrices();
+    }
+
+    /**
+     * Adds (or removes) the values of a trade to the running aggregates.
+     *
+     * @param trade trade
+     * @param add   true to add the trade, false to remove it
+     */
+    private void updateAggregates(final TradeDTO trade, final boolean add) {
+        BigDecimal tradeAmount = Objects.requireNonNullElse(trade.getOriginalAmount(), BigDecimal.ZERO);
+        BigDecimal tradeValue = tradeAmount.multiply(Objects.requireNonNullElse(trade.getPrice(), BigDecimal.ZERO));
+        BigDecimal tradeFee = Objects.requireNonNullElse(trade.getFee().getValue(), BigDecimal.ZERO);
+        if (!add) {
+            tradeAmount = tradeAmount.negate();
+            tradeValue = tradeValue.negate();
+            tradeFee = tradeFee.negate();
+        }
+        if (BID.equals(trade.getType())) {
+            openedAmount = openedAmount.add(tradeAmount);
+            openedCost = openedCost.add(tradeValue);
+        }
+        if (ASK.equals(trade.getType())) {
+            closedAmount = closedAmount.add(tradeAmount);
+            closedValue = closedValue.add(tradeValue);
+        }
+        fees = fees.add(tradeFee);
+    }
+
+    /**
+     * Updates the prices from which the rules trigger (calculated from the average entry price).
+     */
+    private void updateTriggerPrices() {
+        if (openedCost.signum() > 0 && openedAmount.signum() > 0) {
+            if (rules.isStopGainPercentageSet()) {
+                stopGainPrice = getTriggerPrice(rules.getStopGainPercentage(), RoundingMode.CEILING);
+            }
+            if (rules.isStopLossPercentageSet()) {
+                stopLossPrice = getTriggerPrice(-rules.getStopLossPercentage(), RoundingMode.FLOOR);
+            }
+        } else {
+            stopGainPrice = null;
+            stopLossPrice = null;
+        }
+    }
+
+    /**
+     * Returns the price giving the gain percentage.
+     *
+     * @param percentage   gain percentage
+     * @param roundingMode rounding mode
+     * @return price
+     */
+    private BigDecimal getTriggerPrice(final float percentage, final RoundingMode roundingMode) {
+        // Trigger price = average entry price * (1 + percentage / 100).
+        final BigDecimal ratio = BigDecimal.ONE.add(new BigDecimal(Float.toString(percentage)).movePointLeft(2));
+        return openedCost.multiply(ratio).divide(openedAmount, new MathContext(TRIGGER_PRICE_PRECISION, roundingMode));
+    }
+
     /**
      * Returns true if the position should be closed.
+     * Rules are checked against the precomputed trigger prices so no object is created for each ticker.
      *
      * @param ticker ticker
      * @return true if the rules says the position should be closed.
@@ -189,50 +373,51 @@ public class PositionDTO {
     public boolean shouldBeClosed(final TickerDTO ticker) {
         // The status must be OPENED to be closed.
         // The currency pair of the ticker must be the same than the currency pair of the open trade.
-        if (closeOrderId != null || !ticker.getCurrencyPair().equals(currencyPair)) {
+        final BigDecimal price = ticker.getLast();
+        if (closeOrderId != null || !ticker.getCurrencyPair().equals(currencyPair) || !isGainCalculable(price)) {
             return false;
         } else {
-            final Optional<GainDTO> gain = calculateGainFromPrice(ticker.getLast());
-            if (gain.isPresent()) {
-                // We save the last calculated gain.
-                this.lastCalculatedGain = gain.get();
-
-                if (rules.isStopGainPercentageSet() && gain.get().getPercentage() >= rules.getStopGainPercentage()
-                        || rules.isStopLossPercentageSet() && gain.get().getPercentage() <= -rules.getStopLossPercentage()) {
-                    version.incrementAndGet();
-                    // If the rules tells we should sell.
-                    return true;
-                } else {
-                    // We check if this gain is at a new highest.
-                    if (highestPrice == null) {
-                        highestPrice = ticker.getLast();
-                        version.incrementAndGet();
-                    } else {
-                        final Optional<GainDTO> highestGain = calculateGainFromPrice(highestPrice);
-                        if (highestGain.isPresent() && highestGain.get().getPercentage() <= gain.get().getPercentage()) {
-                            highestPrice = ticker.getLast();
-                            version.incrementAndGet();
-                        }
-                    }
-                    // We check if this gain is at a new lowest.
-                    if (lowestPrice == null) {
-                        lowestPrice = ticker.getLast();
-                        version.incrementAndGet();
-                    } else {
-                        final Optional<GainDTO> lowestGain = calculateGainFromPrice(lowestPrice);
-                        if (lowestGain.isPresent() && lowestGain.get().getPercentage() >= gain.get().getPercentage()) {
-                            lowestPrice = ticker.getLast();
-                            version.incrementAndGet();
-                        }
-                    }
-                    return false;
+            // We save the last price to calculate the last gain.
+            lastPrice.set(price);
+
+            if (stopGainPrice != null && price.compareTo(stopGainPrice) >= 0
+                    || stopLossPrice != null && price.compareTo(stopLossPrice) <= 0) {
+                // If the rules tells we should sell (the last price, and so the gain, changed).
+                updated();
+                return true;
+            } else if (sharedHighestPrice == null) {
+                // Highest and lowest prices are only updated here if the position doesn't share those of its currency pair.
+                boolean changed = false;
+                // We check if this gain is at a new highest (the gain grows with the price).
+                if (highestPrice == null || highestPrice.compareTo(price) <= 0) {
+                    highestPrice = price;
+                    changed = true;
+                }
+                // We check if this gain is at a new lowest.
+                if (lowestPrice == null || lowestPrice.compareTo(price) >= 0) {
+                    lowestPrice = price;
+                    changed = true;
                 }
+                if (changed) {
+                    updated();
+                }
+                return false;
             } else {
                 return false;
             }
         }
     }
 
+    /**
+     * Returns true if a gain can be calculated from a price.
+     *
+     * @param price price
+     * @return true if the position is opened (or closed) and has an entry price
+     */
+    private boolean isGainCalculable(final BigDecimal price) {
+        return (status == OPENED || status == CLOSED) && price != null && openedCost.signum() > 0;
+    }
+
     /**
      * Calculate the gain from a price.
      *
@@ -240,29 +425,32 @@ public class PositionDTO {
      * @return gain
      */
     private Optional<GainDTO> calculateGainFromPrice(final BigDecimal price) {
-        if ((status == OPENED || status == CLOSED) && price != null) {
-            // We take the price from the first trade received.
-            final TradeDTO openTrade = getOpenTrades().iterator().next();
-
-            // How gain calculation works ?
-            //  - Bought 10 ETH with a price of 5 -> Amount of 50.
-            //  - Sold 10 ETH with a price of 6 -> Amount of 60.
-            //  Gain = (6-5)/5 = 20%.
-            float gainPercentage = (price.subtract(openTrade.getPrice()))
-                    .divide(openTrade.getPrice(), BIGINTEGER_SCALE, RoundingMode.FLOOR)
-                    .floatValue() * ONE_HUNDRED;
-            BigDecimal gainAmount = ((openTrade.getOriginalAmount().multiply(price))
-                    .subtract((openTrade.getOriginalAmount()).multiply(openTrade.getPrice())));
-
-            GainDTO gain = new GainDTO(gainPercentage,
-                    new CurrencyAmountDTO(gainAmount, currencyPair.getQuoteCurrency()),
-                    new CurrencyAmountDTO(BigDecimal.ZERO, currencyPair.getQuoteCurrency()));
-            return Optional.of(gain);
+        if (isGainCalculable(price)) {
+            return Optional.of(getGainFromPrice(price));
         } else {
             return Optional.empty();
         }
     }
 
+    /**
+     * Returns the gain from a price using the average entry price.
+     *
+     * @param price price
+     * @return gain
+     */
+    private GainDTO getGainFromPrice(final BigDecimal price) {
+        // How gain calculation works ?
+        //  - Bought 10 ETH with a price of 5 -> Amount of 50.
+        //  - Sold 10 ETH with a price of 6 -> Amount of 60.
+        //  Gain = (60-50)/50 = 20%.
+        final BigDecimal gainAmount = openedAmount.multiply(price).subtract(openedCost);
+        float gainPercentage = gainAmount.divide(openedCost, BIGINTEGER_SCALE, RoundingMode.FLOOR)
+                .floatValue() * ONE_HUNDRED;
+        return new GainDTO(gainPercentage,
+                new CurrencyAmountDTO(gainAmount, currencyPair.getQuoteCurrency()),
+                new CurrencyAmountDTO(BigDecimal.ZERO, currencyPair.getQuoteCurrency()));
+    }
+
     /**
      * Returns the gain of the position.
      * Of course the position should be closed to have a gain.
@@ -287,68 +475,27 @@ public class PositionDTO {
             // To start the position, I spent 100 BTC.
             // When I closed the position, I received 150 BTC
             // Gain  -> ((150 - 100) / 100) * 100 = 50 %
-            BigDecimal bought = getOpenTrades()
-                    .stream()
-                    .map(t -> t.getOriginalAmount().multiply(t.getPrice()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal sold = getCloseTrades()
-                    .stream()
-                    .map(t -> t.getOriginalAmount().multiply(t.getPrice()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            final BigDecimal bought = openedCost;
+            final BigDecimal sold = closedValue;
 
             // Calculate gain.
             BigDecimal gainAmount = sold.subtract(bought);
-            double gainPercentage = ((sold.subtract(bought)).divide(bought)).floatValue() * ONE_HUNDRED;
+            double gainPercentage = 0;
+            if (bought.signum() != 0) {
+                // Rounded as the ratio may not have an exact decimal representation (1/3).
+                gainPercentage = gainAmount.divide(bought, MathContext.DECIMAL128).floatValue() * ONE_HUNDRED;
+            }
 
             // Return position gain.
             return new GainDTO(gainPercentage,
                     new CurrencyAmountDTO(gainAmount, currencyPair.getQuoteCurrency()),
-                    new CurrencyAmountDTO(getTotalFees(), currencyPair.getQuoteCurrency()));
+                    new CurrencyAmountDTO(fees, currencyPair.getQuoteCurrency()));
         } else {
             // No gain for the moment !
             return new GainDTO();
         }
     }
 
-    /**
-     * Get total fees from all trades.
-     *
-     * @return fees
-     */
-    private BigDecimal getTotalFees() {
-        return trades.values()
-                .stream()
-                .map(t -> t.getFee().getValue())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    /**
-     * Returns the total amount from open trades.
-     *
-     * @return total
-     */
-    private BigDecimal getTotalAmountFromOpenTrades() {
-        return trades.values()
-                .stream()
-                .filter(t -> BID.equals(t.getType()))
-                .map(TradeDTO::getOriginalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    /**
-     * Returns the total amount from close trades.
-     *
-     * @return total
-     */
-    private BigDecimal getTotalAmountFromCloseTrades() {
-        return trades.values()
-                .stream()
-                .filter(t -> ASK.equals(t.getType()))
-                .map(TradeDTO::getOriginalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
     /**
      * Getter for id.
      *
@@ -459,7 +606,12 @@ public class PositionDTO {
      * @return lastCalculatedGain
      */
     public final Optional<GainDTO> getLastCalculatedGain() {
-        return Optional.ofNullable(lastCalculatedGain);
+        final BigDecimal price = lastPrice.get();
+        if (price == null || openedCost.signum() <= 0) {
+            return Optional.empty();
+        } else {
+            return Optional.of(getGainFromPrice(price));
+        }
     }
 
     /**
@@ -471,12 +623,38 @@ public class PositionDTO {
         return closeOrderId;
     }
 
+    /**
+     * Getter stopGainPrice.
+     *
+     * @return price from which the stop gain rule triggers (null if no rule or no open trade)
+     */
+    public final BigDecimal getStopGainPrice() {
+        return stopGainPrice;
+    }
+
+    /**
+     * Getter stopLossPrice.
+     *
+     * @return price from which the stop loss rule triggers (null if no rule or no open trade)
+     */
+    public final BigDecimal getStopLossPrice() {
+        return stopLossPrice;
+    }
+
     /**
      * Getter lowestPrice.
      *
      * @return lowestPrice
      */
     public final BigDecimal getLowestPrice() {
+        final Supplier<BigDecimal> shared = sharedLowestPrice;
+        if (shared == null) {
+            return lowestPrice;
+        }
+        final BigDecimal sharedPrice = shared.get();
+        if (lowestPrice == null || sharedPrice != null && sharedPrice.compareTo(lowestPrice) < 0) {
+            return sharedPrice;
+        }
         return lowestPrice;
     }
 
@@ -486,6 +664,14 @@ public class PositionDTO {
      * @return highestPrice
      */
     public final BigDecimal getHighestPrice() {
+        final Supplier<BigDecimal> shared = sharedHighestPrice;
+        if (shared == null) {
+            return highestPrice;
+        }
+        final BigDecimal sharedPrice = shared.get();
+        if (highestPrice == null || sharedPrice != null && sharedPrice.compareTo(highestPrice) > 0) {
+            return sharedPrice;
+        }
         return highestPrice;
     }
 
@@ -495,7 +681,7 @@ public class PositionDTO {
      * @return lowestCalculatedGain
      */
     public final Optional<GainDTO> getLowestCalculatedGain() {
-        return calculateGainFromPrice(lowestPrice);
+        return calculateGainFromPrice(getLowestPrice());
     }
 
     /**
@@ -504,7 +690,7 @@ public class PositionDTO {
      * @return highestCalculatedGain
      */
     public final Optional<GainDTO> getHighestCalculatedGain() {
-        return calculateGainFromPrice(highestPrice);
+        return calculateGainFromPrice(getHighestPrice());
     }
 
     /**
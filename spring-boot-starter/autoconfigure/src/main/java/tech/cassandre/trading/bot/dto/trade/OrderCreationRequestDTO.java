@@ -0,0 +1,173 @@
+package tech.cassandre.trading.bot.dto.trade;
+
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Order creation request (used to create several orders at once).
+ * Without limit price, it's a market order.
+ */
+public final class OrderCreationRequestDTO {
+
+    /** Order type. */
+    private final OrderTypeDTO type;
+
+    /** Currency pair. */
+    private final CurrencyPairDTO currencyPair;
+
+    /** Amount. */
+    private final BigDecimal amount;
+
+    /** Limit price (null for a market order). */
+    private final BigDecimal limitPrice;
+
+    /**
+     * Builder constructor.
+     *
+     * @param builder builder
+     */
+    protected OrderCreationRequestDTO(final OrderCreationRequestDTO.Builder builder) {
+        this.type = builder.type;
+        this.currencyPair = builder.currencyPair;
+        this.amount = builder.amount;
+        this.limitPrice = builder.limitPrice;
+    }
+
+    /**
+     * Returns builder.
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Getter for type.
+     *
+     * @return type
+     */
+    public OrderTypeDTO getType() {
+        return type;
+    }
+
+    /**
+     * Getter for currencyPair.
+     *
+     * @return currencyPair
+     */
+    public CurrencyPairDTO getCurrencyPair() {
+        return currencyPair;
+    }
+
+    /**
+     * Getter for amount.
+     *
+     * @return amount
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Getter for limitPrice.
+     *
+     * @return limitPrice
+     */
+    public BigDecimal getLimitPrice() {
+        return limitPrice;
+    }
+
+    /**
+     * Returns true if it's a market order.
+     *
+     * @return true if no limit price
+     */
+    public boolean isMarketOrder() {
+        return limitPrice == null;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderCreationRequestDTO{"
+                + " type=" + type
+                + ", currencyPair=" + currencyPair
+                + ", amount=" + amount
+                + ", limitPrice=" + limitPrice
+                + '}';
+    }
+
+    /**
+     * Builder.
+     */
+    public static final class Builder {
+
+        /** Order type. */
+        private OrderTypeDTO type;
+
+        /** Currency pair. */
+        private CurrencyPairDTO currencyPair;
+
+        /** Amount. */
+        private BigDecimal amount;
+
+        /** Limit price (null for a market order). */
+        private BigDecimal limitPrice;
+
+        /**
+         * Type.
+         *
+         * @param newType type
+         * @return builder
+         */
+        public Builder type(final OrderTypeDTO newType) {
+            this.type = newType;
+            return this;
+        }
+
+        /**
+         * Currency pair.
+         *
+         * @param newCurrencyPair currency pair
+         * @return builder
+         */
+        public Builder currencyPair(final CurrencyPairDTO newCurrencyPair) {
+            this.currencyPair = newCurrencyPair;
+            return this;
+        }
+
+        /**
+         * Amount.
+         *
+         * @param newAmount amount
+         * @return builder
+         */
+        public Builder amount(final BigDecimal newAmount) {
+            this.amount = newAmount;
+            return this;
+        }
+
+        /**
+         * Limit price.
+         *
+         * @param newLimitPrice limit price
+         * @return builder
+         */
+        public Builder limitPrice(final BigDecimal newLimitPrice) {
+            this.limitPrice = newLimitPrice;
+            return this;
+        }
+
+        /**
+         * Creates order creation request.
+         *
+         * @return order creation request
+         */
+        public OrderCreationRequestDTO create() {
+            return new OrderCreationRequestDTO(this);
+        }
+
+    }
+
+}
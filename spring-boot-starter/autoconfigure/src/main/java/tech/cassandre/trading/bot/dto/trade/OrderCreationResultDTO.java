@@ -1,5 +1,9 @@
 package tech.cassandre.trading.bot.dto.trade;
 
+import tech.cassandre.trading.bot.dto.util.LatencyTraceDTO;
+
+import java.util.Optional;
+
 /**
  * Order creation result for {@link OrderDTO}.
  */
@@ -17,16 +21,30 @@ public final class OrderCreationResultDTO {
     /** Indicates if the position creation was successful or not. */
     private final boolean successful;
 
+    /** Latency trace of the order (filled if order creation is successful and traced). */
+    private final LatencyTraceDTO trace;
+
     /**
      * Constructor for successful order creation.
      *
      * @param newOrderId order id.
      */
     public OrderCreationResultDTO(final String newOrderId) {
+        this(newOrderId, (LatencyTraceDTO) null);
+    }
+
+    /**
+     * Constructor for successful order creation with its latency trace.
+     *
+     * @param newOrderId order id.
+     * @param newTrace   latency trace
+     */
+    public OrderCreationResultDTO(final String newOrderId, final LatencyTraceDTO newTrace) {
         successful = true;
         this.orderId = newOrderId;
         this.errorMessage = null;
         this.exception = null;
+        this.trace = newTrace;
     }
 
     /**
@@ -40,6 +58,7 @@ public final class OrderCreationResultDTO {
         this.orderId = null;
         this.errorMessage = newErrorMessage;
         this.exception = newException;
+        this.trace = null;
     }
 
     /**
@@ -78,6 +97,15 @@ public final class OrderCreationResultDTO {
         return successful;
     }
 
+    /**
+     * Getter for trace.
+     *
+     * @return trace
+     */
+    public Optional<LatencyTraceDTO> getTrace() {
+        return Optional.ofNullable(trace);
+    }
+
     @Override
     public String toString() {
         return "OrderCreationResultDTO{"
@@ -85,6 +113,7 @@ public final class OrderCreationResultDTO {
                 + ", errorMessage='" + errorMessage + '\''
                 + ", exception=" + exception
                 + ", successful=" + successful
+                + ", trace=" + trace
                 + '}';
     }
 
@@ -2,20 +2,20 @@ package tech.cassandre.trading.bot.dto.util;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Currency.
  */
 public final class CurrencyDTO {
 
-    /** List of currencies. */
-    private static final Map<String, CurrencyDTO> CURRENCIES = new HashMap<>();
+    /** List of currencies (read on every conversion, so it's lock free for readers). */
+    private static final Map<String, CurrencyDTO> CURRENCIES = new ConcurrentHashMap<>();
 
     /** United Arab Emirates Dirham. */
     public static final CurrencyDTO AED = createCurrency("AED", "United Arab Emirates Dirham", null);
@@ -851,35 +851,7 @@ public final class CurrencyDTO {
     private final CurrencyDTO.CurrencyAttributes attributes;
 
     /**
-     * Constructor.
-     *
-     * @param newCode currency code
-     */
-    public CurrencyDTO(final String newCode) {
-        this.code = newCode;
-        this.attributes = getInstance(newCode).attributes;
-    }
-
-    /**
-     * Builder.
-     *
-     * @param builder builder
-     */
-    public CurrencyDTO(final CurrencyDTO.Builder builder) {
-        this.code = builder.code;
-        this.attributes = getInstance(builder.code).attributes;
-    }
-
-    /**
-     * For builder.
-     */
-    protected CurrencyDTO() {
-        code = null;
-        attributes = null;
-    }
-
-    /**
-     * Constructor.
+     * Constructor (instances are only created by {@link #getInstance(String)}).
      *
      * @param newAlternativeCode alternative code
      * @param newAttributes      attributes.
@@ -915,8 +887,22 @@ public final class CurrencyDTO {
      * @return currency
      */
     public static CurrencyDTO getInstance(final String currencyCode) {
-        CurrencyDTO currency = getInstanceNoCreate(currencyCode.toUpperCase());
-        return Objects.requireNonNullElseGet(currency, () -> createCurrency(currencyCode.toUpperCase(), null, null));
+        final CurrencyDTO currency = getInstanceNoCreate(currencyCode);
+        if (currency != null) {
+            return currency;
+        } else {
+            return getOrCreateCurrency(currencyCode.toUpperCase());
+        }
+    }
+
+    /**
+     * Returns a Currency instance for the given upper case code and creates it if it doesn't exist.
+     *
+     * @param currencyCode upper case currency code
+     * @return currency
+     */
+    private static synchronized CurrencyDTO getOrCreateCurrency(final String currencyCode) {
+        return Objects.requireNonNullElseGet(CURRENCIES.get(currencyCode), () -> createCurrency(currencyCode, null, null));
     }
 
     /**
@@ -926,7 +912,13 @@ public final class CurrencyDTO {
      * @return currency
      */
     public static CurrencyDTO getInstanceNoCreate(final String currencyCode) {
-        return CURRENCIES.get(currencyCode.toUpperCase());
+        // Codes are usually already in upper case, in that case, no new string is created.
+        final CurrencyDTO currency = CURRENCIES.get(currencyCode);
+        if (currency != null) {
+            return currency;
+        } else {
+            return CURRENCIES.get(currencyCode.toUpperCase());
+        }
     }
 
     /**
@@ -1203,7 +1195,7 @@ public final class CurrencyDTO {
          * @return wallet
          */
         public CurrencyDTO create() {
-            return new CurrencyDTO(this);
+            return getInstance(code);
         }
 
     }
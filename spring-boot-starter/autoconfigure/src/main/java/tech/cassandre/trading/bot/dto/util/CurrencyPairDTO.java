@@ -1,6 +1,9 @@
 package tech.cassandre.trading.bot.dto.util;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Currency pair for trading.
@@ -12,49 +15,120 @@ public final class CurrencyPairDTO {
     /** Currency pair separator. */
     private static final String CURRENCY_PAIR_SEPARATOR = "/";
 
+    /** Canonical currency pairs by canonical string value (for example "ETH/BTC", never "eth/btc"). */
+    private static final Map<String, CurrencyPairDTO> CURRENCY_PAIRS_BY_STRING = new ConcurrentHashMap<>();
+
+    /** Canonical currency pairs by base currency code and quote currency code. */
+    private static final Map<String, Map<String, CurrencyPairDTO>> CURRENCY_PAIRS_BY_CODES = new ConcurrentHashMap<>();
+
     /** The base currency is the first currency appearing in a currency pair quotation. */
     private final CurrencyDTO baseCurrency;
 
     /** The quote currency is the second currency appearing in a currency pair quotation. */
     private final CurrencyDTO quoteCurrency;
 
+    /** String value (computed once, the pair is immutable). */
+    private final String stringValue;
+
+    /** Hash code (computed once, the pair is immutable). */
+    private final int hashCode;
+
     /**
-     * Constructor.
+     * Constructor (instances are only created by the getInstance() methods and the builder).
      *
-     * @param currencyPair currency pair
+     * @param newBaseCurrency  The base currency
+     * @param newQuoteCurrency The quote currency
+     */
+    private CurrencyPairDTO(final CurrencyDTO newBaseCurrency, final CurrencyDTO newQuoteCurrency) {
+        this.baseCurrency = newBaseCurrency;
+        this.quoteCurrency = newQuoteCurrency;
+        this.stringValue = newBaseCurrency + CURRENCY_PAIR_SEPARATOR + newQuoteCurrency;
+        this.hashCode = Objects.hash(getUpperCaseCode(newBaseCurrency), getUpperCaseCode(newQuoteCurrency));
+    }
+
+    /**
+     * Builder constructor with {@link CurrencyDTO}.
+     *
+     * @param builder builder
+     */
+    private CurrencyPairDTO(final CurrencyPairDTO.Builder builder) {
+        this(builder.baseCurrency, builder.quoteCurrency);
+    }
+
+    /**
+     * Returns the canonical instance of a currency pair.
+     * Canonical instances are shared, so they can be compared and used as map keys without any allocation.
+     * Only canonical string values are cached, other spellings (for example "eth/btc") are resolved from their currencies.
+     *
+     * @param currencyPair currency pair (for example "ETH/BTC")
+     * @return currency pair
      */
-    public CurrencyPairDTO(final String currencyPair) {
-        this(currencyPair.split(CURRENCY_PAIR_SEPARATOR)[0], currencyPair.split(CURRENCY_PAIR_SEPARATOR)[1]);
+    public static CurrencyPairDTO getInstance(final String currencyPair) {
+        final CurrencyPairDTO canonicalCurrencyPair = CURRENCY_PAIRS_BY_STRING.get(currencyPair);
+        if (canonicalCurrencyPair != null) {
+            return canonicalCurrencyPair;
+        } else {
+            final String[] currencies = currencyPair.split(CURRENCY_PAIR_SEPARATOR);
+            return getInstance(currencies[0], currencies[1]);
+        }
     }
 
     /**
-     * Constructor with {@link CurrencyDTO}.
+     * Returns the canonical instance of a currency pair.
      *
      * @param newBaseCurrency  The base currency
      * @param newQuoteCurrency The quote currency
+     * @return currency pair
      */
-    public CurrencyPairDTO(final String newBaseCurrency, final String newQuoteCurrency) {
-        this(CurrencyDTO.getInstance(newBaseCurrency), CurrencyDTO.getInstance(newQuoteCurrency));
+    public static CurrencyPairDTO getInstance(final String newBaseCurrency, final String newQuoteCurrency) {
+        return getInstance(CurrencyDTO.getInstance(newBaseCurrency), CurrencyDTO.getInstance(newQuoteCurrency));
     }
 
     /**
-     * Constructor with String.
+     * Returns the canonical instance of a currency pair.
      *
      * @param newBaseCurrency  The base currency
      * @param newQuoteCurrency The quote currency
+     * @return currency pair
      */
-    public CurrencyPairDTO(final CurrencyDTO newBaseCurrency, final CurrencyDTO newQuoteCurrency) {
-        this.baseCurrency = newBaseCurrency;
-        this.quoteCurrency = newQuoteCurrency;
+    public static CurrencyPairDTO getInstance(final CurrencyDTO newBaseCurrency, final CurrencyDTO newQuoteCurrency) {
+        final CurrencyPairDTO canonicalCurrencyPair = CURRENCY_PAIRS_BY_CODES
+                .getOrDefault(newBaseCurrency.getCode(), Collections.emptyMap())
+                .get(newQuoteCurrency.getCode());
+        if (canonicalCurrencyPair != null) {
+            return canonicalCurrencyPair;
+        } else {
+            return getInstance(new CurrencyPairDTO(newBaseCurrency, newQuoteCurrency));
+        }
     }
 
     /**
-     * Builder constructor with {@link CurrencyDTO}.
+     * Registers a currency pair if no equal currency pair is registered yet and returns the canonical one.
      *
-     * @param builder builder
+     * @param currencyPair currency pair
+     * @return canonical currency pair
      */
-    protected CurrencyPairDTO(final CurrencyPairDTO.Builder builder) {
-        this(builder.baseCurrency, builder.quoteCurrency);
+    private static CurrencyPairDTO getInstance(final CurrencyPairDTO currencyPair) {
+        final Map<String, CurrencyPairDTO> quoteCurrencies = CURRENCY_PAIRS_BY_CODES.computeIfAbsent(currencyPair.getBaseCurrency().getCode(),
+                code -> new ConcurrentHashMap<>());
+        final CurrencyPairDTO canonicalCurrencyPair = quoteCurrencies.computeIfAbsent(currencyPair.getQuoteCurrency().getCode(),
+                code -> currencyPair);
+        CURRENCY_PAIRS_BY_STRING.putIfAbsent(canonicalCurrencyPair.toString(), canonicalCurrencyPair);
+        return canonicalCurrencyPair;
+    }
+
+    /**
+     * Returns the upper case code of a currency (used to compute hash code).
+     *
+     * @param currency currency
+     * @return upper case code or null
+     */
+    private static String getUpperCaseCode(final CurrencyDTO currency) {
+        if (currency == null || currency.getCode() == null) {
+            return null;
+        } else {
+            return currency.getCode().toUpperCase();
+        }
     }
 
     /**
@@ -119,19 +193,23 @@ public final class CurrencyPairDTO {
         }
 
         /**
-         * Creator.
+         * Creator (returns the canonical instance).
          *
          * @return Account
          */
         public CurrencyPairDTO create() {
-            return new CurrencyPairDTO(this);
+            if (baseCurrency == null || quoteCurrency == null) {
+                return new CurrencyPairDTO(this);
+            } else {
+                return getInstance(baseCurrency, quoteCurrency);
+            }
         }
 
     }
 
     @Override
     public String toString() {
-        return baseCurrency + CURRENCY_PAIR_SEPARATOR + quoteCurrency;
+        return stringValue;
     }
 
     @Override
@@ -143,13 +221,14 @@ public final class CurrencyPairDTO {
             return false;
         }
         final CurrencyPairDTO that = (CurrencyPairDTO) o;
-        return getBaseCurrency().getCode().equalsIgnoreCase(that.getBaseCurrency().getCode())
+        return hashCode == that.hashCode
+                && getBaseCurrency().getCode().equalsIgnoreCase(that.getBaseCurrency().getCode())
                 && getQuoteCurrency().getCode().equalsIgnoreCase(that.getQuoteCurrency().getCode());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getBaseCurrency().getCode(), getQuoteCurrency().getCode());
+        return hashCode;
     }
 
 }
@@ -0,0 +1,20 @@
+package tech.cassandre.trading.bot.dto.util;
+
+/**
+ * Stages of the tick-to-order path recorded in a {@link LatencyTraceDTO}.
+ */
+public enum LatencyStageDTO {
+
+    /** Ticker received by the market service. */
+    RECEIVED,
+
+    /** Ticker emitted by the ticker flux. */
+    EMITTED,
+
+    /** Order requested by the strategy (or the position service). */
+    DECIDED,
+
+    /** Order acknowledged by the exchange. */
+    ACKNOWLEDGED
+
+}
@@ -0,0 +1,120 @@
+package tech.cassandre.trading.bot.dto.util;
+
+import java.util.Arrays;
+
+/**
+ * Causal trace of the tick-to-order path (monotonic nanos at each {@link LatencyStageDTO}).
+ * Immutable: reaching a stage returns a new trace.
+ * Nanos are only comparable between stages of the same JVM; the exchange timestamp is a wall-clock time.
+ */
+public final class LatencyTraceDTO {
+
+    /** Value returned when a latency can't be computed. */
+    public static final long UNKNOWN_LATENCY = -1;
+
+    /** Value of a stage not reached yet. */
+    private static final long NOT_REACHED = Long.MIN_VALUE;
+
+    /** Exchange timestamp (epoch milliseconds). */
+    private final long exchangeTimestamp;
+
+    /** Nanos at each stage (indexed by stage ordinal). */
+    private final long[] nanos;
+
+    /**
+     * Constructor.
+     *
+     * @param newExchangeTimestamp exchange timestamp (epoch milliseconds)
+     */
+    public LatencyTraceDTO(final long newExchangeTimestamp) {
+        this.exchangeTimestamp = newExchangeTimestamp;
+        this.nanos = new long[LatencyStageDTO.values().length];
+        Arrays.fill(nanos, NOT_REACHED);
+    }
+
+    /**
+     * Constructor of a trace with one more stage reached.
+     *
+     * @param trace    trace
+     * @param stage    stage reached
+     * @param nanoTime time (from {@link System#nanoTime()})
+     */
+    private LatencyTraceDTO(final LatencyTraceDTO trace, final LatencyStageDTO stage, final long nanoTime) {
+        this.exchangeTimestamp = trace.exchangeTimestamp;
+        this.nanos = trace.nanos.clone();
+        this.nanos[stage.ordinal()] = nanoTime;
+    }
+
+    /**
+     * Returns this trace with a stage reached now. A stage is only marked once.
+     *
+     * @param stage stage
+     * @return new trace (or this trace if the stage was already reached)
+     */
+    public LatencyTraceDTO withStage(final LatencyStageDTO stage) {
+        return withStage(stage, System.nanoTime());
+    }
+
+    /**
+     * Returns this trace with a stage reached at the given time. A stage is only marked once.
+     * Traces are immutable, so they can be shared by threads and by the orders created from the same ticker.
+     *
+     * @param stage    stage
+     * @param nanoTime time (from {@link System#nanoTime()})
+     * @return new trace (or this trace if the stage was already reached)
+     */
+    public LatencyTraceDTO withStage(final LatencyStageDTO stage, final long nanoTime) {
+        if (isReached(stage)) {
+            return this;
+        }
+        return new LatencyTraceDTO(this, stage, nanoTime);
+    }
+
+    /**
+     * Returns true if the stage has been reached.
+     *
+     * @param stage stage
+     * @return true if reached
+     */
+    public boolean isReached(final LatencyStageDTO stage) {
+        return nanos[stage.ordinal()] != NOT_REACHED;
+    }
+
+    /**
+     * Returns the latency between two stages.
+     *
+     * @param from from stage
+     * @param to   to stage
+     * @return latency in nanoseconds or {@link #UNKNOWN_LATENCY} if one of the stages was not reached
+     */
+    public long getLatency(final LatencyStageDTO from, final LatencyStageDTO to) {
+        if (!isReached(from) || !isReached(to)) {
+            return UNKNOWN_LATENCY;
+        }
+        return nanos[to.ordinal()] - nanos[from.ordinal()];
+    }
+
+    /**
+     * Getter for exchangeTimestamp.
+     *
+     * @return exchangeTimestamp
+     */
+    public long getExchangeTimestamp() {
+        return exchangeTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder stages = new StringBuilder();
+        for (LatencyStageDTO stage : LatencyStageDTO.values()) {
+            if (isReached(stage)) {
+                stages.append(", ").append(stage).append("=").append(nanos[stage.ordinal()]);
+            }
+        }
+        return "LatencyTraceDTO{"
+                + " exchangeTimestamp=" + exchangeTimestamp
+                + stages
+                + '}';
+    }
+
+}
@@ -0,0 +1,24 @@
+package tech.cassandre.trading.bot.repository;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import tech.cassandre.trading.bot.domain.Node;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Node repository.
+ */
+@Repository
+public interface NodeRepository extends CrudRepository<Node, String> {
+
+    /**
+     * Find all nodes alive since a date.
+     *
+     * @param date date
+     * @return nodes
+     */
+    List<Node> findByHeartbeatAfter(ZonedDateTime date);
+
+}
@@ -4,10 +4,22 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import tech.cassandre.trading.bot.domain.Position;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Position repository.
  */
 @Repository
 public interface PositionRepository extends CrudRepository<Position, Long> {
 
+    /**
+     * Find all positions without a status on some currency pairs.
+     *
+     * @param status        status excluded
+     * @param currencyPairs currency pairs
+     * @return positions
+     */
+    List<Position> findByStatusNotAndCurrencyPairIn(String status, Collection<String> currencyPairs);
+
 }
@@ -4,6 +4,7 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import tech.cassandre.trading.bot.domain.Trade;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,4 +19,12 @@ public interface TradeRepository extends CrudRepository<Trade, String> {
      */
     List<Trade> findByOrderByTimestampAsc();
 
+    /**
+     * Find all trades of some orders.
+     *
+     * @param orderIds order ids
+     * @return trades
+     */
+    List<Trade> findByOrderIdIn(Collection<String> orderIds);
+
 }
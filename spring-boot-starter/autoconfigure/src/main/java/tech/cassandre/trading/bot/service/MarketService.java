@@ -5,6 +5,9 @@ import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -29,4 +32,17 @@ public interface MarketService {
      */
     Optional<CurrencyAmountDTO> getEstimatedBuyingCost(CurrencyPairDTO currencyPair, BigDecimal amount);
 
+    /**
+     * Returns the last completed bars of a currency pair as tickers (open, high, low, last and volume set, timestamp
+     * at the end of the bar), the oldest first.
+     *
+     * @param currencyPair currency pair
+     * @param barDuration  duration of a bar
+     * @param barCount     maximum number of bars
+     * @return bars (empty if there is no history)
+     */
+    default List<TickerDTO> getHistoricalTickers(CurrencyPairDTO currencyPair, Duration barDuration, int barCount) {
+        return Collections.emptyList();
+    }
+
 }
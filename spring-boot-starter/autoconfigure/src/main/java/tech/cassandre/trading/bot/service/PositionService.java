@@ -8,8 +8,11 @@ import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service allowing to create and retrieve positions.
@@ -41,6 +44,18 @@ public interface PositionService {
      */
     PositionCreationResultDTO createPosition(CurrencyPairDTO currencyPair, BigDecimal amount, PositionRulesDTO rules);
 
+    /**
+     * Creates a position with its associated rules without blocking the calling thread.
+     * The position is created by the thread dispatching the events to the strategy once the order is acknowledged,
+     * so the future must not be waited for in a strategy callback (chain the work with thenAccept() instead).
+     *
+     * @param currencyPair currency pair
+     * @param amount       amount
+     * @param rules        rules
+     * @return future completed with the position creation result
+     */
+    CompletableFuture<PositionCreationResultDTO> createPositionAsync(CurrencyPairDTO currencyPair, BigDecimal amount, PositionRulesDTO rules);
+
     /**
      * Method called by streams at every ticker update.
      *
@@ -62,6 +77,14 @@ public interface PositionService {
      */
     void restorePosition(PositionDTO position);
 
+    /**
+     * Removes the positions of currency pairs that are not closed (when they are watched by another node).
+     *
+     * @param currencyPairs currency pairs
+     * @return positions removed
+     */
+    List<PositionDTO> removePositions(Set<CurrencyPairDTO> currencyPairs);
+
     /**
      * Backup position.
      *
@@ -69,4 +92,11 @@ public interface PositionService {
      */
     void backupPosition(PositionDTO position);
 
+    /**
+     * Sets the listener notified each time a position is created or changes.
+     *
+     * @param listener position update listener
+     */
+    void setPositionUpdateListener(Consumer<PositionDTO> listener);
+
 }
@@ -1,13 +1,16 @@
 package tech.cassandre.trading.bot.service;
 
+import tech.cassandre.trading.bot.dto.trade.OrderCreationRequestDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service giving information about orders and allowing you to create new orders.
@@ -52,6 +55,22 @@ public interface TradeService {
      */
     OrderCreationResultDTO createSellLimitOrder(CurrencyPairDTO currencyPair, BigDecimal amount, BigDecimal limitPrice);
 
+    /**
+     * Creates several orders at once (sent concurrently when the exchange has no batch endpoint).
+     *
+     * @param orderRequests orders to create
+     * @return orders results (order id or error) in the same order than the requests
+     */
+    List<OrderCreationResultDTO> createOrders(List<OrderCreationRequestDTO> orderRequests);
+
+    /**
+     * Creates an order without blocking the calling thread.
+     *
+     * @param orderRequest order to create
+     * @return future completed with the order result (order id or error)
+     */
+    CompletableFuture<OrderCreationResultDTO> createOrderAsync(OrderCreationRequestDTO orderRequest);
+
     /**
      * Get an open order by its id.
      *
@@ -75,6 +94,14 @@ public interface TradeService {
      */
     boolean cancelOrder(String orderId);
 
+    /**
+     * Cancel order without blocking the calling thread.
+     *
+     * @param orderId order id
+     * @return future completed with true if cancelled
+     */
+    CompletableFuture<Boolean> cancelOrderAsync(String orderId);
+
     /**
      * Get last week trades.
      *
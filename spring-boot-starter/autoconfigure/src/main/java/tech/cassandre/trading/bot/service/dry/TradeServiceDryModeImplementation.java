@@ -4,28 +4,33 @@ import tech.cassandre.trading.bot.batch.OrderFlux;
 import tech.cassandre.trading.bot.batch.TradeFlux;
 import tech.cassandre.trading.bot.domain.Trade;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationRequestDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
-import tech.cassandre.trading.bot.dto.user.AccountDTO;
 import tech.cassandre.trading.bot.dto.user.BalanceDTO;
-import tech.cassandre.trading.bot.dto.user.UserDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
 import tech.cassandre.trading.bot.repository.TradeRepository;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.util.base.BaseService;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.dto.util.LatencyTraceDTO;
+import tech.cassandre.trading.bot.util.trace.LatencyTracer;
 
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static tech.cassandre.trading.bot.dto.trade.OrderStatusDTO.FILLED;
 import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
@@ -101,6 +106,8 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
      * @return order creation result
      */
     private OrderCreationResultDTO createMarketOrder(final OrderTypeDTO orderTypeDTO, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        final LatencyTraceDTO trace = LatencyTracer.decided();
+
         // We retrieve the last pricing from tickers.
         TickerDTO t = lastTickers.get(currencyPair);
 
@@ -111,45 +118,25 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
             // ETH/BTC quote currency => BTC.
             // ETH/BTC base currency => ETH.
 
-            // We check that we have a user and a trade account.
-            final Optional<UserDTO> user = userService.getUser();
-            final AccountDTO account;
-            if (user.isPresent()) {
-                account = userService.getUser().get().getAccounts().get(TRADE_ACCOUNT_ID);
-                if (account == null) {
-                    return new OrderCreationResultDTO("No trade account", new Exception("No trade account"));
-                }
-            } else {
-                return new OrderCreationResultDTO("No data for user", new Exception("No data for user"));
-            }
-
+            // We reserve the assets spent by the order in the trade account (it fails if we don't have enough).
+            final CurrencyDTO spentCurrency;
+            final BigDecimal spentAmount;
             if (orderTypeDTO.equals(BID)) {
-                // Buying order - we buy ETH from BTC.
-                // We are buying the following amount : ticker last price * amount
-                Optional<BalanceDTO> balance = account.getBalance(currencyPair.getQuoteCurrency());
-                if (balance.isPresent()) {
-                    BigDecimal ownedAssets = balance.get().getAvailable();
-                    BigDecimal cost = t.getLast().multiply(amount);
-                    if (cost.compareTo(ownedAssets) > 0) {
-                        final String errorMessage = "Not enough assets (costs : " + cost + " " + currencyPair.getQuoteCurrency() + " - owned assets : " + ownedAssets + " " + currencyPair.getQuoteCurrency();
-                        return new OrderCreationResultDTO(errorMessage, new Exception(errorMessage));
-                    }
-                } else {
-                    return new OrderCreationResultDTO("No assets for " + currencyPair.getQuoteCurrency(), new Exception("No assets for " + currencyPair.getQuoteCurrency()));
-                }
+                // Buying order - we buy ETH from BTC, we spend : ticker last price * amount
+                spentCurrency = currencyPair.getQuoteCurrency();
+                spentAmount = t.getLast().multiply(amount);
             } else {
-                // Selling order - we sell ETH for BTC.
-                // We are selling the amount
-                Optional<BalanceDTO> balance = account.getBalance(currencyPair.getBaseCurrency());
-                if (balance.isPresent()) {
-                    BigDecimal ownedAssets = balance.get().getAvailable();
-                    if (amount.compareTo(ownedAssets) > 0) {
-                        final String errorMessage = "Not enough assets (amount : " + amount + " " + currencyPair.getQuoteCurrency() + " - owned assets : " + ownedAssets + " " + currencyPair.getBaseCurrency();
-                        return new OrderCreationResultDTO(errorMessage, new Exception(errorMessage));
-                    }
-                } else {
-                    return new OrderCreationResultDTO("No assets for " + currencyPair.getBaseCurrency(), new Exception("No assets for " + currencyPair.getBaseCurrency()));
-                }
+                // Selling order - we sell ETH for BTC, we spend the amount.
+                spentCurrency = currencyPair.getBaseCurrency();
+                spentAmount = amount;
+            }
+            final Optional<BalanceDTO> balance = userService.getTradeAccountBalance(spentCurrency);
+            if (balance.isEmpty()) {
+                return new OrderCreationResultDTO("No assets for " + spentCurrency, new Exception("No assets for " + spentCurrency));
+            }
+            if (!userService.reserve(spentCurrency, spentAmount)) {
+                final String errorMessage = "Not enough assets (costs : " + spentAmount + " " + spentCurrency + " - owned assets : " + balance.get().getAvailable() + " " + spentCurrency;
+                return new OrderCreationResultDTO(errorMessage, new Exception(errorMessage));
             }
 
             // We create and send the order.
@@ -192,17 +179,16 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
                 trades.put(tradeId, trade);
             });
 
-            // We update the balances of the account because of the trade.
+            // We update the balances of the account because of the trade : the reserved assets are spent.
+            userService.settle(spentCurrency, spentAmount);
             if (orderTypeDTO.equals(BID)) {
                 userService.addToBalance(currencyPair.getBaseCurrency(), amount);
-                userService.addToBalance(currencyPair.getQuoteCurrency(), amount.multiply(t.getLast()).multiply(new BigDecimal("-1")));
             } else {
-                userService.addToBalance(currencyPair.getBaseCurrency(), amount.multiply(new BigDecimal("-1")));
                 userService.addToBalance(currencyPair.getQuoteCurrency(), amount.multiply(t.getLast()));
             }
 
             // We create the result.
-            return new OrderCreationResultDTO(orderId);
+            return new OrderCreationResultDTO(orderId, LatencyTracer.acknowledged(trace));
         } else {
             return new OrderCreationResultDTO("Ticker not found", new Exception("Ticker not found"));
         }
@@ -228,6 +214,34 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
         return new OrderCreationResultDTO("Not implemented", new Exception("Not implemented"));
     }
 
+    @Override
+    public final List<OrderCreationResultDTO> createOrders(final List<OrderCreationRequestDTO> orderRequests) {
+        // In dry mode, orders are only simulated so they are created one after the other.
+        return orderRequests.stream()
+                .map(this::createOrder)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createOrderAsync(final OrderCreationRequestDTO orderRequest) {
+        // In dry mode, the order is simulated immediately (keeps backtests deterministic).
+        return CompletableFuture.completedFuture(createOrder(orderRequest));
+    }
+
+    /**
+     * Creates a fake order from a request.
+     *
+     * @param orderRequest order request
+     * @return order creation result
+     */
+    private OrderCreationResultDTO createOrder(final OrderCreationRequestDTO orderRequest) {
+        if (orderRequest.isMarketOrder()) {
+            return createMarketOrder(orderRequest.getType(), orderRequest.getCurrencyPair(), orderRequest.getAmount());
+        } else {
+            return new OrderCreationResultDTO("Not implemented", new Exception("Not implemented"));
+        }
+    }
+
     @Override
     public final Optional<OrderDTO> getOpenOrderByOrderId(final String orderId) {
         return Optional.ofNullable(orders.get(orderId));
@@ -243,6 +257,11 @@ public class TradeServiceDryModeImplementation extends BaseService implements Tr
         return orders.remove(orderId) != null;
     }
 
+    @Override
+    public final CompletableFuture<Boolean> cancelOrderAsync(final String orderId) {
+        return CompletableFuture.completedFuture(cancelOrder(orderId));
+    }
+
     @Override
     public final Set<TradeDTO> getTrades() {
         return new LinkedHashSet<>(trades.values());
@@ -13,14 +13,19 @@ import tech.cassandre.trading.bot.util.base.BaseService;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 
 /**
  * User service in dry mode.
@@ -39,18 +44,28 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
     /** Trade account ID. */
     public static final String TRADE_ACCOUNT_ID = "trade";
 
-    /** Simulated user information. */
+    /** Ledger - per account, the current balance of each currency (a fill only replaces the balance concerned). */
+    private final Map<String, Map<CurrencyDTO, BalanceDTO>> ledger = new LinkedHashMap<>();
+
+    /** Currencies of each account, in file order (used to build the account snapshots). */
+    private final Map<String, List<CurrencyDTO>> currencies = new LinkedHashMap<>();
+
+    /** Accounts snapshots - an account is only rebuilt, by getUser(), when one of its balances changed. */
+    private final Map<String, AccountDTO> accounts = new LinkedHashMap<>();
+
+    /** Ids of the accounts changed since the last published user information. */
+    private final Set<String> changedAccounts = ConcurrentHashMap.newKeySet();
+
+    /** Last published user information. */
     private UserDTO user;
 
     /** strategy. */
-    private GenericCassandreStrategy strategy;
+    private volatile GenericCassandreStrategy strategy;
 
     /**
      * Constructor.
      */
     public UserServiceDryModeImplementation() {
-        user = UserDTO.builder().setId(USER_ID).create();
-
         getFilesToLoad().forEach(file -> {
             if (file.getFilename() != null) {
 
@@ -61,7 +76,7 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
                 getLogger().info("Adding account '" + accountName + "'");
 
                 // Balances.
-                HashMap<CurrencyDTO, BalanceDTO> balances = new LinkedHashMap<>();
+                Map<CurrencyDTO, BalanceDTO> accountBalances = new LinkedHashMap<>();
                 try (Scanner scanner = new Scanner(file.getFile())) {
                     while (scanner.hasNextLine()) {
                         try (Scanner rowScanner = new Scanner(scanner.nextLine())) {
@@ -76,10 +91,12 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
                             // Creating balance.
                             getLogger().info("- Adding balance " + amount + " " + currency);
                             BalanceDTO balance = BalanceDTO.builder()
-                                    .currency(new CurrencyDTO(currency))
+                                    .currency(CurrencyDTO.getInstance(currency))
+                                    .total(new BigDecimal(amount))
                                     .available(new BigDecimal(amount))
+                                    .frozen(BigDecimal.ZERO)
                                     .create();
-                            balances.put(new CurrencyDTO(currency), balance);
+                            accountBalances.put(balance.getCurrency(), balance);
                         }
                     }
                 } catch (FileNotFoundException e) {
@@ -92,11 +109,14 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
                 AccountDTO account = AccountDTO.builder()
                         .id(accountName)
                         .name(accountName)
-                        .balances(balances)
+                        .balances(accountBalances)
                         .create();
-                user.getAccounts().put(account.getId(), account);
+                ledger.put(account.getId(), new ConcurrentHashMap<>(accountBalances));
+                currencies.put(account.getId(), new ArrayList<>(accountBalances.keySet()));
+                accounts.put(account.getId(), account);
             }
         });
+        publishUser();
     }
 
     /**
@@ -109,10 +129,72 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
     }
 
     @Override
-    public final Optional<UserDTO> getUser() {
+    public final synchronized Optional<UserDTO> getUser() {
+        // The user and its accounts are only rebuilt if a balance is different since the last call.
+        boolean userChanged = false;
+        for (Iterator<String> it = changedAccounts.iterator(); it.hasNext();) {
+            final String accountId = it.next();
+            it.remove();
+            final AccountDTO previousAccount = accounts.get(accountId);
+            final AccountDTO account = getAccount(previousAccount);
+            if (account != previousAccount) {
+                accounts.put(accountId, account);
+                userChanged = true;
+            }
+        }
+        if (userChanged) {
+            publishUser();
+        }
         return Optional.of(user);
     }
 
+    /**
+     * Returns the account snapshot made of the current balances of an account.
+     * Balances equal to the previous ones are reused and the previous snapshot is returned if no balance is different
+     * (for example, after a reservation followed by its release).
+     *
+     * @param previousAccount previous account snapshot
+     * @return account snapshot
+     */
+    private AccountDTO getAccount(final AccountDTO previousAccount) {
+        final Map<CurrencyDTO, BalanceDTO> accountLedger = ledger.get(previousAccount.getId());
+        final Map<CurrencyDTO, BalanceDTO> accountBalances = new LinkedHashMap<>();
+        boolean accountChanged = false;
+        for (CurrencyDTO currency : currencies.get(previousAccount.getId())) {
+            final BalanceDTO previousBalance = previousAccount.getBalance(currency).orElse(null);
+            final BalanceDTO balance = accountLedger.get(currency);
+            if (balance.equals(previousBalance)) {
+                accountBalances.put(currency, previousBalance);
+            } else {
+                accountBalances.put(currency, balance);
+                accountChanged = true;
+            }
+        }
+        if (accountChanged) {
+            return AccountDTO.builder()
+                    .id(previousAccount.getId())
+                    .name(previousAccount.getName())
+                    .balances(accountBalances)
+                    .create();
+        } else {
+            return previousAccount;
+        }
+    }
+
+    /**
+     * Returns the current balance of a currency in the trade account.
+     *
+     * @param currency currency
+     * @return balance
+     */
+    public Optional<BalanceDTO> getTradeAccountBalance(final CurrencyDTO currency) {
+        final Map<CurrencyDTO, BalanceDTO> tradeAccountLedger = ledger.get(TRADE_ACCOUNT_ID);
+        if (tradeAccountLedger == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tradeAccountLedger.get(currency));
+    }
+
     /**
      * Returns the list of files to import.
      *
@@ -131,51 +213,114 @@ public class UserServiceDryModeImplementation extends BaseService implements Use
 
     /**
      * Update balance of trade account.
+     * Only the balance concerned is replaced and sent to the strategy, accounts are rebuilt by {@link #getUser()}.
      *
      * @param currency currency
      * @param amount   amount
      */
     public void addToBalance(final CurrencyDTO currency, final BigDecimal amount) {
-        Optional<BalanceDTO> balance = user.getAccounts().get(TRADE_ACCOUNT_ID).getBalance(currency);
-        if (balance.isPresent()) {
-            final Map<String, AccountDTO> accounts = new LinkedHashMap<>();
-
-            // For each account.
-            user.getAccounts().forEach((s, a) -> {
-                HashMap<CurrencyDTO, BalanceDTO> balances = new LinkedHashMap<>();
-
-                // For each balance.
-                a.getBalances().forEach(b -> {
-                    BalanceDTO newBalance;
-                    if (a.getId().equals(TRADE_ACCOUNT_ID) && b.getCurrency().equals(currency)) {
-                        // If we are on the account to update, we calculate the new value.
-                        newBalance = BalanceDTO.builder()
-                                .currency(b.getCurrency())
-                                .available(b.getAvailable().add(amount))
-                                .create();
-                    } else {
-                        // Else we keep the same value.
-                        newBalance = BalanceDTO.builder()
-                                .currency(b.getCurrency())
-                                .available(b.getAvailable())
-                                .create();
-                    }
-                    balances.put(newBalance.getCurrency(), newBalance);
-                });
+        updateBalance(currency, (available, frozen) -> new BigDecimal[]{available.add(amount), frozen});
+    }
 
-                // Creating account
-                AccountDTO account = AccountDTO.builder()
-                        .id(a.getId())
-                        .name(a.getName())
-                        .balances(balances)
-                        .create();
-                accounts.put(account.getId(), account);
-            });
-            // Change the user value and the account in the strategy.
-            strategy.getAccounts().clear();
-            strategy.getAccounts().putAll(accounts);
-            this.user = UserDTO.builder().setId(USER_ID).setAccounts(accounts).create();
+    /**
+     * Reserves an amount of the trade account (available to frozen) if there is enough available.
+     *
+     * @param currency currency
+     * @param amount   amount
+     * @return true if the amount was reserved
+     */
+    public boolean reserve(final CurrencyDTO currency, final BigDecimal amount) {
+        final AtomicBoolean reserved = new AtomicBoolean(false);
+        updateBalance(currency, (available, frozen) -> {
+            if (available.compareTo(amount) < 0) {
+                return null;
+            }
+            reserved.set(true);
+            return new BigDecimal[]{available.subtract(amount), frozen.add(amount)};
+        });
+        return reserved.get();
+    }
+
+    /**
+     * Releases a reserved amount of the trade account (frozen to available).
+     *
+     * @param currency currency
+     * @param amount   amount
+     */
+    public void release(final CurrencyDTO currency, final BigDecimal amount) {
+        updateBalance(currency, (available, frozen) -> new BigDecimal[]{available.add(amount), frozen.subtract(amount)});
+    }
+
+    /**
+     * Spends a reserved amount of the trade account (the order using it was filled).
+     *
+     * @param currency currency
+     * @param amount   amount
+     */
+    public void settle(final CurrencyDTO currency, final BigDecimal amount) {
+        updateBalance(currency, (available, frozen) -> new BigDecimal[]{available, frozen.subtract(amount)});
+    }
+
+    /**
+     * Atomically replaces the balance of a currency in the trade account and sends it to the strategy.
+     *
+     * @param currency currency
+     * @param update   function returning the new available and frozen amounts (or null to keep the balance)
+     */
+    private void updateBalance(final CurrencyDTO currency, final BiFunction<BigDecimal, BigDecimal, BigDecimal[]> update) {
+        final Map<CurrencyDTO, BalanceDTO> tradeAccountLedger = ledger.get(TRADE_ACCOUNT_ID);
+        if (tradeAccountLedger == null) {
+            return;
         }
+        final AtomicBoolean changed = new AtomicBoolean(false);
+        tradeAccountLedger.computeIfPresent(currency, (c, balance) -> {
+            final BigDecimal[] amounts = update.apply(balance.getAvailable(), getFrozen(balance));
+            if (amounts == null) {
+                return balance;
+            }
+            changed.set(true);
+            return BalanceDTO.builder()
+                    .currency(currency)
+                    .total(amounts[0].add(amounts[1]))
+                    .available(amounts[0])
+                    .frozen(amounts[1])
+                    .create();
+        });
+        if (changed.get()) {
+            // Marked once the new balance is stored, so getUser() can't clear the flag and read the previous one.
+            changedAccounts.add(TRADE_ACCOUNT_ID);
+            // Sent outside the ledger lock: the balance sent is read again until it is still the current one, so the
+            // strategy ends with the last balance even if another thread sends its own at the same time.
+            final GenericCassandreStrategy currentStrategy = strategy;
+            if (currentStrategy != null) {
+                BalanceDTO sentBalance;
+                do {
+                    sentBalance = tradeAccountLedger.get(currency);
+                    currentStrategy.updateBalance(TRADE_ACCOUNT_ID, sentBalance);
+                } while (tradeAccountLedger.get(currency) != sentBalance);
+            }
+        }
+    }
+
+    /**
+     * Returns the frozen amount of a balance.
+     *
+     * @param balance balance
+     * @return frozen amount
+     */
+    private static BigDecimal getFrozen(final BalanceDTO balance) {
+        if (balance.getFrozen() != null) {
+            return balance.getFrozen();
+        } else {
+            return BigDecimal.ZERO;
+        }
+    }
+
+    /**
+     * Publishes a new user snapshot made of the current accounts snapshots.
+     */
+    private void publishUser() {
+        user = UserDTO.builder().setId(USER_ID).setAccounts(accounts).create();
     }
 
 }
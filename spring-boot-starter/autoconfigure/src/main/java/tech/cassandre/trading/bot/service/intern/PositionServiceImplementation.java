@@ -1,10 +1,14 @@
 package tech.cassandre.trading.bot.service.intern;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import tech.cassandre.trading.bot.domain.Position;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.position.PositionCreationResultDTO;
 import tech.cassandre.trading.bot.dto.position.PositionDTO;
 import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationRequestDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
@@ -14,22 +18,37 @@ import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.util.base.BaseService;
 
 import java.math.BigDecimal;
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
 import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
 import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
 
 /**
  * Position service implementation.
  */
 public class PositionServiceImplementation extends BaseService implements PositionService {
 
-    /** List of positions. */
-    private final Map<Long, PositionDTO> positions = new LinkedHashMap<>();
+    /** List of positions (ordered by id, positions can be created asynchronously). */
+    private final Map<Long, PositionDTO> positions = new ConcurrentSkipListMap<>();
+
+    /** Price level index of the positions per currency pair. */
+    private final Map<CurrencyPairDTO, PositionTriggerIndex> triggerIndexes = new ConcurrentHashMap<>();
 
     /** Trade service. */
     private final TradeService tradeService;
@@ -37,6 +56,12 @@ public class PositionServiceImplementation extends BaseService implements Positi
     /** Position repository. */
     private final PositionRepository positionRepository;
 
+    /** Executor completing asynchronous position creations (the event bus, so positions are only changed by its thread). */
+    private volatile Executor callbackExecutor = Runnable::run;
+
+    /** Listener notified when a position is created or changes. */
+    private volatile Consumer<PositionDTO> positionUpdateListener = position -> { };
+
     /**
      * Constructor.
      *
@@ -47,6 +72,25 @@ public class PositionServiceImplementation extends BaseService implements Positi
                                          final PositionRepository newPositionRepository) {
         this.tradeService = newTradeService;
         this.positionRepository = newPositionRepository;
+        registerPositionMeters();
+    }
+
+    @Override
+    public final void setMeterRegistry(final MeterRegistry newMeterRegistry) {
+        super.setMeterRegistry(newMeterRegistry);
+        registerPositionMeters();
+    }
+
+    /**
+     * Registers the positions meters.
+     */
+    private void registerPositionMeters() {
+        for (PositionStatusDTO status : PositionStatusDTO.values()) {
+            Gauge.builder("cassandre.positions", positions, p -> p.values().stream().filter(position -> position.getStatus() == status).count())
+                    .description("Positions by status")
+                    .tag("status", status.toString())
+                    .register(getMeterRegistry());
+        }
     }
 
     @Override
@@ -66,6 +110,45 @@ public class PositionServiceImplementation extends BaseService implements Positi
         // Trying to create an order.
         getLogger().debug("PositionService - Creating a position for {} on {} with the rules : {}", amount, currencyPair, rules);
         final OrderCreationResultDTO orderCreationResult = tradeService.createBuyMarketOrder(currencyPair, amount);
+        return createPositionFromOrder(currencyPair, amount, rules, orderCreationResult);
+    }
+
+    @Override
+    public final CompletableFuture<PositionCreationResultDTO> createPositionAsync(final CurrencyPairDTO currencyPair, final BigDecimal amount, final PositionRulesDTO rules) {
+        // Sending the order without waiting, the position is created when the order is acknowledged.
+        getLogger().debug("PositionService - Creating asynchronously a position for {} on {} with the rules : {}", amount, currencyPair, rules);
+        return tradeService.createOrderAsync(OrderCreationRequestDTO.builder()
+                .type(BID)
+                .currencyPair(currencyPair)
+                .amount(amount)
+                .create())
+                .thenApplyAsync(orderCreationResult -> createPositionFromOrder(currencyPair, amount, rules, orderCreationResult), callbackExecutor);
+    }
+
+    /**
+     * Setter for callbackExecutor.
+     * Asynchronous position creations are completed by this executor once the order is acknowledged (by the thread
+     * acknowledging the order if not set).
+     *
+     * @param newCallbackExecutor the callbackExecutor to set
+     */
+    public final void setCallbackExecutor(final Executor newCallbackExecutor) {
+        callbackExecutor = newCallbackExecutor;
+    }
+
+    /**
+     * Creates a position from the result of its opening order.
+     *
+     * @param currencyPair        currency pair
+     * @param amount              amount
+     * @param rules               rules
+     * @param orderCreationResult opening order creation result
+     * @return position creation result
+     */
+    private PositionCreationResultDTO createPositionFromOrder(final CurrencyPairDTO currencyPair,
+                                                              final BigDecimal amount,
+                                                              final PositionRulesDTO rules,
+                                                              final OrderCreationResultDTO orderCreationResult) {
         // If it works, create the position.
         if (orderCreationResult.isSuccessful()) {
             // =========================================================================================================
@@ -85,7 +168,10 @@ public class PositionServiceImplementation extends BaseService implements Positi
             // =========================================================================================================
             // Creates the position dto.
             PositionDTO p = new PositionDTO(position.getId(), currencyPair, amount, orderCreationResult.getOrderId(), rules);
+            p.setUpdateListener(this::positionUpdated);
             positions.put(p.getId(), p);
+            index(p);
+            positionUpdated(p);
             getLogger().debug("PositionService - Position {} opened with order {}", p.getId(), orderCreationResult.getOrderId());
 
             // =========================================================================================================
@@ -100,29 +186,121 @@ public class PositionServiceImplementation extends BaseService implements Positi
 
     @Override
     public final void tickerUpdate(final TickerDTO ticker) {
-        // With the ticker received, we check for every position, if it should be closed.
-        positions.values().stream()
-                .filter(p -> p.getStatus().equals(OPENED))
-                .filter(p -> p.getCurrencyPair() != null)
-                .filter(p -> p.getCurrencyPair().equals(ticker.getCurrencyPair()))
-                .filter(p -> p.shouldBeClosed(ticker))
-                .forEach(p -> {
-                    final OrderCreationResultDTO orderCreationResult = tradeService.createSellMarketOrder(ticker.getCurrencyPair(), p.getAmount());
-                    if (orderCreationResult.isSuccessful()) {
-                        p.setCloseOrderId(orderCreationResult.getOrderId());
-                        getLogger().debug("PositionService - Position {} closed with order {}", p.getId(), orderCreationResult.getOrderId());
-                    }
-                });
+        // With the ticker received, we only check the positions whose trigger prices have been crossed.
+        final PositionTriggerIndex index = triggerIndexes.get(ticker.getCurrencyPair());
+        if (index != null && ticker.getLast() != null) {
+            final List<PositionDTO> positionsToClose = new LinkedList<>();
+            index.getPositionsToCheck(ticker.getLast())
+                    .stream()
+                    .filter(p -> p.getStatus().equals(OPENED))
+                    .filter(p -> p.shouldBeClosed(ticker))
+                    .forEach(positionsToClose::add);
+            closePositions(positionsToClose);
+            positionsToClose.forEach(index::index);
+            // Highest and lowest prices of the other positions (saved with them when they reach a new extreme).
+            index.updatePriceRange(ticker.getLast()).forEach(PositionDTO::refreshPriceRange);
+        }
+    }
+
+    /**
+     * Sends the orders closing positions (all at once if there are several positions to close).
+     *
+     * @param positionsToClose positions to close
+     */
+    private void closePositions(final List<PositionDTO> positionsToClose) {
+        final List<OrderCreationResultDTO> orderCreationResults;
+        if (positionsToClose.isEmpty()) {
+            return;
+        } else if (positionsToClose.size() == 1) {
+            final PositionDTO p = positionsToClose.get(0);
+            orderCreationResults = Collections.singletonList(tradeService.createSellMarketOrder(p.getCurrencyPair(), p.getAmount()));
+        } else {
+            orderCreationResults = tradeService.createOrders(positionsToClose.stream()
+                    .map(p -> OrderCreationRequestDTO.builder()
+                            .type(ASK)
+                            .currencyPair(p.getCurrencyPair())
+                            .amount(p.getAmount())
+                            .create())
+                    .collect(Collectors.toList()));
+        }
+
+        // Results are in the same order than the positions.
+        final Iterator<OrderCreationResultDTO> results = orderCreationResults.iterator();
+        for (PositionDTO p : positionsToClose) {
+            if (results.hasNext()) {
+                final OrderCreationResultDTO orderCreationResult = results.next();
+                if (orderCreationResult.isSuccessful()) {
+                    p.setCloseOrderId(orderCreationResult.getOrderId());
+                    getLogger().debug("PositionService - Position {} closed with order {}", p.getId(), orderCreationResult.getOrderId());
+                } else {
+                    getLogger().error("PositionService - Position {} closing failure : {}", p.getId(), orderCreationResult.getErrorMessage());
+                }
+            }
+        }
     }
 
     @Override
     public final void tradeUpdate(final TradeDTO trade) {
-        positions.values().forEach(p -> p.tradeUpdate(trade));
+        positions.values().forEach(p -> {
+            final long version = p.getVersion();
+            p.tradeUpdate(trade);
+            if (p.getVersion() != version) {
+                // Status or trigger prices may have changed.
+                index(p);
+            }
+        });
     }
 
     @Override
     public final void restorePosition(final PositionDTO position) {
+        // Restored positions are only notified when they change.
+        position.setUpdateListener(this::positionUpdated);
         positions.put(position.getId(), position);
+        index(position);
+    }
+
+    @Override
+    public final List<PositionDTO> removePositions(final Set<CurrencyPairDTO> currencyPairs) {
+        final List<PositionDTO> removedPositions = new LinkedList<>();
+        positions.values().removeIf(p -> {
+            if (p.getStatus() != CLOSED && currencyPairs.contains(p.getCurrencyPair())) {
+                p.setUpdateListener(null);
+                final PositionTriggerIndex index = triggerIndexes.get(p.getCurrencyPair());
+                if (index != null) {
+                    index.remove(p);
+                }
+                removedPositions.add(p);
+                getLogger().debug("PositionService - Position {} removed", p.getId());
+                return true;
+            }
+            return false;
+        });
+        return removedPositions;
+    }
+
+    @Override
+    public final void setPositionUpdateListener(final Consumer<PositionDTO> listener) {
+        this.positionUpdateListener = listener;
+    }
+
+    /**
+     * Notifies the listener that a position was created or changed.
+     *
+     * @param position position
+     */
+    private void positionUpdated(final PositionDTO position) {
+        positionUpdateListener.accept(position);
+    }
+
+    /**
+     * Updates a position in the trigger index of its currency pair.
+     *
+     * @param position position
+     */
+    private void index(final PositionDTO position) {
+        if (position.getCurrencyPair() != null) {
+            triggerIndexes.computeIfAbsent(position.getCurrencyPair(), cp -> new PositionTriggerIndex()).index(position);
+        }
     }
 
     @Override
@@ -0,0 +1,248 @@
+package tech.cassandre.trading.bot.service.intern;
+
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+
+/**
+ * Price level index of the opened positions of one currency pair.
+ * <p>
+ * Only the fixed trigger prices are indexed (stop gain and stop loss prices of each position), so a ticker only
+ * touches the positions whose trigger price has been crossed - O(log n + k).
+ * The highest and lowest prices are not indexed: the index keeps the running highest and lowest prices of the
+ * currency pair, shared with the positions, and each position reads the ones reached since it was opened. Positions
+ * only copy them (and change version) when the currency pair reaches a new extreme.
+ */
+public final class PositionTriggerIndex {
+
+    /** Last price received for the currency pair (shared with the positions). */
+    private final AtomicReference<BigDecimal> lastPrice = new AtomicReference<>();
+
+    /** Positions by stop gain price (to check when price is above). */
+    private final NavigableMap<BigDecimal, Map<Long, PositionDTO>> stopGainPrices = new TreeMap<>();
+
+    /** Positions by stop loss price (to check when price is below). */
+    private final NavigableMap<BigDecimal, Map<Long, PositionDTO>> stopLossPrices = new TreeMap<>();
+
+    /** Indexed levels per position id. */
+    private final Map<Long, Levels> indexedLevels = new LinkedHashMap<>();
+
+    /** Price range of the currency pair since the last position was opened. */
+    private PriceRange priceRange = new PriceRange();
+
+    /**
+     * Adds a position to the index (or updates its levels).
+     *
+     * @param position position
+     */
+    public synchronized void index(final PositionDTO position) {
+        remove(position);
+        position.shareLastPrice(lastPrice);
+        if (position.getStatus() == OPENED && position.getCloseOrderId() == null) {
+            final Levels levels = new Levels(position);
+            put(stopGainPrices, levels.stopGainPrice, position);
+            put(stopLossPrices, levels.stopLossPrice, position);
+            indexedLevels.put(position.getId(), levels);
+
+            // The position reads the highest and lowest prices reached from now on.
+            if (priceRange.highestPrice != null) {
+                final PriceRange newPriceRange = new PriceRange();
+                priceRange.next = newPriceRange;
+                priceRange = newPriceRange;
+            }
+            final PriceRange start = priceRange;
+            position.sharePriceRange(start::getHighestPrice, start::getLowestPrice);
+        }
+    }
+
+    /**
+     * Returns the positions whose trigger price has been crossed by a new price (ordered by position id).
+     *
+     * @param price new price
+     * @return positions to check
+     */
+    public synchronized Collection<PositionDTO> getPositionsToCheck(final BigDecimal price) {
+        lastPrice.set(price);
+        final Map<Long, PositionDTO> positions = new TreeMap<>();
+        stopGainPrices.headMap(price, true).values().forEach(positions::putAll);
+        stopLossPrices.tailMap(price, true).values().forEach(positions::putAll);
+        return positions.values();
+    }
+
+    /**
+     * Updates the highest and lowest prices of the currency pair with a new price - O(1) unless it is a new extreme.
+     * Called once the positions triggered by this price are closing, so their highest and lowest prices don't move.
+     *
+     * @param price new price
+     * @return positions whose highest or lowest price may have changed (to refresh)
+     */
+    public synchronized Collection<PositionDTO> updatePriceRange(final BigDecimal price) {
+        if (!priceRange.update(price)) {
+            return Collections.emptyList();
+        }
+        final Collection<PositionDTO> positions = new ArrayList<>(indexedLevels.size());
+        indexedLevels.values().forEach(levels -> positions.add(levels.position));
+        return positions;
+    }
+
+    /**
+     * Returns the number of positions indexed.
+     *
+     * @return number of positions
+     */
+    public synchronized int size() {
+        return indexedLevels.size();
+    }
+
+    /**
+     * Removes a position from the index.
+     *
+     * @param position position
+     */
+    public synchronized void remove(final PositionDTO position) {
+        final Levels levels = indexedLevels.remove(position.getId());
+        if (levels != null) {
+            remove(stopGainPrices, levels.stopGainPrice, position);
+            remove(stopLossPrices, levels.stopLossPrice, position);
+        }
+    }
+
+    /**
+     * Puts a position at a price level.
+     *
+     * @param levels   levels
+     * @param price    price (ignored if null)
+     * @param position position
+     */
+    private static void put(final NavigableMap<BigDecimal, Map<Long, PositionDTO>> levels, final BigDecimal price, final PositionDTO position) {
+        if (price != null) {
+            levels.computeIfAbsent(price, p -> new LinkedHashMap<>()).put(position.getId(), position);
+        }
+    }
+
+    /**
+     * Removes a position from a price level.
+     *
+     * @param levels   levels
+     * @param price    price (ignored if null)
+     * @param position position
+     */
+    private static void remove(final NavigableMap<BigDecimal, Map<Long, PositionDTO>> levels, final BigDecimal price, final PositionDTO position) {
+        if (price != null) {
+            final Map<Long, PositionDTO> positions = levels.get(price);
+            if (positions != null) {
+                positions.remove(position.getId());
+                if (positions.isEmpty()) {
+                    levels.remove(price);
+                }
+            }
+        }
+    }
+
+    /**
+     * Trigger prices of a position when it was indexed.
+     */
+    private static final class Levels {
+
+        /** Position. */
+        private final PositionDTO position;
+
+        /** Stop gain price. */
+        private final BigDecimal stopGainPrice;
+
+        /** Stop loss price. */
+        private final BigDecimal stopLossPrice;
+
+        /**
+         * Constructor.
+         *
+         * @param newPosition position
+         */
+        Levels(final PositionDTO newPosition) {
+            this.position = newPosition;
+            this.stopGainPrice = newPosition.getStopGainPrice();
+            this.stopLossPrice = newPosition.getStopLossPrice();
+        }
+
+    }
+
+    /**
+     * Highest and lowest prices received between two position openings.
+     * Ranges are chained: a position reads the range in which it was opened and all the following ones, older ranges
+     * are garbage collected once no position reads them.
+     */
+    private static final class PriceRange {
+
+        /** Highest price received (null if no price received yet). */
+        private volatile BigDecimal highestPrice;
+
+        /** Lowest price received (null if no price received yet). */
+        private volatile BigDecimal lowestPrice;
+
+        /** Next range. */
+        private volatile PriceRange next;
+
+        /**
+         * Updates the range with a new price.
+         *
+         * @param price price
+         * @return true if the price is a new highest or lowest price of the range
+         */
+        boolean update(final BigDecimal price) {
+            boolean changed = false;
+            if (highestPrice == null || price.compareTo(highestPrice) > 0) {
+                highestPrice = price;
+                changed = true;
+            }
+            if (lowestPrice == null || price.compareTo(lowestPrice) < 0) {
+                lowestPrice = price;
+                changed = true;
+            }
+            return changed;
+        }
+
+        /**
+         * Returns the highest price received in this range and the following ones.
+         *
+         * @return highest price (null if no price received)
+         */
+        BigDecimal getHighestPrice() {
+            BigDecimal highest = null;
+            for (PriceRange range = this; range != null; range = range.next) {
+                final BigDecimal price = range.highestPrice;
+                if (price != null && (highest == null || price.compareTo(highest) > 0)) {
+                    highest = price;
+                }
+            }
+            return highest;
+        }
+
+        /**
+         * Returns the lowest price received in this range and the following ones.
+         *
+         * @return lowest price (null if no price received)
+         */
+        BigDecimal getLowestPrice() {
+            BigDecimal lowest = null;
+            for (PriceRange range = this; range != null; range = range.next) {
+                final BigDecimal price = range.lowestPrice;
+                if (price != null && (lowest == null || price.compareTo(lowest) < 0)) {
+                    lowest = price;
+                }
+            }
+            return lowest;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package tech.cassandre.trading.bot.service.shared;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.MarketService;
+import tech.cassandre.trading.bot.util.base.Base;
+import tech.cassandre.trading.bot.util.shared.TickerRingBuffer;
+import tech.cassandre.trading.bot.util.trace.LatencyTracer;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Market service - shared memory implementation.
+ * Tickers are read from the ring buffer filled by the bot publishing them, the exchange is never called.
+ */
+public class MarketServiceSharedMemoryImplementation extends Base implements MarketService {
+
+    /** Ticker ring buffer. */
+    private final TickerRingBuffer tickerRingBuffer;
+
+    /** Last tickers received. */
+    private final Map<CurrencyPairDTO, TickerDTO> lastTickers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param newTickerRingBuffer ticker ring buffer
+     */
+    public MarketServiceSharedMemoryImplementation(final TickerRingBuffer newTickerRingBuffer) {
+        this.tickerRingBuffer = newTickerRingBuffer;
+    }
+
+    @Override
+    public final Optional<TickerDTO> getTicker(final CurrencyPairDTO currencyPair) {
+        tickerRingBuffer.poll(t -> lastTickers.put(t.getCurrencyPair(), LatencyTracer.received(t)));
+        final TickerDTO t = lastTickers.get(currencyPair);
+        getLogger().debug("MarketService - Retrieved value is : {}", t);
+        return Optional.ofNullable(t);
+    }
+
+    @Override
+    public final Optional<CurrencyAmountDTO> getEstimatedBuyingCost(final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        // We get the last ticker from the last values received.
+        final TickerDTO ticker = lastTickers.get(currencyPair);
+        if (ticker == null) {
+            // No ticker for this currency pair.
+            return Optional.empty();
+        } else {
+            // Make the calculation.
+            return Optional.of(new CurrencyAmountDTO(ticker.getLast().multiply(amount),
+                    currencyPair.getQuoteCurrency()));
+        }
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Shared memory implementation.
+ */
+package tech.cassandre.trading.bot.service.shared;
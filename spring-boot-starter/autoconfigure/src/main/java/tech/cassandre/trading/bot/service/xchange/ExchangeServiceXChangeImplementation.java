@@ -35,7 +35,7 @@ public class ExchangeServiceXChangeImplementation extends BaseService implements
                 .forEach((currencyPair, currencyPairMetaData) -> {
                     CurrencyDTO base = getMapper().mapToCurrencyDTO(currencyPair.base);
                     CurrencyDTO counter = getMapper().mapToCurrencyDTO(currencyPair.counter);
-                    CurrencyPairDTO cp = new CurrencyPairDTO(base, counter);
+                    CurrencyPairDTO cp = CurrencyPairDTO.getInstance(base, counter);
                     availableCurrencyPairs.add(cp);
                     getLogger().debug("ExchangeService - Adding currency pair {} ", cp);
                 });
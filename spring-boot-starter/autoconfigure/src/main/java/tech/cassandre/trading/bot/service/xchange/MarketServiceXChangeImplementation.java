@@ -5,12 +5,20 @@ import org.knowm.xchange.service.marketdata.MarketDataService;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.service.MarketService;
 import tech.cassandre.trading.bot.util.base.BaseService;
+import tech.cassandre.trading.bot.util.candle.CandleRecorder;
+import tech.cassandre.trading.bot.util.candle.CandleStore;
 import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.trace.LatencyTracer;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -25,6 +33,12 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
     /** Last tickers received. */
     private final Map<CurrencyPairDTO, TickerDTO> lastTickers = new LinkedHashMap<>();
 
+    /** Candle store keeping historical bars (null if not configured). */
+    private CandleStore candleStore;
+
+    /** Candle recorder saving the bars built from the tickers received (null if there is no candle store). */
+    private CandleRecorder candleRecorder;
+
     /**
      * Constructor.
      *
@@ -36,16 +50,32 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
         this.marketDataService = newMarketDataService;
     }
 
+    /**
+     * Setter for candleStore.
+     *
+     * @param newCandleStore the candleStore to set
+     */
+    public final void setCandleStore(final CandleStore newCandleStore) {
+        candleStore = newCandleStore;
+        candleRecorder = new CandleRecorder(newCandleStore);
+    }
+
     @Override
     public final Optional<TickerDTO> getTicker(final CurrencyPairDTO currencyPair) {
         try {
-            // Consume a token from the token bucket.
-            // If a token is not available this method will block until the refill adds one to the bucket.
-            getBucket().asScheduler().consume(1);
+            // Wait for the rate limiter.
+            // If the last call was made less than the current interval ago, this method will block until the interval is over.
+            consumeToken();
 
             getLogger().debug("MarketService - Getting ticker for {}", currencyPair);
-            CurrencyPair cp = new CurrencyPair(currencyPair.getBaseCurrency().getCode(), currencyPair.getQuoteCurrency().getCode());
-            TickerDTO t = getMapper().mapToTickerDTO(marketDataService.getTicker(cp));
+            final CurrencyPair cp = getCurrencyPair(currencyPair);
+            TickerDTO t = getMapper().mapToTickerDTO(callExchange("getTicker", () -> marketDataService.getTicker(cp)));
+            if (t != null) {
+                t = LatencyTracer.received(t);
+                if (candleRecorder != null) {
+                    candleRecorder.tickerUpdate(t);
+                }
+            }
             getLogger().debug("MarketService - Retrieved value is : {}", t);
             lastTickers.put(currencyPair, t);
             return Optional.ofNullable(t);
@@ -87,4 +117,22 @@ public class MarketServiceXChangeImplementation extends BaseService implements M
         }
     }
 
+    @Override
+    public final List<TickerDTO> getHistoricalTickers(final CurrencyPairDTO currencyPair, final Duration barDuration, final int barCount) {
+        // XChange has no candle API for the supported exchanges (and the last public trades only cover a few minutes),
+        // bars come from the candle store. From now on, the bars of this series are built from the tickers received
+        // and saved, so the next warm-up finds them.
+        if (candleStore == null) {
+            return Collections.emptyList();
+        }
+        candleRecorder.record(currencyPair, barDuration);
+        try {
+            // Bars saved before a downtime don't join up with the live bars and are not returned.
+            return candleStore.getRecentCandles(currencyPair, barDuration, barCount, ZonedDateTime.now());
+        } catch (UncheckedIOException e) {
+            getLogger().error("MarketService - Candle store error for {} : {}", currencyPair, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
 }
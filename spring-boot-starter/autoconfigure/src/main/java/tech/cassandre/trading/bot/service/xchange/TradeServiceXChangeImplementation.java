@@ -5,6 +5,7 @@ import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.MarketOrder;
 import org.knowm.xchange.service.trade.params.TradeHistoryParamsAll;
 import tech.cassandre.trading.bot.domain.Trade;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationRequestDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
@@ -13,14 +14,20 @@ import tech.cassandre.trading.bot.repository.TradeRepository;
 import tech.cassandre.trading.bot.service.TradeService;
 import tech.cassandre.trading.bot.util.base.BaseService;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.dto.util.LatencyTraceDTO;
+import tech.cassandre.trading.bot.util.trace.LatencyTracer;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 /**
  * Trade service - XChange implementation.
@@ -57,21 +64,20 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
      * @param orderTypeDTO order type
      * @param currencyPair currency pair
      * @param amount       amount
-     * @return order creation result
+     * @return future completed with the order creation result
      */
-    private OrderCreationResultDTO createMarketOrder(final OrderTypeDTO orderTypeDTO, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+    private CompletableFuture<OrderCreationResultDTO> createMarketOrder(final OrderTypeDTO orderTypeDTO, final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+        final LatencyTraceDTO trace = LatencyTracer.decided();
         try {
             // Making the order.
             MarketOrder m = new MarketOrder(getMapper().mapToOrderType(orderTypeDTO), amount, getCurrencyPair(currencyPair));
             getLogger().debug("TradeService - Sending market order : {} - {} - {}", orderTypeDTO, currencyPair, amount);
 
             // Sending the order.
-            final OrderCreationResultDTO result = new OrderCreationResultDTO(tradeService.placeMarketOrder(m));
-            getLogger().debug("TradeService - Order created : {}", result);
-            return result;
+            return callExchangeAsync("placeMarketOrder", () -> tradeService.placeMarketOrder(m))
+                    .handle((orderId, throwable) -> getOrderCreationResult("createBuyMarketOrder", trace, orderId, throwable));
         } catch (Exception e) {
-            getLogger().error("TradeService - Error calling createBuyMarketOrder : {}", e.getMessage());
-            return new OrderCreationResultDTO("TradeService - Error calling createBuyMarketOrder : " + e.getMessage(), e);
+            return CompletableFuture.completedFuture(getOrderCreationResult("createBuyMarketOrder", trace, null, e));
         }
     }
 
@@ -82,42 +88,101 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
      * @param currencyPair currency pair
      * @param amount       amount
      * @param limitPrice   In a BID this is the highest acceptable price, in an ASK this is the lowest acceptable price
-     * @return order creation result
+     * @return future completed with the order creation result
      */
-    private OrderCreationResultDTO createLimitOrder(final OrderTypeDTO orderTypeDTO, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+    private CompletableFuture<OrderCreationResultDTO> createLimitOrder(final OrderTypeDTO orderTypeDTO, final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
+        final LatencyTraceDTO trace = LatencyTracer.decided();
         try {
             // Making the order.
             LimitOrder l = new LimitOrder(getMapper().mapToOrderType(orderTypeDTO), amount, getCurrencyPair(currencyPair), null, null, limitPrice);
             getLogger().debug("TradeService - Sending market order : {} - {} - {}", orderTypeDTO, currencyPair, amount);
 
             // Sending the order.
-            final OrderCreationResultDTO result = new OrderCreationResultDTO(tradeService.placeLimitOrder(l));
-            getLogger().debug("TradeService - Order creation result : {}", result);
-            return result;
+            return callExchangeAsync("placeLimitOrder", () -> tradeService.placeLimitOrder(l))
+                    .handle((orderId, throwable) -> getOrderCreationResult("createLimitOrder", trace, orderId, throwable));
         } catch (Exception e) {
-            getLogger().error("TradeService - Error calling createLimitOrder : {}", e.getMessage());
-            return new OrderCreationResultDTO("TradeService - Error calling createLimitOrder : " + e.getMessage(), e);
+            return CompletableFuture.completedFuture(getOrderCreationResult("createLimitOrder", trace, null, e));
+        }
+    }
+
+    /**
+     * Returns the result of an order creation.
+     *
+     * @param methodName method name (for error messages)
+     * @param trace      order trace
+     * @param orderId    order id returned by the exchange
+     * @param throwable  error (null if the order was created)
+     * @return order creation result
+     */
+    private OrderCreationResultDTO getOrderCreationResult(final String methodName, final LatencyTraceDTO trace, final String orderId, final Throwable throwable) {
+        if (throwable == null) {
+            final OrderCreationResultDTO result = new OrderCreationResultDTO(orderId, LatencyTracer.acknowledged(trace));
+            getLogger().debug("TradeService - Order created : {}", result);
+            return result;
+        } else {
+            final Exception e = getException(throwable);
+            getLogger().error("TradeService - Error calling {} : {}", methodName, e.getMessage());
+            return new OrderCreationResultDTO("TradeService - Error calling " + methodName + " : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the exception thrown by an asynchronous exchange call.
+     *
+     * @param throwable error completing the call
+     * @return exception
+     */
+    private static Exception getException(final Throwable throwable) {
+        Throwable cause = throwable;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        } else {
+            return new Exception(cause);
         }
     }
 
     @Override
     public final OrderCreationResultDTO createBuyMarketOrder(final CurrencyPairDTO currencyPair, final BigDecimal amount) {
-        return createMarketOrder(OrderTypeDTO.BID, currencyPair, amount);
+        return createMarketOrder(OrderTypeDTO.BID, currencyPair, amount).join();
     }
 
     @Override
     public final OrderCreationResultDTO createSellMarketOrder(final CurrencyPairDTO currencyPair, final BigDecimal amount) {
-        return createMarketOrder(OrderTypeDTO.ASK, currencyPair, amount);
+        return createMarketOrder(OrderTypeDTO.ASK, currencyPair, amount).join();
     }
 
     @Override
     public final OrderCreationResultDTO createBuyLimitOrder(final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
-        return createLimitOrder(OrderTypeDTO.BID, currencyPair, amount, limitPrice);
+        return createLimitOrder(OrderTypeDTO.BID, currencyPair, amount, limitPrice).join();
     }
 
     @Override
     public final OrderCreationResultDTO createSellLimitOrder(final CurrencyPairDTO currencyPair, final BigDecimal amount, final BigDecimal limitPrice) {
-        return createLimitOrder(OrderTypeDTO.ASK, currencyPair, amount, limitPrice);
+        return createLimitOrder(OrderTypeDTO.ASK, currencyPair, amount, limitPrice).join();
+    }
+
+    @Override
+    public final List<OrderCreationResultDTO> createOrders(final List<OrderCreationRequestDTO> orderRequests) {
+        // XChange has no batch order endpoint, orders are sent concurrently (bounded by the exchange executor).
+        getLogger().debug("TradeService - Sending {} orders", orderRequests.size());
+        final List<CompletableFuture<OrderCreationResultDTO>> results = orderRequests.stream()
+                .map(this::createOrderAsync)
+                .collect(Collectors.toList());
+        return results.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public final CompletableFuture<OrderCreationResultDTO> createOrderAsync(final OrderCreationRequestDTO orderRequest) {
+        if (orderRequest.isMarketOrder()) {
+            return createMarketOrder(orderRequest.getType(), orderRequest.getCurrencyPair(), orderRequest.getAmount());
+        } else {
+            return createLimitOrder(orderRequest.getType(), orderRequest.getCurrencyPair(), orderRequest.getAmount(), orderRequest.getLimitPrice());
+        }
     }
 
     @Override
@@ -136,14 +201,11 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
     public final Set<OrderDTO> getOpenOrders() {
         getLogger().debug("TradeService - Getting open orders from exchange");
         try {
-            // Consume a token from the token bucket.
-            // If a token is not available this method will block until the refill adds one to the bucket.
-            getBucket().asScheduler().consume(1);
-
-            Set<OrderDTO> results = new LinkedHashSet<>();
-            tradeService.getOpenOrders()
-                    .getOpenOrders()
-                    .forEach(order -> results.add(getMapper().mapToOrderDTO(order)));
+            // Wait for the rate limiter.
+            // If the last call was made less than the current interval ago, this method will block until the interval is over.
+            consumeToken();
+
+            final Set<OrderDTO> results = new LinkedHashSet<>(getMapper().mapToOrderDTO(callExchange("getOpenOrders", tradeService::getOpenOrders).getOpenOrders()));
             getLogger().debug("TradeService - {} order(s) found", results.size());
             return results;
         } catch (IOException e) {
@@ -157,18 +219,26 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
 
     @Override
     public final boolean cancelOrder(final String orderId) {
+        return cancelOrderAsync(orderId).join();
+    }
+
+    @Override
+    public final CompletableFuture<Boolean> cancelOrderAsync(final String orderId) {
         getLogger().debug("TradeService - Canceling order {}", orderId);
         if (orderId != null) {
-            try {
-                getLogger().debug("TradeService - Successfully canceled order {}", orderId);
-                return tradeService.cancelOrder(orderId);
-            } catch (Exception e) {
-                getLogger().error("Error canceling order {} : {}", orderId, e.getMessage());
-                return false;
-            }
+            return callExchangeAsync("cancelOrder", () -> tradeService.cancelOrder(orderId))
+                    .handle((cancelled, throwable) -> {
+                        if (throwable == null) {
+                            getLogger().debug("TradeService - Canceled order {} : {}", orderId, cancelled);
+                            return cancelled;
+                        } else {
+                            getLogger().error("Error canceling order {} : {}", orderId, getException(throwable).getMessage());
+                            return false;
+                        }
+                    });
         } else {
             getLogger().error("Error canceling order, order id provided is null");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
     }
 
@@ -176,9 +246,9 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
     public final Set<TradeDTO> getTrades() {
         getLogger().debug("TradeService - Getting trades from exchange");
         try {
-            // Consume a token from the token bucket.
-            // If a token is not available this method will block until the refill adds one to the bucket.
-            getBucket().asScheduler().consume(1);
+            // Wait for the rate limiter.
+            // If the last call was made less than the current interval ago, this method will block until the interval is over.
+            consumeToken();
 
             // Query 1 week of trades.
             Set<TradeDTO> results = new LinkedHashSet<>(tradesFromBackup);
@@ -187,9 +257,7 @@ public class TradeServiceXChangeImplementation extends BaseService implements Tr
             Date endDate = new Date();
             params.setStartTime(startDate);
             params.setEndTime(endDate);
-            tradeService.getTradeHistory(params)
-                    .getUserTrades()
-                    .forEach(userTrade -> results.add(getMapper().mapToTradeDTO(userTrade)));
+            results.addAll(getMapper().mapToTradeDTO(callExchange("getTradeHistory", () -> tradeService.getTradeHistory(params)).getUserTrades()));
             getLogger().debug("TradeService - {} trade(s) found", results.size());
             return results;
         } catch (IOException e) {
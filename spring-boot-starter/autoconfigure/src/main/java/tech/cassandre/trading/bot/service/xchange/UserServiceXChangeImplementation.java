@@ -29,12 +29,12 @@ public class UserServiceXChangeImplementation extends BaseService implements Use
     @Override
     public final Optional<UserDTO> getUser() {
         try {
-            // Consume a token from the token bucket.
-            // If a token is not available this method will block until the refill adds one to the bucket.
-            getBucket().asScheduler().consume(1);
+            // Wait for the rate limiter.
+            // If the last call was made less than the current interval ago, this method will block until the interval is over.
+            consumeToken();
 
             getLogger().debug("UserService - Retrieving account information");
-            final UserDTO user = getMapper().mapToUserDTO(xChangeAccountService.getAccountInfo());
+            final UserDTO user = getMapper().mapToUserDTO(callExchange("getAccountInfo", xChangeAccountService::getAccountInfo));
             getLogger().debug("UserService - Account information retrieved " + user);
             return Optional.ofNullable(user);
         } catch (IOException e) {
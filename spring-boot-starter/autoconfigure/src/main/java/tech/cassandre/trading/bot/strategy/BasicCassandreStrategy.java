@@ -14,7 +14,7 @@ public abstract class BasicCassandreStrategy extends GenericCassandreStrategy {
 
     @Override
     public final void accountUpdate(final AccountDTO account) {
-        getAccounts().put(account.getId(), account);
+        updateAccount(account);
         onAccountUpdate(account);
     }
 
@@ -2,9 +2,9 @@ package tech.cassandre.trading.bot.strategy;
 
 import com.google.common.base.MoreObjects;
 import org.ta4j.core.BarSeries;
-import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.Indicator;
 import org.ta4j.core.Strategy;
-import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
 import tech.cassandre.trading.bot.dto.position.PositionDTO;
 import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
@@ -12,13 +12,15 @@ import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.ta4j.IndicatorRegistry;
+import tech.cassandre.trading.bot.util.ta4j.PrimitiveBarSeries;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.LinkedHashSet;
-import java.util.Optional;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Basic ta4j strategy.
@@ -31,6 +33,9 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
     /** Series. */
     private final BarSeries series;
 
+    /** Indicators. */
+    private final IndicatorRegistry indicators = new IndicatorRegistry();
+
     /** Strategy. */
     private final Strategy strategy;
 
@@ -39,11 +44,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      */
     public BasicTa4jCassandreStrategy() {
         // Build the series.
-        series = new BaseBarSeriesBuilder()
-                .withNumTypeOf(DoubleNum.class)
-                .withName(getRequestedCurrencyPair().toString())
-                .build();
-        series.setMaximumBarCount(getMaximumBarCount());
+        series = new PrimitiveBarSeries(getRequestedCurrencyPair().toString(), getMaximumBarCount());
 
         // Build the strategy.public abstract
         strategy = getStrategy();
@@ -86,13 +87,50 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
 
     @Override
     public final void accountUpdate(final AccountDTO account) {
-        getAccounts().put(account.getId(), account);
+        updateAccount(account);
         onAccountUpdate(account);
     }
 
     @Override
     public final void tickerUpdate(final TickerDTO ticker) {
         getLastTicker().put(ticker.getCurrencyPair(), ticker);
+        if (addBar(ticker)) {
+            // Ask what to do to the strategy.
+            int endIndex = series.getEndIndex();
+            if (strategy.shouldEnter(endIndex)) {
+                // Our strategy should enter.
+                shouldEnter();
+            } else if (strategy.shouldExit(endIndex)) {
+                // Our strategy should exit.
+                shouldExit();
+            }
+        }
+        onTickerUpdate(ticker);
+    }
+
+    /**
+     * Loads historical bars in the series before live tickers arrive (the strategy is not asked what to do).
+     *
+     * @param tickers historical bars, the oldest first
+     * @return number of bars added
+     */
+    public final int warmUp(final List<TickerDTO> tickers) {
+        int count = 0;
+        for (TickerDTO ticker : tickers) {
+            if (addBar(ticker)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds a bar to the series if the duration between the last bar and the ticker is enough.
+     *
+     * @param ticker ticker
+     * @return true if a bar was added
+     */
+    private boolean addBar(final TickerDTO ticker) {
         // If there is no bar or if the duration between the last bar and the ticker is enough.
         if (lastAddedBarTimestamp == null
                 || ticker.getTimestamp().isEqual(lastAddedBarTimestamp.plus(getDelayBetweenTwoBars()))
@@ -106,18 +144,10 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
             Number volume = MoreObjects.firstNonNull(ticker.getVolume(), 0);
             series.addBar(ticker.getTimestamp(), openPrice, highPrice, lowPrice, closePrice, volume);
             lastAddedBarTimestamp = ticker.getTimestamp();
-
-            // Ask what to do to the strategy.
-            int endIndex = series.getEndIndex();
-            if (strategy.shouldEnter(endIndex)) {
-                // Our strategy should enter.
-                shouldEnter();
-            } else if (strategy.shouldExit(endIndex)) {
-                // Our strategy should exit.
-                shouldExit();
-            }
+            indicators.barAdded(getRequestedCurrencyPair(), getDelayBetweenTwoBars(), series.getEndIndex());
+            return true;
         }
-        onTickerUpdate(ticker);
+        return false;
     }
 
     @Override
@@ -153,8 +183,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      * @return true if we there is enough money to buy
      */
     public final boolean canBuy(final BigDecimal amount) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
-        return tradeAccount.filter(accountDTO -> canBuy(accountDTO, getRequestedCurrencyPair(), amount)).isPresent();
+        return canBuy(getRequestedCurrencyPair(), amount);
     }
 
     /**
@@ -166,8 +195,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      */
     public final boolean canBuy(final BigDecimal amount,
                                 final BigDecimal minimumBalanceAfter) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
-        return tradeAccount.filter(accountDTO -> canBuy(accountDTO, getRequestedCurrencyPair(), amount, minimumBalanceAfter)).isPresent();
+        return canBuy(getRequestedCurrencyPair(), amount, minimumBalanceAfter);
     }
 
     /**
@@ -205,8 +233,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      */
     public final boolean canSell(final BigDecimal amount,
                                  final BigDecimal minimumBalanceAfter) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
-        return tradeAccount.filter(accountDTO -> canSell(accountDTO, getRequestedCurrencyPair().getBaseCurrency(), amount, minimumBalanceAfter)).isPresent();
+        return canSell(getRequestedCurrencyPair().getBaseCurrency(), amount, minimumBalanceAfter);
     }
 
     /**
@@ -216,8 +243,7 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      * @return true if we there is enough money to buy
      */
     public final boolean canSell(final BigDecimal amount) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
-        return tradeAccount.filter(accountDTO -> canSell(accountDTO, getRequestedCurrencyPair().getBaseCurrency(), amount)).isPresent();
+        return canSell(getRequestedCurrencyPair().getBaseCurrency(), amount);
     }
 
     /**
@@ -256,6 +282,17 @@ public abstract class BasicTa4jCassandreStrategy extends GenericCassandreStrateg
      */
     public abstract void shouldExit();
 
+    /**
+     * Returns an indicator computed once per bar and shared by all the rules using the same definition.
+     *
+     * @param definition indicator definition (for example "RSI(14)")
+     * @param factory    creates the indicator from the series
+     * @return indicator
+     */
+    public final Indicator<Num> getIndicator(final String definition, final Function<BarSeries, Indicator<Num>> factory) {
+        return indicators.getIndicator(getRequestedCurrencyPair(), getDelayBetweenTwoBars(), definition, series, factory);
+    }
+
     /**
      * Getter for series.
      *
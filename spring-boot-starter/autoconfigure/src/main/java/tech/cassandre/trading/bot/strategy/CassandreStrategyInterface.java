@@ -61,6 +61,13 @@ public interface CassandreStrategyInterface {
      */
     void restorePosition(PositionDTO position);
 
+    /**
+     * Remove a position moved to another node.
+     *
+     * @param position position to remove
+     */
+    void removePosition(PositionDTO position);
+
     /**
      * Method called by streams at every account update.
      *
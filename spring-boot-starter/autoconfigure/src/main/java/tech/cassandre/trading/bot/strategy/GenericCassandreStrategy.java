@@ -18,6 +18,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Generic Cassandre strategy.
@@ -48,6 +49,12 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     /** Last ticker received. */
     private final Map<CurrencyPairDTO, TickerDTO> lastTicker = new LinkedHashMap<>();
 
+    /** Trade account (resolved when an account is updated). */
+    private volatile AccountDTO tradeAccount;
+
+    /** Available balances of the trade account by currency. */
+    private volatile Map<CurrencyDTO, BigDecimal> tradeAccountBalances = new ConcurrentHashMap<>();
+
     @Override
     public final void setTradeService(final TradeService newTradeService) {
         this.tradeService = newTradeService;
@@ -78,8 +85,13 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
         getPositions().put(position.getId(), position);
     }
 
+    @Override
+    public final void removePosition(final PositionDTO position) {
+        getPositions().remove(position.getId());
+    }
+
     /**
-     * Getter accounts.
+     * Getter accounts (use {@link #updateAccount(AccountDTO)} to change an account).
      *
      * @return accounts
      */
@@ -87,6 +99,53 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
         return accounts;
     }
 
+    /**
+     * Updates an account and, as the trade account may have changed, the trade account balances.
+     *
+     * @param account account
+     */
+    public final void updateAccount(final AccountDTO account) {
+        accounts.put(account.getId(), account);
+        final AccountDTO newTradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values())).orElse(null);
+        final Map<CurrencyDTO, BigDecimal> balances = new ConcurrentHashMap<>();
+        if (newTradeAccount != null) {
+            newTradeAccount.getBalances()
+                    .stream()
+                    .filter(balance -> balance.getAvailable() != null)
+                    .forEach(balance -> balances.put(balance.getCurrency(), balance.getAvailable()));
+        }
+        // Balances are set first, so that a trade account is never seen without its balances.
+        tradeAccountBalances = balances;
+        tradeAccount = newTradeAccount;
+    }
+
+    /**
+     * Updates a single balance of the trade account (the account itself is replaced by the next account update).
+     *
+     * @param accountId account id
+     * @param balance   balance
+     */
+    public final void updateBalance(final String accountId, final BalanceDTO balance) {
+        final AccountDTO account = tradeAccount;
+        if (account != null && account.getId().equals(accountId)) {
+            if (balance.getAvailable() != null) {
+                tradeAccountBalances.put(balance.getCurrency(), balance.getAvailable());
+            } else {
+                tradeAccountBalances.remove(balance.getCurrency());
+            }
+        }
+    }
+
+    /**
+     * Returns the available balance of a currency in the trade account.
+     *
+     * @param currency currency
+     * @return available balance or null if the trade account has no balance in this currency
+     */
+    public final BigDecimal getTradeAccountAvailableBalance(final CurrencyDTO currency) {
+        return tradeAccountBalances.get(currency);
+    }
+
     /**
      * Getter orders.
      *
@@ -134,7 +193,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
 
     @Override
     public final Optional<AccountDTO> getTradeAccount() {
-        return getTradeAccount(new LinkedHashSet<>(getAccounts().values()));
+        return Optional.ofNullable(tradeAccount);
     }
 
     /**
@@ -181,8 +240,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
      */
     public final boolean canBuy(final CurrencyPairDTO currencyPair,
                                 final BigDecimal amount) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values()));
-        return tradeAccount.filter(account -> canBuy(account, currencyPair, amount)).isPresent();
+        return canBuy(currencyPair, amount, BigDecimal.ZERO);
     }
 
     /**
@@ -196,8 +254,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     public final boolean canBuy(final CurrencyPairDTO currencyPair,
                                 final BigDecimal amount,
                                 final BigDecimal minimumBalanceAfter) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values()));
-        return tradeAccount.filter(account -> canBuy(account, currencyPair, amount, minimumBalanceAfter)).isPresent();
+        return canBuy(tradeAccountBalances.get(currencyPair.getQuoteCurrency()), currencyPair, amount, minimumBalanceAfter);
     }
 
     /**
@@ -227,27 +284,32 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
                                 final CurrencyPairDTO currencyPair,
                                 final BigDecimal amount,
                                 final BigDecimal minimumBalanceAfter) {
-        // We get the amount.
-        final Optional<BalanceDTO> balance = account.getBalance(currencyPair.getQuoteCurrency());
-        if (balance.isPresent()) {
-            // We get the estimated cost of buying.
-            final Optional<CurrencyAmountDTO> estimatedBuyingCost = getEstimatedBuyingCost(currencyPair, amount);
-
-            // We calculate.
-            // Balance in the account
-            // Minus
-            // Estimated cost
-            // Must be superior to zero
-            // If there is no way to calculate the price for the moment (no ticker).
-            return estimatedBuyingCost.filter(currencyAmountDTO -> balance.get().getAvailable()
-                    .subtract(currencyAmountDTO.getValue().add(minimumBalanceAfter))
-                    .compareTo(BigDecimal.ZERO) > 0).isPresent() || estimatedBuyingCost.filter(currencyAmountDTO -> balance.get().getAvailable()
-                    .subtract(currencyAmountDTO.getValue().add(minimumBalanceAfter))
-                    .compareTo(BigDecimal.ZERO) == 0).isPresent();
-        } else {
-            // If the is no balance in this currency, we can't buy.
+        return canBuy(account.getBalance(currencyPair.getQuoteCurrency()).map(BalanceDTO::getAvailable).orElse(null),
+                currencyPair,
+                amount,
+                minimumBalanceAfter);
+    }
+
+    /**
+     * Returns true if the available balance covers the estimated cost of buying and minimumBalanceAfter.
+     *
+     * @param available           available balance of the quote currency (null if there is no balance)
+     * @param currencyPair        currency pair
+     * @param amount              amount
+     * @param minimumBalanceAfter minimum balance that should be left after buying
+     * @return true if we there is enough assets to buy
+     */
+    private boolean canBuy(final BigDecimal available,
+                           final CurrencyPairDTO currencyPair,
+                           final BigDecimal amount,
+                           final BigDecimal minimumBalanceAfter) {
+        // If there is no balance in this currency or no way to calculate the price for the moment (no ticker).
+        final TickerDTO ticker = lastTicker.get(currencyPair);
+        if (available == null || ticker == null) {
             return false;
         }
+        // Balance minus estimated cost must be superior or equal to the minimum balance after.
+        return hasAvailable(available, ticker.getLast().multiply(amount), minimumBalanceAfter);
     }
 
     /**
@@ -259,8 +321,7 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
      */
     public final boolean canSell(final CurrencyDTO currency,
                                  final BigDecimal amount) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values()));
-        return tradeAccount.filter(account -> canSell(account, currency, amount)).isPresent();
+        return canSell(currency, amount, BigDecimal.ZERO);
     }
 
     /**
@@ -274,8 +335,8 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
     public final boolean canSell(final CurrencyDTO currency,
                                  final BigDecimal amount,
                                  final BigDecimal minimumBalanceAfter) {
-        final Optional<AccountDTO> tradeAccount = getTradeAccount(new LinkedHashSet<>(accounts.values()));
-        return tradeAccount.filter(account -> canSell(account, currency, amount, minimumBalanceAfter)).isPresent();
+        final BigDecimal available = tradeAccountBalances.get(currency);
+        return available != null && hasAvailable(available, amount, minimumBalanceAfter);
     }
 
     /**
@@ -305,13 +366,24 @@ public abstract class GenericCassandreStrategy implements CassandreStrategyInter
                                  final CurrencyDTO currency,
                                  final BigDecimal amount,
                                  final BigDecimal minimumBalanceAfter) {
-        // We get the amount.
+        // If the is no balance in this currency, we can't sell.
         final Optional<BalanceDTO> balance = account.getBalance(currency);
-        // public int compareTo(BigDecimal bg) returns
-        // 1 : if value of this BigDecimal is greater than that of BigDecimal object passed as parameter.
-        // If the is no balance in this currency, we can't buy.
-        return balance.filter(balanceDTO -> balanceDTO.getAvailable().subtract(amount).subtract(minimumBalanceAfter).compareTo(BigDecimal.ZERO) > 0
-                || balanceDTO.getAvailable().subtract(amount).subtract(minimumBalanceAfter).compareTo(BigDecimal.ZERO) == 0).isPresent();
+        return balance.filter(balanceDTO -> hasAvailable(balanceDTO.getAvailable(), amount, minimumBalanceAfter)).isPresent();
+    }
+
+    /**
+     * Returns true if what is available covers the amount needed and leaves at least minimumBalanceAfter.
+     *
+     * @param available           available balance
+     * @param needed              amount needed
+     * @param minimumBalanceAfter minimum balance that should be left
+     * @return true if there is enough available
+     */
+    private static boolean hasAvailable(final BigDecimal available, final BigDecimal needed, final BigDecimal minimumBalanceAfter) {
+        if (minimumBalanceAfter.signum() == 0) {
+            return available.compareTo(needed) >= 0;
+        }
+        return available.compareTo(needed.add(minimumBalanceAfter)) >= 0;
     }
 
 }
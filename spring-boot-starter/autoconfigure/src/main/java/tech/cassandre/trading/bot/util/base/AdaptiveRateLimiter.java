@@ -0,0 +1,210 @@
+package tech.cassandre.trading.bot.util.base;
+
+import org.knowm.xchange.exceptions.FrequencyLimitExceededException;
+import org.knowm.xchange.exceptions.RateLimitExceededException;
+import si.mazi.rescu.HttpResponseAware;
+import si.mazi.rescu.HttpStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Adaptive rate limiter - spaces the exchange calls of a service and adapts the interval to the exchange responses.
+ * <p>
+ * The configured rate is the starting interval between two calls. When the exchange throttles a call (HTTP 429 or
+ * 418, XChange rate limit exceptions), the interval is doubled and no call is made before the delay given by the
+ * Retry-After header. Each successful call then brings the interval a step closer to the configured rate, so the
+ * service slows down as soon as the exchange complains and recovers on its own.
+ * <p>
+ * At or below the configured rate, the limiter probes for the exchange real limit: after a series of successful
+ * calls, the interval is shortened by a step, down to a quarter of the configured interval. A throttled probe raises
+ * this floor just above the interval that was throttled, so the limiter settles below the exchange limit.
+ */
+public final class AdaptiveRateLimiter {
+
+    /** HTTP status returned when too many requests are sent. */
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /** HTTP status returned by some exchanges (Binance) when a client keeps sending requests after a 429. */
+    private static final int HTTP_IP_BANNED = 418;
+
+    /** Retry-After header. */
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    /** Default maximum interval between two calls. */
+    private static final Duration DEFAULT_MAXIMUM_INTERVAL = Duration.ofMinutes(1);
+
+    /** Fraction of the gap to the configured interval removed after each successful call. */
+    private static final int RAMP_UP_DIVISOR = 10;
+
+    /** Number of successful calls in a row before the interval is shortened below the configured one. */
+    private static final int PROBE_SUCCESSES = 100;
+
+    /** Fraction of the interval removed by a probe. */
+    private static final int PROBE_DIVISOR = 10;
+
+    /** Maximum speed up compared to the configured rate. */
+    private static final int MAXIMUM_SPEED_UP = 4;
+
+    /** Configured interval between two calls (in nanoseconds). */
+    private final long configuredInterval;
+
+    /** Shortest interval between two calls (in nanoseconds), raised when a probe is throttled. */
+    private long minimumInterval;
+
+    /** Maximum interval between two calls (in nanoseconds). */
+    private final long maximumInterval;
+
+    /** Current interval between two calls (in nanoseconds). */
+    private long interval;
+
+    /** Time of the next call allowed (in nanoseconds, from {@link System#nanoTime()}). */
+    private long nextCallTime;
+
+    /** Number of throttled calls. */
+    private long throttledCalls;
+
+    /** Number of successful calls in a row at or below the configured interval. */
+    private int successfulCalls;
+
+    /**
+     * Constructor.
+     *
+     * @param rate configured interval between two calls
+     */
+    public AdaptiveRateLimiter(final Duration rate) {
+        this.configuredInterval = Math.max(rate.toNanos(), 1);
+        this.minimumInterval = Math.max(configuredInterval / MAXIMUM_SPEED_UP, 1);
+        this.maximumInterval = Math.max(configuredInterval, DEFAULT_MAXIMUM_INTERVAL.toNanos());
+        this.interval = configuredInterval;
+        this.nextCallTime = System.nanoTime();
+    }
+
+    /**
+     * Waits until a call can be made.
+     *
+     * @return time spent waiting (in nanoseconds)
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public long acquire() throws InterruptedException {
+        final long wait;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            final long callTime = Math.max(now, nextCallTime);
+            nextCallTime = callTime + interval;
+            wait = callTime - now;
+        }
+        if (wait > 0) {
+            NANOSECONDS.sleep(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * Method called after a successful call - moves the interval back towards the configured rate, then below it.
+     */
+    public synchronized void succeeded() {
+        if (interval > configuredInterval) {
+            interval = Math.max(configuredInterval, interval - Math.max((interval - configuredInterval) / RAMP_UP_DIVISOR, 1));
+        } else if (++successfulCalls >= PROBE_SUCCESSES) {
+            successfulCalls = 0;
+            interval = Math.max(minimumInterval, interval - Math.max(interval / PROBE_DIVISOR, 1));
+        }
+    }
+
+    /**
+     * Method called when the exchange throttled a call - doubles the interval and honors the Retry-After header.
+     *
+     * @param error throttling error
+     */
+    public synchronized void throttled(final Throwable error) {
+        throttledCalls++;
+        successfulCalls = 0;
+        if (interval < configuredInterval) {
+            // The probe went over the exchange limit, the next ones stop just above.
+            minimumInterval = Math.min(configuredInterval, Math.max(minimumInterval, interval + Math.max(interval / PROBE_DIVISOR, 1)));
+        }
+        interval = Math.min(maximumInterval, interval * 2);
+        final long retryAfter = getRetryAfter(error).map(Duration::toNanos).orElse(interval);
+        nextCallTime = Math.max(nextCallTime, System.nanoTime() + retryAfter);
+    }
+
+    /**
+     * Getter for interval.
+     *
+     * @return current interval between two calls
+     */
+    public synchronized Duration getInterval() {
+        return Duration.ofNanos(interval);
+    }
+
+    /**
+     * Returns the current effective rate.
+     *
+     * @return calls per second
+     */
+    public synchronized double getEffectiveRate() {
+        return (double) Duration.ofSeconds(1).toNanos() / interval;
+    }
+
+    /**
+     * Getter for throttledCalls.
+     *
+     * @return number of throttled calls
+     */
+    public synchronized long getThrottledCalls() {
+        return throttledCalls;
+    }
+
+    /**
+     * Returns true if an exchange error means the call was throttled.
+     *
+     * @param error exchange error
+     * @return true if throttled
+     */
+    public static boolean isThrottling(final Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof RateLimitExceededException || e instanceof FrequencyLimitExceededException) {
+                return true;
+            }
+            if (e instanceof HttpStatusException) {
+                final int status = ((HttpStatusException) e).getHttpStatusCode();
+                if (status == HTTP_TOO_MANY_REQUESTS || status == HTTP_IP_BANNED) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the delay given by the Retry-After header of a throttling error.
+     *
+     * @param error throttling error
+     * @return delay
+     */
+    public static Optional<Duration> getRetryAfter(final Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof HttpResponseAware && ((HttpResponseAware) e).getResponseHeaders() != null) {
+                for (Map.Entry<String, List<String>> header : ((HttpResponseAware) e).getResponseHeaders().entrySet()) {
+                    if (RETRY_AFTER_HEADER.equalsIgnoreCase(header.getKey())
+                            && header.getValue() != null
+                            && !header.getValue().isEmpty()) {
+                        try {
+                            return Optional.of(Duration.ofSeconds(Long.parseLong(header.getValue().get(0).trim())));
+                        } catch (NumberFormatException ignored) {
+                            // Retry-After can also be an HTTP date, we then use the current interval.
+                            return Optional.empty();
+                        }
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+}
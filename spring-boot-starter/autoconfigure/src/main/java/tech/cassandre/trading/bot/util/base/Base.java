@@ -1,5 +1,7 @@
 package tech.cassandre.trading.bot.util.base;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,6 +13,9 @@ public abstract class Base {
     /** Logger. */
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
+    /** Meter registry (the micrometer global registry until the application one is set). */
+    private volatile MeterRegistry meterRegistry = Metrics.globalRegistry;
+
     /**
      * Getter for logger.
      *
@@ -20,4 +25,24 @@ public abstract class Base {
         return logger;
     }
 
+    /**
+     * Getter for meter registry.
+     *
+     * @return meter registry
+     */
+    protected final MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    /**
+     * Setter for meterRegistry.
+     * Classes registering meters when they are created override it to register them again in the new registry.
+     *
+     * @param newMeterRegistry the meterRegistry to set
+     */
+    @SuppressWarnings("checkstyle:DesignForExtension")
+    public void setMeterRegistry(final MeterRegistry newMeterRegistry) {
+        meterRegistry = newMeterRegistry;
+    }
+
 }
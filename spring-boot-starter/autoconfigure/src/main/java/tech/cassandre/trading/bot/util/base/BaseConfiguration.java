@@ -1,8 +1,24 @@
 package tech.cassandre.trading.bot.util.base;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
 /**
  * Base configuration.
  */
 public abstract class BaseConfiguration extends Base {
 
+    /**
+     * Sets the meter registry declared in the application (for example, the one created by spring boot actuator).
+     * Without one, meters are registered in the micrometer global registry.
+     *
+     * @param meterRegistries meter registries
+     */
+    @Autowired
+    public final void setMeterRegistries(final ObjectProvider<MeterRegistry> meterRegistries) {
+        setMeterRegistry(meterRegistries.getIfUnique(() -> Metrics.globalRegistry));
+    }
+
 }
@@ -1,5 +1,8 @@
 package tech.cassandre.trading.bot.util.base;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 
@@ -16,13 +19,48 @@ public abstract class BaseFlux<T> extends Base {
     private final Flux<T> flux;
 
     /** Flux sink. */
-    private FluxSink<T> fluxSink;
+    private volatile FluxSink<T> fluxSink;
+
+    /** Update duration. */
+    private volatile Timer updateTimer;
+
+    /** Emitted values. */
+    private volatile Counter emittedCounter;
+
+    /** Values emitted without demand from subscribers (they may be dropped by the overflow strategy). */
+    private volatile Counter overflowCounter;
 
     /**
      * Constructor.
      */
     public BaseFlux() {
         flux = Flux.create(newFluxSink -> this.fluxSink = newFluxSink, getOverflowStrategy());
+        registerMeters();
+    }
+
+    @Override
+    public final void setMeterRegistry(final MeterRegistry newMeterRegistry) {
+        super.setMeterRegistry(newMeterRegistry);
+        registerMeters();
+    }
+
+    /**
+     * Registers the flux meters.
+     */
+    private void registerMeters() {
+        final String fluxName = this.getClass().getSimpleName();
+        updateTimer = Timer.builder("cassandre.flux.update")
+                .description("Time spent retrieving new values")
+                .tag("flux", fluxName)
+                .register(getMeterRegistry());
+        emittedCounter = Counter.builder("cassandre.flux.emitted")
+                .description("Values emitted")
+                .tag("flux", fluxName)
+                .register(getMeterRegistry());
+        overflowCounter = Counter.builder("cassandre.flux.overflow")
+                .description("Values emitted without demand from subscribers")
+                .tag("flux", fluxName)
+                .register(getMeterRegistry());
     }
 
     /**
@@ -49,14 +87,27 @@ public abstract class BaseFlux<T> extends Base {
      */
     public void emitValue(final T newValue) {
         getLogger().debug("{} flux emits a new value : {}", this.getClass().getName(), newValue);
+        if (fluxSink.requestedFromDownstream() == 0) {
+            overflowCounter.increment();
+        }
         fluxSink.next(newValue);
+        emittedCounter.increment();
+    }
+
+    /**
+     * Returns true if the flux has been subscribed (values can't be emitted before).
+     *
+     * @return true if subscribed
+     */
+    protected final boolean isSubscribed() {
+        return fluxSink != null;
     }
 
     /**
      * Method executed when values must be updated (usually called by the Scheduler).
      */
     public final void update() {
-        getNewValues().forEach(this::emitValue);
+        updateTimer.record(() -> getNewValues().forEach(this::emitValue));
     }
 
     /**
@@ -3,30 +3,63 @@ package tech.cassandre.trading.bot.util.base;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Bucket4j;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.mapstruct.factory.Mappers;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 import tech.cassandre.trading.bot.util.mapper.CassandreMapper;
 
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Base service.
  */
 public abstract class BaseService extends Base {
 
+    /** XChange currency pairs per currency pair DTO (converted once). */
+    private static final Map<CurrencyPairDTO, CurrencyPair> XCHANGE_CURRENCY_PAIRS = new ConcurrentHashMap<>();
+
     /** Mapper. */
     private final CassandreMapper mapper = Mappers.getMapper(CassandreMapper.class);
 
-    /** Bucket. */
+    /** Rate limiter. */
+    private final AdaptiveRateLimiter rateLimiter;
+
+    /** Bucket with the configured rate (kept for compatibility, exchange calls use the rate limiter). */
     private final Bucket bucket;
 
+    /** Time spent waiting for the rate limiter. */
+    private volatile Timer rateLimitTimer;
+
+    /** Exchange call latency timers per call name (created once per call). */
+    private final Map<String, Timer> callTimers = new ConcurrentHashMap<>();
+
+    /** Exchange call retry counters per call name (created once per call). */
+    private final Map<String, Counter> retryCounters = new ConcurrentHashMap<>();
+
+    /** Exchange executor used by asynchronous calls (if null, calls are made by the calling thread). */
+    private ExchangeExecutor exchangeExecutor;
+
+    /** Number of retries of a call after a connection error (asynchronous calls are never retried). */
+    private int retries;
+
     /**
      * Construct a base service without rate limit.
      */
     public BaseService() {
-        Bandwidth limit = Bandwidth.simple(1, Duration.ofMillis(1));
-        bucket = Bucket4j.builder().addLimit(limit).build();
+        this(1);
     }
 
     /**
@@ -35,8 +68,32 @@ public abstract class BaseService extends Base {
      * @param rate rate in ms
      */
     public BaseService(final long rate) {
-        Bandwidth limit = Bandwidth.simple(1, Duration.ofMillis(rate));
-        bucket = Bucket4j.builder().addLimit(limit).build();
+        rateLimiter = new AdaptiveRateLimiter(Duration.ofMillis(rate));
+        bucket = Bucket4j.builder().addLimit(Bandwidth.simple(1, Duration.ofMillis(rate))).build();
+        registerServiceMeters();
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:DesignForExtension")
+    public void setMeterRegistry(final MeterRegistry newMeterRegistry) {
+        super.setMeterRegistry(newMeterRegistry);
+        registerServiceMeters();
+    }
+
+    /**
+     * Registers the service meters (the exchange call meters are created on the first call).
+     */
+    private void registerServiceMeters() {
+        callTimers.clear();
+        retryCounters.clear();
+        rateLimitTimer = Timer.builder("cassandre.service.rate.limit.wait")
+                .description("Time spent waiting for the exchange rate limit")
+                .tag("service", this.getClass().getSimpleName())
+                .register(getMeterRegistry());
+        Gauge.builder("cassandre.service.rate.limit.interval", rateLimiter, l -> l.getInterval().toMillis())
+                .description("Current interval between two exchange calls (ms)")
+                .tag("service", this.getClass().getSimpleName())
+                .register(getMeterRegistry());
     }
 
     /**
@@ -48,15 +105,190 @@ public abstract class BaseService extends Base {
         return mapper;
     }
 
+    /**
+     * Getter for rateLimiter.
+     *
+     * @return rateLimiter
+     */
+    public final AdaptiveRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
     /**
      * Getter for bucket.
      *
-     * @return bucket
+     * @return bucket with the configured rate
+     * @deprecated exchange calls are spaced by {@link #getRateLimiter()}, this bucket is not used by the service
+     * anymore and will be removed
      */
+    @Deprecated
     public final Bucket getBucket() {
         return bucket;
     }
 
+    /**
+     * Setter for exchangeExecutor.
+     *
+     * @param newExchangeExecutor the exchangeExecutor to set
+     */
+    public final void setExchangeExecutor(final ExchangeExecutor newExchangeExecutor) {
+        exchangeExecutor = newExchangeExecutor;
+    }
+
+    /**
+     * Setter for retries.
+     *
+     * @param newRetries the retries to set
+     */
+    public final void setRetries(final int newRetries) {
+        retries = newRetries;
+    }
+
+    /**
+     * Waits for the rate limiter.
+     * If the last call was made less than the current interval ago, this method will block until the interval is over.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected final void consumeToken() throws InterruptedException {
+        final long start = System.nanoTime();
+        try {
+            rateLimiter.acquire();
+        } finally {
+            rateLimitTimer.record(System.nanoTime() - start, NANOSECONDS);
+        }
+    }
+
+    /**
+     * Calls the exchange with a thread of the exchange executor and records the call duration.
+     * The call waits for the rate limiter in the thread making it, so the caller is never blocked by the limiter.
+     * Exchange errors complete the returned future exceptionally (wrapped in a {@link CompletionException}).
+     *
+     * @param callName exchange call name
+     * @param call     exchange call
+     * @param <T>      call result type
+     * @return future completed with the call result
+     */
+    protected final <T> CompletableFuture<T> callExchangeAsync(final String callName, final ExchangeCall<T> call) {
+        if (exchangeExecutor == null) {
+            try {
+                consumeToken();
+                return CompletableFuture.completedFuture(callExchange(callName, call, 0));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        } else {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    consumeToken();
+                    return callExchange(callName, call, 0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, exchangeExecutor.getCallExecutor());
+        }
+    }
+
+    /**
+     * Calls the exchange and records the call duration.
+     * The result is reported to the rate limiter: it slows down when the exchange throttles calls.
+     * After a connection error (reset of a kept alive connection, timeout...), the call is retried if the service has
+     * retries left.
+     *
+     * @param callName exchange call name
+     * @param call     exchange call
+     * @param <T>      call result type
+     * @return call result
+     * @throws IOException exchange error
+     */
+    protected final <T> T callExchange(final String callName, final ExchangeCall<T> call) throws IOException {
+        return callExchange(callName, call, retries);
+    }
+
+    /**
+     * Calls the exchange, records the call duration and retries after a connection error.
+     *
+     * @param callName   exchange call name
+     * @param call       exchange call
+     * @param maxRetries maximum number of retries
+     * @param <T>        call result type
+     * @return call result
+     * @throws IOException exchange error
+     */
+    private <T> T callExchange(final String callName, final ExchangeCall<T> call, final int maxRetries) throws IOException {
+        int attempt = 0;
+        while (true) {
+            final Timer.Sample sample = Timer.start(getMeterRegistry());
+            try {
+                final T result = call.call();
+                rateLimiter.succeeded();
+                return result;
+            } catch (IOException | RuntimeException e) {
+                if (AdaptiveRateLimiter.isThrottling(e)) {
+                    rateLimiter.throttled(e);
+                    getLogger().warn("{} - {} throttled by the exchange, interval is now {} ms",
+                            this.getClass().getSimpleName(), callName, rateLimiter.getInterval().toMillis());
+                } else if (attempt < maxRetries && isConnectionError(e)) {
+                    attempt++;
+                    getLogger().warn("{} - {} failed ({}), retry {}/{}",
+                            this.getClass().getSimpleName(), callName, e.toString(), attempt, maxRetries);
+                    retryCounters.computeIfAbsent(callName, name -> Counter.builder("cassandre.exchange.call.retries")
+                            .description("Exchange calls retried after a connection error")
+                            .tag("service", this.getClass().getSimpleName())
+                            .tag("call", name)
+                            .register(getMeterRegistry()))
+                            .increment();
+                    if (waitForRetry()) {
+                        continue;
+                    }
+                }
+                throw e;
+            } finally {
+                sample.stop(callTimers.computeIfAbsent(callName, name -> Timer.builder("cassandre.exchange.call")
+                        .description("Exchange call latency")
+                        .tag("service", this.getClass().getSimpleName())
+                        .tag("call", name)
+                        .register(getMeterRegistry())));
+            }
+        }
+    }
+
+    /**
+     * Waits for the rate limiter before retrying a call.
+     *
+     * @return false if interrupted while waiting
+     */
+    private boolean waitForRetry() {
+        try {
+            consumeToken();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if an exchange error is a connection error (no response received from the exchange).
+     *
+     * @param error exchange error
+     * @return true if connection error
+     */
+    private static boolean isConnectionError(final Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof SocketException || e instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns a XChange currency pair from a currency pair DTO.
      *
@@ -64,7 +296,26 @@ public abstract class BaseService extends Base {
      * @return XChange currency pair
      */
     protected CurrencyPair getCurrencyPair(final CurrencyPairDTO currencyPairDTO) {
-        return new CurrencyPair(currencyPairDTO.getBaseCurrency().getCode(), currencyPairDTO.getQuoteCurrency().getCode());
+        return XCHANGE_CURRENCY_PAIRS.computeIfAbsent(currencyPairDTO,
+                cp -> new CurrencyPair(cp.getBaseCurrency().getCode(), cp.getQuoteCurrency().getCode()));
+    }
+
+    /**
+     * Exchange call.
+     *
+     * @param <T> call result type
+     */
+    @FunctionalInterface
+    protected interface ExchangeCall<T> {
+
+        /**
+         * Calls the exchange.
+         *
+         * @return call result
+         * @throws IOException exchange error
+         */
+        T call() throws IOException;
+
     }
 
 }
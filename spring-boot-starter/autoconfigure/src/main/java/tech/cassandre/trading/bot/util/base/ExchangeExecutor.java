@@ -0,0 +1,59 @@
+package tech.cassandre.trading.bot.util.base;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exchange executor - threads used by the services to call the exchange asynchronously.
+ * It bounds the number of exchange requests in flight, whatever the number of orders sent by the strategies.
+ */
+public final class ExchangeExecutor {
+
+    /** Default maximum number of concurrent exchange calls. */
+    public static final int DEFAULT_MAX_CONCURRENT_CALLS = 16;
+
+    /** Threads running the exchange calls. */
+    private final ExecutorService callExecutor;
+
+    /**
+     * Constructor.
+     *
+     * @param maxConcurrentCalls maximum number of concurrent exchange calls
+     */
+    public ExchangeExecutor(final int maxConcurrentCalls) {
+        callExecutor = Executors.newFixedThreadPool(maxConcurrentCalls, daemonThreadFactory());
+    }
+
+    /**
+     * Getter for callExecutor.
+     *
+     * @return callExecutor
+     */
+    public ExecutorService getCallExecutor() {
+        return callExecutor;
+    }
+
+    /**
+     * Stops the threads.
+     */
+    public void shutdown() {
+        callExecutor.shutdown();
+    }
+
+    /**
+     * Returns a factory creating named daemon threads.
+     *
+     * @return thread factory
+     */
+    private static ThreadFactory daemonThreadFactory() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "cassandre-exchange-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,215 @@
+package tech.cassandre.trading.bot.util.base;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import org.knowm.xchange.ExchangeSpecification;
+import tech.cassandre.trading.bot.util.parameters.ExchangeParameters;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exchange HTTP transport - configures the connections used by XChange to call the exchange.
+ * <p>
+ * XChange calls the exchange REST APIs with rescu, which relies on {@link java.net.HttpURLConnection}: connections are
+ * kept alive and reused by the JDK connection cache, shared by all the services. The connection and read timeouts are
+ * set in the exchange specification, so they only apply to the exchange calls.
+ * <p>
+ * XChange doesn't let us set the socket factory of the exchange calls, so the other settings are JVM wide and only
+ * applied if {@code cassandre.trading.bot.exchange.http.jvmSettings} is true : keep-alive is turned on, the number of
+ * idle connections kept is set (unless set on the command line) and the default SSL socket factory counts the TLS
+ * connections opened, so we can see how many calls pay for a new handshake. They change the HTTP connections of the
+ * whole application, and the JDK reads the number of idle connections once, when the first connection is kept alive :
+ * if a connection was opened before, use {@code -Dhttp.maxConnections} instead.
+ */
+public final class ExchangeHttpTransport extends Base {
+
+    /** Keep-alive system property. */
+    public static final String KEEP_ALIVE_PROPERTY = "http.keepAlive";
+
+    /** Maximum idle connections by destination system property. */
+    public static final String MAX_CONNECTIONS_PROPERTY = "http.maxConnections";
+
+    /** Default maximum number of idle connections kept alive by destination. */
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 16;
+
+    /** Exchange HTTP parameters. */
+    private final ExchangeParameters.Http parameters;
+
+    /**
+     * Constructor.
+     *
+     * @param newParameters exchange HTTP parameters
+     */
+    public ExchangeHttpTransport(final ExchangeParameters.Http newParameters) {
+        this.parameters = newParameters;
+    }
+
+    /**
+     * Configures the HTTP connections and the exchange specification.
+     * Must be called before the exchange is created, as the JDK reads the connection cache size once.
+     *
+     * @param exchangeSpecification exchange specification
+     */
+    public void configure(final ExchangeSpecification exchangeSpecification) {
+        // Timeouts.
+        if (parameters.getConnectionTimeout() != null) {
+            exchangeSpecification.setHttpConnTimeout(parameters.getConnectionTimeout());
+        }
+        if (parameters.getReadTimeout() != null) {
+            exchangeSpecification.setHttpReadTimeout(parameters.getReadTimeout());
+        }
+
+        if (parameters.isJvmSettings()) {
+            configureJvm();
+        }
+        getLogger().info("ExchangeHttpTransport - Keep-alive is {} with {} idle connection(s), timeouts : connection {} ms, read {} ms",
+                System.getProperty(KEEP_ALIVE_PROPERTY, "true"),
+                System.getProperty(MAX_CONNECTIONS_PROPERTY, "default"),
+                exchangeSpecification.getHttpConnTimeout(),
+                exchangeSpecification.getHttpReadTimeout());
+    }
+
+    /**
+     * Changes the JVM wide HTTP settings : keep-alive, idle connections and TLS connections counter.
+     */
+    private void configureJvm() {
+        // Connections kept alive and shared by all the services (unless set on the command line).
+        if (System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+            System.setProperty(KEEP_ALIVE_PROPERTY, "true");
+        }
+        if (System.getProperty(MAX_CONNECTIONS_PROPERTY) == null) {
+            System.setProperty(MAX_CONNECTIONS_PROPERTY, String.valueOf(getMaxIdleConnections()));
+        }
+
+        // Counts the TLS connections opened.
+        synchronized (ExchangeHttpTransport.class) {
+            if (!(HttpsURLConnection.getDefaultSSLSocketFactory() instanceof CountingSSLSocketFactory)) {
+                HttpsURLConnection.setDefaultSSLSocketFactory(new CountingSSLSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory()));
+            }
+        }
+        FunctionCounter.builder("cassandre.exchange.http.connections", CountingSSLSocketFactory.OPENED_CONNECTIONS, AtomicLong::get)
+                .description("TLS connections opened (calls not reusing a kept alive connection)")
+                .register(getMeterRegistry());
+        getLogger().info("ExchangeHttpTransport - JVM wide HTTP settings changed (keep-alive, idle connections and default SSL socket factory)");
+    }
+
+    /**
+     * Returns the maximum number of idle connections kept alive.
+     *
+     * @return maximum idle connections
+     */
+    public int getMaxIdleConnections() {
+        if (parameters.getMaxIdleConnections() != null) {
+            return parameters.getMaxIdleConnections();
+        } else {
+            return DEFAULT_MAX_IDLE_CONNECTIONS;
+        }
+    }
+
+    /**
+     * Returns the number of retries after a connection error for a number of retries parameter.
+     *
+     * @param retries retries parameter (can be null)
+     * @return number of retries
+     */
+    public static int getRetries(final Integer retries) {
+        if (retries != null) {
+            return retries;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the number of TLS connections opened since the start (only counted with the JVM settings).
+     *
+     * @return opened connections
+     */
+    public static long getOpenedConnections() {
+        return CountingSSLSocketFactory.OPENED_CONNECTIONS.get();
+    }
+
+    /**
+     * SSL socket factory counting the sockets created.
+     */
+    private static final class CountingSSLSocketFactory extends SSLSocketFactory {
+
+        /** Number of sockets created. */
+        private static final AtomicLong OPENED_CONNECTIONS = new AtomicLong();
+
+        /** Factory creating the sockets. */
+        private final SSLSocketFactory delegate;
+
+        /**
+         * Constructor.
+         *
+         * @param newDelegate factory creating the sockets
+         */
+        CountingSSLSocketFactory(final SSLSocketFactory newDelegate) {
+            this.delegate = newDelegate;
+        }
+
+        /**
+         * Counts a socket created.
+         *
+         * @param socket socket
+         * @return socket
+         */
+        private static Socket opened(final Socket socket) {
+            OPENED_CONNECTIONS.incrementAndGet();
+            return socket;
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return opened(delegate.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(final Socket socket, final String host, final int port, final boolean autoClose) throws IOException {
+            return opened(delegate.createSocket(socket, host, port, autoClose));
+        }
+
+        @Override
+        public Socket createSocket(final Socket socket, final InputStream consumed, final boolean autoClose) throws IOException {
+            return opened(delegate.createSocket(socket, consumed, autoClose));
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port) throws IOException {
+            return opened(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port, final InetAddress localHost, final int localPort) throws IOException {
+            return opened(delegate.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress host, final int port) throws IOException {
+            return opened(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress address, final int port, final InetAddress localAddress, final int localPort) throws IOException {
+            return opened(delegate.createSocket(address, port, localAddress, localPort));
+        }
+
+    }
+
+}
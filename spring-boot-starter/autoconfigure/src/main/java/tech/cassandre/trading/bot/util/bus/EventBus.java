@@ -0,0 +1,279 @@
+package tech.cassandre.trading.bot.util.bus;
+
+import tech.cassandre.trading.bot.util.base.Base;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Event bus - sequences market and account events and dispatches them from a single thread.
+ * <p>
+ * Producers (flux threads, dry mode threads) claim a sequence and write their event in the pre-allocated slot of this
+ * sequence. The dispatcher thread reads the slots in sequence order and calls the handlers registered for the event
+ * class: strategy, position service and backups are called by one thread, one event at a time, in publishing order.
+ * When the ring is full, producers wait for the dispatcher. Events published by a handler are dispatched right after
+ * the event being dispatched.
+ * <p>
+ * The bus is also an executor: tasks are run by the dispatcher thread between two events, so work completing on
+ * another thread (an order acknowledged by the exchange) can update the state owned by the dispatcher.
+ * <p>
+ * Any error thrown by a handler or a task (including an {@link Error}) is logged and the dispatcher goes on. If the
+ * dispatcher thread still dies, the bus is stopped so producers don't wait for it forever.
+ */
+public final class EventBus extends Base implements Executor {
+
+    /** Default number of slots. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Number of times the dispatcher spins before parking when there is no event. */
+    private static final int SPIN_TRIES = 100;
+
+    /** Dispatcher parking time when there is no event (producers wake it up before). */
+    private static final long DISPATCHER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Producer parking time when the ring is full. */
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    /** Time given to the dispatcher to finish the event it's dispatching when stopping. */
+    private static final long STOP_TIMEOUT = TimeUnit.SECONDS.toMillis(1);
+
+    /** Event slots. */
+    private final Slot[] slots;
+
+    /** Slot index mask. */
+    private final int mask;
+
+    /** Last sequence claimed by producers. */
+    private final AtomicLong claimedSequence = new AtomicLong(-1);
+
+    /** Last sequence dispatched (its slot can be reused). */
+    private volatile long dispatchedSequence = -1;
+
+    /** Handlers by event class. */
+    private final Map<Object, List<Consumer<Object>>> handlers = new ConcurrentHashMap<>();
+
+    /** Events published by handlers (only used by the dispatcher thread). */
+    private final Deque<Object> handlerEvents = new ArrayDeque<>();
+
+    /** Dispatcher thread. */
+    private volatile Thread dispatcher;
+
+    /** True when the dispatcher is parked. */
+    private volatile boolean dispatcherParked;
+
+    /** True when the bus is stopped. */
+    private volatile boolean stopped;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity number of slots (a power of two)
+     */
+    public EventBus(final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event bus capacity must be a power of two : " + capacity);
+        }
+        slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Registers an event handler (handlers of an event class are called in registration order).
+     * A handler registered after the start receives the events dispatched after its registration.
+     *
+     * @param eventClass event class
+     * @param handler    handler
+     * @param <T>        event type
+     */
+    public <T> void subscribe(final Class<T> eventClass, final Consumer<T> handler) {
+        handlers.computeIfAbsent(eventClass, c -> new CopyOnWriteArrayList<>()).add(event -> handler.accept(eventClass.cast(event)));
+    }
+
+    /**
+     * Starts the dispatcher thread.
+     */
+    public synchronized void start() {
+        if (dispatcher == null) {
+            final Thread thread = new Thread(this::dispatch, "cassandre-event-bus");
+            thread.setDaemon(true);
+            dispatcher = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the dispatcher thread (events not yet dispatched are lost).
+     */
+    public void stop() {
+        stopped = true;
+        final Thread thread = dispatcher;
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(STOP_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Publishes an event.
+     *
+     * @param event event
+     */
+    public void publish(final Object event) {
+        final Thread thread = dispatcher;
+        if (thread == Thread.currentThread()) {
+            handlerEvents.add(event);
+            return;
+        }
+        final long sequence = claimedSequence.incrementAndGet();
+        while (sequence - slots.length > dispatchedSequence) {
+            // Ring full, waiting for the dispatcher to free the slot.
+            if (stopped) {
+                getLogger().warn("EventBus - Event bus stopped, event lost : {}", event);
+                return;
+            }
+            LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+        final Slot slot = slots[(int) sequence & mask];
+        slot.event = event;
+        slot.sequence = sequence;
+        if (dispatcherParked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Runs a task with the dispatcher thread, in publishing order with the events.
+     * If the bus is not started or is stopped, the task is run by the calling thread.
+     *
+     * @param task task
+     */
+    @Override
+    public void execute(final Runnable task) {
+        if (dispatcher == null || stopped) {
+            task.run();
+        } else {
+            publish(new Task(task));
+        }
+    }
+
+    /**
+     * Dispatcher loop.
+     */
+    private void dispatch() {
+        try {
+            dispatchEvents();
+        } catch (Throwable t) {
+            getLogger().error("EventBus - Dispatcher thread stopped, events are not dispatched anymore", t);
+            throw t;
+        } finally {
+            // Producers waiting for a free slot and tasks must not wait for a dead dispatcher.
+            stopped = true;
+        }
+    }
+
+    /**
+     * Reads the slots in sequence order and dispatches their events until the bus is stopped.
+     */
+    private void dispatchEvents() {
+        long nextSequence = dispatchedSequence + 1;
+        int idleCount = 0;
+        while (!stopped) {
+            final Slot slot = slots[(int) nextSequence & mask];
+            if (slot.sequence == nextSequence) {
+                final Object event = slot.event;
+                slot.event = null;
+                dispatchedSequence = nextSequence;
+                nextSequence++;
+                dispatch(event);
+                while (!handlerEvents.isEmpty()) {
+                    dispatch(handlerEvents.poll());
+                }
+                idleCount = 0;
+            } else if (idleCount < SPIN_TRIES) {
+                idleCount++;
+                Thread.onSpinWait();
+            } else {
+                dispatcherParked = true;
+                if (slot.sequence != nextSequence && !stopped) {
+                    LockSupport.parkNanos(DISPATCHER_PARK_NANOS);
+                }
+                dispatcherParked = false;
+            }
+        }
+    }
+
+    /**
+     * Calls the handlers of an event.
+     *
+     * @param event event
+     */
+    private void dispatch(final Object event) {
+        if (event instanceof Task) {
+            try {
+                ((Task) event).runnable.run();
+            } catch (Throwable t) {
+                getLogger().error("EventBus - Error running task", t);
+            }
+            return;
+        }
+        final List<Consumer<Object>> eventHandlers = handlers.get(event.getClass());
+        if (eventHandlers != null) {
+            for (Consumer<Object> handler : eventHandlers) {
+                try {
+                    handler.accept(event);
+                } catch (Throwable t) {
+                    getLogger().error("EventBus - Error dispatching {}", event, t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Task run by the dispatcher thread.
+     */
+    private static final class Task {
+
+        /** Task. */
+        private final Runnable runnable;
+
+        /**
+         * Constructor.
+         *
+         * @param newRunnable task
+         */
+        Task(final Runnable newRunnable) {
+            this.runnable = newRunnable;
+        }
+
+    }
+
+    /**
+     * Pre-allocated event slot.
+     */
+    private static final class Slot {
+
+        /** Sequence of the event in the slot (written after the event). */
+        private volatile long sequence = -1;
+
+        /** Event. */
+        private Object event;
+
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Event bus sequencing market and account events.
+ */
+package tech.cassandre.trading.bot.util.bus;
@@ -0,0 +1,124 @@
+package tech.cassandre.trading.bot.util.candle;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.base.Base;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Candle recorder - builds candles from live tickers and saves them in the candle store.
+ * <p>
+ * A candle covers a timeframe starting at a multiple of the timeframe (since epoch) and its timestamp is the end of the
+ * timeframe, like the bars of the strategies: open, high, low and last are the first, highest, lowest and last prices
+ * of the tickers received during the timeframe, bid, ask and volumes are the ones of the last ticker. A candle is saved
+ * when the first ticker of the next timeframe is received, so the candle in progress is never saved.
+ */
+public final class CandleRecorder extends Base {
+
+    /** Candle store. */
+    private final CandleStore candleStore;
+
+    /** Candles in progress by currency pair and timeframe (null until the first ticker is received). */
+    private final Map<CurrencyPairDTO, Map<Duration, TickerDTO>> candles = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param newCandleStore candle store
+     */
+    public CandleRecorder(final CandleStore newCandleStore) {
+        this.candleStore = newCandleStore;
+    }
+
+    /**
+     * Records the candles of a currency pair and timeframe.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    timeframe
+     */
+    public synchronized void record(final CurrencyPairDTO currencyPair, final Duration timeframe) {
+        if (timeframe.isNegative() || timeframe.isZero()) {
+            return;
+        }
+        candles.computeIfAbsent(currencyPair, cp -> new LinkedHashMap<>()).putIfAbsent(timeframe, null);
+    }
+
+    /**
+     * Method called by the market service on every new ticker.
+     *
+     * @param ticker ticker
+     */
+    public synchronized void tickerUpdate(final TickerDTO ticker) {
+        final Map<Duration, TickerDTO> currencyPairCandles = candles.get(ticker.getCurrencyPair());
+        if (currencyPairCandles == null || ticker.getTimestamp() == null || ticker.getLast() == null) {
+            return;
+        }
+        final long timestamp = ticker.getTimestamp().toInstant().toEpochMilli();
+        currencyPairCandles.replaceAll((timeframe, candle) -> {
+            final long candleEnd = timestamp - Math.floorMod(timestamp, timeframe.toMillis()) + timeframe.toMillis();
+            if (candle == null || candle.getTimestamp().toInstant().toEpochMilli() < candleEnd) {
+                // A new candle starts, the previous one is complete.
+                if (candle != null) {
+                    save(timeframe, candle);
+                }
+                return getCandle(candleEnd, ticker, ticker.getLast(), ticker.getLast(), ticker.getLast());
+            }
+            if (candle.getTimestamp().toInstant().toEpochMilli() > candleEnd) {
+                // Ticker older than the candle in progress.
+                return candle;
+            }
+            return getCandle(candleEnd, ticker, candle.getOpen(), candle.getHigh().max(ticker.getLast()), candle.getLow().min(ticker.getLast()));
+        });
+    }
+
+    /**
+     * Saves a complete candle.
+     *
+     * @param timeframe timeframe
+     * @param candle    candle
+     */
+    private void save(final Duration timeframe, final TickerDTO candle) {
+        try {
+            candleStore.append(candle.getCurrencyPair(), timeframe, List.of(candle));
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            getLogger().error("CandleRecorder - Impossible to save the {} candle of {} : {}", timeframe, candle.getCurrencyPair(), e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a candle.
+     *
+     * @param candleEnd candle end
+     * @param ticker    last ticker
+     * @param open      open price
+     * @param high      highest price
+     * @param low       lowest price
+     * @return candle
+     */
+    private static TickerDTO getCandle(final long candleEnd,
+                                       final TickerDTO ticker,
+                                       final BigDecimal open,
+                                       final BigDecimal high,
+                                       final BigDecimal low) {
+        return TickerDTO.builder()
+                .currencyPair(ticker.getCurrencyPair())
+                .timestamp(new Date(candleEnd))
+                .open(open)
+                .high(high)
+                .low(low)
+                .last(ticker.getLast())
+                .bid(ticker.getBid())
+                .ask(ticker.getAsk())
+                .volume(ticker.getVolume())
+                .quoteVolume(ticker.getQuoteVolume())
+                .create();
+    }
+
+}
@@ -0,0 +1,507 @@
+package tech.cassandre.trading.bot.util.candle;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.base.Base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Candle store - candles and tickers of a currency pair and timeframe saved on disk.
+ * <p>
+ * Each series (currency pair and timeframe) is a directory ({@code <directory>/BTC-USDT/PT1H}) with one file per
+ * month ({@code 2020-08.candles}). A file is made of fixed-size records (timestamp, open, high, low, last, bid, ask,
+ * volume, quote volume) sorted by timestamp, so a range is found with a binary search and read in one call. Values are
+ * saved as an unscaled long and a scale, so prices are read back exactly as they were saved (values with more than 18
+ * significant digits are rounded). Candles are only appended: candles not after the last candle saved are ignored.
+ * Tickers are saved with a zero timeframe.
+ */
+public final class CandleStore extends Base {
+
+    /** Candle file suffix. */
+    public static final String FILE_SUFFIX = ".candles";
+
+    /** Value size (unscaled value and scale). */
+    static final int VALUE_SIZE = Long.BYTES + Byte.BYTES;
+
+    /** Record size (timestamp and 8 values). */
+    static final int RECORD_SIZE = Long.BYTES + 8 * VALUE_SIZE;
+
+    /** Scale saved for a null value. */
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+    /** Precision of the values whose unscaled value doesn't fit in a long. */
+    private static final MathContext LONG_PRECISION = new MathContext(18, RoundingMode.HALF_EVEN);
+
+    /** File name format (one file per month). */
+    private static final DateTimeFormatter FILE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM").withZone(ZoneOffset.UTC);
+
+    /** Store directory. */
+    private final Path directory;
+
+    /** Timestamp of the last candle saved by series (-1 if none). */
+    private final Map<Path, Long> lastTimestamps = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param newDirectory store directory
+     */
+    public CandleStore(final Path newDirectory) {
+        this.directory = newDirectory;
+    }
+
+    /**
+     * Saves candles (candles not after the last candle saved are ignored).
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    timeframe (zero for tickers)
+     * @param candles      candles
+     * @return number of candles saved
+     */
+    public synchronized int append(final CurrencyPairDTO currencyPair, final Duration timeframe, final Collection<TickerDTO> candles) {
+        final Path series = getSeriesDirectory(currencyPair, timeframe);
+        long lastTimestamp = getLastTimestamp(series);
+        final List<TickerDTO> newCandles = new ArrayList<>();
+        for (TickerDTO candle : candles.stream()
+                .filter(c -> c.getTimestamp() != null)
+                .sorted(Comparator.comparing(TickerDTO::getTimestamp))
+                .collect(Collectors.toList())) {
+            final long timestamp = candle.getTimestamp().toInstant().toEpochMilli();
+            if (timestamp > lastTimestamp) {
+                newCandles.add(candle);
+                lastTimestamp = timestamp;
+            }
+        }
+        if (newCandles.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            Files.createDirectories(series);
+            // Candles are written month by month.
+            int start = 0;
+            while (start < newCandles.size()) {
+                final String fileName = getFileName(newCandles.get(start).getTimestamp().toInstant().toEpochMilli());
+                int end = start;
+                final ByteBuffer buffer = ByteBuffer.allocate((newCandles.size() - start) * RECORD_SIZE);
+                while (end < newCandles.size() && fileName.equals(getFileName(newCandles.get(end).getTimestamp().toInstant().toEpochMilli()))) {
+                    writeCandle(buffer, newCandles.get(end));
+                    end++;
+                }
+                buffer.flip();
+                try (FileChannel channel = FileChannel.open(series.resolve(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    // Removing an incomplete record left by a crash.
+                    channel.truncate(getRecordCount(channel) * RECORD_SIZE);
+                    channel.position(channel.size());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                start = end;
+            }
+        } catch (IOException e) {
+            // The last timestamp is read again from the files.
+            lastTimestamps.remove(series);
+            throw new UncheckedIOException("Impossible to save candles in " + series, e);
+        } catch (RuntimeException e) {
+            lastTimestamps.remove(series);
+            throw e;
+        }
+        lastTimestamps.put(series, lastTimestamp);
+        return newCandles.size();
+    }
+
+    /**
+     * Returns the candles of a time range.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    timeframe (zero for tickers)
+     * @param from         start of the range (included)
+     * @param to           end of the range (excluded)
+     * @return candles, the oldest first
+     */
+    public synchronized List<TickerDTO> getCandles(final CurrencyPairDTO currencyPair,
+                                                   final Duration timeframe,
+                                                   final ZonedDateTime from,
+                                                   final ZonedDateTime to) {
+        final long fromTimestamp = from.toInstant().toEpochMilli();
+        final long toTimestamp = to.toInstant().toEpochMilli();
+        final String fromFile = getFileName(fromTimestamp);
+        final String toFile = getFileName(toTimestamp);
+        final List<TickerDTO> candles = new ArrayList<>();
+        for (Path file : getFiles(getSeriesDirectory(currencyPair, timeframe))) {
+            final String fileName = file.getFileName().toString();
+            if (fileName.compareTo(fromFile) >= 0 && fileName.compareTo(toFile) <= 0) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    final long start = search(channel, fromTimestamp);
+                    final long end = search(channel, toTimestamp);
+                    readCandles(channel, currencyPair, start, end, candles);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Impossible to read candles from " + file, e);
+                }
+            }
+        }
+        return candles;
+    }
+
+    /**
+     * Returns the last candles.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    timeframe (zero for tickers)
+     * @param count        maximum number of candles
+     * @return candles, the oldest first
+     */
+    public synchronized List<TickerDTO> getLastCandles(final CurrencyPairDTO currencyPair, final Duration timeframe, final int count) {
+        final List<Path> files = getFiles(getSeriesDirectory(currencyPair, timeframe));
+        final List<List<TickerDTO>> fileCandles = new ArrayList<>();
+        int remaining = count;
+        for (int i = files.size() - 1; i >= 0 && remaining > 0; i--) {
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                final long size = getRecordCount(channel);
+                final List<TickerDTO> candles = new ArrayList<>();
+                readCandles(channel, currencyPair, Math.max(0, size - remaining), size, candles);
+                fileCandles.add(candles);
+                remaining -= candles.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible to read candles from " + files.get(i), e);
+            }
+        }
+        Collections.reverse(fileCandles);
+        return fileCandles.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the last candles joined up with a date (candles timestamped at their end): no candle is returned if the
+     * last one saved doesn't end in the timeframe of the date, and candles before a missing candle are not returned.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    timeframe (not zero)
+     * @param count        maximum number of candles
+     * @param date         date (usually now, its candle being in progress)
+     * @return candles, the oldest first
+     */
+    public synchronized List<TickerDTO> getRecentCandles(final CurrencyPairDTO currencyPair,
+                                                         final Duration timeframe,
+                                                         final int count,
+                                                         final ZonedDateTime date) {
+        final List<TickerDTO> candles = getLastCandles(currencyPair, timeframe, count);
+        long limit = date.toInstant().toEpochMilli() - timeframe.toMillis();
+        int start = candles.size();
+        while (start > 0 && candles.get(start - 1).getTimestamp().toInstant().toEpochMilli() > limit) {
+            start--;
+            // The previous candle must end one timeframe before this one.
+            limit = candles.get(start).getTimestamp().toInstant().toEpochMilli() - 2 * timeframe.toMillis();
+        }
+        return new ArrayList<>(candles.subList(start, candles.size()));
+    }
+
+    /**
+     * Returns the timestamp of the first candle saved.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    timeframe (zero for tickers)
+     * @return timestamp
+     */
+    public synchronized Optional<ZonedDateTime> getFirstTimestamp(final CurrencyPairDTO currencyPair, final Duration timeframe) {
+        for (Path file : getFiles(getSeriesDirectory(currencyPair, timeframe))) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (getRecordCount(channel) > 0) {
+                    return Optional.of(Instant.ofEpochMilli(readTimestamp(channel, 0)).atZone(ZoneOffset.UTC));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible to read candles from " + file, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the timestamp of the last candle saved.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    timeframe (zero for tickers)
+     * @return timestamp
+     */
+    public synchronized Optional<ZonedDateTime> getLastTimestamp(final CurrencyPairDTO currencyPair, final Duration timeframe) {
+        final long lastTimestamp = getLastTimestamp(getSeriesDirectory(currencyPair, timeframe));
+        if (lastTimestamp < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(lastTimestamp).atZone(ZoneOffset.UTC));
+    }
+
+    /**
+     * Returns the timestamp of the last candle of a series.
+     *
+     * @param series series directory
+     * @return timestamp (-1 if there is no candle)
+     */
+    private long getLastTimestamp(final Path series) {
+        return lastTimestamps.computeIfAbsent(series, s -> {
+            final List<Path> files = getFiles(s);
+            for (int i = files.size() - 1; i >= 0; i--) {
+                try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                    final long size = getRecordCount(channel);
+                    if (size > 0) {
+                        return readTimestamp(channel, size - 1);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Impossible to read candles from " + files.get(i), e);
+                }
+            }
+            return -1L;
+        });
+    }
+
+    /**
+     * Returns the directory of a series.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    timeframe
+     * @return directory
+     */
+    private Path getSeriesDirectory(final CurrencyPairDTO currencyPair, final Duration timeframe) {
+        return directory.resolve(currencyPair.getBaseCurrency() + "-" + currencyPair.getQuoteCurrency())
+                .resolve(timeframe.toString());
+    }
+
+    /**
+     * Returns the files of a series sorted by month.
+     *
+     * @param series series directory
+     * @return files
+     */
+    private List<Path> getFiles(final Path series) {
+        if (!Files.isDirectory(series)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.list(series)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible to list candles in " + series, e);
+        }
+    }
+
+    /**
+     * Returns the name of the file of a timestamp.
+     *
+     * @param timestamp timestamp
+     * @return file name
+     */
+    private static String getFileName(final long timestamp) {
+        return FILE_FORMAT.format(Instant.ofEpochMilli(timestamp)) + FILE_SUFFIX;
+    }
+
+    /**
+     * Returns the number of complete records of a file.
+     *
+     * @param channel file
+     * @return number of records
+     * @throws IOException read error
+     */
+    private static long getRecordCount(final FileChannel channel) throws IOException {
+        return channel.size() / RECORD_SIZE;
+    }
+
+    /**
+     * Returns the position of the first record with a timestamp greater or equal to a timestamp.
+     *
+     * @param channel   file
+     * @param timestamp timestamp
+     * @return record position
+     * @throws IOException read error
+     */
+    private static long search(final FileChannel channel, final long timestamp) throws IOException {
+        long low = 0;
+        long high = getRecordCount(channel);
+        while (low < high) {
+            final long middle = (low + high) >>> 1;
+            if (readTimestamp(channel, middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Reads the timestamp of a record.
+     *
+     * @param channel  file
+     * @param position record position
+     * @return timestamp
+     * @throws IOException read error
+     */
+    private static long readTimestamp(final FileChannel channel, final long position) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position * RECORD_SIZE + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of candle file");
+            }
+        }
+        return buffer.getLong(0);
+    }
+
+    /**
+     * Reads records.
+     *
+     * @param channel      file
+     * @param currencyPair currency pair
+     * @param start        first record position (included)
+     * @param end          last record position (excluded)
+     * @param candles      list where candles are added
+     * @throws IOException read error
+     */
+    private static void readCandles(final FileChannel channel,
+                                    final CurrencyPairDTO currencyPair,
+                                    final long start,
+                                    final long end,
+                                    final List<TickerDTO> candles) throws IOException {
+        if (end <= start) {
+            return;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) (end - start) * RECORD_SIZE);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start * RECORD_SIZE + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of candle file");
+            }
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            candles.add(readCandle(buffer, currencyPair));
+        }
+    }
+
+    /**
+     * Writes a candle record.
+     *
+     * @param buffer buffer
+     * @param candle candle
+     */
+    private static void writeCandle(final ByteBuffer buffer, final TickerDTO candle) {
+        buffer.putLong(candle.getTimestamp().toInstant().toEpochMilli());
+        writeValue(buffer, candle.getOpen());
+        writeValue(buffer, candle.getHigh());
+        writeValue(buffer, candle.getLow());
+        writeValue(buffer, candle.getLast());
+        writeValue(buffer, candle.getBid());
+        writeValue(buffer, candle.getAsk());
+        writeValue(buffer, candle.getVolume());
+        writeValue(buffer, candle.getQuoteVolume());
+    }
+
+    /**
+     * Reads a candle record.
+     *
+     * @param buffer       buffer
+     * @param currencyPair currency pair
+     * @return candle
+     */
+    private static TickerDTO readCandle(final ByteBuffer buffer, final CurrencyPairDTO currencyPair) {
+        return TickerDTO.builder()
+                .currencyPair(currencyPair)
+                .timestamp(new Date(buffer.getLong()))
+                .open(readValue(buffer))
+                .high(readValue(buffer))
+                .low(readValue(buffer))
+                .last(readValue(buffer))
+                .bid(readValue(buffer))
+                .ask(readValue(buffer))
+                .volume(readValue(buffer))
+                .quoteVolume(readValue(buffer))
+                .create();
+    }
+
+    /**
+     * Writes a value (unscaled value and scale).
+     *
+     * @param buffer buffer
+     * @param value  value
+     * @throws IllegalArgumentException if the value can't be saved in the candle store
+     */
+    private static void writeValue(final ByteBuffer buffer, final BigDecimal value) {
+        if (value == null) {
+            buffer.putLong(0);
+            buffer.put(NULL_SCALE);
+            return;
+        }
+        final BigDecimal savedValue;
+        try {
+            savedValue = getSavedValue(value);
+        } catch (ArithmeticException e) {
+            // Scale overflow while reducing the precision of an extreme value.
+            throw new IllegalArgumentException("Value out of range for the candle store : " + value, e);
+        }
+        if (savedValue.scale() <= NULL_SCALE || savedValue.unscaledValue().bitLength() >= Long.SIZE) {
+            throw new IllegalArgumentException("Value too large for the candle store : " + value);
+        }
+        buffer.putLong(savedValue.unscaledValue().longValue());
+        buffer.put((byte) savedValue.scale());
+    }
+
+    /**
+     * Returns the value reduced to an unscaled value fitting in a long and a scale fitting in a byte (if possible).
+     *
+     * @param value value
+     * @return value to save
+     */
+    private static BigDecimal getSavedValue(final BigDecimal value) {
+        BigDecimal savedValue = value;
+        if (savedValue.unscaledValue().bitLength() >= Long.SIZE) {
+            savedValue = savedValue.stripTrailingZeros();
+        }
+        if (savedValue.unscaledValue().bitLength() >= Long.SIZE) {
+            savedValue = savedValue.round(LONG_PRECISION);
+        }
+        if (savedValue.scale() > Byte.MAX_VALUE) {
+            savedValue = savedValue.setScale(Byte.MAX_VALUE, RoundingMode.HALF_EVEN);
+        }
+        return savedValue;
+    }
+
+    /**
+     * Reads a value (unscaled value and scale).
+     *
+     * @param buffer buffer
+     * @return value (null if not set)
+     */
+    private static BigDecimal readValue(final ByteBuffer buffer) {
+        final long unscaledValue = buffer.getLong();
+        final byte scale = buffer.get();
+        if (scale == NULL_SCALE) {
+            return null;
+        }
+        return BigDecimal.valueOf(unscaledValue, scale);
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Local candle and ticker store.
+ */
+package tech.cassandre.trading.bot.util.candle;
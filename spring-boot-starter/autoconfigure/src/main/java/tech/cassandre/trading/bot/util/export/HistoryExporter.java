@@ -0,0 +1,455 @@
+package tech.cassandre.trading.bot.util.export;
+
+import tech.cassandre.trading.bot.domain.Position;
+import tech.cassandre.trading.bot.domain.Trade;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.GainDTO;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.util.base.Base;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import static tech.cassandre.trading.bot.util.mapper.EntityMapper.getPositionDTO;
+import static tech.cassandre.trading.bot.util.mapper.EntityMapper.getTradeDTO;
+
+/**
+ * History exporter - writes trades and positions to a compressed columnar layout for offline analysis.
+ * <p>
+ * Rows are partitioned by day (UTC) and every column of a partition is a gzip file with one value per line :
+ * {@code <directory>/trades/date=2020-08-01/price.gz}. Rows are streamed and only one partition is open at a time.
+ * <p>
+ * Columns are written to temporary files renamed over the previous ones once all the rows are written: each export
+ * replaces the partitions it writes and a reader never sees a column being written. {@link #export()} exports all the
+ * trades and positions saved in database, {@link #start(Duration)} schedules it. A row that can't be exported is
+ * logged and skipped.
+ */
+public final class HistoryExporter extends Base {
+
+    /** Value written for null. */
+    public static final String NULL_VALUE = "\\N";
+
+    /** Trades directory. */
+    public static final String TRADES_DIRECTORY = "trades";
+
+    /** Positions directory. */
+    public static final String POSITIONS_DIRECTORY = "positions";
+
+    /** Partition of rows without date. */
+    public static final String UNDEFINED_PARTITION = "date=undefined";
+
+    /** Column file suffix. */
+    public static final String COLUMN_FILE_SUFFIX = ".gz";
+
+    /** Suffix of the column files being written. */
+    public static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    /** Trade columns. */
+    public static final List<String> TRADE_COLUMNS = List.of("id",
+            "order_id",
+            "type",
+            "currency_pair",
+            "original_amount",
+            "price",
+            "timestamp",
+            "fee_amount",
+            "fee_currency");
+
+    /** Position columns. */
+    public static final List<String> POSITION_COLUMNS = List.of("id",
+            "status",
+            "currency_pair",
+            "amount",
+            "open_order_id",
+            "close_order_id",
+            "open_timestamp",
+            "close_timestamp",
+            "lowest_price",
+            "highest_price",
+            "gain_percentage",
+            "gain_amount",
+            "gain_fees",
+            "gain_currency");
+
+    /** Export directory. */
+    private final Path directory;
+
+    /** Trade repository. */
+    private final TradeRepository tradeRepository;
+
+    /** Position repository. */
+    private final PositionRepository positionRepository;
+
+    /** Export scheduler. */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor.
+     *
+     * @param newDirectory          export directory
+     * @param newTradeRepository    trade repository
+     * @param newPositionRepository position repository
+     */
+    public HistoryExporter(final Path newDirectory,
+                           final TradeRepository newTradeRepository,
+                           final PositionRepository newPositionRepository) {
+        this.directory = newDirectory;
+        this.tradeRepository = newTradeRepository;
+        this.positionRepository = newPositionRepository;
+    }
+
+    /**
+     * Exports now and schedules the next exports.
+     *
+     * @param interval delay between two exports
+     */
+    public synchronized void start(final Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "cassandre-history-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                export();
+            } catch (IOException | RuntimeException e) {
+                getLogger().error("HistoryExporter - Export failed : {}", e.getMessage());
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the scheduled exports.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Exports the trades and positions saved in database.
+     *
+     * @throws IOException write error
+     */
+    public void export() throws IOException {
+        final Map<String, TradeDTO> tradesById = new LinkedHashMap<>();
+        for (Trade trade : tradeRepository.findByOrderByTimestampAsc()) {
+            try {
+                tradesById.put(trade.getId(), getTradeDTO(trade));
+            } catch (RuntimeException e) {
+                getLogger().error("HistoryExporter - Trade {} skipped : {}", trade.getId(), e.getMessage());
+            }
+        }
+        final List<PositionDTO> positions = new LinkedList<>();
+        for (Position position : positionRepository.findAll()) {
+            try {
+                positions.add(getPositionDTO(position, tradesById));
+            } catch (RuntimeException e) {
+                getLogger().error("HistoryExporter - Position {} skipped : {}", position.getId(), e.getMessage());
+            }
+        }
+        final long tradeCount = exportTrades(tradesById.values());
+        final long positionCount = exportPositions(positions);
+        getLogger().info("HistoryExporter - {} trade(s) and {} position(s) exported to {}", tradeCount, positionCount, directory);
+    }
+
+    /**
+     * Exports trades (partitioned by trade date) - replaces the partitions written.
+     *
+     * @param trades trades
+     * @return number of trades exported
+     * @throws IOException write error
+     */
+    public long exportTrades(final Iterable<TradeDTO> trades) throws IOException {
+        return export(TRADES_DIRECTORY, TRADE_COLUMNS, trades, t -> getPartition(t.getTimestamp()), t -> new Object[]{
+                t.getId(),
+                t.getOrderId(),
+                t.getType(),
+                t.getCurrencyPair(),
+                t.getOriginalAmount(),
+                t.getPrice(),
+                t.getTimestamp(),
+                t.getFee().getValue(),
+                t.getFee().getCurrency()});
+    }
+
+    /**
+     * Exports positions (partitioned by opening date) - replaces the partitions written.
+     *
+     * @param positions positions
+     * @return number of positions exported
+     * @throws IOException write error
+     */
+    public long exportPositions(final Iterable<PositionDTO> positions) throws IOException {
+        return export(POSITIONS_DIRECTORY, POSITION_COLUMNS, positions, p -> getPartition(getOpenTimestamp(p)), p -> {
+            final GainDTO gain = p.getGain();
+            return new Object[]{
+                    p.getId(),
+                    p.getStatus(),
+                    p.getCurrencyPair(),
+                    p.getAmount(),
+                    p.getOpenOrderId(),
+                    p.getCloseOrderId(),
+                    getOpenTimestamp(p),
+                    getCloseTimestamp(p),
+                    p.getLowestPrice(),
+                    p.getHighestPrice(),
+                    gain.getPercentage(),
+                    getValue(gain.getAmount()),
+                    getValue(gain.getFees()),
+                    Optional.ofNullable(gain.getAmount()).map(CurrencyAmountDTO::getCurrency).orElse(null)};
+        });
+    }
+
+    /**
+     * Exports rows.
+     *
+     * @param table     table directory
+     * @param columns   columns
+     * @param rows      rows
+     * @param partition returns the partition of a row
+     * @param values    returns the values of a row
+     * @param <T>       row type
+     * @return number of rows exported
+     * @throws IOException write error
+     */
+    private <T> long export(final String table,
+                            final List<String> columns,
+                            final Iterable<T> rows,
+                            final Function<T, String> partition,
+                            final Function<T, Object[]> values) throws IOException {
+        long count = 0;
+        String currentPartition = null;
+        PartitionWriter writer = null;
+        final Set<Path> writtenPartitions = new LinkedHashSet<>();
+        try {
+            for (T row : rows) {
+                final String rowPartition;
+                final Object[] rowValues;
+                try {
+                    rowPartition = partition.apply(row);
+                    rowValues = values.apply(row);
+                } catch (RuntimeException e) {
+                    getLogger().error("HistoryExporter - Row skipped ({}) : {}", row, e.getMessage());
+                    continue;
+                }
+                if (!rowPartition.equals(currentPartition)) {
+                    if (writer != null) {
+                        writer.close();
+                    }
+                    final Path partitionDirectory = directory.resolve(table).resolve(rowPartition);
+                    // Rows are appended if the partition was already written by this export (rows not sorted).
+                    writer = new PartitionWriter(partitionDirectory, columns, !writtenPartitions.add(partitionDirectory));
+                    currentPartition = rowPartition;
+                }
+                writer.writeRow(rowValues);
+                count++;
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+
+        // All rows are written, the new columns replace the previous ones.
+        for (Path partitionDirectory : writtenPartitions) {
+            for (String column : columns) {
+                Files.move(partitionDirectory.resolve(column + COLUMN_FILE_SUFFIX + TEMPORARY_FILE_SUFFIX),
+                        partitionDirectory.resolve(column + COLUMN_FILE_SUFFIX),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the partition of a date.
+     *
+     * @param timestamp date
+     * @return partition
+     */
+    private static String getPartition(final ZonedDateTime timestamp) {
+        if (timestamp == null) {
+            return UNDEFINED_PARTITION;
+        } else {
+            return "date=" + timestamp.withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+        }
+    }
+
+    /**
+     * Returns the date of the first open trade of a position.
+     *
+     * @param position position
+     * @return date
+     */
+    private static ZonedDateTime getOpenTimestamp(final PositionDTO position) {
+        return getTimestamp(position.getOpenTrades(), Comparator.naturalOrder());
+    }
+
+    /**
+     * Returns the date of the last close trade of a position.
+     *
+     * @param position position
+     * @return date
+     */
+    private static ZonedDateTime getCloseTimestamp(final PositionDTO position) {
+        return getTimestamp(position.getCloseTrades(), Comparator.reverseOrder());
+    }
+
+    /**
+     * Returns the first trade date in an order.
+     *
+     * @param trades     trades
+     * @param comparator order
+     * @return date
+     */
+    private static ZonedDateTime getTimestamp(final Set<TradeDTO> trades, final Comparator<ZonedDateTime> comparator) {
+        return trades.stream()
+                .map(TradeDTO::getTimestamp)
+                .filter(Objects::nonNull)
+                .min(comparator)
+                .orElse(null);
+    }
+
+    /**
+     * Returns the value of an amount.
+     *
+     * @param amount amount
+     * @return value
+     */
+    private static BigDecimal getValue(final CurrencyAmountDTO amount) {
+        if (amount == null) {
+            return null;
+        } else {
+            return amount.getValue();
+        }
+    }
+
+    /**
+     * Writes the columns of a partition.
+     */
+    private static final class PartitionWriter {
+
+        /** Column writers. */
+        private final Writer[] columnWriters;
+
+        /**
+         * Constructor.
+         *
+         * @param partitionDirectory partition directory
+         * @param columns            columns
+         * @param append             true to append to the temporary files, false to replace them
+         * @throws IOException write error
+         */
+        PartitionWriter(final Path partitionDirectory, final List<String> columns, final boolean append) throws IOException {
+            Files.createDirectories(partitionDirectory);
+            columnWriters = new Writer[columns.size()];
+            // Appending creates a new gzip member, readers see the concatenation of all members.
+            StandardOpenOption mode = StandardOpenOption.TRUNCATE_EXISTING;
+            if (append) {
+                mode = StandardOpenOption.APPEND;
+            }
+            try {
+                for (int i = 0; i < columns.size(); i++) {
+                    columnWriters[i] = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+                            Files.newOutputStream(partitionDirectory.resolve(columns.get(i) + COLUMN_FILE_SUFFIX + TEMPORARY_FILE_SUFFIX),
+                                    StandardOpenOption.CREATE,
+                                    StandardOpenOption.WRITE,
+                                    mode)),
+                            StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Writes a row.
+         *
+         * @param values row values
+         * @throws IOException write error
+         */
+        void writeRow(final Object[] values) throws IOException {
+            for (int i = 0; i < columnWriters.length; i++) {
+                columnWriters[i].write(format(values[i]));
+                columnWriters[i].write('\n');
+            }
+        }
+
+        /**
+         * Closes the column files.
+         *
+         * @throws IOException write error
+         */
+        void close() throws IOException {
+            IOException exception = null;
+            for (Writer columnWriter : columnWriters) {
+                if (columnWriter != null) {
+                    try {
+                        columnWriter.close();
+                    } catch (IOException e) {
+                        exception = e;
+                    }
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+        /**
+         * Formats a value.
+         *
+         * @param value value
+         * @return formatted value
+         */
+        private static String format(final Object value) {
+            if (value == null) {
+                return NULL_VALUE;
+            } else if (value instanceof BigDecimal) {
+                return ((BigDecimal) value).toPlainString();
+            } else if (value instanceof ZonedDateTime) {
+                return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format((ZonedDateTime) value);
+            } else {
+                return value.toString()
+                        .replace("\\", "\\\\")
+                        .replace("\n", "\\n");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * History export.
+ */
+package tech.cassandre.trading.bot.util.export;
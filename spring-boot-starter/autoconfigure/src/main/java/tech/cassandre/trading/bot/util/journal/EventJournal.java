@@ -0,0 +1,640 @@
+package tech.cassandre.trading.bot.util.journal;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.util.base.Base;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+
+/**
+ * Event journal - append-only log of tickers, orders, trades and positions written to memory-mapped files.
+ * <p>
+ * The journal is split in segments. Each segment starts with a snapshot of the trades and positions, followed by the
+ * events received since then. A record is made of its length, its type and its payload; the length is written last, so
+ * a record interrupted by a crash is ignored. On restart, trades and positions are read back from the newest complete
+ * snapshot and the events following it.
+ * <p>
+ * Snapshots are compacted: they contain the positions not closed and their trades, plus the trades and positions
+ * received since the previous snapshot - older ones are in the database. Segments older than the last snapshot are
+ * deleted. If a snapshot can't be written, the journal is suspended (with an error log): a new snapshot, only made of
+ * the positions not closed and their trades, is tried after a number of records doubling at each failure.
+ * <p>
+ * Durability: a record is in the operating system memory as soon as it is written, so it survives a crash of the
+ * application. Trade and position records, snapshots and the end of the journal are also forced to disk, so they
+ * survive a crash of the operating system; ticker and order records may be lost then.
+ */
+public final class EventJournal extends Base {
+
+    /** Ticker record. */
+    static final byte TICKER = 1;
+
+    /** Order record. */
+    static final byte ORDER = 2;
+
+    /** Trade record. */
+    static final byte TRADE = 3;
+
+    /** Position record. */
+    static final byte POSITION = 4;
+
+    /** End of snapshot record. */
+    static final byte SNAPSHOT_END = 5;
+
+    /** Segment file prefix. */
+    private static final String SEGMENT_PREFIX = "journal-";
+
+    /** Segment file suffix. */
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /** Record header size (length and type). */
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+
+    /** Maximum number of times the records skipped after a failed snapshot doubles. */
+    private static final int MAXIMUM_BACKOFF = 6;
+
+    /** Journal directory. */
+    private final Path directory;
+
+    /** Number of records written between two snapshots. */
+    private final int snapshotInterval;
+
+    /** Segment size. */
+    private final int segmentSize;
+
+    /** Trades (by trade id). */
+    private final Map<String, TradeDTO> trades = new LinkedHashMap<>();
+
+    /** Positions (by position id). */
+    private final Map<Long, PositionDTO> positions = new LinkedHashMap<>();
+
+    /** Trades received since the last snapshot (kept in the next one). */
+    private final Set<String> recentTradeIds = new HashSet<>();
+
+    /** Positions received since the last snapshot (kept in the next one). */
+    private final Set<Long> recentPositionIds = new HashSet<>();
+
+    /** Record being encoded. */
+    private final RecordBuffer recordBuffer = new RecordBuffer();
+
+    /** Record output. */
+    private final DataOutputStream recordOutput = new DataOutputStream(recordBuffer);
+
+    /** True if trades and positions were read from the journal. */
+    private final boolean restoredData;
+
+    /** Number of the last segment. */
+    private long segmentNumber;
+
+    /** Segment file channel. */
+    private FileChannel segmentChannel;
+
+    /** Segment mapped in memory (null until the journal is started or when it is suspended). */
+    private MappedByteBuffer segment;
+
+    /** True once the journal is started and until it is closed. */
+    private boolean started;
+
+    /** Records written since the last snapshot (or skipped since the last failed snapshot). */
+    private int recordsSinceSnapshot;
+
+    /** Number of snapshots failed in a row. */
+    private int failedSnapshots;
+
+    /**
+     * Constructor - reads the existing journal.
+     *
+     * @param newDirectory        journal directory
+     * @param newSnapshotInterval number of records written between two snapshots
+     * @param newSegmentSize      segment size
+     */
+    public EventJournal(final Path newDirectory, final int newSnapshotInterval, final int newSegmentSize) {
+        this.directory = newDirectory;
+        this.snapshotInterval = newSnapshotInterval;
+        this.segmentSize = newSegmentSize;
+        try {
+            Files.createDirectories(directory);
+            restoredData = recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible to read the journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns true if trades and positions were read from the journal.
+     *
+     * @return true if data was restored
+     */
+    public boolean hasRestoredData() {
+        return restoredData;
+    }
+
+    /**
+     * Returns the trades read from the journal.
+     *
+     * @return trades
+     */
+    public synchronized Set<TradeDTO> getRestoredTrades() {
+        return new LinkedHashSet<>(trades.values());
+    }
+
+    /**
+     * Returns the positions read from the journal.
+     *
+     * @return positions
+     */
+    public synchronized Set<PositionDTO> getRestoredPositions() {
+        return new LinkedHashSet<>(positions.values());
+    }
+
+    /**
+     * Restore a trade (it will be part of the next snapshot).
+     *
+     * @param trade trade
+     */
+    public synchronized void restoreTrade(final TradeDTO trade) {
+        trades.put(trade.getId(), trade);
+    }
+
+    /**
+     * Restore a position (it will be part of the next snapshot).
+     *
+     * @param position position
+     */
+    public synchronized void restorePosition(final PositionDTO position) {
+        positions.put(position.getId(), position);
+    }
+
+    /**
+     * Remove a position moved to another node (it won't be part of the next snapshot).
+     *
+     * @param position position
+     */
+    public synchronized void removePosition(final PositionDTO position) {
+        positions.remove(position.getId());
+        recentPositionIds.remove(position.getId());
+    }
+
+    /**
+     * Starts the journal - opens a new segment with a snapshot of the restored data.
+     */
+    public synchronized void start() {
+        try {
+            newSegment();
+            started = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible to write the journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns true if the journal is started and not suspended by a failed snapshot.
+     *
+     * @return true if records are written
+     */
+    public synchronized boolean isWriting() {
+        return started && segment != null;
+    }
+
+    /**
+     * Method called by streams at every ticker update.
+     *
+     * @param ticker ticker
+     */
+    public synchronized void tickerUpdate(final TickerDTO ticker) {
+        append(TICKER, JournalCodec::writeTicker, ticker);
+    }
+
+    /**
+     * Method called by streams at every order update.
+     *
+     * @param order order
+     */
+    public synchronized void orderUpdate(final OrderDTO order) {
+        append(ORDER, JournalCodec::writeOrder, order);
+    }
+
+    /**
+     * Method called by streams at every trade update.
+     *
+     * @param trade trade
+     */
+    public synchronized void tradeUpdate(final TradeDTO trade) {
+        // Kept after the record, as the record may be written after a new snapshot.
+        append(TRADE, JournalCodec::writeTrade, trade);
+        trades.put(trade.getId(), trade);
+        recentTradeIds.add(trade.getId());
+    }
+
+    /**
+     * Method called by streams at every position update.
+     *
+     * @param position position
+     */
+    public synchronized void positionUpdate(final PositionDTO position) {
+        // Kept after the record, as the record may be written after a new snapshot.
+        append(POSITION, JournalCodec::writePosition, position);
+        positions.put(position.getId(), position);
+        recentPositionIds.add(position.getId());
+    }
+
+    /**
+     * Flushes and closes the journal.
+     */
+    public synchronized void close() {
+        started = false;
+        closeSegment();
+    }
+
+    /**
+     * Flushes and closes the current segment.
+     */
+    private void closeSegment() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+        if (segmentChannel != null) {
+            try {
+                segmentChannel.close();
+            } catch (IOException e) {
+                getLogger().error("EventJournal - Error closing journal : {}", e.getMessage());
+            }
+            segmentChannel = null;
+        }
+    }
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param type   record type
+     * @param writer record writer
+     * @param value  value
+     * @param <T>    value type
+     */
+    private <T> void append(final byte type, final RecordWriter<T> writer, final T value) {
+        if (!started) {
+            return;
+        }
+        try {
+            if (segment == null || recordsSinceSnapshot >= snapshotInterval) {
+                if (segment == null && recordsSinceSnapshot < getRetryInterval()) {
+                    // Suspended after a failed snapshot, the next one only keeps the positions not closed.
+                    recentTradeIds.clear();
+                    recentPositionIds.clear();
+                    recordsSinceSnapshot++;
+                    return;
+                }
+                newSegment();
+            }
+            encode(writer, value);
+            if (!writeRecord(type)) {
+                // Segment is full, the record is written after the snapshot of the next one.
+                newSegment();
+                encode(writer, value);
+                if (!writeRecord(type)) {
+                    getLogger().error("EventJournal - Record larger than journal segment size : {}", value);
+                }
+            }
+            recordsSinceSnapshot++;
+            if (type == TRADE || type == POSITION) {
+                segment.force();
+            }
+        } catch (IOException e) {
+            if (segment == null) {
+                // The snapshot failed : nothing is written until the next try.
+                failedSnapshots++;
+                recordsSinceSnapshot = 0;
+                getLogger().error("EventJournal - Journal suspended for {} record(s), impossible to write a snapshot : {}",
+                        getRetryInterval(),
+                        e.getMessage());
+            } else {
+                getLogger().error("EventJournal - Error writing journal : {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of records skipped before trying a new snapshot after a failure.
+     *
+     * @return number of records
+     */
+    private long getRetryInterval() {
+        return (long) snapshotInterval << Math.min(failedSnapshots, MAXIMUM_BACKOFF);
+    }
+
+    /**
+     * Encodes a record payload into the record buffer.
+     *
+     * @param writer record writer
+     * @param value  value
+     * @param <T>    value type
+     * @throws IOException encoding error
+     */
+    private <T> void encode(final RecordWriter<T> writer, final T value) throws IOException {
+        recordBuffer.reset();
+        if (writer != null) {
+            writer.write(recordOutput, value);
+        }
+        recordOutput.flush();
+    }
+
+    /**
+     * Writes the record buffer to the segment.
+     *
+     * @param type record type
+     * @return false if the segment is full
+     */
+    private boolean writeRecord(final byte type) {
+        final int position = segment.position();
+        if (position + RECORD_HEADER_SIZE + recordBuffer.size() > segmentSize) {
+            return false;
+        }
+        segment.position(position + Integer.BYTES);
+        segment.put(type);
+        recordBuffer.writeTo(segment);
+        // The length is written last as it marks the record as complete.
+        segment.putInt(position, Byte.BYTES + recordBuffer.size());
+        return true;
+    }
+
+    /**
+     * Creates a new segment, writes the snapshot and deletes the previous segments.
+     * If the snapshot can't be written, the new segment is deleted and the journal is suspended (no segment).
+     *
+     * @throws IOException write error
+     */
+    private void newSegment() throws IOException {
+        closeSegment();
+        segmentNumber++;
+        final Path segmentPath = getSegmentPath(segmentNumber);
+        try {
+            segmentChannel = FileChannel.open(segmentPath,
+                    StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+
+            // Snapshot.
+            compact();
+            for (TradeDTO trade : trades.values()) {
+                writeSnapshotRecord(TRADE, JournalCodec::writeTrade, trade);
+            }
+            for (PositionDTO position : positions.values()) {
+                writeSnapshotRecord(POSITION, JournalCodec::writePosition, position);
+            }
+            writeSnapshotRecord(SNAPSHOT_END, null, null);
+            segment.force();
+        } catch (IOException e) {
+            // Without a complete snapshot, the segment is useless.
+            recentTradeIds.clear();
+            recentPositionIds.clear();
+            segment = null;
+            closeSegment();
+            try {
+                Files.deleteIfExists(segmentPath);
+            } catch (IOException deleteException) {
+                getLogger().warn("EventJournal - Impossible to delete {} : {}", segmentPath, deleteException.getMessage());
+            }
+            throw e;
+        }
+        recentTradeIds.clear();
+        recentPositionIds.clear();
+        recordsSinceSnapshot = 0;
+        failedSnapshots = 0;
+
+        // The snapshot is on disk, previous segments are not needed anymore.
+        for (Path previousSegment : getSegmentPaths()) {
+            if (getSegmentNumber(previousSegment) < segmentNumber) {
+                try {
+                    Files.delete(previousSegment);
+                } catch (IOException e) {
+                    getLogger().warn("EventJournal - Impossible to delete {} : {}", previousSegment, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the closed positions and the trades not needed anymore (unless received since the last snapshot).
+     */
+    private void compact() {
+        positions.values().removeIf(p -> p.getStatus() == CLOSED && !recentPositionIds.contains(p.getId()));
+        final Set<String> tradeIds = new HashSet<>(recentTradeIds);
+        positions.values().forEach(p -> p.getTrades().forEach(t -> tradeIds.add(t.getId())));
+        trades.keySet().retainAll(tradeIds);
+    }
+
+    /**
+     * Writes a snapshot record.
+     *
+     * @param type   record type
+     * @param writer record writer
+     * @param value  value
+     * @param <T>    value type
+     * @throws IOException write error
+     */
+    private <T> void writeSnapshotRecord(final byte type, final RecordWriter<T> writer, final T value) throws IOException {
+        encode(writer, value);
+        if (!writeRecord(type)) {
+            throw new IOException("Journal segment size (" + segmentSize + ") is too small for the snapshot");
+        }
+    }
+
+    /**
+     * Reads trades and positions from the newest segment with a complete snapshot.
+     *
+     * @return true if data was restored
+     * @throws IOException read error
+     */
+    private boolean recover() throws IOException {
+        final List<Path> segmentPaths = getSegmentPaths();
+        if (segmentPaths.isEmpty()) {
+            return false;
+        }
+        segmentNumber = getSegmentNumber(segmentPaths.get(segmentPaths.size() - 1));
+        for (int i = segmentPaths.size() - 1; i >= 0; i--) {
+            if (readSegment(segmentPaths.get(i))) {
+                getLogger().info("EventJournal - {} trade(s) and {} position(s) read from {}",
+                        trades.size(),
+                        positions.size(),
+                        segmentPaths.get(i));
+                return true;
+            }
+            getLogger().warn("EventJournal - No complete snapshot in {}", segmentPaths.get(i));
+        }
+        return false;
+    }
+
+    /**
+     * Reads a segment.
+     *
+     * @param segmentPath segment path
+     * @return true if the segment contains a complete snapshot
+     * @throws IOException read error
+     */
+    private boolean readSegment(final Path segmentPath) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final Map<String, TradeDTO> segmentTrades = new LinkedHashMap<>();
+        final Map<Long, byte[]> segmentPositions = new LinkedHashMap<>();
+        boolean snapshotRead = false;
+        int otherRecords = 0;
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            final int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+            final byte type = buffer.get();
+            final byte[] payload = new byte[length - Byte.BYTES];
+            buffer.get(payload);
+            try {
+                switch (type) {
+                    case TRADE:
+                        final TradeDTO trade = JournalCodec.readTrade(input(payload));
+                        segmentTrades.put(trade.getId(), trade);
+                        break;
+                    case POSITION:
+                        // Positions are decoded once all trades are known.
+                        segmentPositions.put(input(payload).readLong(), payload);
+                        break;
+                    case SNAPSHOT_END:
+                        snapshotRead = true;
+                        break;
+                    default:
+                        otherRecords++;
+                        break;
+                }
+            } catch (IOException | RuntimeException e) {
+                getLogger().warn("EventJournal - Invalid record in {} : {}", segmentPath, e.getMessage());
+                break;
+            }
+        }
+        if (!snapshotRead) {
+            return false;
+        }
+
+        // Data read from the journal is kept in the next snapshot (it may not be in database yet).
+        trades.putAll(segmentTrades);
+        recentTradeIds.addAll(segmentTrades.keySet());
+        for (byte[] payload : segmentPositions.values()) {
+            final PositionDTO position = JournalCodec.readPosition(input(payload), segmentTrades);
+            positions.put(position.getId(), position);
+            recentPositionIds.add(position.getId());
+        }
+        getLogger().info("EventJournal - {} ticker and order record(s) skipped in {}", otherRecords, segmentPath);
+        return true;
+    }
+
+    /**
+     * Returns the segments, oldest first.
+     *
+     * @return segment paths
+     * @throws IOException read error
+     */
+    private List<Path> getSegmentPaths() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            final List<Path> segmentPaths = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            Collections.sort(segmentPaths);
+            return segmentPaths;
+        }
+    }
+
+    /**
+     * Returns the path of a segment.
+     *
+     * @param number segment number
+     * @return segment path
+     */
+    private Path getSegmentPath(final long number) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Returns the number of a segment.
+     *
+     * @param segmentPath segment path
+     * @return segment number
+     */
+    private static long getSegmentNumber(final Path segmentPath) {
+        final String fileName = segmentPath.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Returns an input reading a payload.
+     *
+     * @param payload payload
+     * @return input
+     */
+    private static DataInputStream input(final byte[] payload) {
+        return new DataInputStream(new ByteArrayInputStream(payload));
+    }
+
+    /**
+     * Writes a value to a record.
+     *
+     * @param <T> value type
+     */
+    @FunctionalInterface
+    private interface RecordWriter<T> {
+
+        /**
+         * Writes a value.
+         *
+         * @param out   output
+         * @param value value
+         * @throws IOException write error
+         */
+        void write(DataOutput out, T value) throws IOException;
+
+    }
+
+    /**
+     * Reusable record buffer.
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+
+        /**
+         * Copies the buffer content to a byte buffer.
+         *
+         * @param target byte buffer
+         */
+        void writeTo(final ByteBuffer target) {
+            target.put(buf, 0, count);
+        }
+
+    }
+
+}
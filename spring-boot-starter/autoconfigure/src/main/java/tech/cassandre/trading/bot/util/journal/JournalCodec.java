@@ -0,0 +1,416 @@
+package tech.cassandre.trading.bot.util.journal;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Binary encoding of the journal records (also used to share tickers between bots).
+ */
+public final class JournalCodec {
+
+    /**
+     * Private constructor.
+     */
+    private JournalCodec() {
+    }
+
+    /**
+     * Writes a ticker.
+     *
+     * @param out    output
+     * @param ticker ticker
+     * @throws IOException write error
+     */
+    public static void writeTicker(final DataOutput out, final TickerDTO ticker) throws IOException {
+        writeCurrencyPair(out, ticker.getCurrencyPair());
+        writeDecimal(out, ticker.getOpen());
+        writeDecimal(out, ticker.getLast());
+        writeDecimal(out, ticker.getBid());
+        writeDecimal(out, ticker.getAsk());
+        writeDecimal(out, ticker.getHigh());
+        writeDecimal(out, ticker.getLow());
+        writeDecimal(out, ticker.getVwap());
+        writeDecimal(out, ticker.getVolume());
+        writeDecimal(out, ticker.getQuoteVolume());
+        writeDecimal(out, ticker.getBidSize());
+        writeDecimal(out, ticker.getAskSize());
+        writeZonedDateTime(out, ticker.getTimestamp());
+    }
+
+    /**
+     * Reads a ticker.
+     *
+     * @param in input
+     * @return ticker
+     * @throws IOException read error
+     */
+    public static TickerDTO readTicker(final DataInput in) throws IOException {
+        final TickerDTO.Builder builder = TickerDTO.builder()
+                .currencyPair(readCurrencyPair(in))
+                .open(readDecimal(in))
+                .last(readDecimal(in))
+                .bid(readDecimal(in))
+                .ask(readDecimal(in))
+                .high(readDecimal(in))
+                .low(readDecimal(in))
+                .vwap(readDecimal(in))
+                .volume(readDecimal(in))
+                .quoteVolume(readDecimal(in))
+                .bidSize(readDecimal(in))
+                .askSize(readDecimal(in));
+        final ZonedDateTime timestamp = readZonedDateTime(in);
+        if (timestamp != null) {
+            builder.timestamp(Date.from(timestamp.toInstant()));
+        }
+        return builder.create();
+    }
+
+    /**
+     * Writes an order.
+     *
+     * @param out   output
+     * @param order order
+     * @throws IOException write error
+     */
+    static void writeOrder(final DataOutput out, final OrderDTO order) throws IOException {
+        writeString(out, order.getId());
+        writeEnum(out, order.getType());
+        writeDecimal(out, order.getOriginalAmount());
+        writeCurrencyPair(out, order.getCurrencyPair());
+        writeString(out, order.getUserReference());
+        writeZonedDateTime(out, order.getTimestamp());
+        writeEnum(out, order.getStatus());
+        writeDecimal(out, order.getCumulativeAmount());
+        writeDecimal(out, order.getAveragePrice());
+        writeDecimal(out, order.getFee());
+        writeString(out, order.getLeverage());
+        writeDecimal(out, order.getLimitPrice());
+    }
+
+    /**
+     * Writes a trade.
+     *
+     * @param out   output
+     * @param trade trade
+     * @throws IOException write error
+     */
+    static void writeTrade(final DataOutput out, final TradeDTO trade) throws IOException {
+        writeString(out, trade.getId());
+        writeString(out, trade.getOrderId());
+        writeEnum(out, trade.getType());
+        writeDecimal(out, trade.getOriginalAmount());
+        writeCurrencyPair(out, trade.getCurrencyPair());
+        writeDecimal(out, trade.getPrice());
+        writeZonedDateTime(out, trade.getTimestamp());
+        writeDecimal(out, trade.getFee().getValue());
+        writeCurrency(out, trade.getFee().getCurrency());
+    }
+
+    /**
+     * Reads a trade.
+     *
+     * @param in input
+     * @return trade
+     * @throws IOException read error
+     */
+    static TradeDTO readTrade(final DataInput in) throws IOException {
+        return TradeDTO.builder()
+                .id(readString(in))
+                .orderId(readString(in))
+                .type(readEnum(in, OrderTypeDTO.class))
+                .originalAmount(readDecimal(in))
+                .currencyPair(readCurrencyPair(in))
+                .price(readDecimal(in))
+                .timestamp(readZonedDateTime(in))
+                .feeAmount(readDecimal(in))
+                .feeCurrency(readCurrency(in))
+                .create();
+    }
+
+    /**
+     * Writes a position (its trades are written as trade ids).
+     *
+     * @param out      output
+     * @param position position
+     * @throws IOException write error
+     */
+    static void writePosition(final DataOutput out, final PositionDTO position) throws IOException {
+        out.writeLong(position.getId());
+        writeEnum(out, position.getStatus());
+        writeCurrencyPair(out, position.getCurrencyPair());
+        writeDecimal(out, position.getAmount());
+        out.writeBoolean(position.getRules().isStopGainPercentageSet());
+        out.writeFloat(position.getRules().getStopGainPercentage());
+        out.writeBoolean(position.getRules().isStopLossPercentageSet());
+        out.writeFloat(position.getRules().getStopLossPercentage());
+        writeString(out, position.getOpenOrderId());
+        writeString(out, position.getCloseOrderId());
+        final Set<TradeDTO> trades = position.getTrades();
+        out.writeInt(trades.size());
+        for (TradeDTO trade : trades) {
+            writeString(out, trade.getId());
+        }
+        writeDecimal(out, position.getLowestPrice());
+        writeDecimal(out, position.getHighestPrice());
+    }
+
+    /**
+     * Reads a position.
+     *
+     * @param in     input
+     * @param trades trades by id (used to restore the position trades)
+     * @return position
+     * @throws IOException read error
+     */
+    static PositionDTO readPosition(final DataInput in, final Map<String, TradeDTO> trades) throws IOException {
+        final long id = in.readLong();
+        final PositionStatusDTO status = readEnum(in, PositionStatusDTO.class);
+        final CurrencyPairDTO currencyPair = readCurrencyPair(in);
+        final BigDecimal amount = readDecimal(in);
+        final PositionRulesDTO.Builder rules = PositionRulesDTO.builder();
+        final boolean stopGainPercentageSet = in.readBoolean();
+        final float stopGainPercentage = in.readFloat();
+        if (stopGainPercentageSet) {
+            rules.stopGainPercentage(stopGainPercentage);
+        }
+        final boolean stopLossPercentageSet = in.readBoolean();
+        final float stopLossPercentage = in.readFloat();
+        if (stopLossPercentageSet) {
+            rules.stopLossPercentage(stopLossPercentage);
+        }
+        final String openOrderId = readString(in);
+        final String closeOrderId = readString(in);
+        final int tradeCount = in.readInt();
+        final Set<String> tradeIds = new LinkedHashSet<>();
+        for (int i = 0; i < tradeCount; i++) {
+            tradeIds.add(readString(in));
+        }
+        final BigDecimal lowestPrice = readDecimal(in);
+        final BigDecimal highestPrice = readDecimal(in);
+        return new PositionDTO(id,
+                status,
+                currencyPair,
+                amount,
+                rules.create(),
+                openOrderId,
+                closeOrderId,
+                tradeIds.stream().map(trades::get).filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new)),
+                lowestPrice,
+                highestPrice);
+    }
+
+    /**
+     * Writes a nullable string.
+     *
+     * @param out   output
+     * @param value value
+     * @throws IOException write error
+     */
+    private static void writeString(final DataOutput out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a nullable string.
+     *
+     * @param in input
+     * @return value
+     * @throws IOException read error
+     */
+    private static String readString(final DataInput in) throws IOException {
+        if (in.readBoolean()) {
+            return in.readUTF();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a nullable enum.
+     *
+     * @param out   output
+     * @param value value
+     * @param <E>   enum type
+     * @throws IOException write error
+     */
+    private static <E extends Enum<E>> void writeEnum(final DataOutput out, final E value) throws IOException {
+        if (value == null) {
+            writeString(out, null);
+        } else {
+            writeString(out, value.name());
+        }
+    }
+
+    /**
+     * Reads a nullable enum.
+     *
+     * @param in        input
+     * @param enumClass enum class
+     * @param <E>       enum type
+     * @return value
+     * @throws IOException read error
+     */
+    private static <E extends Enum<E>> E readEnum(final DataInput in, final Class<E> enumClass) throws IOException {
+        final String name = readString(in);
+        if (name == null) {
+            return null;
+        } else {
+            return Enum.valueOf(enumClass, name);
+        }
+    }
+
+    /**
+     * Writes a nullable decimal (unscaled value and scale, so it's restored exactly).
+     *
+     * @param out   output
+     * @param value value
+     * @throws IOException write error
+     */
+    private static void writeDecimal(final DataOutput out, final BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            final byte[] unscaledValue = value.unscaledValue().toByteArray();
+            out.writeInt(value.scale());
+            out.writeShort(unscaledValue.length);
+            out.write(unscaledValue);
+        }
+    }
+
+    /**
+     * Reads a nullable decimal.
+     *
+     * @param in input
+     * @return value
+     * @throws IOException read error
+     */
+    private static BigDecimal readDecimal(final DataInput in) throws IOException {
+        if (in.readBoolean()) {
+            final int scale = in.readInt();
+            final byte[] unscaledValue = new byte[in.readShort()];
+            in.readFully(unscaledValue);
+            return new BigDecimal(new BigInteger(unscaledValue), scale);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a nullable date.
+     *
+     * @param out   output
+     * @param value value
+     * @throws IOException write error
+     */
+    private static void writeZonedDateTime(final DataOutput out, final ZonedDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond());
+            out.writeInt(value.getNano());
+            out.writeUTF(value.getZone().getId());
+        }
+    }
+
+    /**
+     * Reads a nullable date.
+     *
+     * @param in input
+     * @return value
+     * @throws IOException read error
+     */
+    private static ZonedDateTime readZonedDateTime(final DataInput in) throws IOException {
+        if (in.readBoolean()) {
+            final Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            return ZonedDateTime.ofInstant(instant, ZoneId.of(in.readUTF()));
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a nullable currency pair.
+     *
+     * @param out          output
+     * @param currencyPair currency pair
+     * @throws IOException write error
+     */
+    private static void writeCurrencyPair(final DataOutput out, final CurrencyPairDTO currencyPair) throws IOException {
+        if (currencyPair == null) {
+            writeString(out, null);
+        } else {
+            writeString(out, currencyPair.toString());
+        }
+    }
+
+    /**
+     * Reads a nullable currency pair.
+     *
+     * @param in input
+     * @return currency pair
+     * @throws IOException read error
+     */
+    private static CurrencyPairDTO readCurrencyPair(final DataInput in) throws IOException {
+        final String currencyPair = readString(in);
+        if (currencyPair == null) {
+            return null;
+        } else {
+            return CurrencyPairDTO.getInstance(currencyPair);
+        }
+    }
+
+    /**
+     * Writes a nullable currency.
+     *
+     * @param out      output
+     * @param currency currency
+     * @throws IOException write error
+     */
+    private static void writeCurrency(final DataOutput out, final CurrencyDTO currency) throws IOException {
+        if (currency == null) {
+            writeString(out, null);
+        } else {
+            writeString(out, currency.getCode());
+        }
+    }
+
+    /**
+     * Reads a nullable currency.
+     *
+     * @param in input
+     * @return currency
+     * @throws IOException read error
+     */
+    private static CurrencyDTO readCurrency(final DataInput in) throws IOException {
+        final String code = readString(in);
+        if (code == null) {
+            return null;
+        } else {
+            return CurrencyDTO.getInstance(code);
+        }
+    }
+
+}
@@ -10,7 +10,6 @@ import org.knowm.xchange.dto.marketdata.Ticker;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.UserTrade;
 import org.mapstruct.Mapper;
-import org.mapstruct.Mapping;
 import org.mapstruct.ValueMapping;
 import org.mapstruct.ValueMappings;
 import tech.cassandre.trading.bot.dto.market.TickerDTO;
@@ -18,18 +17,27 @@ import tech.cassandre.trading.bot.dto.trade.OrderDTO;
 import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
 import tech.cassandre.trading.bot.dto.trade.TradeDTO;
 import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.AccountFeatureDTO;
 import tech.cassandre.trading.bot.dto.user.BalanceDTO;
 import tech.cassandre.trading.bot.dto.user.UserDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
 import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Cassandre mapper.
+ * Currencies, currency pairs, unchanged balances, accounts and users are reused (see {@link MapperCache}) instead of being created
+ * on each conversion - each mapper instance has its own cache.
  */
 @Mapper
-public interface CassandreMapper {
+public abstract class CassandreMapper {
+
+    /** Objects reused from one conversion to another. */
+    private final MapperCache cache = new MapperCache();
 
     /**
      * Map CurrencyPair to CurrencyPairDTO.
@@ -37,9 +45,12 @@ public interface CassandreMapper {
      * @param source CurrencyPair
      * @return CurrencyPairDTO
      */
-    @Mapping(source = "base", target = "baseCurrency")
-    @Mapping(source = "counter", target = "quoteCurrency")
-    CurrencyPairDTO mapToCurrencyPairDTO(CurrencyPair source);
+    public final CurrencyPairDTO mapToCurrencyPairDTO(final CurrencyPair source) {
+        if (source == null) {
+            return null;
+        }
+        return cache.getCurrencyPair(source);
+    }
 
     /**
      * Map Currency to CurrencyDTO.
@@ -47,41 +58,64 @@ public interface CassandreMapper {
      * @param source Currency
      * @return CurrencyDTO
      */
-    @Mapping(source = "currencyCode", target = "code")
-    CurrencyDTO mapToCurrencyDTO(Currency source);
+    public final CurrencyDTO mapToCurrencyDTO(final Currency source) {
+        if (source == null) {
+            return null;
+        }
+        return cache.getCurrency(source);
+    }
 
     /**
-     * Map AccountInfo to AccountDTO.
+     * Map AccountInfo to AccountDTO (the previous user is reused if no account changed).
      *
      * @param source AccountInfo
      * @return AccountDTO
      */
-    @Mapping(source = "wallets", target = "accounts")
-    UserDTO mapToUserDTO(AccountInfo source);
+    public final UserDTO mapToUserDTO(final AccountInfo source) {
+        if (source == null) {
+            return null;
+        }
+        final Map<String, AccountDTO> accounts = new LinkedHashMap<>();
+        source.getWallets().forEach((id, wallet) -> accounts.put(id, mapToWalletDTO(wallet)));
+        return cache.getUser(accounts, source.getTimestamp());
+    }
 
     /**
-     * Map Wallet to WalletDTO.
+     * Map Wallet to WalletDTO (the previous account is reused if no balance changed).
      *
      * @param source Wallet
      * @return WalletDTO
      */
-    AccountDTO mapToWalletDTO(Wallet source);
+    public final AccountDTO mapToWalletDTO(final Wallet source) {
+        if (source == null) {
+            return null;
+        }
+        final Map<CurrencyDTO, BalanceDTO> balances = new LinkedHashMap<>();
+        source.getBalances().forEach((currency, balance) -> balances.put(mapToCurrencyDTO(currency), mapToBalanceDTO(source.getId(), balance)));
+        return cache.getAccount(source.getId(), source.getName(), mapToAccountFeatureDTO(source.getFeatures()), balances);
+    }
 
     /**
-     * Map balance.
+     * Map wallet features to account features.
      *
-     * @param source map of Currency and Balance
-     * @return Map of CurrencyDTO and BalanceDTO
+     * @param source wallet features
+     * @return account features
      */
-    Map<CurrencyDTO, BalanceDTO> mapToCurrencyDTOAndBalanceDTO(Map<Currency, Balance> source);
+    public abstract Set<AccountFeatureDTO> mapToAccountFeatureDTO(Set<Wallet.WalletFeature> source);
 
     /**
-     * Map Balance to BalanceDTO.
+     * Map Balance to BalanceDTO (unchanged balances of an account are reused).
      *
-     * @param source Balance
+     * @param accountId account id
+     * @param source    Balance
      * @return BalanceDTO
      */
-    BalanceDTO mapToBalanceDTO(Balance source);
+    public final BalanceDTO mapToBalanceDTO(final String accountId, final Balance source) {
+        if (source == null) {
+            return null;
+        }
+        return cache.getBalance(accountId, source);
+    }
 
     /**
      * Map Ticker to TickerDTO.
@@ -89,7 +123,27 @@ public interface CassandreMapper {
      * @param source Ticker
      * @return TickerDTO
      */
-    TickerDTO mapToTickerDTO(Ticker source);
+    public final TickerDTO mapToTickerDTO(final Ticker source) {
+        if (source == null) {
+            return null;
+        }
+        // Values are not copied, BigDecimal are immutable.
+        return TickerDTO.builder()
+                .currencyPair(mapToCurrencyPairDTO(source.getCurrencyPair()))
+                .open(source.getOpen())
+                .last(source.getLast())
+                .bid(source.getBid())
+                .ask(source.getAsk())
+                .high(source.getHigh())
+                .low(source.getLow())
+                .vwap(source.getVwap())
+                .volume(source.getVolume())
+                .quoteVolume(source.getQuoteVolume())
+                .bidSize(source.getBidSize())
+                .askSize(source.getAskSize())
+                .timestamp(source.getTimestamp())
+                .create();
+    }
 
     /**
      * Map Order to OrderDTO.
@@ -97,7 +151,15 @@ public interface CassandreMapper {
      * @param source LimitOrder
      * @return OrderDTO
      */
-    OrderDTO mapToOrderDTO(LimitOrder source);
+    public abstract OrderDTO mapToOrderDTO(LimitOrder source);
+
+    /**
+     * Map a list of Order to a list of OrderDTO.
+     *
+     * @param source list of LimitOrder
+     * @return list of OrderDTO
+     */
+    public abstract List<OrderDTO> mapToOrderDTO(List<LimitOrder> source);
 
     /**
      * Map UserTrade to TradeDTO.
@@ -105,7 +167,15 @@ public interface CassandreMapper {
      * @param source UserTrade
      * @return TradeDTO
      */
-    TradeDTO mapToTradeDTO(UserTrade source);
+    public abstract TradeDTO mapToTradeDTO(UserTrade source);
+
+    /**
+     * Map a list of UserTrade to a list of TradeDTO.
+     *
+     * @param source list of UserTrade
+     * @return list of TradeDTO
+     */
+    public abstract List<TradeDTO> mapToTradeDTO(List<UserTrade> source);
 
     /**
      * Map to OrderTypeDTO.
@@ -119,7 +189,7 @@ public interface CassandreMapper {
             @ValueMapping(source = "EXIT_BID", target = "BID"),
             @ValueMapping(source = "EXIT_ASK", target = "ASK")
     })
-    OrderTypeDTO mapToOrderTypeDTO(Order.OrderType source);
+    public abstract OrderTypeDTO mapToOrderTypeDTO(Order.OrderType source);
 
     /**
      * Map to OrderTypeDTO.
@@ -131,6 +201,6 @@ public interface CassandreMapper {
             @ValueMapping(source = "BID", target = "BID"),
             @ValueMapping(source = "ASK", target = "ASK")
     })
-    Order.OrderType mapToOrderType(OrderTypeDTO source);
+    public abstract Order.OrderType mapToOrderType(OrderTypeDTO source);
 
 }
@@ -0,0 +1,82 @@
+package tech.cassandre.trading.bot.util.mapper;
+
+import tech.cassandre.trading.bot.domain.Position;
+import tech.cassandre.trading.bot.domain.Trade;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Entity mapper - builds the DTOs of the trades and positions restored from the database.
+ */
+public final class EntityMapper {
+
+    /**
+     * Private constructor.
+     */
+    private EntityMapper() {
+    }
+
+    /**
+     * Returns the DTO of a trade.
+     *
+     * @param trade trade
+     * @return trade DTO
+     */
+    public static TradeDTO getTradeDTO(final Trade trade) {
+        return TradeDTO.builder()
+                .id(trade.getId())
+                .orderId(trade.getOrderId())
+                .type(OrderTypeDTO.valueOf(trade.getType()))
+                .originalAmount(trade.getOriginalAmount())
+                .currencyPair(CurrencyPairDTO.getInstance(trade.getCurrencyPair()))
+                .price(trade.getPrice())
+                .timestamp(trade.getTimestamp())
+                .feeAmount(trade.getFeeAmount())
+                .feeCurrency(CurrencyDTO.getInstance(trade.getFeeCurrency()))
+                .create();
+    }
+
+    /**
+     * Returns the DTO of a position.
+     *
+     * @param position   position
+     * @param tradesById trades of the position by id (trades not found are ignored)
+     * @return position DTO
+     */
+    public static PositionDTO getPositionDTO(final Position position, final Map<String, TradeDTO> tradesById) {
+        final PositionRulesDTO.Builder rules = PositionRulesDTO.builder();
+        if (position.getStopGainPercentageRule() != null) {
+            rules.stopGainPercentage(position.getStopGainPercentageRule());
+        }
+        if (position.getStopLossPercentageRule() != null) {
+            rules.stopLossPercentage(position.getStopLossPercentageRule());
+        }
+        final Set<TradeDTO> trades = position.getTrades()
+                .stream()
+                .map(tradesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return new PositionDTO(position.getId(),
+                PositionStatusDTO.valueOf(position.getStatus()),
+                CurrencyPairDTO.getInstance(position.getCurrencyPair()),
+                position.getAmount(),
+                rules.create(),
+                position.getOpenOrderId(),
+                position.getCloseOrderId(),
+                trades,
+                position.getLowestPrice(),
+                position.getHighestPrice());
+    }
+
+}
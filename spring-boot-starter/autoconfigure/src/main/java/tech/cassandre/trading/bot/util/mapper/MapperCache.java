@@ -0,0 +1,204 @@
+package tech.cassandre.trading.bot.util.mapper;
+
+import org.knowm.xchange.currency.Currency;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.account.Balance;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.AccountFeatureDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.user.UserDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mapper cache - objects reused by a {@link CassandreMapper} from one conversion to another.
+ * Currencies and currency pairs are canonical instances, balances, accounts and users are only created when they change.
+ */
+final class MapperCache {
+
+    /** Currency pairs per XChange currency pair. */
+    private final Map<CurrencyPair, CurrencyPairDTO> currencyPairs = new ConcurrentHashMap<>();
+
+    /** Last balance mapped per account id and XChange currency. */
+    private final Map<String, Map<Currency, BalanceDTO>> balances = new ConcurrentHashMap<>();
+
+    /** Last account mapped per account id. */
+    private final Map<String, AccountDTO> accounts = new ConcurrentHashMap<>();
+
+    /** Balances of the last account mapped per account id. */
+    private final Map<String, Map<CurrencyDTO, BalanceDTO>> accountBalances = new ConcurrentHashMap<>();
+
+    /** Last user mapped. */
+    private volatile UserDTO user;
+
+    /**
+     * Returns the canonical currency of a XChange currency.
+     *
+     * @param source XChange currency
+     * @return currency
+     */
+    CurrencyDTO getCurrency(final Currency source) {
+        return CurrencyDTO.getInstance(source.getCurrencyCode());
+    }
+
+    /**
+     * Returns the canonical currency pair of a XChange currency pair.
+     *
+     * @param source XChange currency pair
+     * @return currency pair
+     */
+    CurrencyPairDTO getCurrencyPair(final CurrencyPair source) {
+        final CurrencyPairDTO currencyPair = currencyPairs.get(source);
+        if (currencyPair != null) {
+            return currencyPair;
+        } else {
+            return currencyPairs.computeIfAbsent(source, cp -> CurrencyPairDTO.getInstance(getCurrency(cp.base), getCurrency(cp.counter)));
+        }
+    }
+
+    /**
+     * Returns the balance of a XChange balance (the previous one of the account if nothing changed).
+     *
+     * @param accountId account id (null if the exchange doesn't give one)
+     * @param source    XChange balance
+     * @return balance
+     */
+    BalanceDTO getBalance(final String accountId, final Balance source) {
+        final Map<Currency, BalanceDTO> accountBalances = balances.computeIfAbsent(Objects.requireNonNullElse(accountId, ""),
+                id -> new ConcurrentHashMap<>());
+        final BalanceDTO previousBalance = accountBalances.get(source.getCurrency());
+        if (previousBalance != null && isSameBalance(previousBalance, source)) {
+            return previousBalance;
+        } else {
+            final BalanceDTO balance = BalanceDTO.builder()
+                    .currency(getCurrency(source.getCurrency()))
+                    .total(source.getTotal())
+                    .available(source.getAvailable())
+                    .frozen(source.getFrozen())
+                    .loaned(source.getLoaned())
+                    .borrowed(source.getBorrowed())
+                    .withdrawing(source.getWithdrawing())
+                    .depositing(source.getDepositing())
+                    .create();
+            accountBalances.put(source.getCurrency(), balance);
+            return balance;
+        }
+    }
+
+    /**
+     * Returns the account made of the balances given (the previous one if nothing changed).
+     * As unchanged balances are reused, they are compared by reference.
+     *
+     * @param accountId account id (null if the exchange doesn't give one)
+     * @param name      account name
+     * @param features  account features
+     * @param balances  account balances
+     * @return account
+     */
+    AccountDTO getAccount(final String accountId,
+                          final String name,
+                          final Set<AccountFeatureDTO> features,
+                          final Map<CurrencyDTO, BalanceDTO> balances) {
+        final String key = Objects.requireNonNullElse(accountId, "");
+        final AccountDTO previousAccount = accounts.get(key);
+        if (previousAccount != null
+                && Objects.equals(previousAccount.getName(), name)
+                && previousAccount.getFeatures().equals(Objects.requireNonNullElse(features, Set.of()))
+                && isSameBalances(accountBalances.get(key), balances)) {
+            return previousAccount;
+        } else {
+            final AccountDTO account = AccountDTO.builder()
+                    .id(accountId)
+                    .name(name)
+                    .features(features)
+                    .balances(balances)
+                    .create();
+            accounts.put(key, account);
+            accountBalances.put(key, balances);
+            return account;
+        }
+    }
+
+    /**
+     * Returns the user made of the accounts given (the previous one, with its timestamp, if no account changed).
+     *
+     * @param userAccounts user accounts
+     * @param timestamp    information timestamp
+     * @return user
+     */
+    UserDTO getUser(final Map<String, AccountDTO> userAccounts, final Date timestamp) {
+        final UserDTO previousUser = user;
+        if (previousUser != null && isSameAccounts(previousUser, userAccounts)) {
+            return previousUser;
+        } else {
+            final UserDTO newUser = UserDTO.builder()
+                    .setAccounts(userAccounts)
+                    .timestamp(timestamp)
+                    .create();
+            user = newUser;
+            return newUser;
+        }
+    }
+
+    /**
+     * Returns true if the balances of an account are exactly the balances given.
+     *
+     * @param previousBalances previous balances of the account
+     * @param balances         balances
+     * @return true if the balances are the same instances
+     */
+    private static boolean isSameBalances(final Map<CurrencyDTO, BalanceDTO> previousBalances, final Map<CurrencyDTO, BalanceDTO> balances) {
+        if (previousBalances == null || previousBalances.size() != balances.size()) {
+            return false;
+        }
+        for (Map.Entry<CurrencyDTO, BalanceDTO> balance : balances.entrySet()) {
+            if (previousBalances.get(balance.getKey()) != balance.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if a user has exactly the accounts given.
+     *
+     * @param previousUser previous user
+     * @param userAccounts accounts
+     * @return true if the accounts are the same instances
+     */
+    private static boolean isSameAccounts(final UserDTO previousUser, final Map<String, AccountDTO> userAccounts) {
+        if (previousUser.getAccounts().size() != userAccounts.size()) {
+            return false;
+        }
+        for (Map.Entry<String, AccountDTO> account : userAccounts.entrySet()) {
+            if (previousUser.getAccounts().get(account.getKey()) != account.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if a balance has the same values than a XChange balance.
+     *
+     * @param balance balance
+     * @param source  XChange balance
+     * @return true if values are the same
+     */
+    private static boolean isSameBalance(final BalanceDTO balance, final Balance source) {
+        return Objects.equals(balance.getTotal(), source.getTotal())
+                && Objects.equals(balance.getAvailable(), source.getAvailable())
+                && Objects.equals(balance.getFrozen(), source.getFrozen())
+                && Objects.equals(balance.getLoaned(), source.getLoaned())
+                && Objects.equals(balance.getBorrowed(), source.getBorrowed())
+                && Objects.equals(balance.getWithdrawing(), source.getWithdrawing())
+                && Objects.equals(balance.getDepositing(), source.getDepositing());
+    }
+
+}
@@ -0,0 +1,71 @@
+package tech.cassandre.trading.bot.util.parameters;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Candle store parameters from application.properties.
+ */
+@Validated
+@ConfigurationProperties(prefix = "cassandre.trading.bot.candle-store")
+public class CandleStoreParameters {
+
+    /** Directory parameter. */
+    public static final String PARAMETER_CANDLE_STORE_DIRECTORY = "cassandre.trading.bot.candle-store.directory";
+
+    /** Replay timeframe parameter. */
+    public static final String PARAMETER_CANDLE_STORE_REPLAY_TIMEFRAME = "cassandre.trading.bot.candle-store.replayTimeframe";
+
+    /** Directory where candles are saved (no candle store if not set). */
+    private String directory;
+
+    /** Timeframe of the candles replayed as tickers by backtests (TickerFluxMock), no replay from the store if not set. */
+    private Duration replayTimeframe;
+
+    /**
+     * Getter directory.
+     *
+     * @return directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Setter directory.
+     *
+     * @param newDirectory the directory to set
+     */
+    public void setDirectory(final String newDirectory) {
+        directory = newDirectory;
+    }
+
+    /**
+     * Getter replayTimeframe.
+     *
+     * @return replayTimeframe
+     */
+    public Duration getReplayTimeframe() {
+        return replayTimeframe;
+    }
+
+    /**
+     * Setter replayTimeframe.
+     *
+     * @param newReplayTimeframe the replayTimeframe to set
+     */
+    public void setReplayTimeframe(final Duration newReplayTimeframe) {
+        replayTimeframe = newReplayTimeframe;
+    }
+
+    @Override
+    public final String toString() {
+        return "CandleStoreParameters{"
+                + " directory='" + directory + '\''
+                + ", replayTimeframe=" + replayTimeframe
+                + '}';
+    }
+
+}
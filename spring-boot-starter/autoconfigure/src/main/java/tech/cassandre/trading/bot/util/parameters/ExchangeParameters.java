@@ -7,6 +7,8 @@ import tech.cassandre.trading.bot.util.validator.Rate;
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 /**
  * Exchange parameters from application.properties.
@@ -36,6 +38,9 @@ public class ExchangeParameters {
     /** Proxy port. */
     public static final String PARAMETER_EXCHANGE_PROXY_PORT = "cassandre.trading.bot.exchange.proxyPort";
 
+    /** Maximum concurrent calls parameter. */
+    public static final String PARAMETER_EXCHANGE_MAX_CONCURRENT_CALLS = "cassandre.trading.bot.exchange.maxConcurrentCalls";
+
     /** Exchange name. For example : coinbase, kraken, kucoin. */
     @NotEmpty(message = "Exchange name required, for example : coinbase, kraken, kucoin...")
     private String name;
@@ -62,6 +67,10 @@ public class ExchangeParameters {
     /** Proxy port. */
     private Integer proxyPort;
 
+    /** Maximum number of exchange calls made concurrently by asynchronous requests (orders). */
+    @Positive(message = "Maximum concurrent calls must be positive")
+    private Integer maxConcurrentCalls;
+
     /** Modes. */
     @Valid
     private Modes modes = new Modes();
@@ -70,6 +79,10 @@ public class ExchangeParameters {
     @Valid
     private Rates rates = new Rates();
 
+    /** HTTP connections. */
+    @Valid
+    private Http http = new Http();
+
     /** Exchange API rate calls. */
     @Validated
     @ConfigurationProperties(prefix = "cassandre.trading.bot.exchange.modes")
@@ -229,6 +242,200 @@ public class ExchangeParameters {
 
     }
 
+    /** Exchange HTTP connections. */
+    @Validated
+    @ConfigurationProperties(prefix = "cassandre.trading.bot.exchange.http")
+    public static class Http {
+
+        /** Connection timeout parameter. */
+        public static final String PARAMETER_EXCHANGE_HTTP_CONNECTION_TIMEOUT = "cassandre.trading.bot.exchange.http.connectionTimeout";
+
+        /** Read timeout parameter. */
+        public static final String PARAMETER_EXCHANGE_HTTP_READ_TIMEOUT = "cassandre.trading.bot.exchange.http.readTimeout";
+
+        /** Maximum idle connections parameter. */
+        public static final String PARAMETER_EXCHANGE_HTTP_MAX_IDLE_CONNECTIONS = "cassandre.trading.bot.exchange.http.maxIdleConnections";
+
+        /** JVM settings parameter. */
+        public static final String PARAMETER_EXCHANGE_HTTP_JVM_SETTINGS = "cassandre.trading.bot.exchange.http.jvmSettings";
+
+        /** Account retries parameter. */
+        public static final String PARAMETER_EXCHANGE_HTTP_ACCOUNT_RETRIES = "cassandre.trading.bot.exchange.http.accountRetries";
+
+        /** Ticker retries parameter. */
+        public static final String PARAMETER_EXCHANGE_HTTP_TICKER_RETRIES = "cassandre.trading.bot.exchange.http.tickerRetries";
+
+        /** Trade retries parameter. */
+        public static final String PARAMETER_EXCHANGE_HTTP_TRADE_RETRIES = "cassandre.trading.bot.exchange.http.tradeRetries";
+
+        /** Connection timeout in ms (XChange default if not set). */
+        @Positive(message = "Connection timeout must be positive")
+        private Integer connectionTimeout;
+
+        /** Read timeout in ms (XChange default if not set). */
+        @Positive(message = "Read timeout must be positive")
+        private Integer readTimeout;
+
+        /** Maximum number of idle connections kept alive to the exchange (only used with JVM settings). */
+        @Positive(message = "Maximum idle connections must be positive")
+        private Integer maxIdleConnections;
+
+        /** True to change the JVM wide HTTP settings (keep-alive, idle connections and TLS connections counter). */
+        private boolean jvmSettings;
+
+        /** Number of retries of an account call after a connection error. */
+        @PositiveOrZero(message = "Account retries must be positive or zero")
+        private Integer accountRetries;
+
+        /** Number of retries of a ticker call after a connection error. */
+        @PositiveOrZero(message = "Ticker retries must be positive or zero")
+        private Integer tickerRetries;
+
+        /** Number of retries of a trade call (orders are never retried) after a connection error. */
+        @PositiveOrZero(message = "Trade retries must be positive or zero")
+        private Integer tradeRetries;
+
+        /**
+         * Getter for connectionTimeout.
+         *
+         * @return connectionTimeout
+         */
+        public Integer getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        /**
+         * Setter for connectionTimeout.
+         *
+         * @param newConnectionTimeout the connectionTimeout to set
+         */
+        public void setConnectionTimeout(final Integer newConnectionTimeout) {
+            connectionTimeout = newConnectionTimeout;
+        }
+
+        /**
+         * Getter for readTimeout.
+         *
+         * @return readTimeout
+         */
+        public Integer getReadTimeout() {
+            return readTimeout;
+        }
+
+        /**
+         * Setter for readTimeout.
+         *
+         * @param newReadTimeout the readTimeout to set
+         */
+        public void setReadTimeout(final Integer newReadTimeout) {
+            readTimeout = newReadTimeout;
+        }
+
+        /**
+         * Getter for maxIdleConnections.
+         *
+         * @return maxIdleConnections
+         */
+        public Integer getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        /**
+         * Setter for maxIdleConnections.
+         *
+         * @param newMaxIdleConnections the maxIdleConnections to set
+         */
+        public void setMaxIdleConnections(final Integer newMaxIdleConnections) {
+            maxIdleConnections = newMaxIdleConnections;
+        }
+
+        /**
+         * Getter for jvmSettings.
+         *
+         * @return jvmSettings
+         */
+        public boolean isJvmSettings() {
+            return jvmSettings;
+        }
+
+        /**
+         * Setter for jvmSettings.
+         *
+         * @param newJvmSettings the jvmSettings to set
+         */
+        public void setJvmSettings(final boolean newJvmSettings) {
+            jvmSettings = newJvmSettings;
+        }
+
+        /**
+         * Getter for accountRetries.
+         *
+         * @return accountRetries
+         */
+        public Integer getAccountRetries() {
+            return accountRetries;
+        }
+
+        /**
+         * Setter for accountRetries.
+         *
+         * @param newAccountRetries the accountRetries to set
+         */
+        public void setAccountRetries(final Integer newAccountRetries) {
+            accountRetries = newAccountRetries;
+        }
+
+        /**
+         * Getter for tickerRetries.
+         *
+         * @return tickerRetries
+         */
+        public Integer getTickerRetries() {
+            return tickerRetries;
+        }
+
+        /**
+         * Setter for tickerRetries.
+         *
+         * @param newTickerRetries the tickerRetries to set
+         */
+        public void setTickerRetries(final Integer newTickerRetries) {
+            tickerRetries = newTickerRetries;
+        }
+
+        /**
+         * Getter for tradeRetries.
+         *
+         * @return tradeRetries
+         */
+        public Integer getTradeRetries() {
+            return tradeRetries;
+        }
+
+        /**
+         * Setter for tradeRetries.
+         *
+         * @param newTradeRetries the tradeRetries to set
+         */
+        public void setTradeRetries(final Integer newTradeRetries) {
+            tradeRetries = newTradeRetries;
+        }
+
+        @Override
+        public final String toString() {
+            return "Http{"
+                    + " connectionTimeout=" + getConnectionTimeout()
+                    + ", readTimeout=" + getReadTimeout()
+                    + ", maxIdleConnections=" + getMaxIdleConnections()
+                    + ", jvmSettings=" + isJvmSettings()
+                    + ", accountRetries=" + getAccountRetries()
+                    + ", tickerRetries=" + getTickerRetries()
+                    + ", tradeRetries=" + getTradeRetries()
+                    + '}';
+        }
+
+    }
+
     /**
      * Getter for name.
      *
@@ -373,6 +580,24 @@ public class ExchangeParameters {
         proxyPort = newProxyPort;
     }
 
+    /**
+     * Getter maxConcurrentCalls.
+     *
+     * @return maxConcurrentCalls
+     */
+    public Integer getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Setter maxConcurrentCalls.
+     *
+     * @param newMaxConcurrentCalls the maxConcurrentCalls to set
+     */
+    public void setMaxConcurrentCalls(final Integer newMaxConcurrentCalls) {
+        maxConcurrentCalls = newMaxConcurrentCalls;
+    }
+
     /**
      * Getter for rate.
      *
@@ -391,6 +616,24 @@ public class ExchangeParameters {
         rates = newRates;
     }
 
+    /**
+     * Getter for http.
+     *
+     * @return http
+     */
+    public Http getHttp() {
+        return http;
+    }
+
+    /**
+     * Setter for http.
+     *
+     * @param newHttp the http to set
+     */
+    public void setHttp(final Http newHttp) {
+        http = newHttp;
+    }
+
     @Override
     public final String toString() {
         return "ExchangeParameters{"
@@ -399,8 +642,10 @@ public class ExchangeParameters {
                 + ", passphrase='" + getPassphrase() + '\''
                 + ", key='" + getKey() + '\''
                 + ", secret='" + getSecret() + '\''
+                + ", maxConcurrentCalls=" + getMaxConcurrentCalls()
                 + ", modes=" + getModes()
                 + ", rates=" + getRates()
+                + ", http=" + getHttp()
                 + '}';
     }
 
@@ -0,0 +1,76 @@
+package tech.cassandre.trading.bot.util.parameters;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * History export parameters from application.properties.
+ */
+@Validated
+@ConfigurationProperties(prefix = "cassandre.trading.bot.history-export")
+public class HistoryExportParameters {
+
+    /** Directory parameter. */
+    public static final String PARAMETER_HISTORY_EXPORT_DIRECTORY = "cassandre.trading.bot.history-export.directory";
+
+    /** Interval parameter. */
+    public static final String PARAMETER_HISTORY_EXPORT_INTERVAL = "cassandre.trading.bot.history-export.interval";
+
+    /** Default delay between two exports. */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofHours(1);
+
+    /** Directory where the history is exported (no export if not set). */
+    private String directory;
+
+    /** Delay between two exports (in ms or standard ISO 8601 duration like 'PT1H'). */
+    @NotNull(message = "History export interval is mandatory")
+    private Duration interval = DEFAULT_INTERVAL;
+
+    /**
+     * Getter directory.
+     *
+     * @return directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Setter directory.
+     *
+     * @param newDirectory the directory to set
+     */
+    public void setDirectory(final String newDirectory) {
+        directory = newDirectory;
+    }
+
+    /**
+     * Getter interval.
+     *
+     * @return interval
+     */
+    public Duration getInterval() {
+        return interval;
+    }
+
+    /**
+     * Setter interval.
+     *
+     * @param newInterval the interval to set
+     */
+    public void setInterval(final Duration newInterval) {
+        interval = newInterval;
+    }
+
+    @Override
+    public final String toString() {
+        return "HistoryExportParameters{"
+                + " directory='" + directory + '\''
+                + ", interval=" + interval
+                + '}';
+    }
+
+}
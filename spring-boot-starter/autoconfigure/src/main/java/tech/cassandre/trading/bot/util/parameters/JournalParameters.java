@@ -0,0 +1,104 @@
+package tech.cassandre.trading.bot.util.parameters;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Positive;
+
+/**
+ * Journal parameters from application.properties.
+ */
+@Validated
+@ConfigurationProperties(prefix = "cassandre.trading.bot.journal")
+public class JournalParameters {
+
+    /** Directory parameter. */
+    public static final String PARAMETER_JOURNAL_DIRECTORY = "cassandre.trading.bot.journal.directory";
+
+    /** Snapshot interval parameter. */
+    public static final String PARAMETER_JOURNAL_SNAPSHOT_INTERVAL = "cassandre.trading.bot.journal.snapshotInterval";
+
+    /** Segment size parameter. */
+    public static final String PARAMETER_JOURNAL_SEGMENT_SIZE = "cassandre.trading.bot.journal.segmentSize";
+
+    /** Default number of records written between two snapshots. */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+
+    /** Default segment size (in bytes). */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /** Directory where the journal is written (no journal if not set). */
+    private String directory;
+
+    /** Number of records written between two snapshots. */
+    @Positive(message = "Journal snapshot interval must be positive")
+    private int snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+
+    /** Segment size (in bytes). */
+    @Positive(message = "Journal segment size must be positive")
+    private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    /**
+     * Getter directory.
+     *
+     * @return directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Setter directory.
+     *
+     * @param newDirectory the directory to set
+     */
+    public void setDirectory(final String newDirectory) {
+        directory = newDirectory;
+    }
+
+    /**
+     * Getter snapshotInterval.
+     *
+     * @return snapshotInterval
+     */
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * Setter snapshotInterval.
+     *
+     * @param newSnapshotInterval the snapshotInterval to set
+     */
+    public void setSnapshotInterval(final int newSnapshotInterval) {
+        snapshotInterval = newSnapshotInterval;
+    }
+
+    /**
+     * Getter segmentSize.
+     *
+     * @return segmentSize
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Setter segmentSize.
+     *
+     * @param newSegmentSize the segmentSize to set
+     */
+    public void setSegmentSize(final int newSegmentSize) {
+        segmentSize = newSegmentSize;
+    }
+
+    @Override
+    public final String toString() {
+        return "JournalParameters{"
+                + " directory='" + directory + '\''
+                + ", snapshotInterval=" + snapshotInterval
+                + ", segmentSize=" + segmentSize
+                + '}';
+    }
+
+}
@@ -0,0 +1,44 @@
+package tech.cassandre.trading.bot.util.parameters;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Position flux parameters from application.properties.
+ */
+@Validated
+@ConfigurationProperties(prefix = "cassandre.trading.bot.position-flux")
+public class PositionFluxParameters {
+
+    /** Coalescing parameter. */
+    public static final String PARAMETER_POSITION_FLUX_COALESCING = "cassandre.trading.bot.position-flux.coalescing";
+
+    /** True if position updates are emitted once per flux update instead of immediately. */
+    private boolean coalescing;
+
+    /**
+     * Getter coalescing.
+     *
+     * @return coalescing
+     */
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+
+    /**
+     * Setter coalescing.
+     *
+     * @param newCoalescing the coalescing to set
+     */
+    public void setCoalescing(final boolean newCoalescing) {
+        coalescing = newCoalescing;
+    }
+
+    @Override
+    public final String toString() {
+        return "PositionFluxParameters{"
+                + " coalescing=" + coalescing
+                + '}';
+    }
+
+}
@@ -0,0 +1,130 @@
+package tech.cassandre.trading.bot.util.parameters;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Sharding parameters from application.properties.
+ */
+@Validated
+@ConfigurationProperties(prefix = "cassandre.trading.bot.sharding")
+public class ShardingParameters {
+
+    /** Enabled parameter. */
+    public static final String PARAMETER_SHARDING_ENABLED = "cassandre.trading.bot.sharding.enabled";
+
+    /** Node id parameter. */
+    public static final String PARAMETER_SHARDING_NODE_ID = "cassandre.trading.bot.sharding.nodeId";
+
+    /** Heartbeat interval parameter. */
+    public static final String PARAMETER_SHARDING_HEARTBEAT_INTERVAL = "cassandre.trading.bot.sharding.heartbeatInterval";
+
+    /** Node timeout parameter. */
+    public static final String PARAMETER_SHARDING_NODE_TIMEOUT = "cassandre.trading.bot.sharding.nodeTimeout";
+
+    /** Default heartbeat interval. */
+    public static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofSeconds(5);
+
+    /** Default node timeout. */
+    public static final Duration DEFAULT_NODE_TIMEOUT = Duration.ofSeconds(15);
+
+    /** True if currency pairs are shared between the nodes using the same database. */
+    private boolean enabled;
+
+    /** Node id (generated if not set). */
+    private String nodeId;
+
+    /** Delay between two heartbeats (in ms or standard ISO 8601 duration like 'PT5S'). */
+    @NotNull(message = "Sharding heartbeat interval is mandatory")
+    private Duration heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
+
+    /** Delay after which a node without heartbeat is considered dead (in ms or standard ISO 8601 duration like 'PT15S'). */
+    @NotNull(message = "Sharding node timeout is mandatory")
+    private Duration nodeTimeout = DEFAULT_NODE_TIMEOUT;
+
+    /**
+     * Getter enabled.
+     *
+     * @return enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Setter enabled.
+     *
+     * @param newEnabled the enabled to set
+     */
+    public void setEnabled(final boolean newEnabled) {
+        enabled = newEnabled;
+    }
+
+    /**
+     * Getter nodeId.
+     *
+     * @return nodeId
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Setter nodeId.
+     *
+     * @param newNodeId the nodeId to set
+     */
+    public void setNodeId(final String newNodeId) {
+        nodeId = newNodeId;
+    }
+
+    /**
+     * Getter heartbeatInterval.
+     *
+     * @return heartbeatInterval
+     */
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    /**
+     * Setter heartbeatInterval.
+     *
+     * @param newHeartbeatInterval the heartbeatInterval to set
+     */
+    public void setHeartbeatInterval(final Duration newHeartbeatInterval) {
+        heartbeatInterval = newHeartbeatInterval;
+    }
+
+    /**
+     * Getter nodeTimeout.
+     *
+     * @return nodeTimeout
+     */
+    public Duration getNodeTimeout() {
+        return nodeTimeout;
+    }
+
+    /**
+     * Setter nodeTimeout.
+     *
+     * @param newNodeTimeout the nodeTimeout to set
+     */
+    public void setNodeTimeout(final Duration newNodeTimeout) {
+        nodeTimeout = newNodeTimeout;
+    }
+
+    @Override
+    public final String toString() {
+        return "ShardingParameters{"
+                + " enabled=" + enabled
+                + ", nodeId='" + nodeId + '\''
+                + ", heartbeatInterval=" + heartbeatInterval
+                + ", nodeTimeout=" + nodeTimeout
+                + '}';
+    }
+
+}
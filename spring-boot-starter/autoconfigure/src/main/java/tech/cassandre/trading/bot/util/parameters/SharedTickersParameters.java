@@ -0,0 +1,152 @@
+package tech.cassandre.trading.bot.util.parameters;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+import tech.cassandre.trading.bot.util.shared.TickerRingBuffer;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+
+/**
+ * Shared tickers parameters from application.properties.
+ */
+@Validated
+@ConfigurationProperties(prefix = "cassandre.trading.bot.shared-tickers")
+public class SharedTickersParameters {
+
+    /** File parameter. */
+    public static final String PARAMETER_SHARED_TICKERS_FILE = "cassandre.trading.bot.shared-tickers.file";
+
+    /** Mode parameter. */
+    public static final String PARAMETER_SHARED_TICKERS_MODE = "cassandre.trading.bot.shared-tickers.mode";
+
+    /** Capacity parameter. */
+    public static final String PARAMETER_SHARED_TICKERS_CAPACITY = "cassandre.trading.bot.shared-tickers.capacity";
+
+    /** Max ticker age parameter. */
+    public static final String PARAMETER_SHARED_TICKERS_MAX_TICKER_AGE = "cassandre.trading.bot.shared-tickers.maxTickerAge";
+
+    /** Publisher mode - the bot polls the exchange and shares the tickers. */
+    public static final String MODE_PUBLISHER = "publisher";
+
+    /** Consumer mode - the bot reads the tickers shared by the publisher. */
+    public static final String MODE_CONSUMER = "consumer";
+
+    /** Ring buffer file shared by the bots (no sharing if not set). */
+    private String file;
+
+    /** Mode. */
+    @Pattern(regexp = MODE_PUBLISHER + "|" + MODE_CONSUMER, message = "Shared tickers mode must be publisher or consumer")
+    private String mode = MODE_PUBLISHER;
+
+    /** Number of tickers kept in the ring buffer. */
+    @Positive(message = "Shared tickers capacity must be positive")
+    private int capacity = TickerRingBuffer.DEFAULT_CAPACITY;
+
+    /** Age after which a shared ticker is not read anymore (in ms or standard ISO 8601 duration like 'PT1M'). */
+    @NotNull(message = "Shared tickers max ticker age is mandatory")
+    private Duration maxTickerAge = TickerRingBuffer.DEFAULT_MAX_TICKER_AGE;
+
+    /**
+     * Getter file.
+     *
+     * @return file
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Setter file.
+     *
+     * @param newFile the file to set
+     */
+    public void setFile(final String newFile) {
+        file = newFile;
+    }
+
+    /**
+     * Getter mode.
+     *
+     * @return mode
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * Setter mode.
+     *
+     * @param newMode the mode to set
+     */
+    public void setMode(final String newMode) {
+        mode = newMode;
+    }
+
+    /**
+     * Getter capacity.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Setter capacity.
+     *
+     * @param newCapacity the capacity to set
+     */
+    public void setCapacity(final int newCapacity) {
+        capacity = newCapacity;
+    }
+
+    /**
+     * Getter maxTickerAge.
+     *
+     * @return maxTickerAge
+     */
+    public Duration getMaxTickerAge() {
+        return maxTickerAge;
+    }
+
+    /**
+     * Setter maxTickerAge.
+     *
+     * @param newMaxTickerAge the maxTickerAge to set
+     */
+    public void setMaxTickerAge(final Duration newMaxTickerAge) {
+        maxTickerAge = newMaxTickerAge;
+    }
+
+    /**
+     * Returns true if this bot publishes tickers.
+     *
+     * @return true if publisher
+     */
+    public boolean isPublisher() {
+        return file != null && MODE_PUBLISHER.equals(mode);
+    }
+
+    /**
+     * Returns true if this bot reads tickers published by another bot.
+     *
+     * @return true if consumer
+     */
+    public boolean isConsumer() {
+        return file != null && MODE_CONSUMER.equals(mode);
+    }
+
+    @Override
+    public final String toString() {
+        return "SharedTickersParameters{"
+                + " file='" + file + '\''
+                + ", mode='" + mode + '\''
+                + ", capacity=" + capacity
+                + ", maxTickerAge=" + maxTickerAge
+                + '}';
+    }
+
+}
@@ -0,0 +1,203 @@
+package tech.cassandre.trading.bot.util.sharding;
+
+import tech.cassandre.trading.bot.domain.Position;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.service.PositionService;
+import tech.cassandre.trading.bot.util.base.Base;
+import tech.cassandre.trading.bot.util.mapper.EntityMapper;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSING;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING;
+import static tech.cassandre.trading.bot.util.mapper.EntityMapper.getPositionDTO;
+import static tech.cassandre.trading.bot.util.mapper.EntityMapper.getTradeDTO;
+
+/**
+ * Position rebalancer - moves the positions that are not closed with their currency pair when the shard assignment
+ * changes.
+ * <p>
+ * Positions of the currency pairs gained are loaded from the database, the ones of the currency pairs lost are removed
+ * from the position service and the strategy (the node watching them now loads them). Positions are read from the
+ * database by the thread calling the rebalancer, and changed by the executor (the event bus, so the position service
+ * is only changed by its thread). If the database can't be read, the currency pairs gained are loaded again by
+ * {@link #retry()}.
+ * <p>
+ * Handoff: a position is moved as it was last saved. Opening and closing positions keep their order ids: the trades of
+ * these orders already saved (by the previous node) are replayed, and the next ones complete the position as they are
+ * received.
+ */
+public final class PositionRebalancer extends Base implements Consumer<Set<CurrencyPairDTO>> {
+
+    /** Position repository. */
+    private final PositionRepository positionRepository;
+
+    /** Trade repository. */
+    private final TradeRepository tradeRepository;
+
+    /** Position service. */
+    private final PositionService positionService;
+
+    /** Called with each position loaded (restores it in the position service and the strategy). */
+    private final Consumer<PositionDTO> positionRestorer;
+
+    /** Called with each position removed from the position service (removes it from the strategy). */
+    private final Consumer<PositionDTO> positionRemover;
+
+    /** Executor changing the positions. */
+    private final Executor executor;
+
+    /** Currency pairs whose positions are loaded. */
+    private Set<CurrencyPairDTO> loadedCurrencyPairs;
+
+    /** Currency pairs assigned to this node. */
+    private Set<CurrencyPairDTO> assignedCurrencyPairs;
+
+    /**
+     * Constructor.
+     *
+     * @param newPositionRepository  position repository
+     * @param newTradeRepository     trade repository
+     * @param newPositionService     position service
+     * @param newPositionRestorer    called with each position loaded
+     * @param newPositionRemover     called with each position removed
+     * @param newExecutor            executor changing the positions
+     * @param newLoadedCurrencyPairs currency pairs whose positions are already loaded
+     */
+    public PositionRebalancer(final PositionRepository newPositionRepository,
+                              final TradeRepository newTradeRepository,
+                              final PositionService newPositionService,
+                              final Consumer<PositionDTO> newPositionRestorer,
+                              final Consumer<PositionDTO> newPositionRemover,
+                              final Executor newExecutor,
+                              final Set<CurrencyPairDTO> newLoadedCurrencyPairs) {
+        this.positionRepository = newPositionRepository;
+        this.tradeRepository = newTradeRepository;
+        this.positionService = newPositionService;
+        this.positionRestorer = newPositionRestorer;
+        this.positionRemover = newPositionRemover;
+        this.executor = newExecutor;
+        this.loadedCurrencyPairs = new LinkedHashSet<>(newLoadedCurrencyPairs);
+        this.assignedCurrencyPairs = new LinkedHashSet<>(newLoadedCurrencyPairs);
+    }
+
+    /**
+     * Moves the positions after an assignment change.
+     *
+     * @param newAssignedCurrencyPairs currency pairs now assigned to this node
+     */
+    @Override
+    public synchronized void accept(final Set<CurrencyPairDTO> newAssignedCurrencyPairs) {
+        assignedCurrencyPairs = new LinkedHashSet<>(newAssignedCurrencyPairs);
+        final Set<CurrencyPairDTO> lostCurrencyPairs = new LinkedHashSet<>(loadedCurrencyPairs);
+        lostCurrencyPairs.removeAll(assignedCurrencyPairs);
+        final Set<CurrencyPairDTO> gainedCurrencyPairs = new LinkedHashSet<>(assignedCurrencyPairs);
+        gainedCurrencyPairs.removeAll(loadedCurrencyPairs);
+
+        List<PositionDTO> gainedPositions = Collections.emptyList();
+        List<TradeDTO> missedTrades = Collections.emptyList();
+        try {
+            gainedPositions = loadPositions(gainedCurrencyPairs);
+            missedTrades = loadMissedTrades(gainedPositions);
+            loadedCurrencyPairs = new LinkedHashSet<>(assignedCurrencyPairs);
+            getLogger().info("PositionRebalancer - {} position(s) loaded for {}, positions of {} removed",
+                    gainedPositions.size(), gainedCurrencyPairs, lostCurrencyPairs);
+        } catch (RuntimeException e) {
+            // Positions of the currency pairs gained will be loaded by the next retry.
+            getLogger().error("PositionRebalancer - Impossible to load the positions of {} : {}", gainedCurrencyPairs, e.getMessage());
+            loadedCurrencyPairs.removeAll(lostCurrencyPairs);
+        }
+        final List<PositionDTO> positionsToRestore = gainedPositions;
+        final List<TradeDTO> tradesToReplay = missedTrades;
+        executor.execute(() -> {
+            positionService.removePositions(lostCurrencyPairs).forEach(positionRemover);
+            positionsToRestore.forEach(positionRestorer);
+            tradesToReplay.forEach(positionService::tradeUpdate);
+        });
+    }
+
+    /**
+     * Loads the positions of the assigned currency pairs that couldn't be loaded (called at each heartbeat).
+     */
+    public synchronized void retry() {
+        if (!loadedCurrencyPairs.equals(assignedCurrencyPairs)) {
+            accept(assignedCurrencyPairs);
+        }
+    }
+
+    /**
+     * Getter for loadedCurrencyPairs.
+     *
+     * @return loadedCurrencyPairs
+     */
+    public synchronized Set<CurrencyPairDTO> getLoadedCurrencyPairs() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(loadedCurrencyPairs));
+    }
+
+    /**
+     * Loads the positions that are not closed of currency pairs from the database.
+     *
+     * @param currencyPairs currency pairs
+     * @return positions
+     */
+    private List<PositionDTO> loadPositions(final Set<CurrencyPairDTO> currencyPairs) {
+        if (currencyPairs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Position> positions = positionRepository.findByStatusNotAndCurrencyPairIn(CLOSED.toString(),
+                currencyPairs.stream().map(CurrencyPairDTO::toString).collect(Collectors.toList()));
+
+        // Trades of the positions.
+        final Set<String> tradeIds = new LinkedHashSet<>();
+        positions.forEach(p -> tradeIds.addAll(p.getTrades()));
+        final Map<String, TradeDTO> tradesById = new LinkedHashMap<>();
+        tradeRepository.findAllById(tradeIds).forEach(t -> tradesById.put(t.getId(), getTradeDTO(t)));
+
+        return positions.stream()
+                .map(p -> getPositionDTO(p, tradesById))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Loads the trades of the opening and closing orders that the positions don't have yet (saved by the previous node
+     * after the position).
+     *
+     * @param positions positions
+     * @return trades
+     */
+    private List<TradeDTO> loadMissedTrades(final List<PositionDTO> positions) {
+        final Set<String> orderIds = new LinkedHashSet<>();
+        final Set<String> knownTradeIds = new LinkedHashSet<>();
+        positions.forEach(p -> {
+            if (p.getStatus() == OPENING) {
+                orderIds.add(p.getOpenOrderId());
+            }
+            if (p.getStatus() == CLOSING) {
+                orderIds.add(p.getCloseOrderId());
+            }
+            p.getTrades().forEach(t -> knownTradeIds.add(t.getId()));
+        });
+        if (orderIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return tradeRepository.findByOrderIdIn(orderIds)
+                .stream()
+                .filter(t -> !knownTradeIds.contains(t.getId()))
+                .map(EntityMapper::getTradeDTO)
+                .collect(Collectors.toList());
+    }
+
+}
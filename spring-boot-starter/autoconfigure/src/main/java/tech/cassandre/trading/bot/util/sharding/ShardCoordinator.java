@@ -0,0 +1,241 @@
+package tech.cassandre.trading.bot.util.sharding;
+
+import tech.cassandre.trading.bot.domain.Node;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.repository.NodeRepository;
+import tech.cassandre.trading.bot.util.base.Base;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Shard coordinator - shares the requested currency pairs between the nodes using the same database.
+ * <p>
+ * Each node writes a heartbeat in the NODES table. Nodes with a recent heartbeat are alive and each currency pair goes
+ * to one of them with rendezvous hashing: when a node joins or dies, only the currency pairs it gains or loses move.
+ * Positions follow their currency pair as a node only receives the tickers of the currency pairs it owns.
+ * Node clocks must be synchronized well below the node timeout.
+ */
+public final class ShardCoordinator extends Base {
+
+    /** Hash multiplier (from MurmurHash3 finalizer). */
+    private static final long HASH_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+
+    /** Hash multiplier (from MurmurHash3 finalizer). */
+    private static final long HASH_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+
+    /** Hash shift. */
+    private static final int HASH_SHIFT = 33;
+
+    /** Int mask. */
+    private static final long INT_MASK = 0xffffffffL;
+
+    /** This node id. */
+    private final String nodeId;
+
+    /** Node repository. */
+    private final NodeRepository nodeRepository;
+
+    /** Currency pairs requested by the strategy. */
+    private final Set<CurrencyPairDTO> requestedCurrencyPairs;
+
+    /** Delay after which a node without heartbeat is considered dead. */
+    private final Duration nodeTimeout;
+
+    /** Called with the new currency pairs of this node each time they change. */
+    private final Consumer<Set<CurrencyPairDTO>> assignmentListener;
+
+    /** Called after each successful heartbeat. */
+    private Runnable heartbeatListener;
+
+    /** Currency pairs of this node. */
+    private volatile Set<CurrencyPairDTO> assignedCurrencyPairs = Collections.emptySet();
+
+    /** Last heartbeat saved. */
+    private ZonedDateTime lastHeartbeat;
+
+    /** Heartbeat scheduler. */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor.
+     *
+     * @param newNodeId                 node id
+     * @param newNodeRepository         node repository
+     * @param newRequestedCurrencyPairs currency pairs requested by the strategy
+     * @param newNodeTimeout            delay after which a node without heartbeat is considered dead
+     * @param newAssignmentListener     called with the new currency pairs of this node each time they change
+     */
+    public ShardCoordinator(final String newNodeId,
+                            final NodeRepository newNodeRepository,
+                            final Set<CurrencyPairDTO> newRequestedCurrencyPairs,
+                            final Duration newNodeTimeout,
+                            final Consumer<Set<CurrencyPairDTO>> newAssignmentListener) {
+        this.nodeId = newNodeId;
+        this.nodeRepository = newNodeRepository;
+        this.requestedCurrencyPairs = new LinkedHashSet<>(newRequestedCurrencyPairs);
+        this.nodeTimeout = newNodeTimeout;
+        this.assignmentListener = newAssignmentListener;
+    }
+
+    /**
+     * Getter for nodeId.
+     *
+     * @return nodeId
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Getter for assignedCurrencyPairs.
+     *
+     * @return assignedCurrencyPairs
+     */
+    public Set<CurrencyPairDTO> getAssignedCurrencyPairs() {
+        return assignedCurrencyPairs;
+    }
+
+    /**
+     * Setter for heartbeatListener.
+     *
+     * @param newHeartbeatListener called after each successful heartbeat
+     */
+    public synchronized void setHeartbeatListener(final Runnable newHeartbeatListener) {
+        this.heartbeatListener = newHeartbeatListener;
+    }
+
+    /**
+     * Sends a first heartbeat and schedules the next ones.
+     *
+     * @param heartbeatInterval delay between two heartbeats
+     */
+    public synchronized void start(final Duration heartbeatInterval) {
+        heartbeat();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "cassandre-sharding");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::heartbeat,
+                heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the heartbeats and removes this node so the others take its currency pairs right away.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        try {
+            nodeRepository.deleteById(nodeId);
+        } catch (RuntimeException e) {
+            getLogger().warn("ShardCoordinator - Impossible to remove node {} : {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the heartbeat of this node and updates its currency pairs.
+     */
+    public synchronized void heartbeat() {
+        final ZonedDateTime now = ZonedDateTime.now();
+        try {
+            final Node node = new Node();
+            node.setId(nodeId);
+            node.setHeartbeat(now);
+            nodeRepository.save(node);
+            lastHeartbeat = now;
+
+            final Set<String> nodeIds = nodeRepository.findByHeartbeatAfter(now.minus(nodeTimeout))
+                    .stream()
+                    .map(Node::getId)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            nodeIds.add(nodeId);
+            updateAssignedCurrencyPairs(getCurrencyPairs(nodeId, nodeIds, requestedCurrencyPairs), nodeIds);
+            if (heartbeatListener != null) {
+                heartbeatListener.run();
+            }
+        } catch (RuntimeException e) {
+            getLogger().error("ShardCoordinator - Heartbeat failed : {}", e.getMessage());
+            // Other nodes will soon consider this node as dead and take its currency pairs.
+            if (lastHeartbeat == null || lastHeartbeat.plus(nodeTimeout).isBefore(now)) {
+                updateAssignedCurrencyPairs(Collections.emptySet(), Collections.emptySet());
+            }
+        }
+    }
+
+    /**
+     * Returns the currency pairs owned by a node.
+     *
+     * @param node          node id
+     * @param nodes         ids of the nodes alive
+     * @param currencyPairs currency pairs to share
+     * @return currency pairs owned by the node
+     */
+    public static Set<CurrencyPairDTO> getCurrencyPairs(final String node,
+                                                        final Collection<String> nodes,
+                                                        final Set<CurrencyPairDTO> currencyPairs) {
+        final Set<CurrencyPairDTO> result = new LinkedHashSet<>();
+        for (CurrencyPairDTO currencyPair : currencyPairs) {
+            String owner = null;
+            long ownerWeight = Long.MIN_VALUE;
+            for (String candidate : nodes) {
+                final long weight = getWeight(candidate, currencyPair);
+                if (owner == null || weight > ownerWeight || (weight == ownerWeight && candidate.compareTo(owner) > 0)) {
+                    owner = candidate;
+                    ownerWeight = weight;
+                }
+            }
+            if (node.equals(owner)) {
+                result.add(currencyPair);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Updates the currency pairs of this node.
+     *
+     * @param newAssignedCurrencyPairs new currency pairs
+     * @param nodeIds                  ids of the nodes alive
+     */
+    private void updateAssignedCurrencyPairs(final Set<CurrencyPairDTO> newAssignedCurrencyPairs, final Set<String> nodeIds) {
+        if (!newAssignedCurrencyPairs.equals(assignedCurrencyPairs)) {
+            getLogger().info("ShardCoordinator - Node {} ({} node(s) alive) now watches {}", nodeId, nodeIds.size(), newAssignedCurrencyPairs);
+            assignedCurrencyPairs = Collections.unmodifiableSet(newAssignedCurrencyPairs);
+            assignmentListener.accept(assignedCurrencyPairs);
+        }
+    }
+
+    /**
+     * Returns the weight of a node for a currency pair (the same on every node).
+     *
+     * @param node         node id
+     * @param currencyPair currency pair
+     * @return weight
+     */
+    private static long getWeight(final String node, final CurrencyPairDTO currencyPair) {
+        long hash = ((long) node.hashCode() << Integer.SIZE) | (currencyPair.toString().hashCode() & INT_MASK);
+        hash ^= hash >>> HASH_SHIFT;
+        hash *= HASH_MULTIPLIER_1;
+        hash ^= hash >>> HASH_SHIFT;
+        hash *= HASH_MULTIPLIER_2;
+        hash ^= hash >>> HASH_SHIFT;
+        return hash;
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Currency pairs sharding.
+ */
+package tech.cassandre.trading.bot.util.sharding;
@@ -0,0 +1,237 @@
+package tech.cassandre.trading.bot.util.shared;
+
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.util.base.Base;
+import tech.cassandre.trading.bot.util.journal.JournalCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Ticker ring buffer - tickers published by one bot and read by the other bots running on the same host.
+ * <p>
+ * The ring buffer is a memory-mapped file made of a header (the sequence of the last ticker published) and of
+ * fixed-size slots. Each slot holds its sequence, the ticker length, the time it was published and the ticker. The
+ * publisher marks a slot as being written (negative sequence) before writing it, so a reader overtaken by the publisher
+ * detects it and skips the tickers it lost. There is one publisher and any number of readers, each reader keeping its
+ * own position. Readers skip the tickers older than the maximum ticker age (left by a publisher that stopped, or
+ * published while the reader wasn't polling).
+ */
+public final class TickerRingBuffer extends Base {
+
+    /** Default number of slots. */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /** Default maximum age of a ticker read. */
+    public static final Duration DEFAULT_MAX_TICKER_AGE = Duration.ofMinutes(1);
+
+    /** Slot size. */
+    public static final int SLOT_SIZE = 512;
+
+    /** Header size (a cache line). */
+    private static final int HEADER_SIZE = 64;
+
+    /** Header offset of the last sequence published. */
+    private static final int HEADER_SEQUENCE_OFFSET = 0;
+
+    /** Header offset of the capacity. */
+    private static final int HEADER_CAPACITY_OFFSET = 8;
+
+    /** Slot offset of the ticker length (after the slot sequence). */
+    private static final int SLOT_LENGTH_OFFSET = 8;
+
+    /** Slot offset of the time the ticker was published (epoch milliseconds). */
+    private static final int SLOT_TIME_OFFSET = 16;
+
+    /** Slot offset of the ticker. */
+    private static final int SLOT_PAYLOAD_OFFSET = 24;
+
+    /** Long access with memory ordering. */
+    private static final VarHandle LONG_HANDLE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /** Int access with memory ordering. */
+    private static final VarHandle INT_HANDLE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    /** Number of slots. */
+    private final int capacity;
+
+    /** Maximum age of a ticker read (in milliseconds). */
+    private final long maxTickerAge;
+
+    /** Ring buffer file mapped in memory. */
+    private final MappedByteBuffer buffer;
+
+    /** Ring buffer view used to copy tickers. */
+    private final ByteBuffer copyView;
+
+    /** Ticker being encoded. */
+    private final TickerBuffer tickerBuffer = new TickerBuffer();
+
+    /** Ticker output. */
+    private final DataOutputStream tickerOutput = new DataOutputStream(tickerBuffer);
+
+    /** Ticker being read. */
+    private final byte[] readBuffer = new byte[SLOT_SIZE - SLOT_PAYLOAD_OFFSET];
+
+    /** Sequence of the next ticker to read. */
+    private long readSequence;
+
+    /**
+     * Constructor - opens (or creates) the ring buffer file.
+     *
+     * @param file        ring buffer file
+     * @param newCapacity number of slots (the same for the publisher and the readers)
+     */
+    public TickerRingBuffer(final Path file, final int newCapacity) {
+        this(file, newCapacity, DEFAULT_MAX_TICKER_AGE);
+    }
+
+    /**
+     * Constructor - opens (or creates) the ring buffer file.
+     *
+     * @param file            ring buffer file
+     * @param newCapacity     number of slots (the same for the publisher and the readers)
+     * @param newMaxTickerAge maximum age of a ticker read
+     */
+    public TickerRingBuffer(final Path file, final int newCapacity, final Duration newMaxTickerAge) {
+        this.capacity = newCapacity;
+        this.maxTickerAge = newMaxTickerAge.toMillis();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible to open the ticker ring buffer " + file, e);
+        }
+        copyView = buffer.duplicate();
+        final int fileCapacity = (int) INT_HANDLE.getAcquire(buffer, HEADER_CAPACITY_OFFSET);
+        if (fileCapacity == 0) {
+            INT_HANDLE.compareAndSet(buffer, HEADER_CAPACITY_OFFSET, 0, capacity);
+        } else if (fileCapacity != capacity) {
+            throw new IllegalArgumentException("Ticker ring buffer " + file + " has " + fileCapacity + " slots, not " + capacity);
+        }
+        // Readers start with the tickers still in the ring buffer (the ones too old are skipped).
+        readSequence = Math.max(1, getPublishedSequence() - capacity + 1);
+    }
+
+    /**
+     * Publishes a ticker (only one process must publish).
+     *
+     * @param ticker ticker
+     */
+    public synchronized void publish(final TickerDTO ticker) {
+        try {
+            tickerBuffer.reset();
+            JournalCodec.writeTicker(tickerOutput, ticker);
+            tickerOutput.flush();
+        } catch (IOException e) {
+            getLogger().error("TickerRingBuffer - Error encoding {} : {}", ticker, e.getMessage());
+            return;
+        }
+        if (tickerBuffer.size() > readBuffer.length) {
+            getLogger().error("TickerRingBuffer - Ticker too large to be shared : {}", ticker);
+            return;
+        }
+
+        final long sequence = getPublishedSequence() + 1;
+        final int slot = getSlotOffset(sequence);
+        // The slot is marked as being written before any byte of the previous ticker is overwritten.
+        LONG_HANDLE.setOpaque(buffer, slot, -sequence);
+        VarHandle.storeStoreFence();
+        INT_HANDLE.set(buffer, slot + SLOT_LENGTH_OFFSET, tickerBuffer.size());
+        LONG_HANDLE.set(buffer, slot + SLOT_TIME_OFFSET, System.currentTimeMillis());
+        copyView.position(slot + SLOT_PAYLOAD_OFFSET);
+        tickerBuffer.writeTo(copyView);
+        LONG_HANDLE.setRelease(buffer, slot, sequence);
+        LONG_HANDLE.setRelease(buffer, HEADER_SEQUENCE_OFFSET, sequence);
+    }
+
+    /**
+     * Reads the tickers published since the last call.
+     *
+     * @param consumer ticker consumer
+     * @return number of tickers read
+     */
+    public synchronized int poll(final Consumer<TickerDTO> consumer) {
+        final long publishedSequence = getPublishedSequence();
+        if (readSequence < publishedSequence - capacity + 1) {
+            // Tickers overwritten before we could read them.
+            readSequence = publishedSequence - capacity + 1;
+        }
+        final long oldestTime = System.currentTimeMillis() - maxTickerAge;
+        int count = 0;
+        while (readSequence <= publishedSequence) {
+            final int slot = getSlotOffset(readSequence);
+            final long slotSequence = (long) LONG_HANDLE.getAcquire(buffer, slot);
+            final int length = (int) INT_HANDLE.get(buffer, slot + SLOT_LENGTH_OFFSET);
+            final long time = (long) LONG_HANDLE.get(buffer, slot + SLOT_TIME_OFFSET);
+            if (slotSequence == readSequence && length >= 0 && length <= readBuffer.length && time >= oldestTime) {
+                copyView.position(slot + SLOT_PAYLOAD_OFFSET);
+                copyView.get(readBuffer, 0, length);
+                VarHandle.acquireFence();
+                // The ticker is valid if the publisher didn't start to overwrite it while we were copying it.
+                if ((long) LONG_HANDLE.getAcquire(buffer, slot) == readSequence) {
+                    try {
+                        consumer.accept(JournalCodec.readTicker(new DataInputStream(new ByteArrayInputStream(readBuffer, 0, length))));
+                        count++;
+                    } catch (IOException | RuntimeException e) {
+                        getLogger().error("TickerRingBuffer - Invalid ticker at sequence {} : {}", readSequence, e.getMessage());
+                    }
+                }
+            }
+            readSequence++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sequence of the last ticker published.
+     *
+     * @return sequence
+     */
+    private long getPublishedSequence() {
+        return (long) LONG_HANDLE.getAcquire(buffer, HEADER_SEQUENCE_OFFSET);
+    }
+
+    /**
+     * Returns the offset of the slot used by a sequence.
+     *
+     * @param sequence sequence
+     * @return slot offset
+     */
+    private int getSlotOffset(final long sequence) {
+        return HEADER_SIZE + (int) (sequence % capacity) * SLOT_SIZE;
+    }
+
+    /**
+     * Reusable ticker buffer.
+     */
+    private static final class TickerBuffer extends ByteArrayOutputStream {
+
+        /**
+         * Copies the buffer content to the ring buffer.
+         *
+         * @param target ring buffer (at the slot position)
+         */
+        void writeTo(final ByteBuffer target) {
+            target.put(buf, 0, count);
+        }
+
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Data shared between bots running on the same host.
+ */
+package tech.cassandre.trading.bot.util.shared;
@@ -0,0 +1,72 @@
+package tech.cassandre.trading.bot.util.ta4j;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.num.Num;
+
+import java.util.Arrays;
+
+/**
+ * Indicator computing each value once and keeping the values of the last bars.
+ * <p>
+ * Values are kept in a ring buffer sized like the bar series, so they are still available after ta4j invalidates its
+ * own caches when the oldest bars are removed. The value of a bar is computed when the bar is added and must not be
+ * modified afterwards.
+ */
+final class IncrementalIndicator implements Indicator<Num> {
+
+    /** Serial version. */
+    private static final long serialVersionUID = 1L;
+
+    /** Indicator computing the values. */
+    private final Indicator<Num> indicator;
+
+    /** Values. */
+    private final Num[] values;
+
+    /** Bar index of each value (-1 if empty). */
+    private final int[] indexes;
+
+    /**
+     * Constructor.
+     *
+     * @param newIndicator indicator computing the values
+     */
+    IncrementalIndicator(final Indicator<Num> newIndicator) {
+        this.indicator = newIndicator;
+        final int capacity = Math.min(newIndicator.getBarSeries().getMaximumBarCount(), PrimitiveBarSeries.MAXIMUM_INITIAL_CAPACITY);
+        this.values = new Num[capacity];
+        this.indexes = new int[capacity];
+        Arrays.fill(indexes, -1);
+    }
+
+    @Override
+    public Num getValue(final int index) {
+        final int slot = index % values.length;
+        if (indexes[slot] == index) {
+            return values[slot];
+        }
+        final Num value = indicator.getValue(index);
+        if (index <= getBarSeries().getEndIndex()) {
+            values[slot] = value;
+            indexes[slot] = index;
+        }
+        return value;
+    }
+
+    @Override
+    public BarSeries getBarSeries() {
+        return indicator.getBarSeries();
+    }
+
+    @Override
+    public Num numOf(final Number number) {
+        return indicator.numOf(number);
+    }
+
+    @Override
+    public String toString() {
+        return indicator.toString();
+    }
+
+}
@@ -0,0 +1,125 @@
+package tech.cassandre.trading.bot.util.ta4j;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.num.Num;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Indicator registry - indicators identified by currency pair, timeframe and definition (for example "RSI(14)").
+ * <p>
+ * An indicator is created the first time it's requested and the same instance is returned to every rule or strategy
+ * asking for the same definition. When a bar is added, each indicator of the currency pair and timeframe is computed
+ * once and its value is kept for all readers.
+ */
+public final class IndicatorRegistry {
+
+    /** Indicators by key. */
+    private final Map<IndicatorKey, IncrementalIndicator> indicators = new ConcurrentHashMap<>();
+
+    /** Indicators by currency pair and timeframe (definition is null). */
+    private final Map<IndicatorKey, List<IncrementalIndicator>> indicatorsBySeries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns an indicator, creating it if it doesn't exist yet.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    delay between two bars
+     * @param definition   indicator definition (two indicators with the same definition must compute the same values)
+     * @param series       bar series of the currency pair and timeframe
+     * @param factory      creates the indicator from the series
+     * @return indicator
+     */
+    public Indicator<Num> getIndicator(final CurrencyPairDTO currencyPair,
+                                       final Duration timeframe,
+                                       final String definition,
+                                       final BarSeries series,
+                                       final Function<BarSeries, Indicator<Num>> factory) {
+        return indicators.computeIfAbsent(new IndicatorKey(currencyPair, timeframe, definition), key -> {
+            final IncrementalIndicator indicator = new IncrementalIndicator(factory.apply(series));
+            indicatorsBySeries.computeIfAbsent(new IndicatorKey(currencyPair, timeframe, null), k -> new CopyOnWriteArrayList<>())
+                    .add(indicator);
+            return indicator;
+        });
+    }
+
+    /**
+     * Computes the value of each indicator of a currency pair and timeframe for a new bar.
+     *
+     * @param currencyPair currency pair
+     * @param timeframe    delay between two bars
+     * @param index        index of the new bar
+     */
+    public void barAdded(final CurrencyPairDTO currencyPair, final Duration timeframe, final int index) {
+        final List<IncrementalIndicator> seriesIndicators = indicatorsBySeries.get(new IndicatorKey(currencyPair, timeframe, null));
+        if (seriesIndicators != null) {
+            seriesIndicators.forEach(indicator -> indicator.getValue(index));
+        }
+    }
+
+    /**
+     * Returns the number of indicators.
+     *
+     * @return number of indicators
+     */
+    public int size() {
+        return indicators.size();
+    }
+
+    /**
+     * Indicator key.
+     */
+    private static final class IndicatorKey {
+
+        /** Currency pair. */
+        private final CurrencyPairDTO currencyPair;
+
+        /** Timeframe. */
+        private final Duration timeframe;
+
+        /** Definition. */
+        private final String definition;
+
+        /**
+         * Constructor.
+         *
+         * @param newCurrencyPair currency pair
+         * @param newTimeframe    timeframe
+         * @param newDefinition   definition
+         */
+        IndicatorKey(final CurrencyPairDTO newCurrencyPair, final Duration newTimeframe, final String newDefinition) {
+            this.currencyPair = newCurrencyPair;
+            this.timeframe = newTimeframe;
+            this.definition = newDefinition;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final IndicatorKey that = (IndicatorKey) o;
+            return Objects.equals(currencyPair, that.currencyPair)
+                    && Objects.equals(timeframe, that.timeframe)
+                    && Objects.equals(definition, that.definition);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(currencyPair, timeframe, definition);
+        }
+
+    }
+
+}
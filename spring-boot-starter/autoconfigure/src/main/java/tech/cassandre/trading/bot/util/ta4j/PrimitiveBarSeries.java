@@ -0,0 +1,613 @@
+package tech.cassandre.trading.bot.util.ta4j;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Bar series stored in primitive ring buffers.
+ * <p>
+ * Bar values are kept in arrays of doubles and longs (one array per field) instead of one object graph of
+ * {@link Num} and {@link ZonedDateTime} per bar. When the maximum bar count is reached, the oldest bar slot is reused,
+ * so adding a bar doesn't allocate. Bars returned by {@link #getBar(int)} are views reading the arrays and are valid
+ * until the bar is removed from the series. All end times are expressed in the zone of the first bar added.
+ * Values are {@link DoubleNum} and a null price is stored as NaN.
+ */
+public final class PrimitiveBarSeries implements BarSeries {
+
+    /** Maximum number of bars allocated up front (arrays grow up to the maximum bar count). */
+    public static final int MAXIMUM_INITIAL_CAPACITY = 65_536;
+
+    /** Default time period of a bar (as in ta4j). */
+    private static final Duration DEFAULT_TIME_PERIOD = Duration.ofDays(1);
+
+    /** Serial version. */
+    private static final long serialVersionUID = 1L;
+
+    /** Series name. */
+    private final String name;
+
+    /** Maximum bar count. */
+    private int maximumBarCount;
+
+    /** Zone of end times. */
+    private ZoneId zone;
+
+    /** Bar end times (epoch seconds). */
+    private long[] endEpochSeconds;
+
+    /** Bar end times (nanoseconds). */
+    private int[] endNanos;
+
+    /** Bar time periods (nanoseconds). */
+    private long[] timePeriods;
+
+    /** Open prices. */
+    private double[] openPrices;
+
+    /** High prices. */
+    private double[] highPrices;
+
+    /** Low prices. */
+    private double[] lowPrices;
+
+    /** Close prices. */
+    private double[] closePrices;
+
+    /** Volumes. */
+    private double[] volumes;
+
+    /** Amounts. */
+    private double[] amounts;
+
+    /** Number of trades. */
+    private int[] trades;
+
+    /** Slot of the first bar. */
+    private int head;
+
+    /** Number of bars in the series. */
+    private int barCount;
+
+    /** Number of bars removed. */
+    private int removedBarsCount;
+
+    /**
+     * Constructor.
+     *
+     * @param newName            series name
+     * @param newMaximumBarCount maximum bar count
+     */
+    public PrimitiveBarSeries(final String newName, final int newMaximumBarCount) {
+        if (newMaximumBarCount <= 0) {
+            throw new IllegalArgumentException("Maximum bar count must be strictly positive");
+        }
+        this.name = newName;
+        this.maximumBarCount = newMaximumBarCount;
+        allocate(Math.min(newMaximumBarCount, MAXIMUM_INITIAL_CAPACITY));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Bar getBar(final int i) {
+        if (i < 0 || isEmpty() || i > getEndIndex()) {
+            throw new IndexOutOfBoundsException("Unexpected index " + i + " for series " + name);
+        }
+        // As in ta4j, bars removed are replaced by the first bar.
+        return new PrimitiveBar(Math.max(i, removedBarsCount));
+    }
+
+    @Override
+    public int getBarCount() {
+        return barCount;
+    }
+
+    @Override
+    public List<Bar> getBarData() {
+        return new AbstractList<>() {
+            @Override
+            public Bar get(final int index) {
+                return getBar(removedBarsCount + index);
+            }
+
+            @Override
+            public int size() {
+                return barCount;
+            }
+        };
+    }
+
+    @Override
+    public int getBeginIndex() {
+        // As in ta4j, the begin index doesn't move when bars are removed.
+        if (isEmpty()) {
+            return -1;
+        }
+        return 0;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return removedBarsCount + barCount - 1;
+    }
+
+    @Override
+    public int getMaximumBarCount() {
+        return maximumBarCount;
+    }
+
+    @Override
+    public void setMaximumBarCount(final int newMaximumBarCount) {
+        if (newMaximumBarCount <= 0) {
+            throw new IllegalArgumentException("Maximum bar count must be strictly positive");
+        }
+        maximumBarCount = newMaximumBarCount;
+        // Keeping the last bars.
+        final int capacity = Math.max(Math.min(newMaximumBarCount, MAXIMUM_INITIAL_CAPACITY), Math.min(barCount, newMaximumBarCount));
+        final int removed = Math.max(0, barCount - newMaximumBarCount);
+        head = slot(removedBarsCount + removed);
+        barCount -= removed;
+        removedBarsCount += removed;
+        resize(capacity);
+    }
+
+    @Override
+    public int getRemovedBarsCount() {
+        return removedBarsCount;
+    }
+
+    @Override
+    public void addBar(final Bar bar, final boolean replace) {
+        Objects.requireNonNull(bar, "Bar must not be null");
+        if (!isEmpty() && !replace && !bar.getEndTime().isAfter(getEndTime(getEndIndex()))) {
+            throw new IllegalArgumentException("Cannot add a bar with end time " + bar.getEndTime()
+                    + " that is <= to series end time " + getEndTime(getEndIndex()));
+        }
+        final int slot = nextSlot(replace);
+        setEndTime(slot, bar.getEndTime());
+        timePeriods[slot] = bar.getTimePeriod().toNanos();
+        openPrices[slot] = toDouble(bar.getOpenPrice());
+        highPrices[slot] = toDouble(bar.getHighPrice());
+        lowPrices[slot] = toDouble(bar.getLowPrice());
+        closePrices[slot] = toDouble(bar.getClosePrice());
+        volumes[slot] = toDouble(bar.getVolume());
+        amounts[slot] = toDouble(bar.getAmount());
+        trades[slot] = bar.getTrades();
+    }
+
+    @Override
+    public void addBar(final Duration timePeriod, final ZonedDateTime endTime) {
+        addBar(timePeriod, endTime, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, 0);
+    }
+
+    @Override
+    public void addBar(final ZonedDateTime endTime,
+                       final Num openPrice,
+                       final Num highPrice,
+                       final Num lowPrice,
+                       final Num closePrice,
+                       final Num volume,
+                       final Num amount) {
+        addBar(DEFAULT_TIME_PERIOD, endTime, toDouble(openPrice), toDouble(highPrice), toDouble(lowPrice),
+                toDouble(closePrice), toDouble(volume), toDouble(amount));
+    }
+
+    @Override
+    public void addBar(final Duration timePeriod,
+                       final ZonedDateTime endTime,
+                       final Num openPrice,
+                       final Num highPrice,
+                       final Num lowPrice,
+                       final Num closePrice,
+                       final Num volume) {
+        addBar(timePeriod, endTime, toDouble(openPrice), toDouble(highPrice), toDouble(lowPrice),
+                toDouble(closePrice), toDouble(volume), 0);
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public void addBar(final Duration timePeriod,
+                       final ZonedDateTime endTime,
+                       final Num openPrice,
+                       final Num highPrice,
+                       final Num lowPrice,
+                       final Num closePrice,
+                       final Num volume,
+                       final Num amount) {
+        addBar(timePeriod, endTime, toDouble(openPrice), toDouble(highPrice), toDouble(lowPrice),
+                toDouble(closePrice), toDouble(volume), toDouble(amount));
+    }
+
+    /**
+     * Adds a bar without creating any object.
+     *
+     * @param timePeriod time period
+     * @param endTime    end time
+     * @param openPrice  open price
+     * @param highPrice  high price
+     * @param lowPrice   low price
+     * @param closePrice close price
+     * @param volume     volume
+     * @param amount     amount
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public void addBar(final Duration timePeriod,
+                       final ZonedDateTime endTime,
+                       final double openPrice,
+                       final double highPrice,
+                       final double lowPrice,
+                       final double closePrice,
+                       final double volume,
+                       final double amount) {
+        Objects.requireNonNull(endTime, "End time must not be null");
+        if (!isEmpty() && !endTime.isAfter(getEndTime(getEndIndex()))) {
+            throw new IllegalArgumentException("Cannot add a bar with end time " + endTime
+                    + " that is <= to series end time " + getEndTime(getEndIndex()));
+        }
+        final int slot = nextSlot(false);
+        setEndTime(slot, endTime);
+        timePeriods[slot] = timePeriod.toNanos();
+        openPrices[slot] = openPrice;
+        highPrices[slot] = highPrice;
+        lowPrices[slot] = lowPrice;
+        closePrices[slot] = closePrice;
+        volumes[slot] = volume;
+        amounts[slot] = amount;
+        trades[slot] = 0;
+    }
+
+    @Override
+    public void addTrade(final Num tradeVolume, final Num tradePrice) {
+        getLastBar().addTrade(tradeVolume, tradePrice);
+    }
+
+    @Override
+    public void addPrice(final Num price) {
+        getLastBar().addPrice(price);
+    }
+
+    @Override
+    public BarSeries getSubSeries(final int startIndex, final int endIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("The start index of a sub series must be >= 0");
+        }
+        if (startIndex >= endIndex) {
+            throw new IllegalArgumentException("The end index must be greater than the start index");
+        }
+        final int start = Math.max(startIndex, removedBarsCount);
+        final int end = Math.min(endIndex, getEndIndex() + 1);
+        final PrimitiveBarSeries subSeries = new PrimitiveBarSeries(name, Math.max(1, end - start));
+        for (int i = start; i < end; i++) {
+            subSeries.addBar(getBar(i));
+        }
+        return subSeries;
+    }
+
+    @Override
+    public Num numOf(final Number number) {
+        return DoubleNum.valueOf(number);
+    }
+
+    @Override
+    public Function<Number, Num> function() {
+        return DoubleNum::valueOf;
+    }
+
+    /**
+     * Returns the end time of a bar.
+     *
+     * @param index bar index
+     * @return end time
+     */
+    public ZonedDateTime getEndTime(final int index) {
+        final int slot = checkedSlot(index);
+        return Instant.ofEpochSecond(endEpochSeconds[slot], endNanos[slot]).atZone(zone);
+    }
+
+    /**
+     * Returns the open price of a bar.
+     *
+     * @param index bar index
+     * @return open price (NaN if not set)
+     */
+    public double getOpenPrice(final int index) {
+        return openPrices[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the high price of a bar.
+     *
+     * @param index bar index
+     * @return high price (NaN if not set)
+     */
+    public double getHighPrice(final int index) {
+        return highPrices[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the low price of a bar.
+     *
+     * @param index bar index
+     * @return low price (NaN if not set)
+     */
+    public double getLowPrice(final int index) {
+        return lowPrices[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the close price of a bar.
+     *
+     * @param index bar index
+     * @return close price (NaN if not set)
+     */
+    public double getClosePrice(final int index) {
+        return closePrices[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the volume of a bar.
+     *
+     * @param index bar index
+     * @return volume
+     */
+    public double getVolume(final int index) {
+        return volumes[checkedSlot(index)];
+    }
+
+    /**
+     * Returns the slot of a new bar, removing the first bar if the series is full.
+     *
+     * @param replace true to replace the last bar
+     * @return slot
+     */
+    private int nextSlot(final boolean replace) {
+        if (replace && !isEmpty()) {
+            return slot(getEndIndex());
+        }
+        if (barCount == maximumBarCount) {
+            head = slot(removedBarsCount + 1);
+            removedBarsCount++;
+            barCount--;
+        } else if (barCount == closePrices.length) {
+            resize(Math.min(maximumBarCount, 2 * closePrices.length));
+        }
+        barCount++;
+        return slot(getEndIndex());
+    }
+
+    /**
+     * Returns the slot of a bar still in the series.
+     *
+     * @param index bar index
+     * @return slot
+     */
+    private int checkedSlot(final int index) {
+        if (index < removedBarsCount || index > getEndIndex()) {
+            throw new IndexOutOfBoundsException("Bar " + index + " is not in series " + name);
+        }
+        return slot(index);
+    }
+
+    /**
+     * Returns the slot of a bar.
+     *
+     * @param index bar index
+     * @return slot
+     */
+    private int slot(final int index) {
+        return (head + index - removedBarsCount) % closePrices.length;
+    }
+
+    /**
+     * Saves an end time.
+     *
+     * @param slot    slot
+     * @param endTime end time
+     */
+    private void setEndTime(final int slot, final ZonedDateTime endTime) {
+        if (zone == null) {
+            zone = endTime.getZone();
+        }
+        endEpochSeconds[slot] = endTime.toEpochSecond();
+        endNanos[slot] = endTime.getNano();
+    }
+
+    /**
+     * Allocates the arrays.
+     *
+     * @param capacity number of bars
+     */
+    private void allocate(final int capacity) {
+        endEpochSeconds = new long[capacity];
+        endNanos = new int[capacity];
+        timePeriods = new long[capacity];
+        openPrices = new double[capacity];
+        highPrices = new double[capacity];
+        lowPrices = new double[capacity];
+        closePrices = new double[capacity];
+        volumes = new double[capacity];
+        amounts = new double[capacity];
+        trades = new int[capacity];
+    }
+
+    /**
+     * Moves the bars to new arrays (the first bar going to the first slot).
+     *
+     * @param capacity new number of bars
+     */
+    private void resize(final int capacity) {
+        final int firstPart = Math.min(barCount, closePrices.length - head);
+        endEpochSeconds = copy(endEpochSeconds, new long[capacity], firstPart);
+        endNanos = copy(endNanos, new int[capacity], firstPart);
+        timePeriods = copy(timePeriods, new long[capacity], firstPart);
+        openPrices = copy(openPrices, new double[capacity], firstPart);
+        highPrices = copy(highPrices, new double[capacity], firstPart);
+        lowPrices = copy(lowPrices, new double[capacity], firstPart);
+        closePrices = copy(closePrices, new double[capacity], firstPart);
+        volumes = copy(volumes, new double[capacity], firstPart);
+        amounts = copy(amounts, new double[capacity], firstPart);
+        trades = copy(trades, new int[capacity], firstPart);
+        head = 0;
+    }
+
+    /**
+     * Copies the bars of a ring buffer array to a new array.
+     *
+     * @param source    ring buffer array
+     * @param target    new array
+     * @param firstPart number of bars between the head and the end of the ring buffer array
+     * @param <T>       array type
+     * @return new array
+     */
+    private <T> T copy(final T source, final T target, final int firstPart) {
+        System.arraycopy(source, head, target, 0, firstPart);
+        System.arraycopy(source, 0, target, firstPart, barCount - firstPart);
+        return target;
+    }
+
+    /**
+     * Converts a number to a double.
+     *
+     * @param value value
+     * @return double (NaN if null)
+     */
+    private static double toDouble(final Num value) {
+        if (value == null || value.isNaN()) {
+            return Double.NaN;
+        }
+        return value.doubleValue();
+    }
+
+    /**
+     * Converts a double to a number.
+     *
+     * @param value value
+     * @return number (null if NaN)
+     */
+    private static Num toNum(final double value) {
+        if (Double.isNaN(value)) {
+            return null;
+        }
+        return DoubleNum.valueOf(value);
+    }
+
+    /**
+     * Bar view on the series arrays.
+     */
+    private final class PrimitiveBar implements Bar {
+
+        /** Serial version. */
+        private static final long serialVersionUID = 1L;
+
+        /** Bar index in the series. */
+        private final int index;
+
+        /**
+         * Constructor.
+         *
+         * @param newIndex bar index
+         */
+        PrimitiveBar(final int newIndex) {
+            this.index = newIndex;
+        }
+
+        @Override
+        public Num getOpenPrice() {
+            return toNum(openPrices[checkedSlot(index)]);
+        }
+
+        @Override
+        public Num getLowPrice() {
+            return toNum(lowPrices[checkedSlot(index)]);
+        }
+
+        @Override
+        public Num getHighPrice() {
+            return toNum(highPrices[checkedSlot(index)]);
+        }
+
+        @Override
+        public Num getClosePrice() {
+            return toNum(closePrices[checkedSlot(index)]);
+        }
+
+        @Override
+        public Num getVolume() {
+            return DoubleNum.valueOf(volumes[checkedSlot(index)]);
+        }
+
+        @Override
+        public int getTrades() {
+            return trades[checkedSlot(index)];
+        }
+
+        @Override
+        public Num getAmount() {
+            return DoubleNum.valueOf(amounts[checkedSlot(index)]);
+        }
+
+        @Override
+        public Duration getTimePeriod() {
+            return Duration.ofNanos(timePeriods[checkedSlot(index)]);
+        }
+
+        @Override
+        public ZonedDateTime getBeginTime() {
+            return getEndTime().minus(getTimePeriod());
+        }
+
+        @Override
+        public ZonedDateTime getEndTime() {
+            return PrimitiveBarSeries.this.getEndTime(index);
+        }
+
+        @Override
+        public void addTrade(final Num tradeVolume, final Num tradePrice) {
+            addPrice(tradePrice);
+            final int slot = checkedSlot(index);
+            volumes[slot] += tradeVolume.doubleValue();
+            amounts[slot] += tradeVolume.doubleValue() * tradePrice.doubleValue();
+            trades[slot]++;
+        }
+
+        @Override
+        public void addPrice(final Num price) {
+            final int slot = checkedSlot(index);
+            final double value = price.doubleValue();
+            if (Double.isNaN(openPrices[slot])) {
+                openPrices[slot] = value;
+            }
+            closePrices[slot] = value;
+            if (Double.isNaN(highPrices[slot]) || highPrices[slot] < value) {
+                highPrices[slot] = value;
+            }
+            if (Double.isNaN(lowPrices[slot]) || lowPrices[slot] > value) {
+                lowPrices[slot] = value;
+            }
+        }
+
+        @Override
+        public String toString() {
+            final int slot = checkedSlot(index);
+            return String.format("{end time: %1s, close price: %2$f, open price: %3$f, low price: %4$f high price: %5$f, volume: %6$f}",
+                    getEndTime().withZoneSameInstant(ZoneId.systemDefault()),
+                    closePrices[slot], openPrices[slot], lowPrices[slot], highPrices[slot], volumes[slot]);
+        }
+
+    }
+
+}
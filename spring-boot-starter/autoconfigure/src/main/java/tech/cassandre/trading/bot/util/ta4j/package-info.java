@@ -0,0 +1,4 @@
+/**
+ * ta4j utilities.
+ */
+package tech.cassandre.trading.bot.util.ta4j;
@@ -0,0 +1,172 @@
+package tech.cassandre.trading.bot.util.trace;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.LatencyTraceDTO;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static tech.cassandre.trading.bot.dto.util.LatencyStageDTO.ACKNOWLEDGED;
+import static tech.cassandre.trading.bot.dto.util.LatencyStageDTO.DECIDED;
+import static tech.cassandre.trading.bot.dto.util.LatencyStageDTO.EMITTED;
+import static tech.cassandre.trading.bot.dto.util.LatencyStageDTO.RECEIVED;
+
+/**
+ * Latency tracer - marks the tick-to-order stages of {@link LatencyTraceDTO} and records them in histograms.
+ * The ticker being processed is bound to the current thread so the orders it triggers inherit its trace.
+ */
+public final class LatencyTracer {
+
+    /** Latency timer name. */
+    public static final String LATENCY_TIMER_NAME = "cassandre.latency";
+
+    /** Exchange to market service receipt (wall clock). */
+    public static final String EXCHANGE_TO_RECEIPT = "exchange.to.receipt";
+
+    /** Market service receipt to ticker flux emission. */
+    public static final String RECEIPT_TO_EMISSION = "receipt.to.emission";
+
+    /** Ticker flux emission to order decision. */
+    public static final String EMISSION_TO_DECISION = "emission.to.decision";
+
+    /** Order decision to order acknowledgement. */
+    public static final String DECISION_TO_ACKNOWLEDGEMENT = "decision.to.acknowledgement";
+
+    /** Market service receipt to order acknowledgement. */
+    public static final String RECEIPT_TO_ACKNOWLEDGEMENT = "receipt.to.acknowledgement";
+
+    /** Published percentiles. */
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /** Trace of the ticker being processed by the current thread. */
+    private static final ThreadLocal<LatencyTraceDTO> CURRENT_TRACE = new ThreadLocal<>();
+
+    /** Timers per stage. */
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    /** Meter registry (the micrometer global registry until the application one is set). */
+    private static volatile MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    /**
+     * Private constructor.
+     */
+    private LatencyTracer() {
+    }
+
+    /**
+     * Sets the meter registry where the latency timers are registered.
+     *
+     * @param newMeterRegistry meter registry
+     */
+    public static void setMeterRegistry(final MeterRegistry newMeterRegistry) {
+        meterRegistry = newMeterRegistry;
+        TIMERS.clear();
+    }
+
+    /**
+     * Marks a ticker as received by the market service.
+     *
+     * @param ticker ticker
+     * @return ticker with its trace marked as received
+     */
+    public static TickerDTO received(final TickerDTO ticker) {
+        final LatencyTraceDTO trace = ticker.getTrace().withStage(RECEIVED);
+        final long exchangeToReceipt = System.currentTimeMillis() - trace.getExchangeTimestamp();
+        if (exchangeToReceipt >= 0) {
+            getTimer(EXCHANGE_TO_RECEIPT).record(exchangeToReceipt, TimeUnit.MILLISECONDS);
+        }
+        return ticker.withTrace(trace);
+    }
+
+    /**
+     * Marks a ticker as emitted by the ticker flux.
+     *
+     * @param ticker ticker
+     * @return ticker with its trace marked as emitted
+     */
+    public static TickerDTO emitted(final TickerDTO ticker) {
+        final LatencyTraceDTO trace = ticker.getTrace().withStage(EMITTED);
+        record(RECEIPT_TO_EMISSION, trace.getLatency(RECEIVED, EMITTED));
+        return ticker.withTrace(trace);
+    }
+
+    /**
+     * Runs a ticker callback with the ticker trace bound to the current thread.
+     *
+     * @param trace    ticker trace
+     * @param callback callback
+     */
+    public static void runWith(final LatencyTraceDTO trace, final Runnable callback) {
+        final LatencyTraceDTO previousTrace = CURRENT_TRACE.get();
+        CURRENT_TRACE.set(trace);
+        try {
+            callback.run();
+        } finally {
+            if (previousTrace == null) {
+                CURRENT_TRACE.remove();
+            } else {
+                CURRENT_TRACE.set(previousTrace);
+            }
+        }
+    }
+
+    /**
+     * Starts the trace of an order: a copy of the trace of the ticker being processed (if any) marked as decided.
+     *
+     * @return order trace
+     */
+    public static LatencyTraceDTO decided() {
+        final LatencyTraceDTO tickerTrace = CURRENT_TRACE.get();
+        if (tickerTrace == null) {
+            return new LatencyTraceDTO(System.currentTimeMillis()).withStage(DECIDED);
+        } else {
+            return tickerTrace.withStage(DECIDED);
+        }
+    }
+
+    /**
+     * Marks an order as acknowledged by the exchange and records its latencies.
+     *
+     * @param trace order trace
+     * @return order trace
+     */
+    public static LatencyTraceDTO acknowledged(final LatencyTraceDTO trace) {
+        final LatencyTraceDTO acknowledgedTrace = trace.withStage(ACKNOWLEDGED);
+        record(EMISSION_TO_DECISION, acknowledgedTrace.getLatency(EMITTED, DECIDED));
+        record(DECISION_TO_ACKNOWLEDGEMENT, acknowledgedTrace.getLatency(DECIDED, ACKNOWLEDGED));
+        record(RECEIPT_TO_ACKNOWLEDGEMENT, acknowledgedTrace.getLatency(RECEIVED, ACKNOWLEDGED));
+        return acknowledgedTrace;
+    }
+
+    /**
+     * Records a latency if it's known.
+     *
+     * @param stage   stage name
+     * @param latency latency in nanoseconds
+     */
+    private static void record(final String stage, final long latency) {
+        if (latency != LatencyTraceDTO.UNKNOWN_LATENCY) {
+            getTimer(stage).record(latency, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the timer of a stage (HdrHistogram backed percentiles and published histogram).
+     *
+     * @param stage stage name
+     * @return timer
+     */
+    private static Timer getTimer(final String stage) {
+        return TIMERS.computeIfAbsent(stage, s -> Timer.builder(LATENCY_TIMER_NAME)
+                .description("Tick-to-order latency per stage")
+                .tag("stage", s)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Latency tracing.
+ */
+package tech.cassandre.trading.bot.util.trace;
\ No newline at end of file
@@ -51,14 +51,14 @@ public class ExchangeServiceTest {
 		// Tests results.
 		assertEquals(expectedMinimumNumberOfAvailableCurrencyPairs, currencyPairs.size());
 
-		assertTrue(currencyPairs.contains(new CurrencyPairDTO("KCS", "USDT")));
-		assertTrue(currencyPairs.contains(new CurrencyPairDTO(CurrencyDTO.KCS, CurrencyDTO.USDT)));
-		assertTrue(currencyPairs.contains(new CurrencyPairDTO("ETH", "USDT")));
-		assertTrue(currencyPairs.contains(new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.USDT)));
-		assertTrue(currencyPairs.contains(new CurrencyPairDTO("BTC", "USDT")));
-		assertTrue(currencyPairs.contains(new CurrencyPairDTO(CurrencyDTO.BTC, CurrencyDTO.USDT)));
-		assertTrue(currencyPairs.contains(new CurrencyPairDTO("ETH", "BTC")));
-		assertTrue(currencyPairs.contains(new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.BTC)));
+		assertTrue(currencyPairs.contains(CurrencyPairDTO.getInstance("KCS", "USDT")));
+		assertTrue(currencyPairs.contains(CurrencyPairDTO.getInstance(CurrencyDTO.KCS, CurrencyDTO.USDT)));
+		assertTrue(currencyPairs.contains(CurrencyPairDTO.getInstance("ETH", "USDT")));
+		assertTrue(currencyPairs.contains(CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.USDT)));
+		assertTrue(currencyPairs.contains(CurrencyPairDTO.getInstance("BTC", "USDT")));
+		assertTrue(currencyPairs.contains(CurrencyPairDTO.getInstance(CurrencyDTO.BTC, CurrencyDTO.USDT)));
+		assertTrue(currencyPairs.contains(CurrencyPairDTO.getInstance("ETH", "BTC")));
+		assertTrue(currencyPairs.contains(CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC)));
 	}
 
 }
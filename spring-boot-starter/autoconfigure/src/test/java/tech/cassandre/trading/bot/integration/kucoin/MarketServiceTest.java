@@ -45,7 +45,7 @@ public class MarketServiceTest {
     @Test
     @DisplayName("Check get ticker")
     public void checkGetTicker() {
-        CurrencyPairDTO cp = new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.BTC);
+        CurrencyPairDTO cp = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC);
         Optional<TickerDTO> result = marketService.getTicker(cp);
         assertTrue(result.isPresent());
         result.ifPresent(t -> {
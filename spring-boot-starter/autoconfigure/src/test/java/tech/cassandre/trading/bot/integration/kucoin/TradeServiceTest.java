@@ -58,7 +58,7 @@ public class TradeServiceTest extends BaseTest {
     @Test
     @DisplayName("Check creates a buy / sell market order")
     public void checkCreateBuySellMarketOrder() {
-        final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
         // =============================================================================================================
         // Making a buy market order with a size below the minimum requirement. Testing error management.
@@ -85,7 +85,7 @@ public class TradeServiceTest extends BaseTest {
     @Test
     @DisplayName("Check creates a buy limit order")
     public void checkCreateBuyLimitOrder() {
-        final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
         // =============================================================================================================
         // Making a buy limit order (Buy 0.0001 ETH).
@@ -125,7 +125,7 @@ public class TradeServiceTest extends BaseTest {
     @Test
     @DisplayName("Check cancel an order")
     public void checkCancelOrder() {
-        final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
         // Making a buy limit order (Buy 0.0001 ETH).
         final OrderCreationResultDTO result1 = tradeService.createSellLimitOrder(cp, new BigDecimal("0.0001"), new BigDecimal("10000000"));
@@ -147,7 +147,7 @@ public class TradeServiceTest extends BaseTest {
     @Test
     @DisplayName("Check get trades")
     public void checkGetTrades() {
-        final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
         // Creates two orders of the same amount (one buy, one sell).
         final OrderCreationResultDTO result1 = tradeService.createBuyMarketOrder(cp, new BigDecimal("0.0001"));
@@ -0,0 +1,231 @@
+package tech.cassandre.trading.bot.test.backup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.candle.CandleRecorder;
+import tech.cassandre.trading.bot.util.candle.CandleStore;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Backup - Candle store")
+public class CandleStoreTest {
+
+    private final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(BTC, USDT);
+
+    private final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    private final Duration timeframe = Duration.ofHours(1);
+
+    private final ZonedDateTime start = ZonedDateTime.of(2020, 7, 31, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Check candles saved and read by range")
+    public void checkRangeQueries() {
+        CandleStore store = new CandleStore(directory);
+        assertTrue(store.getLastCandles(cp1, timeframe, 10).isEmpty());
+        assertFalse(store.getLastTimestamp(cp1, timeframe).isPresent());
+
+        // 72 hours over two months.
+        assertEquals(72, store.append(cp1, timeframe, getCandles(0, 72)));
+        assertEquals(2, store.append(cp2, timeframe, getCandles(0, 2)));
+        assertTrue(Files.exists(directory.resolve("BTC-USDT").resolve("PT1H").resolve("2020-07" + CandleStore.FILE_SUFFIX)));
+        assertTrue(Files.exists(directory.resolve("BTC-USDT").resolve("PT1H").resolve("2020-08" + CandleStore.FILE_SUFFIX)));
+
+        // Candles already saved are ignored.
+        assertEquals(8, store.append(cp1, timeframe, getCandles(60, 80)));
+        assertEquals(start.plusHours(79).toInstant(), store.getLastTimestamp(cp1, timeframe).orElseThrow().toInstant());
+
+        // Range over the two months.
+        final List<TickerDTO> range = store.getCandles(cp1, timeframe, start.plusHours(20), start.plusHours(30));
+        assertEquals(10, range.size());
+        assertEquals(start.plusHours(20).toInstant(), range.get(0).getTimestamp().toInstant());
+        assertEquals(start.plusHours(29).toInstant(), range.get(9).getTimestamp().toInstant());
+        assertEquals(0, new BigDecimal("120.5").compareTo(range.get(0).getLast()));
+        assertEquals(0, new BigDecimal("0.01").compareTo(range.get(0).getVolume()));
+        assertNull(range.get(0).getBid());
+        assertEquals(cp1, range.get(0).getCurrencyPair());
+
+        // Last candles.
+        final List<TickerDTO> last = new CandleStore(directory).getLastCandles(cp1, timeframe, 60);
+        assertEquals(60, last.size());
+        assertEquals(start.plusHours(20).toInstant(), last.get(0).getTimestamp().toInstant());
+        assertEquals(start.plusHours(79).toInstant(), last.get(59).getTimestamp().toInstant());
+        assertEquals(2, store.getLastCandles(cp2, timeframe, 60).size());
+    }
+
+    @Test
+    @DisplayName("Check incomplete record")
+    public void checkIncompleteRecord() throws IOException {
+        new CandleStore(directory).append(cp1, timeframe, getCandles(0, 5));
+        final Path file = directory.resolve("BTC-USDT").resolve("PT1H").resolve("2020-07" + CandleStore.FILE_SUFFIX);
+        Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        final CandleStore store = new CandleStore(directory);
+        assertEquals(5, store.getLastCandles(cp1, timeframe, 10).size());
+        assertEquals(1, store.append(cp1, timeframe, getCandles(5, 6)));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), store.getLastCandles(cp1, timeframe, 10).stream()
+                .map(c -> (int) Duration.between(start.toInstant(), c.getTimestamp().toInstant()).toHours())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Check values are saved exactly")
+    public void checkExactValues() {
+        final CandleStore store = new CandleStore(directory);
+        store.append(cp1, timeframe, List.of(TickerDTO.builder()
+                .currencyPair(cp1)
+                .timestamp(Date.from(start.toInstant()))
+                .open(new BigDecimal("0.1"))
+                .last(new BigDecimal("0.000000012345678901"))
+                .volume(new BigDecimal("123456789012.123456"))
+                .quoteVolume(new BigDecimal("1234567890123456789012.5"))
+                .create()));
+
+        final TickerDTO candle = store.getLastCandles(cp1, timeframe, 1).get(0);
+        assertEquals("0.1", candle.getOpen().toPlainString());
+        assertEquals("0.000000012345678901", candle.getLast().toPlainString());
+        assertEquals("123456789012.123456", candle.getVolume().toPlainString());
+        // Values with more than 18 significant digits are rounded.
+        assertEquals(0, new BigDecimal("1234567890123456790000").compareTo(candle.getQuoteVolume()));
+        assertNull(candle.getHigh());
+    }
+
+    @Test
+    @DisplayName("Check candles not joined up with now are not returned")
+    public void checkRecentCandles() {
+        // Candles ending from 0h to 9h and from 11h to 14h (the one ending at 10h is missing).
+        final CandleStore store = new CandleStore(directory);
+        store.append(cp1, timeframe, Stream.concat(getCandles(0, 10).stream(), getCandles(11, 15).stream()).collect(Collectors.toList()));
+
+        // The candle in progress ends at 15h : candles after the missing one are returned.
+        final List<TickerDTO> candles = store.getRecentCandles(cp1, timeframe, 100, start.plusHours(14).plusMinutes(30));
+        assertEquals(4, candles.size());
+        assertEquals(start.plusHours(11).toInstant(), candles.get(0).getTimestamp().toInstant());
+        assertEquals(start.plusHours(14).toInstant(), candles.get(3).getTimestamp().toInstant());
+        assertEquals(2, store.getRecentCandles(cp1, timeframe, 2, start.plusHours(14).plusMinutes(30)).size());
+
+        // The candle ending at 15h was not saved : no candle is returned.
+        assertTrue(store.getRecentCandles(cp1, timeframe, 100, start.plusHours(15).plusMinutes(30)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check candles built from tickers")
+    public void checkCandleRecorder() {
+        final CandleStore store = new CandleStore(directory);
+        final CandleRecorder recorder = new CandleRecorder(store);
+        recorder.record(cp1, timeframe);
+        recorder.record(cp1, Duration.ofHours(2));
+
+        // Tickers from 00:10 to 02:10, then tickers of another currency pair (not recorded).
+        recorder.tickerUpdate(getTicker(cp1, 10, "100"));
+        recorder.tickerUpdate(getTicker(cp1, 20, "105"));
+        recorder.tickerUpdate(getTicker(cp1, 30, "95"));
+        recorder.tickerUpdate(getTicker(cp1, 50, "101"));
+        recorder.tickerUpdate(getTicker(cp1, 70, "102"));
+        recorder.tickerUpdate(getTicker(cp1, 130, "103"));
+        recorder.tickerUpdate(getTicker(cp2, 130, "1"));
+        recorder.tickerUpdate(getTicker(cp2, 190, "1"));
+
+        // Hourly candles ending at 01:00 and 02:00 saved, the one in progress is not.
+        final List<TickerDTO> candles = store.getLastCandles(cp1, timeframe, 10);
+        assertEquals(2, candles.size());
+        final TickerDTO candle = candles.get(0);
+        assertEquals(start.plusHours(1).toInstant(), candle.getTimestamp().toInstant());
+        assertEquals(0, new BigDecimal("100").compareTo(candle.getOpen()));
+        assertEquals(0, new BigDecimal("105").compareTo(candle.getHigh()));
+        assertEquals(0, new BigDecimal("95").compareTo(candle.getLow()));
+        assertEquals(0, new BigDecimal("101").compareTo(candle.getLast()));
+        assertEquals(0, new BigDecimal("102").compareTo(candles.get(1).getOpen()));
+        assertEquals(start.plusHours(2).toInstant(), store.getLastCandles(cp1, Duration.ofHours(2), 10).get(0).getTimestamp().toInstant());
+        assertTrue(store.getLastCandles(cp2, timeframe, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check candles with values out of range are skipped")
+    public void checkOutOfRangeValues() {
+        final CandleStore store = new CandleStore(directory);
+        final CandleRecorder recorder = new CandleRecorder(store);
+        recorder.record(cp1, timeframe);
+
+        // Reducing the precision of this volume overflows the scale : the candle ending at 01:00 is skipped.
+        final BigDecimal outOfRangeVolume = new BigDecimal(BigInteger.TEN.pow(30).add(BigInteger.ONE), Integer.MIN_VALUE + 5);
+        recorder.tickerUpdate(TickerDTO.builder()
+                .currencyPair(cp1)
+                .timestamp(Date.from(start.plusMinutes(10).toInstant()))
+                .last(new BigDecimal("100"))
+                .volume(outOfRangeVolume)
+                .create());
+        recorder.tickerUpdate(getTicker(cp1, 70, "101"));
+        assertTrue(store.getLastCandles(cp1, timeframe, 10).isEmpty());
+
+        // The next candles are saved.
+        recorder.tickerUpdate(getTicker(cp1, 130, "102"));
+        final List<TickerDTO> candles = store.getLastCandles(cp1, timeframe, 10);
+        assertEquals(1, candles.size());
+        assertEquals(start.plusHours(2).toInstant(), candles.get(0).getTimestamp().toInstant());
+        assertThrows(IllegalArgumentException.class, () -> store.append(cp1, timeframe, List.of(TickerDTO.builder()
+                .currencyPair(cp1)
+                .timestamp(Date.from(start.plusHours(3).toInstant()))
+                .volume(outOfRangeVolume)
+                .create())));
+    }
+
+    /**
+     * Returns a ticker.
+     *
+     * @param currencyPair currency pair
+     * @param minutes      minutes after start
+     * @param last         last price
+     * @return ticker
+     */
+    private TickerDTO getTicker(final CurrencyPairDTO currencyPair, final int minutes, final String last) {
+        return TickerDTO.builder()
+                .currencyPair(currencyPair)
+                .timestamp(Date.from(start.plusMinutes(minutes).toInstant()))
+                .last(new BigDecimal(last))
+                .create();
+    }
+
+    private List<TickerDTO> getCandles(final int from, final int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> TickerDTO.builder()
+                        .currencyPair(cp1)
+                        .timestamp(Date.from(start.plusHours(i).toInstant()))
+                        .open(new BigDecimal(100 + i))
+                        .high(new BigDecimal(110 + i))
+                        .low(new BigDecimal(90 + i))
+                        .last(new BigDecimal(100 + i).add(new BigDecimal("0.5")))
+                        .volume(new BigDecimal("0.01"))
+                        .create())
+                .collect(Collectors.toList());
+    }
+
+}
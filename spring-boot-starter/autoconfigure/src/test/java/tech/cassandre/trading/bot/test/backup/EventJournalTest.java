@@ -0,0 +1,221 @@
+package tech.cassandre.trading.bot.test.backup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.journal.EventJournal;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Backup - Event journal")
+public class EventJournalTest {
+
+    private static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Check trades and positions restored after restart")
+    public void checkRestoreAfterRestart() {
+        EventJournal journal = new EventJournal(directory, 1000, SEGMENT_SIZE);
+        assertFalse(journal.hasRestoredData());
+        journal.start();
+        journal.tickerUpdate(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("0.031")).create());
+        final TradeDTO trade = getTrade("TRADE_01", "ORDER_01");
+        journal.tradeUpdate(trade);
+        final PositionDTO position = new PositionDTO(1, cp, new BigDecimal("10"), "ORDER_01", PositionRulesDTO.builder().stopGainPercentage(10f).create());
+        position.tradeUpdate(trade);
+        journal.positionUpdate(position);
+        journal.close();
+
+        // Restart.
+        journal = new EventJournal(directory, 1000, SEGMENT_SIZE);
+        assertTrue(journal.hasRestoredData());
+        assertEquals(1, journal.getRestoredTrades().size());
+        final TradeDTO restoredTrade = journal.getRestoredTrades().iterator().next();
+        assertEquals(trade, restoredTrade);
+        assertEquals(0, new BigDecimal("0.0301").compareTo(restoredTrade.getPrice()));
+        assertEquals(trade.getTimestamp(), restoredTrade.getTimestamp());
+        assertEquals(1, journal.getRestoredPositions().size());
+        final PositionDTO restoredPosition = journal.getRestoredPositions().iterator().next();
+        assertEquals(1, restoredPosition.getId());
+        assertEquals(OPENED, restoredPosition.getStatus());
+        assertEquals(cp, restoredPosition.getCurrencyPair());
+        assertTrue(restoredPosition.getRules().isStopGainPercentageSet());
+        assertFalse(restoredPosition.getRules().isStopLossPercentageSet());
+        assertEquals(1, restoredPosition.getTrades().size());
+        assertEquals(restoredTrade, restoredPosition.getTrade("TRADE_01").orElseThrow());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Check snapshots and segment rotation")
+    public void checkSegmentRotation() throws IOException {
+        EventJournal journal = new EventJournal(directory, 10, SEGMENT_SIZE);
+        journal.start();
+        for (int i = 0; i < 25; i++) {
+            journal.tradeUpdate(getTrade("TRADE_" + i, "ORDER_" + i));
+        }
+        journal.close();
+        assertEquals(1, getSegments().size());
+
+        // Restart - trades without position received since the previous snapshot are in the last one, then its tail.
+        journal = new EventJournal(directory, 10, SEGMENT_SIZE);
+        assertEquals(15, journal.getRestoredTrades().size());
+        assertEquals("TRADE_10", journal.getRestoredTrades().iterator().next().getId());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Check closed positions and their trades are removed from snapshots")
+    public void checkSnapshotCompaction() {
+        final EventJournal journal = new EventJournal(directory, 2, SEGMENT_SIZE);
+        journal.start();
+        final PositionDTO closedPosition = getOpenedPosition(1);
+        closedPosition.setCloseOrderId("CLOSE_1");
+        closedPosition.tradeUpdate(getTrade("TRADE_CLOSE_1", "CLOSE_1", ASK, "10"));
+        journal.tradeUpdate(closedPosition.getTrade("TRADE_1").orElseThrow());
+        journal.tradeUpdate(closedPosition.getTrade("TRADE_CLOSE_1").orElseThrow());
+        journal.positionUpdate(closedPosition);
+        final PositionDTO openedPosition = getOpenedPosition(2);
+        journal.tradeUpdate(openedPosition.getTrade("TRADE_2").orElseThrow());
+        journal.positionUpdate(openedPosition);
+        for (int i = 0; i < 4; i++) {
+            journal.tickerUpdate(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("0.031")).create());
+        }
+        journal.close();
+
+        // Two snapshots later, only the opened position and its trade are left.
+        final EventJournal restarted = new EventJournal(directory, 2, SEGMENT_SIZE);
+        assertEquals(1, restarted.getRestoredPositions().size());
+        assertEquals(2, restarted.getRestoredPositions().iterator().next().getId());
+        assertEquals(1, restarted.getRestoredTrades().size());
+        assertEquals("TRADE_2", restarted.getRestoredTrades().iterator().next().getId());
+        restarted.close();
+    }
+
+    @Test
+    @DisplayName("Check the journal is suspended after a failed snapshot")
+    public void checkFailedSnapshot() throws IOException {
+        // An opening position whose trades don't fit in a snapshot.
+        final EventJournal journal = new EventJournal(directory, 1000, 2048);
+        journal.start();
+        final PositionDTO position = new PositionDTO(1, cp, new BigDecimal("30"), "ORDER_1", PositionRulesDTO.builder().create());
+        for (int i = 0; i < 30; i++) {
+            final TradeDTO trade = getTrade("TRADE_" + i, "ORDER_1", BID, "1");
+            position.tradeUpdate(trade);
+            journal.tradeUpdate(trade);
+            journal.positionUpdate(position);
+        }
+        assertFalse(journal.isWriting());
+        // The segment of the failed snapshot is deleted, the last complete one is kept.
+        final List<Path> segments = getSegments();
+        assertEquals(1, segments.size());
+
+        // The position is closed : the next try, twice the snapshot interval later, doesn't keep it.
+        position.setCloseOrderId("CLOSE_1");
+        position.tradeUpdate(getTrade("TRADE_CLOSE", "CLOSE_1", ASK, "30"));
+        journal.positionUpdate(position);
+        int tickerCount = 0;
+        while (!journal.isWriting() && tickerCount < 3000) {
+            journal.tickerUpdate(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("0.031")).create());
+            tickerCount++;
+        }
+        assertTrue(journal.isWriting());
+        assertTrue(tickerCount > 1000);
+        assertEquals(1, getSegments().size());
+        assertFalse(getSegments().contains(segments.get(0)));
+        journal.close();
+
+        final EventJournal restarted = new EventJournal(directory, 1000, 2048);
+        assertTrue(restarted.hasRestoredData());
+        assertTrue(restarted.getRestoredPositions().isEmpty());
+        restarted.close();
+    }
+
+    @Test
+    @DisplayName("Check incomplete records and segments are ignored")
+    public void checkIncompleteRecords() throws IOException {
+        EventJournal journal = new EventJournal(directory, 1000, SEGMENT_SIZE);
+        journal.start();
+        journal.tradeUpdate(getTrade("TRADE_01", "ORDER_01"));
+        journal.close();
+
+        // A record partially written (no length).
+        final Path segment = getSegments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long position = 0;
+            int length = file.readInt();
+            while (length > 0) {
+                position += Integer.BYTES + length;
+                file.seek(position);
+                length = file.readInt();
+            }
+            file.seek(position + Integer.BYTES);
+            file.write(new byte[]{3, 1, 2, 3});
+        }
+        // A segment without complete snapshot.
+        Files.write(directory.resolve("journal-9999999999999999.log"), new byte[SEGMENT_SIZE]);
+
+        journal = new EventJournal(directory, 1000, SEGMENT_SIZE);
+        assertTrue(journal.hasRestoredData());
+        assertEquals(1, journal.getRestoredTrades().size());
+        journal.start();
+        journal.close();
+        assertEquals(1, getSegments().size());
+    }
+
+    private TradeDTO getTrade(final String tradeId, final String orderId) {
+        return getTrade(tradeId, orderId, BID, "10");
+    }
+
+    private TradeDTO getTrade(final String tradeId, final String orderId, final OrderTypeDTO type, final String amount) {
+        return TradeDTO.builder()
+                .id(tradeId)
+                .orderId(orderId)
+                .type(type)
+                .originalAmount(new BigDecimal(amount))
+                .currencyPair(cp)
+                .price(new BigDecimal("0.0301"))
+                .timestamp(ZonedDateTime.now())
+                .feeAmount(new BigDecimal("0.0001"))
+                .feeCurrency(BTC)
+                .create();
+    }
+
+    private PositionDTO getOpenedPosition(final long id) {
+        final PositionDTO position = new PositionDTO(id, cp, new BigDecimal("10"), "ORDER_" + id, PositionRulesDTO.builder().create());
+        position.tradeUpdate(getTrade("TRADE_" + id, "ORDER_" + id));
+        return position;
+    }
+
+    private List<Path> getSegments() throws IOException {
+        return Files.list(directory).sorted().collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,179 @@
+package tech.cassandre.trading.bot.test.backup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.cassandre.trading.bot.domain.Position;
+import tech.cassandre.trading.bot.domain.Trade;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderTypeDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.dto.util.GainDTO;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.util.export.HistoryExporter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Backup - History export")
+public class HistoryExporterTest {
+
+    private static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Check trades export")
+    public void checkTradesExport() throws IOException {
+        final HistoryExporter exporter = new HistoryExporter(directory, mock(TradeRepository.class), mock(PositionRepository.class));
+        assertEquals(3, exporter.exportTrades(List.of(
+                getTrade("TRADE_01", "ORDER_01", BID, "10", "2020-08-01T10:00:00Z"),
+                getTrade("TRADE_02", "ORDER_01", BID, "11", "2020-08-01T23:00:00Z"),
+                getTrade("TRADE_03", "ORDER_02", ASK, "12", "2020-08-02T10:00:00Z"))));
+        // A second export replaces the partitions (rows of a partition may not follow each other).
+        assertEquals(4, exporter.exportTrades(List.of(
+                getTrade("TRADE_01", "ORDER_01", BID, "10", "2020-08-01T10:00:00Z"),
+                getTrade("TRADE_02", "ORDER_01", BID, "11", "2020-08-01T23:00:00Z"),
+                getTrade("TRADE_03", "ORDER_02", ASK, "12", "2020-08-02T10:00:00Z"),
+                getTrade("TRADE_04", "ORDER_03", BID, "13", "2020-08-01T12:00:00Z"))));
+
+        final Path day1 = directory.resolve("trades").resolve("date=2020-08-01");
+        final Path day2 = directory.resolve("trades").resolve("date=2020-08-02");
+        assertEquals(List.of("TRADE_01", "TRADE_02", "TRADE_04"), readColumn(day1, "id"));
+        assertEquals(List.of("10", "11", "13"), readColumn(day1, "price"));
+        assertEquals(List.of("BID", "BID", "BID"), readColumn(day1, "type"));
+        assertEquals(List.of("TRADE_03"), readColumn(day2, "id"));
+        assertEquals(List.of("ETH/BTC"), readColumn(day2, "currency_pair"));
+        assertEquals(List.of("BTC"), readColumn(day2, "fee_currency"));
+        for (String column : HistoryExporter.TRADE_COLUMNS) {
+            assertEquals(3, readColumn(day1, column).size());
+            assertFalse(Files.exists(day1.resolve(column + HistoryExporter.COLUMN_FILE_SUFFIX + HistoryExporter.TEMPORARY_FILE_SUFFIX)));
+        }
+    }
+
+    @Test
+    @DisplayName("Check positions export")
+    public void checkPositionsExport() throws IOException {
+        final PositionDTO closedPosition = new PositionDTO(1, cp, new BigDecimal("10"), "ORDER_01", PositionRulesDTO.builder().create());
+        closedPosition.tradeUpdate(getTrade("TRADE_01", "ORDER_01", BID, "10", "2020-08-01T10:00:00Z"));
+        closedPosition.setCloseOrderId("ORDER_02");
+        closedPosition.tradeUpdate(getTrade("TRADE_02", "ORDER_02", ASK, "15", "2020-08-03T10:00:00Z"));
+        final PositionDTO openingPosition = new PositionDTO(2, cp, new BigDecimal("10"), "ORDER_03", PositionRulesDTO.builder().create());
+        // A row that can't be exported is skipped.
+        final PositionDTO invalidPosition = new PositionDTO(3, cp, new BigDecimal("10"), "ORDER_04", PositionRulesDTO.builder().create()) {
+            @Override
+            public GainDTO getGain() {
+                throw new ArithmeticException("Invalid gain");
+            }
+        };
+
+        final HistoryExporter exporter = new HistoryExporter(directory, mock(TradeRepository.class), mock(PositionRepository.class));
+        assertEquals(2, exporter.exportPositions(List.of(closedPosition, invalidPosition, openingPosition)));
+
+        final Path day1 = directory.resolve("positions").resolve("date=2020-08-01");
+        assertEquals(List.of("1"), readColumn(day1, "id"));
+        assertEquals(List.of("CLOSED"), readColumn(day1, "status"));
+        assertEquals(List.of("2020-08-03T10:00:00Z"), readColumn(day1, "close_timestamp"));
+        assertEquals(List.of("50.0"), readColumn(day1, "gain_percentage"));
+        assertEquals(List.of("50"), readColumn(day1, "gain_amount"));
+        assertEquals(List.of("BTC"), readColumn(day1, "gain_currency"));
+
+        final Path undefined = directory.resolve("positions").resolve(HistoryExporter.UNDEFINED_PARTITION);
+        assertEquals(List.of("2"), readColumn(undefined, "id"));
+        assertEquals(List.of("OPENING"), readColumn(undefined, "status"));
+        assertEquals(List.of(HistoryExporter.NULL_VALUE), readColumn(undefined, "close_order_id"));
+        assertFalse(Files.exists(directory.resolve("positions").resolve("date=2020-08-03")));
+    }
+
+    @Test
+    @DisplayName("Check database export")
+    public void checkDatabaseExport() throws IOException {
+        final TradeRepository tradeRepository = mock(TradeRepository.class);
+        when(tradeRepository.findByOrderByTimestampAsc()).thenReturn(List.of(
+                getTradeEntity("TRADE_01", "ORDER_01", "BID", "10"),
+                getTradeEntity("TRADE_02", "ORDER_02", "UNKNOWN", "11"),
+                getTradeEntity("TRADE_03", "ORDER_03", "ASK", "15")));
+        final Position position = new Position();
+        position.setId(1);
+        position.setStatus("CLOSED");
+        position.setCurrencyPair("ETH/BTC");
+        position.setAmount(new BigDecimal("10"));
+        position.setOpenOrderId("ORDER_01");
+        position.setCloseOrderId("ORDER_03");
+        position.setTrades(Set.of("TRADE_01", "TRADE_03"));
+        final PositionRepository positionRepository = mock(PositionRepository.class);
+        when(positionRepository.findAll()).thenReturn(List.of(position));
+
+        // Exported twice : the second export replaces the first one.
+        final HistoryExporter exporter = new HistoryExporter(directory, tradeRepository, positionRepository);
+        exporter.export();
+        exporter.export();
+
+        final Path trades = directory.resolve("trades").resolve("date=2020-08-01");
+        assertEquals(List.of("TRADE_01", "TRADE_03"), readColumn(trades, "id"));
+        final Path positions = directory.resolve("positions").resolve("date=2020-08-01");
+        assertEquals(List.of("1"), readColumn(positions, "id"));
+        assertEquals(List.of("50.0"), readColumn(positions, "gain_percentage"));
+    }
+
+    private Trade getTradeEntity(final String tradeId, final String orderId, final String type, final String price) {
+        final Trade trade = new Trade();
+        trade.setId(tradeId);
+        trade.setOrderId(orderId);
+        trade.setType(type);
+        trade.setOriginalAmount(new BigDecimal("10"));
+        trade.setCurrencyPair("ETH/BTC");
+        trade.setPrice(new BigDecimal(price));
+        trade.setTimestamp(ZonedDateTime.parse("2020-08-01T10:00:00Z"));
+        trade.setFeeAmount(new BigDecimal("0.0001"));
+        trade.setFeeCurrency("BTC");
+        return trade;
+    }
+
+    private TradeDTO getTrade(final String tradeId, final String orderId, final OrderTypeDTO type, final String price, final String timestamp) {
+        return TradeDTO.builder()
+                .id(tradeId)
+                .orderId(orderId)
+                .type(type)
+                .originalAmount(new BigDecimal("10"))
+                .currencyPair(cp)
+                .price(new BigDecimal(price))
+                .timestamp(ZonedDateTime.parse(timestamp).withZoneSameInstant(ZoneId.of("UTC")))
+                .feeAmount(new BigDecimal("0.0001"))
+                .feeCurrency(BTC)
+                .create();
+    }
+
+    private List<String> readColumn(final Path partition, final String column) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(partition.resolve(column + HistoryExporter.COLUMN_FILE_SUFFIX))),
+                StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+}
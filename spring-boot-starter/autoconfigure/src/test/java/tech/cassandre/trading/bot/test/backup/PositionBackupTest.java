@@ -53,7 +53,7 @@ import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
 @Import(PositionBackupMock.class)
 public class PositionBackupTest extends BaseTest {
 
-    public static final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+    public static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
     @Autowired
     private TestableCassandreStrategy strategy;
@@ -87,7 +87,7 @@ public class PositionBackupTest extends BaseTest {
         assertNotNull(p);
         assertEquals(OPENING, p.getStatus());
         assertEquals(1L, p.getId());
-        assertEquals(new CurrencyPairDTO("BTC/USDT"), p.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance("BTC/USDT"), p.getCurrencyPair());
         assertEquals(0, new BigDecimal("10").compareTo(p.getAmount()));
         assertFalse(p.getRules().isStopGainPercentageSet());
         assertFalse(p.getRules().isStopLossPercentageSet());
@@ -101,7 +101,7 @@ public class PositionBackupTest extends BaseTest {
         assertNotNull(p);
         assertEquals(OPENED, p.getStatus());
         assertEquals(2L, p.getId());
-        assertEquals(new CurrencyPairDTO("BTC/USDT"), p.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance("BTC/USDT"), p.getCurrencyPair());
         assertEquals(0, new BigDecimal("20").compareTo(p.getAmount()));
         assertTrue(p.getRules().isStopGainPercentageSet());
         assertEquals(10, p.getRules().getStopGainPercentage());
@@ -116,7 +116,7 @@ public class PositionBackupTest extends BaseTest {
         p = strategy.getPositions().get(3L);
         assertNotNull(p);
         assertEquals(CLOSING, p.getStatus());
-        assertEquals(new CurrencyPairDTO("BTC/USDT"), p.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance("BTC/USDT"), p.getCurrencyPair());
         assertEquals(0, new BigDecimal("30").compareTo(p.getAmount()));
         assertEquals(3L, p.getId());
         assertFalse(p.getRules().isStopGainPercentageSet());
@@ -132,7 +132,7 @@ public class PositionBackupTest extends BaseTest {
         p = strategy.getPositions().get(4L);
         assertNotNull(p);
         assertEquals(CLOSED, p.getStatus());
-        assertEquals(new CurrencyPairDTO("BTC/USDT"), p.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance("BTC/USDT"), p.getCurrencyPair());
         assertEquals(0, new BigDecimal("40").compareTo(p.getAmount()));
         assertEquals(4L, p.getId());
         assertTrue(p.getRules().isStopGainPercentageSet());
@@ -150,7 +150,7 @@ public class PositionBackupTest extends BaseTest {
         p = strategy.getPositions().get(5L);
         assertEquals(5L, p.getId());
         assertEquals(CLOSED, p.getStatus());
-        assertEquals(new CurrencyPairDTO("ETH/USD"), p.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance("ETH/USD"), p.getCurrencyPair());
         assertEquals(0, new BigDecimal("50").compareTo(p.getAmount()));
         assertTrue(p.getRules().isStopGainPercentageSet());
         assertEquals(30, p.getRules().getStopGainPercentage());
@@ -38,7 +38,7 @@ import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 public class  TradeBackupTest extends BaseTest {
 
-    public static final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+    public static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
     @Autowired
     private TestableCassandreStrategy strategy;
@@ -65,7 +65,7 @@ public class  TradeBackupTest extends BaseTest {
         assertEquals("BACKUP_OPEN_ORDER_02", t.getOrderId());
         assertEquals(BID, t.getType());
         assertEquals(0, new BigDecimal("20").compareTo(t.getOriginalAmount()));
-        assertEquals(new CurrencyPairDTO(BTC, USDT), t.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance(BTC, USDT), t.getCurrencyPair());
         assertEquals(0, new BigDecimal("10").compareTo(t.getPrice()));
         assertEquals(createZonedDateTime("01-08-2020"), t.getTimestamp());
         assertEquals(0, new BigDecimal("1").compareTo(t.getFee().getValue()));
@@ -77,7 +77,7 @@ public class  TradeBackupTest extends BaseTest {
         assertEquals("BACKUP_OPEN_ORDER_03", t.getOrderId());
         assertEquals(BID, t.getType());
         assertEquals(0, new BigDecimal("30").compareTo(t.getOriginalAmount()));
-        assertEquals(new CurrencyPairDTO(BTC, USDT), t.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance(BTC, USDT), t.getCurrencyPair());
         assertEquals(0, new BigDecimal("20").compareTo(t.getPrice()));
         assertEquals(createZonedDateTime("02-08-2020"), t.getTimestamp());
         assertEquals(0, new BigDecimal("2").compareTo(t.getFee().getValue()));
@@ -89,7 +89,7 @@ public class  TradeBackupTest extends BaseTest {
         assertEquals("BACKUP_OPEN_ORDER_04", t.getOrderId());
         assertEquals(BID, t.getType());
         assertEquals(0, new BigDecimal("40").compareTo(t.getOriginalAmount()));
-        assertEquals(new CurrencyPairDTO(BTC, USDT), t.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance(BTC, USDT), t.getCurrencyPair());
         assertEquals(0, new BigDecimal("30").compareTo(t.getPrice()));
         assertEquals(createZonedDateTime("03-08-2020"), t.getTimestamp());
         assertEquals(0, new BigDecimal("3").compareTo(t.getFee().getValue()));
@@ -101,7 +101,7 @@ public class  TradeBackupTest extends BaseTest {
         assertEquals("BACKUP_OPEN_ORDER_05", t.getOrderId());
         assertEquals(ASK, t.getType());
         assertEquals(0, new BigDecimal("40").compareTo(t.getOriginalAmount()));
-        assertEquals(new CurrencyPairDTO(BTC, USDT), t.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance(BTC, USDT), t.getCurrencyPair());
         assertEquals(0, new BigDecimal("40").compareTo(t.getPrice()));
         assertEquals(createZonedDateTime("04-08-2020"), t.getTimestamp());
         assertEquals(0, new BigDecimal("4").compareTo(t.getFee().getValue()));
@@ -113,7 +113,7 @@ public class  TradeBackupTest extends BaseTest {
         assertEquals("BACKUP_OPEN_ORDER_06", t.getOrderId());
         assertEquals(ASK, t.getType());
         assertEquals(0, new BigDecimal("50").compareTo(t.getOriginalAmount()));
-        assertEquals(new CurrencyPairDTO(ETH, USD), t.getCurrencyPair());
+        assertEquals(CurrencyPairDTO.getInstance(ETH, USD), t.getCurrencyPair());
         assertEquals(0, new BigDecimal("50").compareTo(t.getPrice()));
         assertEquals(createZonedDateTime("05-08-2020"), t.getTimestamp());
         assertEquals(0, new BigDecimal("5").compareTo(t.getFee().getValue()));
@@ -131,7 +131,7 @@ public class  TradeBackupTest extends BaseTest {
                 .orderId("EMPTY")
                 .type(BID)
                 .originalAmount(new BigDecimal("1.100001"))
-                .currencyPair(new CurrencyPairDTO(USDT, BTC))
+                .currencyPair(CurrencyPairDTO.getInstance(USDT, BTC))
                 .price(new BigDecimal("2.200002"))
                 .timestamp(createZonedDateTime("01-09-2020"))
                 .feeAmount(new BigDecimal("3.300003"))
@@ -0,0 +1,128 @@
+package tech.cassandre.trading.bot.test.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.util.bus.EventBus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Batch - Event bus")
+public class EventBusTest {
+
+    @Test
+    @DisplayName("Check events are dispatched by a single thread in publishing order")
+    public void checkDispatching() throws InterruptedException {
+        final int producers = 4;
+        final int eventsPerProducer = 10_000;
+        final EventBus eventBus = new EventBus(64);
+        final CountDownLatch done = new CountDownLatch(producers * eventsPerProducer);
+        final List<Long> received = new ArrayList<>();
+        final List<String> threads = new ArrayList<>();
+        // Handlers are not thread safe: they rely on the event bus single thread.
+        eventBus.subscribe(Long.class, value -> {
+            received.add(value);
+            threads.add(Thread.currentThread().getName());
+        });
+        eventBus.subscribe(Long.class, value -> done.countDown());
+        eventBus.start();
+
+        final List<Thread> producerThreads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final long producer = p;
+            final Thread thread = new Thread(() -> {
+                for (long i = 0; i < eventsPerProducer; i++) {
+                    eventBus.publish(producer * eventsPerProducer + i);
+                }
+            });
+            producerThreads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : producerThreads) {
+            thread.join();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        eventBus.stop();
+
+        // Each producer events arrive in order.
+        assertEquals(producers * eventsPerProducer, received.size());
+        final long[] last = new long[producers];
+        Arrays.fill(last, -1);
+        for (long value : received) {
+            final int producer = (int) (value / eventsPerProducer);
+            assertTrue(value % eventsPerProducer > last[producer]);
+            last[producer] = value % eventsPerProducer;
+        }
+        assertTrue(threads.stream().allMatch("cassandre-event-bus"::equals));
+    }
+
+    @Test
+    @DisplayName("Check events published by handlers and handler errors")
+    public void checkHandlerEvents() throws InterruptedException {
+        final EventBus eventBus = new EventBus(8);
+        final CountDownLatch done = new CountDownLatch(1);
+        final List<Object> received = new ArrayList<>();
+        eventBus.subscribe(String.class, value -> {
+            received.add(value);
+            eventBus.publish(value.length());
+            throw new IllegalArgumentException("Handler error");
+        });
+        eventBus.subscribe(String.class, received::add);
+        eventBus.subscribe(Integer.class, value -> {
+            received.add(value);
+            done.countDown();
+        });
+        eventBus.start();
+        eventBus.publish("ticker");
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        // The second handler is still called and the handler event comes after the event being dispatched.
+        assertEquals(List.of("ticker", "ticker", 6), received);
+
+        // A handler registered after the start receives the next events.
+        final CountDownLatch lateDone = new CountDownLatch(1);
+        eventBus.subscribe(Double.class, value -> lateDone.countDown());
+        eventBus.publish(1.0);
+        assertTrue(lateDone.await(10, TimeUnit.SECONDS));
+        eventBus.stop();
+        assertThrows(IllegalArgumentException.class, () -> new EventBus(10));
+    }
+
+    @Test
+    @DisplayName("Check errors thrown by handlers don't stop the dispatcher")
+    public void checkHandlerErrors() throws InterruptedException {
+        // A small ring, filled several times after the errors.
+        final EventBus eventBus = new EventBus(4);
+        final CountDownLatch done = new CountDownLatch(20);
+        final List<Integer> received = new ArrayList<>();
+        eventBus.subscribe(Integer.class, value -> {
+            if (value == 0) {
+                throw new StackOverflowError("Handler error");
+            }
+            if (value == 1) {
+                throw new AssertionError("Strategy assertion");
+            }
+            received.add(value);
+            done.countDown();
+        });
+        eventBus.start();
+        eventBus.execute(() -> {
+            throw new AssertionError("Task error");
+        });
+        for (int i = 0; i < 22; i++) {
+            eventBus.publish(i);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(20, received.size());
+        assertEquals(2, received.get(0));
+        eventBus.stop();
+    }
+
+}
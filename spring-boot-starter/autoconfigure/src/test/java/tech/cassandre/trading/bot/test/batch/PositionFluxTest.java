@@ -46,9 +46,9 @@ import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USD;
 @Import(PositionFluxTestMock.class)
 public class PositionFluxTest extends BaseTest {
 
-    public static final CurrencyPairDTO cp1 = new CurrencyPairDTO(ETH, BTC);
+    public static final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
 
-    public static final CurrencyPairDTO cp2 = new CurrencyPairDTO(USD, BTC);
+    public static final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(USD, BTC);
 
     @Autowired
     private TestableCassandreStrategy strategy;
@@ -0,0 +1,184 @@
+package tech.cassandre.trading.bot.test.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.domain.Position;
+import tech.cassandre.trading.bot.domain.Trade;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.position.PositionStatusDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.service.intern.PositionServiceImplementation;
+import tech.cassandre.trading.bot.util.sharding.PositionRebalancer;
+
+import java.math.BigDecimal;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSING;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+
+@DisplayName("Batch - Position rebalancer")
+public class PositionRebalancerTest {
+
+    private final CurrencyPairDTO ethBtc = CurrencyPairDTO.getInstance("ETH", "BTC");
+
+    private final CurrencyPairDTO btcUsdt = CurrencyPairDTO.getInstance("BTC", "USDT");
+
+    private final CurrencyPairDTO ethUsdt = CurrencyPairDTO.getInstance("ETH", "USDT");
+
+    @Test
+    @DisplayName("Check positions follow their currency pair")
+    public void checkRebalance() {
+        // Positions 1 (ETH/BTC) and 2 (BTC/USDT, closing) are restored at startup.
+        // Positions 3 (ETH/USDT) and 4 (ETH/USDT, closing, its closing trade was saved by the other node) are in database.
+        final TradeService tradeService = mock(TradeService.class);
+        when(tradeService.createSellMarketOrder(any(), any())).thenReturn(new OrderCreationResultDTO("C"));
+        final PositionRepository positionRepository = mock(PositionRepository.class);
+        when(positionRepository.findByStatusNotAndCurrencyPairIn("CLOSED", List.of("ETH/USDT")))
+                .thenReturn(List.of(getPositionEntity(3, "OPENED", null), getPositionEntity(4, "CLOSING", "C4")));
+        final TradeRepository tradeRepository = mock(TradeRepository.class);
+        when(tradeRepository.findAllById(Set.of("T3", "T4"))).thenReturn(List.of(getTradeEntity("T3", "O3", "BID"), getTradeEntity("T4", "O4", "BID")));
+        when(tradeRepository.findByOrderIdIn(Set.of("C4"))).thenReturn(List.of(getTradeEntity("T5", "C4", "ASK")));
+        final PositionServiceImplementation positionService = new PositionServiceImplementation(tradeService, positionRepository);
+        positionService.restorePosition(getPosition(1, ethBtc, null));
+        positionService.restorePosition(getPosition(2, btcUsdt, "C2"));
+        final List<PositionDTO> removedPositions = new LinkedList<>();
+        final PositionRebalancer rebalancer = new PositionRebalancer(positionRepository,
+                tradeRepository,
+                positionService,
+                positionService::restorePosition,
+                removedPositions::add,
+                Runnable::run,
+                Set.of(ethBtc, btcUsdt));
+
+        // Another node takes BTC/USDT, this node gets ETH/USDT.
+        rebalancer.accept(Set.of(ethBtc, ethUsdt));
+        assertEquals(Set.of(ethBtc, ethUsdt), rebalancer.getLoadedCurrencyPairs());
+        assertEquals(Set.of(1L, 3L, 4L), getPositionIds(positionService));
+        assertEquals(List.of(2L), removedPositions.stream().map(PositionDTO::getId).collect(Collectors.toList()));
+        final PositionDTO position3 = positionService.getPositionById(3).orElseThrow();
+        assertEquals(OPENED, position3.getStatus());
+        assertEquals(1, position3.getTrades().size());
+        assertEquals(0, new BigDecimal("2").compareTo(position3.getStopGainPrice()));
+        final PositionDTO position4 = positionService.getPositionById(4).orElseThrow();
+        assertEquals(CLOSED, position4.getStatus());
+        assertEquals(2, position4.getTrades().size());
+
+        // Position 2 is not checked anymore, position 3 is in the trigger index.
+        positionService.tickerUpdate(TickerDTO.builder().currencyPair(btcUsdt).last(BigDecimal.TEN).create());
+        verify(tradeService, never()).createSellMarketOrder(any(), any());
+        positionService.tickerUpdate(TickerDTO.builder().currencyPair(ethUsdt).last(BigDecimal.TEN).create());
+        verify(tradeService).createSellMarketOrder(ethUsdt, BigDecimal.ONE);
+
+        // Nothing changes : no database call.
+        rebalancer.accept(Set.of(ethBtc, ethUsdt));
+        rebalancer.retry();
+        verify(positionRepository).findByStatusNotAndCurrencyPairIn(anyString(), anyCollection());
+
+        // Database failure : ETH/BTC positions are removed, BTC/USDT positions are not loaded.
+        when(positionRepository.findByStatusNotAndCurrencyPairIn(anyString(), anyCollection())).thenThrow(new IllegalStateException("Database down"));
+        rebalancer.accept(Set.of(ethUsdt, btcUsdt));
+        assertEquals(Set.of(ethUsdt), rebalancer.getLoadedCurrencyPairs());
+        assertEquals(Set.of(3L, 4L), getPositionIds(positionService));
+        assertEquals(List.of(2L, 1L), removedPositions.stream().map(PositionDTO::getId).collect(Collectors.toList()));
+
+        // Database back : BTC/USDT positions are loaded at the next retry.
+        doReturn(List.of(getPositionEntity(2, "OPENED", null))).when(positionRepository).findByStatusNotAndCurrencyPairIn("CLOSED", List.of("BTC/USDT"));
+        when(tradeRepository.findAllById(Set.of("T2"))).thenReturn(List.of(getTradeEntity("T2", "O2", "BID")));
+        rebalancer.retry();
+        assertEquals(Set.of(ethUsdt, btcUsdt), rebalancer.getLoadedCurrencyPairs());
+        assertEquals(Set.of(2L, 3L, 4L), getPositionIds(positionService));
+    }
+
+    /**
+     * Returns an opened position bought at 1 with a stop gain at 2.
+     *
+     * @param id           position id
+     * @param currencyPair currency pair
+     * @param closeOrderId close order id (the position is closing if set)
+     * @return position
+     */
+    private PositionDTO getPosition(final long id, final CurrencyPairDTO currencyPair, final String closeOrderId) {
+        final TradeDTO openTrade = TradeDTO.builder().id("T" + id).orderId("O" + id).type(BID).currencyPair(currencyPair)
+                .originalAmount(BigDecimal.ONE).price(BigDecimal.ONE).create();
+        final PositionStatusDTO status = closeOrderId == null ? OPENED : CLOSING;
+        return new PositionDTO(id, status, currencyPair, BigDecimal.ONE, PositionRulesDTO.builder().stopGainPercentage(100).create(),
+                "O" + id, closeOrderId, Set.of(openTrade), null, null);
+    }
+
+    /**
+     * Returns an ETH/USDT position as saved in database.
+     *
+     * @param id           position id
+     * @param status       status
+     * @param closeOrderId close order id
+     * @return position
+     */
+    private Position getPositionEntity(final long id, final String status, final String closeOrderId) {
+        final Position position = new Position();
+        position.setId(id);
+        position.setStatus(status);
+        position.setCurrencyPair(id == 2 ? "BTC/USDT" : "ETH/USDT");
+        position.setAmount(BigDecimal.ONE);
+        position.setStopGainPercentageRule(100f);
+        position.setOpenOrderId("O" + id);
+        position.setCloseOrderId(closeOrderId);
+        position.setTrades(Set.of("T" + id));
+        return position;
+    }
+
+    /**
+     * Returns a trade as saved in database.
+     *
+     * @param id      trade id
+     * @param orderId order id
+     * @param type    type
+     * @return trade
+     */
+    private Trade getTradeEntity(final String id, final String orderId, final String type) {
+        final Trade trade = new Trade();
+        trade.setId(id);
+        trade.setOrderId(orderId);
+        trade.setType(type);
+        trade.setOriginalAmount(BigDecimal.ONE);
+        trade.setCurrencyPair("T2".equals(id) ? "BTC/USDT" : "ETH/USDT");
+        trade.setPrice(BigDecimal.ONE);
+        trade.setFeeAmount(BigDecimal.ZERO);
+        trade.setFeeCurrency("USDT");
+        return trade;
+    }
+
+    /**
+     * Returns the ids of the positions of the position service.
+     *
+     * @param positionService position service
+     * @return ids
+     */
+    private Set<Long> getPositionIds(final PositionServiceImplementation positionService) {
+        return positionService.getPositions()
+                .stream()
+                .map(PositionDTO::getId)
+                .collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,159 @@
+package tech.cassandre.trading.bot.test.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.batch.PositionFlux;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.service.PositionService;
+import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.service.intern.PositionServiceImplementation;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Batch - Position update notifications")
+public class PositionUpdateNotificationTest {
+
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    @Test
+    @DisplayName("Check position updates are pushed when positions change")
+    public void checkPositionUpdates() {
+        final PositionService positionService = new PositionServiceImplementation(mock(TradeService.class), mock(PositionRepository.class));
+        final PositionFlux positionFlux = new PositionFlux(positionService);
+        final List<PositionDTO> received = new ArrayList<>();
+        positionFlux.getFlux().subscribe(received::add);
+
+        // A restored position is not emitted.
+        final TradeDTO openTrade = TradeDTO.builder().id("T1").orderId("O1").type(BID).currencyPair(cp)
+                .originalAmount(BigDecimal.TEN).price(BigDecimal.ONE).create();
+        positionService.restorePosition(new PositionDTO(1, OPENED, cp, BigDecimal.TEN, PositionRulesDTO.builder().create(),
+                "O1", null, Set.of(openTrade), null, null));
+        positionFlux.update();
+        assertTrue(received.isEmpty());
+
+        // A new highest or lowest price is emitted (to be saved), a price between them is not.
+        final PositionDTO position1 = positionService.getPositionById(1).orElseThrow();
+        final long version = position1.getVersion();
+        positionService.tickerUpdate(getTicker("2"));
+        positionService.tickerUpdate(getTicker("3"));
+        assertEquals(2, received.size());
+        assertEquals(version + 2, position1.getVersion());
+        positionService.tickerUpdate(getTicker("2.5"));
+        assertEquals(2, received.size());
+        assertEquals(0, new BigDecimal("3").compareTo(position1.getHighestPrice()));
+        assertEquals(0, new BigDecimal("2").compareTo(position1.getLowestPrice()));
+        received.clear();
+
+        // A position opened by a trade is emitted immediately, a trade of another order changes nothing.
+        positionService.restorePosition(new PositionDTO(2, OPENING, cp, BigDecimal.TEN, PositionRulesDTO.builder().create(),
+                "O2", null, null, null, null));
+        positionService.tradeUpdate(getTrade("T2", "O2", "10"));
+        assertEquals(1, received.size());
+        assertEquals(OPENED, received.get(0).getStatus());
+        positionService.tradeUpdate(getTrade("T3", "O9", "10"));
+        positionFlux.update();
+        assertEquals(1, received.size());
+
+        // With coalescing, several changes are emitted once, when the flux is updated.
+        positionFlux.setCoalescing(true);
+        positionService.restorePosition(new PositionDTO(3, OPENING, cp, BigDecimal.TEN, PositionRulesDTO.builder().create(),
+                "O3", null, null, null, null));
+        positionService.tradeUpdate(getTrade("T4", "O3", "4"));
+        positionService.tradeUpdate(getTrade("T5", "O3", "6"));
+        assertEquals(1, received.size());
+        positionFlux.update();
+        assertEquals(2, received.size());
+        assertEquals(3, received.get(1).getId());
+        assertEquals(OPENED, received.get(1).getStatus());
+        positionFlux.update();
+        assertEquals(2, received.size());
+
+        // Each position reads the prices reached since it was opened.
+        positionService.tickerUpdate(getTicker("5"));
+        assertEquals(0, new BigDecimal("5").compareTo(position1.getHighestPrice()));
+        assertEquals(0, new BigDecimal("2").compareTo(position1.getLowestPrice()));
+        assertEquals(0, new BigDecimal("5").compareTo(received.get(1).getHighestPrice()));
+        assertEquals(0, new BigDecimal("5").compareTo(received.get(1).getLowestPrice()));
+
+        // The new extreme changed the three positions, each one is emitted once.
+        positionService.tickerUpdate(getTicker("6"));
+        assertEquals(2, received.size());
+        positionFlux.update();
+        assertEquals(5, received.size());
+        assertEquals(0, new BigDecimal("6").compareTo(position1.getHighestPrice()));
+    }
+
+    @Test
+    @DisplayName("Check a position is emitted with a new version when a rule is triggered")
+    public void checkTriggeredPositionUpdate() {
+        // The close order fails : only the rule triggered changes the position.
+        final TradeService tradeService = mock(TradeService.class);
+        when(tradeService.createSellMarketOrder(any(), any())).thenReturn(new OrderCreationResultDTO("Error", new IOException("Down")));
+        final PositionService positionService = new PositionServiceImplementation(tradeService, mock(PositionRepository.class));
+        final PositionFlux positionFlux = new PositionFlux(positionService);
+        final List<Long> receivedVersions = new ArrayList<>();
+        positionFlux.getFlux().subscribe(p -> receivedVersions.add(p.getVersion()));
+        final TradeDTO openTrade = TradeDTO.builder().id("T1").orderId("O1").type(BID).currencyPair(cp)
+                .originalAmount(BigDecimal.TEN).price(BigDecimal.ONE).create();
+        positionService.restorePosition(new PositionDTO(1, OPENED, cp, BigDecimal.TEN, PositionRulesDTO.builder().stopGainPercentage(100).create(),
+                "O1", null, Set.of(openTrade), null, null));
+        final PositionDTO position = positionService.getPositionById(1).orElseThrow();
+        final long version = position.getVersion();
+
+        // Below the stop gain, only the new highest and lowest price is emitted.
+        positionService.tickerUpdate(getTicker("1.5"));
+        positionService.tickerUpdate(getTicker("1.5"));
+        assertEquals(List.of(version + 1), receivedVersions);
+
+        // Stop gain reached : the last price and the gain changed, then the highest price.
+        positionService.tickerUpdate(getTicker("3"));
+        assertEquals(List.of(version + 1, version + 2, version + 3), receivedVersions);
+        assertEquals(0, new BigDecimal("3").compareTo(position.getHighestPrice()));
+        assertEquals(200, position.getLastCalculatedGain().orElseThrow().getPercentage());
+    }
+
+    /**
+     * Returns a trade.
+     *
+     * @param id      trade id
+     * @param orderId order id
+     * @param amount  amount
+     * @return trade
+     */
+    private TradeDTO getTrade(final String id, final String orderId, final String amount) {
+        return TradeDTO.builder().id(id).orderId(orderId).type(BID).currencyPair(cp)
+                .originalAmount(new BigDecimal(amount)).price(BigDecimal.ONE).create();
+    }
+
+    /**
+     * Returns a ticker.
+     *
+     * @param last last price
+     * @return ticker
+     */
+    private TickerDTO getTicker(final String last) {
+        return TickerDTO.builder().currencyPair(cp).last(new BigDecimal(last)).create();
+    }
+
+}
@@ -0,0 +1,91 @@
+package tech.cassandre.trading.bot.test.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.domain.Node;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.repository.NodeRepository;
+import tech.cassandre.trading.bot.util.sharding.ShardCoordinator;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Batch - Shard coordinator")
+public class ShardCoordinatorTest {
+
+    private final Set<CurrencyPairDTO> currencyPairs = IntStream.range(0, 100)
+            .mapToObj(i -> CurrencyPairDTO.getInstance("C" + i, "USDT"))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    @Test
+    @DisplayName("Check currency pairs are shared between nodes")
+    public void checkCurrencyPairsSharing() {
+        final List<String> nodes = List.of("node-1", "node-2", "node-3");
+        final Set<CurrencyPairDTO> allCurrencyPairs = new HashSet<>();
+        int total = 0;
+        for (String node : nodes) {
+            final Set<CurrencyPairDTO> nodeCurrencyPairs = ShardCoordinator.getCurrencyPairs(node, nodes, currencyPairs);
+            assertTrue(nodeCurrencyPairs.size() > 10);
+            allCurrencyPairs.addAll(nodeCurrencyPairs);
+            total += nodeCurrencyPairs.size();
+        }
+        // Each currency pair has exactly one owner.
+        assertEquals(currencyPairs, allCurrencyPairs);
+        assertEquals(currencyPairs.size(), total);
+
+        // When node 3 dies, nodes 1 and 2 keep their currency pairs and share the ones of node 3.
+        final List<String> remainingNodes = List.of("node-1", "node-2");
+        for (String node : remainingNodes) {
+            assertTrue(ShardCoordinator.getCurrencyPairs(node, remainingNodes, currencyPairs)
+                    .containsAll(ShardCoordinator.getCurrencyPairs(node, nodes, currencyPairs)));
+        }
+    }
+
+    @Test
+    @DisplayName("Check rebalancing on heartbeat")
+    public void checkHeartbeat() {
+        final NodeRepository nodeRepository = mock(NodeRepository.class);
+        final AtomicReference<Set<CurrencyPairDTO>> assigned = new AtomicReference<>();
+        final ShardCoordinator coordinator = new ShardCoordinator("node-1", nodeRepository, currencyPairs, Duration.ofSeconds(15), assigned::set);
+
+        // Alone.
+        when(nodeRepository.findByHeartbeatAfter(any())).thenReturn(List.of(getNode("node-1")));
+        coordinator.heartbeat();
+        verify(nodeRepository).save(any());
+        assertEquals(currencyPairs, assigned.get());
+
+        // Node 2 joins.
+        when(nodeRepository.findByHeartbeatAfter(any())).thenReturn(List.of(getNode("node-1"), getNode("node-2")));
+        coordinator.heartbeat();
+        assertEquals(ShardCoordinator.getCurrencyPairs("node-1", List.of("node-1", "node-2"), currencyPairs), assigned.get());
+        assertTrue(assigned.get().size() < currencyPairs.size());
+
+        // Node 2 dies.
+        when(nodeRepository.findByHeartbeatAfter(any())).thenReturn(List.of(getNode("node-1")));
+        coordinator.heartbeat();
+        assertEquals(currencyPairs, assigned.get());
+        assertEquals(currencyPairs, coordinator.getAssignedCurrencyPairs());
+    }
+
+    private Node getNode(final String id) {
+        final Node node = new Node();
+        node.setId(id);
+        node.setHeartbeat(ZonedDateTime.now());
+        return node;
+    }
+
+}
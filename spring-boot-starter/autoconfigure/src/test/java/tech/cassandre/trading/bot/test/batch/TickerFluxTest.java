@@ -48,8 +48,8 @@ public class TickerFluxTest extends BaseTest {
         final int numberOfMarketServiceCalls = 16;
 
         // Currency pairs supported.
-        final CurrencyPairDTO cp1 = new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.BTC);
-        final CurrencyPairDTO cp2 = new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.USDT);
+        final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC);
+        final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.USDT);
 
         // Waiting for the market service to have been called with all the test data.
         await().untilAsserted(() -> verify(marketService, atLeast(numberOfMarketServiceCalls)).getTicker(any()));
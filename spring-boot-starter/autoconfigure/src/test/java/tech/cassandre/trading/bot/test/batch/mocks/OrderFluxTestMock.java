@@ -111,7 +111,7 @@ public class OrderFluxTestMock {
     public TradeService tradeService() {
         // Creates the mock.
         TradeService tradeService = mock(TradeService.class);
-        final CurrencyPairDTO cp1 = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
 
         // =========================================================================================================
         // First reply : 3 orders.
@@ -101,7 +101,7 @@ public class TickerFluxTestMock extends BaseTest {
         MarketService marketService = mock(MarketService.class);
 
         // Replies for ETH / BTC.
-        final CurrencyPairDTO cp1 = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
         final Date time = Calendar.getInstance().getTime();
         given(marketService
                 .getTicker(cp1))
@@ -117,7 +117,7 @@ public class TickerFluxTestMock extends BaseTest {
                 );
 
         // Replies for ETH / USDT.
-        final CurrencyPairDTO cp2 = new CurrencyPairDTO(ETH, USDT);
+        final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(ETH, USDT);
         given(marketService
                 .getTicker(cp2))
                 .willReturn(BaseTest.getFakeTicker(cp2, new BigDecimal("10")),
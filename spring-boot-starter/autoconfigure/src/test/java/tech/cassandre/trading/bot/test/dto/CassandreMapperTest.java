@@ -0,0 +1,108 @@
+package tech.cassandre.trading.bot.test.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.currency.Currency;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.account.AccountInfo;
+import org.knowm.xchange.dto.account.Balance;
+import org.knowm.xchange.dto.account.Wallet;
+import org.mapstruct.factory.Mappers;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.user.UserDTO;
+import tech.cassandre.trading.bot.util.mapper.CassandreMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+
+@DisplayName("DTO - CassandreMapper")
+public class CassandreMapperTest {
+
+    @Test
+    @DisplayName("Check unchanged balances are reused per account")
+    public void checkBalanceCache() {
+        final CassandreMapper mapper = Mappers.getMapper(CassandreMapper.class);
+
+        // Same BTC balance in two accounts, then a change in the trade account only.
+        final UserDTO user1 = mapper.mapToUserDTO(getAccountInfo("1", "2"));
+        final UserDTO user2 = mapper.mapToUserDTO(getAccountInfo("1", "2"));
+        final UserDTO user3 = mapper.mapToUserDTO(getAccountInfo("1", "3"));
+
+        // Cache hit : the same balance is returned while it doesn't change.
+        assertSame(getBtcBalance(user1, "main"), getBtcBalance(user2, "main"));
+        assertSame(getBtcBalance(user1, "trade"), getBtcBalance(user2, "trade"));
+        assertSame(getBtcBalance(user1, "main"), getBtcBalance(user3, "main"));
+
+        // Accounts have their own balances.
+        assertEquals(0, BigDecimal.ONE.compareTo(getBtcBalance(user2, "main").getAvailable()));
+        assertEquals(0, new BigDecimal("2").compareTo(getBtcBalance(user2, "trade").getAvailable()));
+        assertEquals(0, new BigDecimal("3").compareTo(getBtcBalance(user3, "trade").getAvailable()));
+        assertNotSame(getBtcBalance(user1, "trade"), getBtcBalance(user3, "trade"));
+
+        // Other mappers don't share their cache.
+        final UserDTO otherUser = Mappers.getMapper(CassandreMapper.class).mapToUserDTO(getAccountInfo("1", "2"));
+        assertNotSame(getBtcBalance(user1, "main"), getBtcBalance(otherUser, "main"));
+
+        // Currency pairs are canonical.
+        assertSame(mapper.mapToCurrencyPairDTO(CurrencyPair.ETH_BTC), mapper.mapToCurrencyPairDTO(new CurrencyPair("ETH", "BTC")));
+    }
+
+    @Test
+    @DisplayName("Check unchanged accounts and users are reused")
+    public void checkUserCache() {
+        final CassandreMapper mapper = Mappers.getMapper(CassandreMapper.class);
+
+        // Nothing changed : the previous user is returned.
+        final UserDTO user1 = mapper.mapToUserDTO(getAccountInfo("1", "2"));
+        assertSame(user1, mapper.mapToUserDTO(getAccountInfo("1", "2")));
+
+        // The trade account changed : a new user is returned with the previous main account.
+        final UserDTO user2 = mapper.mapToUserDTO(getAccountInfo("1", "3"));
+        assertNotSame(user1, user2);
+        assertSame(user1.getAccounts().get("main"), user2.getAccounts().get("main"));
+        assertNotSame(user1.getAccounts().get("trade"), user2.getAccounts().get("trade"));
+        assertEquals(0, new BigDecimal("3").compareTo(getBtcBalance(user2, "trade").getAvailable()));
+
+        // A new balance in an account : the account is replaced.
+        final AccountInfo accountInfo = new AccountInfo(
+                Wallet.Builder.from(List.of(new Balance(Currency.BTC, BigDecimal.ONE))).id("main").name("main").build(),
+                Wallet.Builder.from(List.of(new Balance(Currency.BTC, new BigDecimal("3")), new Balance(Currency.ETH, BigDecimal.ONE)))
+                        .id("trade").name("trade").build());
+        final UserDTO user3 = mapper.mapToUserDTO(accountInfo);
+        assertNotSame(user2.getAccounts().get("trade"), user3.getAccounts().get("trade"));
+        assertSame(getBtcBalance(user2, "trade"), getBtcBalance(user3, "trade"));
+        assertEquals(2, user3.getAccounts().get("trade").getBalances().size());
+    }
+
+    /**
+     * Returns an account info with a main and a trade account.
+     *
+     * @param mainBalance  BTC available in main account
+     * @param tradeBalance BTC available in trade account
+     * @return account info
+     */
+    private AccountInfo getAccountInfo(final String mainBalance, final String tradeBalance) {
+        return new AccountInfo(
+                Wallet.Builder.from(List.of(new Balance(Currency.BTC, new BigDecimal(mainBalance)))).id("main").name("main").build(),
+                Wallet.Builder.from(List.of(new Balance(Currency.BTC, new BigDecimal(tradeBalance)))).id("trade").name("trade").build());
+    }
+
+    /**
+     * Returns the BTC balance of an account.
+     *
+     * @param user      user
+     * @param accountId account id
+     * @return balance
+     */
+    private BalanceDTO getBtcBalance(final UserDTO user, final String accountId) {
+        final AccountDTO account = user.getAccounts().get(accountId);
+        return account.getBalance(BTC).orElseThrow();
+    }
+
+}
@@ -0,0 +1,32 @@
+package tech.cassandre.trading.bot.test.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("DTO - CurrencyPairDTO")
+public class CurrencyPairDTOTest {
+
+	@Test
+	@DisplayName("Check canonical instances")
+	public void checkCanonicalInstances() {
+		final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC);
+		assertSame(cp, CurrencyPairDTO.getInstance("ETH/BTC"));
+		assertSame(cp, CurrencyPairDTO.getInstance("eth/btc"));
+		assertSame(cp, CurrencyPairDTO.getInstance("ETH", "BTC"));
+		assertSame(cp, CurrencyPairDTO.builder().baseCurrency(CurrencyDTO.ETH).quoteCurrency(CurrencyDTO.BTC).create());
+		assertSame(CurrencyDTO.ETH, CurrencyDTO.builder().code("ETH").create());
+		assertEquals("ETH/BTC", cp.toString());
+
+		// Other spellings resolve to the canonical instance, whatever the order of the calls.
+		assertSame(CurrencyPairDTO.getInstance("ltc/Usdt"), CurrencyPairDTO.getInstance("LTC/USDT"));
+		assertEquals("LTC/USDT", CurrencyPairDTO.getInstance("ltc/Usdt").toString());
+		assertNotEquals(cp, CurrencyPairDTO.getInstance("BTC/ETH"));
+	}
+
+}
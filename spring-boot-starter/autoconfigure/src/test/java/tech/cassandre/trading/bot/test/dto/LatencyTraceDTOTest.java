@@ -0,0 +1,62 @@
+package tech.cassandre.trading.bot.test.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.dto.util.LatencyTraceDTO;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.util.LatencyStageDTO.ACKNOWLEDGED;
+import static tech.cassandre.trading.bot.dto.util.LatencyStageDTO.DECIDED;
+import static tech.cassandre.trading.bot.dto.util.LatencyStageDTO.EMITTED;
+import static tech.cassandre.trading.bot.dto.util.LatencyStageDTO.RECEIVED;
+
+@DisplayName("DTO - LatencyTraceDTO")
+public class LatencyTraceDTOTest {
+
+	@Test
+	@DisplayName("Check ticker trace")
+	public void checkTickerTrace() {
+		final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC);
+		TickerDTO t = TickerDTO.builder().currencyPair(cp).timestamp(new Timestamp(1_000_000L)).create();
+		assertEquals(1_000_000L, t.getTrace().getExchangeTimestamp());
+		assertFalse(t.getTrace().isReached(RECEIVED));
+
+		// A ticker with another trace is equal to the original one, which keeps its trace.
+		final TickerDTO received = t.withTrace(t.getTrace().withStage(RECEIVED));
+		assertEquals(t, received);
+		assertTrue(received.getTrace().isReached(RECEIVED));
+		assertFalse(t.getTrace().isReached(RECEIVED));
+	}
+
+	@Test
+	@DisplayName("Check latencies between stages")
+	public void checkLatencies() {
+		final LatencyTraceDTO created = new LatencyTraceDTO(0);
+		final LatencyTraceDTO trace = created.withStage(RECEIVED, 100).withStage(EMITTED, 150);
+		assertTrue(trace.isReached(RECEIVED));
+		assertFalse(created.isReached(RECEIVED));
+		assertEquals(50, trace.getLatency(RECEIVED, EMITTED));
+		assertEquals(LatencyTraceDTO.UNKNOWN_LATENCY, trace.getLatency(EMITTED, DECIDED));
+
+		// A stage is only marked once.
+		assertSame(trace, trace.withStage(EMITTED, 500));
+		assertEquals(50, trace.getLatency(RECEIVED, EMITTED));
+
+		// Traces are immutable (one ticker can lead to several orders).
+		final LatencyTraceDTO order1 = trace.withStage(DECIDED, 200).withStage(ACKNOWLEDGED, 1200);
+		final LatencyTraceDTO order2 = trace.withStage(DECIDED, 300);
+		assertEquals(1100, order1.getLatency(RECEIVED, ACKNOWLEDGED));
+		assertEquals(150, order2.getLatency(EMITTED, DECIDED));
+		assertFalse(order2.isReached(ACKNOWLEDGED));
+		assertFalse(trace.isReached(DECIDED));
+	}
+
+}
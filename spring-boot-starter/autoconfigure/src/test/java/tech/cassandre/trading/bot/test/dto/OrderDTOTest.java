@@ -23,8 +23,8 @@ public class OrderDTOTest {
 	@DisplayName("Check equalTo")
 	public void checkEqualToForOrder() {
 		// Currency pairs.
-		final CurrencyPairDTO cp1 = new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.BTC);
-		final CurrencyPairDTO cp2 = new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.USDT);
+		final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC);
+		final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.USDT);
 
 		// Order 1.
 		OrderDTO order01 = OrderDTO.builder()
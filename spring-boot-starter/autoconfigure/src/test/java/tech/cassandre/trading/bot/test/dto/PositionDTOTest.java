@@ -37,7 +37,7 @@ import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
 @DisplayName("DTO - PositionDTO")
 public class PositionDTOTest {
 
-    private final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
     private final BigDecimal amount = new BigDecimal("0.0001");
 
@@ -223,7 +223,7 @@ public class PositionDTOTest {
         assertTrue(p.getTrade("T000001").isPresent());
 
         // New ticker for a currency pair that is not the one of T000001.
-        TickerDTO t01 = TickerDTO.builder().currencyPair(new CurrencyPairDTO(BTC, ETH)).bid(new BigDecimal("0.05")).create();
+        TickerDTO t01 = TickerDTO.builder().currencyPair(CurrencyPairDTO.getInstance(BTC, ETH)).bid(new BigDecimal("0.05")).create();
         assertFalse(p.shouldBeClosed(t01));
 
         // New ticker for the right currency pair but with a profit of 50%.
@@ -257,7 +257,7 @@ public class PositionDTOTest {
         assertTrue(p.getTrade("T000001").isPresent());
 
         // New ticker for a currency pair that is not the one of T000001.
-        TickerDTO t01 = TickerDTO.builder().currencyPair(new CurrencyPairDTO(BTC, ETH)).last(new BigDecimal("0.001")).create();
+        TickerDTO t01 = TickerDTO.builder().currencyPair(CurrencyPairDTO.getInstance(BTC, ETH)).last(new BigDecimal("0.001")).create();
         assertFalse(p.shouldBeClosed(t01));
 
         // New ticker for the right currency pair but with a loss of 50%.
@@ -269,6 +269,40 @@ public class PositionDTOTest {
         assertTrue(p.shouldBeClosed(t03));
     }
 
+    @Test
+    @DisplayName("Check that rules use the average entry price")
+    public void checkShouldBeClosedWithSeveralOpenTrades() {
+        // Position 1.
+        // Rules : 50% gain and 20% loss.
+        PositionDTO p = new PositionDTO(1, cp, new BigDecimal("10"), "O000011", PositionRulesDTO.builder().stopGainPercentage(50).stopLossPercentage(20).create());
+
+        // Position opened with two trades : 4 ETH at 1 BTC and 6 ETH at 2 BTC - Average entry price is 1.6 BTC.
+        p.tradeUpdate(TradeDTO.builder().id("T000001").orderId("O000011").type(BID).currencyPair(cp).originalAmount(new BigDecimal("4")).price(new BigDecimal("1")).create());
+        assertEquals(OPENING, p.getStatus());
+        p.tradeUpdate(TradeDTO.builder().id("T000002").orderId("O000011").type(BID).currencyPair(cp).originalAmount(new BigDecimal("6")).price(new BigDecimal("2")).create());
+        assertEquals(OPENED, p.getStatus());
+        assertEquals(0, new BigDecimal("2.4").compareTo(p.getStopGainPrice()));
+        assertEquals(0, new BigDecimal("1.28").compareTo(p.getStopLossPrice()));
+
+        // Gain of 25%.
+        assertFalse(p.shouldBeClosed(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("2")).create()));
+        assertTrue(p.getLastCalculatedGain().isPresent());
+        assertEquals(25, p.getLastCalculatedGain().get().getPercentage());
+        assertEquals(0, new BigDecimal("4").compareTo(p.getLastCalculatedGain().get().getAmount().getValue()));
+
+        // Just under 50% gain (2.4) and just over 20% loss (1.28).
+        assertFalse(p.shouldBeClosed(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("2.3999")).create()));
+        assertFalse(p.shouldBeClosed(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("1.2801")).create()));
+        assertEquals(new BigDecimal("2.3999"), p.getHighestPrice());
+        assertEquals(new BigDecimal("1.2801"), p.getLowestPrice());
+
+        // 20% loss - should be closed.
+        assertTrue(p.shouldBeClosed(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("1.28")).create()));
+
+        // 50% gain - should be closed.
+        assertTrue(p.shouldBeClosed(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("2.4")).create()));
+    }
+
     @Test
     @DisplayName("Check equalTo")
     public void checkEqualTo() {
@@ -384,13 +418,37 @@ public class PositionDTOTest {
         assertEquals(BTC, p.getGain().getFees().getCurrency());
     }
 
+    @Test
+    @DisplayName("Check get position gain without exact decimal representation")
+    public void checkGetNonTerminatingPositionGain() {
+        // Bought at 3 and sold at 4 : gain is 1/3.
+        PositionDTO p = new PositionDTO(1, cp, amount, "O000011", PositionRulesDTO.builder().create());
+        p.tradeUpdate(TradeDTO.builder().id("T000001")
+                .orderId("O000011")
+                .type(BID)
+                .currencyPair(cp)
+                .originalAmount(amount)
+                .price(new BigDecimal("3"))
+                .create());
+        p.setCloseOrderId("O000012");
+        p.tradeUpdate(TradeDTO.builder().id("T000002")
+                .orderId("O000012")
+                .type(OrderTypeDTO.ASK)
+                .currencyPair(cp)
+                .originalAmount(amount)
+                .price(new BigDecimal("4"))
+                .create());
+        assertEquals(CLOSED, p.getStatus());
+        assertEquals(100d / 3, p.getGain().getPercentage(), 1e-4);
+    }
+
     @Test
     @DisplayName("Check toString method")
     public void checkToString() {
         // Position opening.
         PositionDTO p1 = new PositionDTO(1L,
                 OPENING,
-                new CurrencyPairDTO(ETH, BTC),
+                CurrencyPairDTO.getInstance(ETH, BTC),
                 new BigDecimal(1),
                 PositionRulesDTO.builder().create(),
                 "OPEN_ORDER_01",
@@ -402,7 +460,7 @@ public class PositionDTOTest {
 
         // Position opened - No ticker received.
         TradeDTO openTrade1 = TradeDTO.builder().id("0000001")
-                .currencyPair(new CurrencyPairDTO(ETH, BTC))
+                .currencyPair(CurrencyPairDTO.getInstance(ETH, BTC))
                 .feeAmount(new BigDecimal(1))
                 .feeCurrency(BTC)
                 .orderId("OPEN_ORDER_02")
@@ -413,7 +471,7 @@ public class PositionDTOTest {
                 .create();
         PositionDTO p2 = new PositionDTO(2L,
                 OPENED,
-                new CurrencyPairDTO(ETH, BTC),
+                CurrencyPairDTO.getInstance(ETH, BTC),
                 new BigDecimal(1),
                 PositionRulesDTO.builder().stopLossPercentage(11).create(),
                 "OPEN_ORDER_02",
@@ -423,14 +481,14 @@ public class PositionDTOTest {
                 null);
         assertEquals(p2.toString(), "Position n°2 (11.0 % loss rule) on ETH/BTC - Opened");
         // A new ticker arrived.
-        TickerDTO t1 = TickerDTO.builder().currencyPair(new CurrencyPairDTO(ETH, BTC)).last(new BigDecimal("2")).create();
+        TickerDTO t1 = TickerDTO.builder().currencyPair(CurrencyPairDTO.getInstance(ETH, BTC)).last(new BigDecimal("2")).create();
         p2.shouldBeClosed(t1);
         assertEquals(p2.toString(), "Position n°2 (11.0 % loss rule) on ETH/BTC - Opened - Last gain calculated 100 %");
 
         // Position closing.
         PositionDTO p3 = new PositionDTO(3L,
                 CLOSING,
-                new CurrencyPairDTO(ETH, BTC),
+                CurrencyPairDTO.getInstance(ETH, BTC),
                 new BigDecimal(1),
                 PositionRulesDTO.builder().stopGainPercentage(12).create(),
                 "OPEN_ORDER_03",
@@ -442,7 +500,7 @@ public class PositionDTOTest {
 
         // Position closed.
         TradeDTO openTrade4 = TradeDTO.builder().id("0000003")
-                .currencyPair(new CurrencyPairDTO(ETH, BTC))
+                .currencyPair(CurrencyPairDTO.getInstance(ETH, BTC))
                 .feeAmount(new BigDecimal(1))
                 .feeCurrency(BTC)
                 .orderId("OPEN_ORDER_04")
@@ -452,7 +510,7 @@ public class PositionDTOTest {
                 .type(BID)
                 .create();
         TradeDTO closeTrade4 = TradeDTO.builder().id("0000004")
-                .currencyPair(new CurrencyPairDTO(ETH, BTC))
+                .currencyPair(CurrencyPairDTO.getInstance(ETH, BTC))
                 .feeAmount(new BigDecimal(1))
                 .feeCurrency(BTC)
                 .orderId("OPEN_ORDER_05")
@@ -466,7 +524,7 @@ public class PositionDTOTest {
         tradesP4.add(closeTrade4);
         PositionDTO p4 = new PositionDTO(4L,
                 CLOSED,
-                new CurrencyPairDTO(ETH, BTC),
+                CurrencyPairDTO.getInstance(ETH, BTC),
                 new BigDecimal(1),
                 PositionRulesDTO.builder().stopGainPercentage(12).stopLossPercentage(9L).create(),
                 "OPEN_ORDER_04",
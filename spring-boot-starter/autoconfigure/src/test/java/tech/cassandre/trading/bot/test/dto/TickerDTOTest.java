@@ -22,8 +22,8 @@ public class TickerDTOTest {
 	@DisplayName("Check equalTo")
 	public void checkEqualToForTickers() throws ParseException {
 		// Currency pairs.
-		final CurrencyPairDTO cp1 = new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.BTC);
-		final CurrencyPairDTO cp2 = new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.USDT);
+		final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC);
+		final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.USDT);
 
 		// Dates.
 		DateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
@@ -22,7 +22,7 @@ public class TradeDTOTest {
         // Test that only id is important when testing.
         TradeDTO t1 = TradeDTO.builder().id("0000001").create();
         TradeDTO t1Bis = TradeDTO.builder().id("0000001")
-                .currencyPair(new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.BTC))
+                .currencyPair(CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC))
                 .feeAmount(new BigDecimal(1))
                 .feeCurrency(CurrencyDTO.BTC)
                 .orderId("000002")
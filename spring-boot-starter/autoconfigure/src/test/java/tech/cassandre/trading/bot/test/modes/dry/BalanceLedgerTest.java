@@ -0,0 +1,160 @@
+package tech.cassandre.trading.bot.test.modes.dry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.user.UserDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.service.dry.UserServiceDryModeImplementation;
+import tech.cassandre.trading.bot.test.util.strategies.TestableCassandreStrategy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Dry mode - Balance ledger")
+public class BalanceLedgerTest {
+
+    @Test
+    @DisplayName("Check fills update one balance")
+    public void checkFills() {
+        final UserServiceDryModeImplementation userService = new UserServiceDryModeImplementation();
+        final TestableCassandreStrategy strategy = new TestableCassandreStrategy();
+        final UserDTO initialUser = userService.getUser().orElseThrow();
+        strategy.updateAccount(initialUser.getAccounts().get("trade"));
+        userService.setDependencies(strategy);
+
+        // The balance is sent to the strategy at once, accounts are rebuilt on the next getUser().
+        userService.addToBalance(ETH, new BigDecimal("0.5"));
+        assertEquals(0, new BigDecimal("10.5").compareTo(strategy.getTradeAccountAvailableBalance(ETH)));
+        assertEquals(0, new BigDecimal("10.5").compareTo(userService.getTradeAccountBalance(ETH).orElseThrow().getAvailable()));
+        final UserDTO user = userService.getUser().orElseThrow();
+        final AccountDTO tradeAccount = user.getAccounts().get("trade");
+        assertEquals(0, new BigDecimal("10.5").compareTo(tradeAccount.getBalance(ETH).orElseThrow().getAvailable()));
+        assertEquals(0, new BigDecimal("1000").compareTo(tradeAccount.getBalance(USDT).orElseThrow().getAvailable()));
+
+        // Other accounts are not rebuilt and the user isn't rebuilt if nothing changed.
+        assertSame(initialUser.getAccounts().get("main"), user.getAccounts().get("main"));
+        assertSame(user, userService.getUser().orElseThrow());
+
+        // Unknown currencies are ignored.
+        userService.addToBalance(CurrencyDTO.getInstance("UNKNOWN"), BigDecimal.ONE);
+        assertSame(user, userService.getUser().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Check reservations")
+    public void checkReservations() {
+        final UserServiceDryModeImplementation userService = new UserServiceDryModeImplementation();
+
+        // Not enough available.
+        assertFalse(userService.reserve(USDT, new BigDecimal("1000.01")));
+        assertEquals(0, new BigDecimal("1000").compareTo(userService.getTradeAccountBalance(USDT).orElseThrow().getAvailable()));
+
+        // Reserved, then released.
+        assertTrue(userService.reserve(USDT, new BigDecimal("600")));
+        BalanceDTO usdt = userService.getTradeAccountBalance(USDT).orElseThrow();
+        assertEquals(0, new BigDecimal("400").compareTo(usdt.getAvailable()));
+        assertEquals(0, new BigDecimal("600").compareTo(usdt.getFrozen()));
+        assertEquals(0, new BigDecimal("1000").compareTo(usdt.getTotal()));
+        assertFalse(userService.reserve(USDT, new BigDecimal("500")));
+        userService.release(USDT, new BigDecimal("100"));
+        assertEquals(0, new BigDecimal("500").compareTo(userService.getTradeAccountBalance(USDT).orElseThrow().getAvailable()));
+
+        // Reserved amount spent.
+        userService.settle(USDT, new BigDecimal("500"));
+        usdt = userService.getTradeAccountBalance(USDT).orElseThrow();
+        assertEquals(0, new BigDecimal("500").compareTo(usdt.getAvailable()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(usdt.getFrozen()));
+        assertEquals(0, new BigDecimal("500").compareTo(usdt.getTotal()));
+        assertEquals(0, new BigDecimal("500").compareTo(userService.getUser().orElseThrow()
+                .getAccounts().get("trade").getBalance(USDT).orElseThrow().getAvailable()));
+    }
+
+    @Test
+    @DisplayName("Check unchanged balances keep the previous user")
+    public void checkUnchangedBalances() {
+        final UserServiceDryModeImplementation userService = new UserServiceDryModeImplementation();
+        final UserDTO initialUser = userService.getUser().orElseThrow();
+
+        // Reserved, then released : the trade account is marked as changed but its balances are the same.
+        assertTrue(userService.reserve(USDT, new BigDecimal("600")));
+        userService.release(USDT, new BigDecimal("600"));
+        assertSame(initialUser, userService.getUser().orElseThrow());
+
+        // A new balance only replaces its account, other balances are reused.
+        userService.addToBalance(ETH, BigDecimal.ONE);
+        final UserDTO user = userService.getUser().orElseThrow();
+        final AccountDTO initialTradeAccount = initialUser.getAccounts().get("trade");
+        final AccountDTO tradeAccount = user.getAccounts().get("trade");
+        assertNotSame(initialTradeAccount, tradeAccount);
+        assertSame(initialTradeAccount.getBalance(USDT).orElseThrow(), tradeAccount.getBalance(USDT).orElseThrow());
+        assertSame(initialUser.getAccounts().get("main"), user.getAccounts().get("main"));
+    }
+
+    @Test
+    @DisplayName("Check concurrent updates")
+    public void checkConcurrentUpdates() throws Exception {
+        final UserServiceDryModeImplementation userService = new UserServiceDryModeImplementation();
+        final TestableCassandreStrategy strategy = new TestableCassandreStrategy();
+        strategy.updateAccount(userService.getUser().orElseThrow().getAccounts().get("trade"));
+        userService.setDependencies(strategy);
+
+        // 8 threads reserve 1 USDT 200 times each : only 1000 reservations succeed, while the user is read.
+        final ExecutorService executor = Executors.newFixedThreadPool(9);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Future<?> reader = executor.submit(() -> {
+            while (running.get()) {
+                userService.getUser();
+            }
+        });
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> {
+                int reserved = 0;
+                for (int j = 0; j < 200; j++) {
+                    if (userService.reserve(USDT, BigDecimal.ONE)) {
+                        userService.settle(USDT, BigDecimal.ONE);
+                        userService.addToBalance(BTC, new BigDecimal("0.0001"));
+                        reserved++;
+                    }
+                }
+                return reserved;
+            });
+        }
+        int reserved = 0;
+        for (Future<Integer> result : executor.invokeAll(tasks)) {
+            reserved += result.get();
+        }
+        running.set(false);
+        reader.get();
+        executor.shutdown();
+
+        assertEquals(1000, reserved);
+        assertEquals(0, BigDecimal.ZERO.compareTo(userService.getTradeAccountBalance(USDT).orElseThrow().getAvailable()));
+        assertEquals(0, new BigDecimal("1.09962937").compareTo(userService.getTradeAccountBalance(BTC).orElseThrow().getAvailable()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(strategy.getTradeAccountAvailableBalance(USDT)));
+        assertEquals(0, new BigDecimal("1.09962937").compareTo(strategy.getTradeAccountAvailableBalance(BTC)));
+
+        // The user read after the updates has the last balances.
+        final AccountDTO tradeAccount = userService.getUser().orElseThrow().getAccounts().get("trade");
+        assertEquals(0, BigDecimal.ZERO.compareTo(tradeAccount.getBalance(USDT).orElseThrow().getAvailable()));
+        assertEquals(0, new BigDecimal("1.09962937").compareTo(tradeAccount.getBalance(BTC).orElseThrow().getAvailable()));
+    }
+
+}
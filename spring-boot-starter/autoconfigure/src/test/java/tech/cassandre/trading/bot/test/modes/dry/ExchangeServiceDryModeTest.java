@@ -37,8 +37,8 @@ public class ExchangeServiceDryModeTest {
     public void checkGetAvailableCurrencyPairs() {
         final Set<CurrencyPairDTO> availableCurrencyPairs = exchangeService.getAvailableCurrencyPairs();
         assertEquals(2, availableCurrencyPairs.size());
-        assertTrue(availableCurrencyPairs.contains(new CurrencyPairDTO(ETH, BTC)));
-        assertTrue(availableCurrencyPairs.contains(new CurrencyPairDTO(ETH, USDT)));
+        assertTrue(availableCurrencyPairs.contains(CurrencyPairDTO.getInstance(ETH, BTC)));
+        assertTrue(availableCurrencyPairs.contains(CurrencyPairDTO.getInstance(ETH, USDT)));
     }
 
 }
@@ -44,9 +44,9 @@ import static tech.cassandre.trading.bot.util.parameters.ExchangeParameters.Mode
 @Import(PositionServiceDryModeTestMock.class)
 public class PositionServiceDryModeTest extends BaseTest {
 
-    public static final CurrencyPairDTO cp1 = new CurrencyPairDTO(ETH, BTC);
+    public static final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
 
-    public static final CurrencyPairDTO cp2 = new CurrencyPairDTO(ETH, USDT);
+    public static final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(ETH, USDT);
 
     @Autowired
     private PositionService positionService;
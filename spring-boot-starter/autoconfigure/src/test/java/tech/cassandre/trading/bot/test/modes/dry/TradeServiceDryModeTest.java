@@ -43,7 +43,7 @@ import static tech.cassandre.trading.bot.util.parameters.ExchangeParameters.Mode
 @Import(TradeServiceDryModeTestMock.class)
 public class TradeServiceDryModeTest extends BaseTest {
 
-    private static final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+    private static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
     @Autowired
     private TradeService tradeService;
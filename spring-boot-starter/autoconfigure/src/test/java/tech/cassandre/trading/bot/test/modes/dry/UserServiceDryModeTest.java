@@ -51,7 +51,7 @@ import static tech.cassandre.trading.bot.util.parameters.ExchangeParameters.Mode
 @Import(TradeServiceDryModeTestMock.class)
 public class UserServiceDryModeTest extends BaseTest {
 
-    private static final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+    private static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
     @Autowired
     private UserService userService;
@@ -276,7 +276,7 @@ public class UserServiceDryModeTest extends BaseTest {
         // =============================================================================================================
         // Received ticker for ETH/EUR
         ticker = TickerDTO.builder()
-                .currencyPair(new CurrencyPairDTO(ETH, EUR))
+                .currencyPair(CurrencyPairDTO.getInstance(ETH, EUR))
                 .last(new BigDecimal("0.032666"))
                 .bid(new BigDecimal("0.032466"))
                 .ask(new BigDecimal("0.032657"))
@@ -289,7 +289,7 @@ public class UserServiceDryModeTest extends BaseTest {
 
         // =============================================================================================================
         // Buying with a currency we don't have.
-        final OrderCreationResultDTO buyMarketOrder1 = tradeService.createBuyMarketOrder(new CurrencyPairDTO(ETH, EUR), new BigDecimal("1000"));
+        final OrderCreationResultDTO buyMarketOrder1 = tradeService.createBuyMarketOrder(CurrencyPairDTO.getInstance(ETH, EUR), new BigDecimal("1000"));
         assertFalse(buyMarketOrder1.isSuccessful());
         assertTrue(buyMarketOrder1.getErrorMessage().contains("No assets for EUR"));
 
@@ -322,7 +322,7 @@ public class UserServiceDryModeTest extends BaseTest {
         // =============================================================================================================
         // Received ticker for ETH/EUR
         ticker = TickerDTO.builder()
-                .currencyPair(new CurrencyPairDTO(ETH, EUR))
+                .currencyPair(CurrencyPairDTO.getInstance(ETH, EUR))
                 .last(new BigDecimal("0.032666"))
                 .bid(new BigDecimal("0.032466"))
                 .ask(new BigDecimal("0.032657"))
@@ -335,7 +335,7 @@ public class UserServiceDryModeTest extends BaseTest {
 
         // =============================================================================================================
         // Buying with a currency we don't have.
-        final OrderCreationResultDTO sellMarketOrder1 = tradeService.createSellMarketOrder(new CurrencyPairDTO(ETH, EUR), new BigDecimal("1000"));
+        final OrderCreationResultDTO sellMarketOrder1 = tradeService.createSellMarketOrder(CurrencyPairDTO.getInstance(ETH, EUR), new BigDecimal("1000"));
         assertFalse(sellMarketOrder1.isSuccessful());
         assertTrue(sellMarketOrder1.getErrorMessage().contains("Not enough assets"));
 
@@ -35,7 +35,7 @@ public class PositionServiceDryModeTestMock extends BaseTest {
         MarketService marketService = mock(MarketService.class);
 
         // Replies for ETH / BTC.
-        final CurrencyPairDTO cp1 = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
         given(marketService
                 .getTicker(cp1))
                 .willReturn(
@@ -45,7 +45,7 @@ public class PositionServiceDryModeTestMock extends BaseTest {
                         Optional.of(TickerDTO.builder().currencyPair(cp1).timestamp(createDay(4)).last(new BigDecimal("0.4")).create())
                 );
         // Replies for ETH / USDT.
-        final CurrencyPairDTO cp2 = new CurrencyPairDTO(ETH, USDT);
+        final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(ETH, USDT);
         given(marketService
                 .getTicker(cp2))
                 .willReturn(
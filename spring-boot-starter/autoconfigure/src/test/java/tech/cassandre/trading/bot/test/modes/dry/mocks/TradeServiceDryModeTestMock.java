@@ -32,7 +32,7 @@ public class TradeServiceDryModeTestMock {
         MarketService marketService = mock(MarketService.class);
 
         // Replies for ETH / BTC.
-        final CurrencyPairDTO cp1 = new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.BTC);
+        final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC);
         given(marketService
                 .getTicker(cp1))
                 .willReturn(Optional.of(TickerDTO.builder().currencyPair(cp1).timestamp(Calendar.getInstance().getTime()).last(new BigDecimal("0.2")).create())
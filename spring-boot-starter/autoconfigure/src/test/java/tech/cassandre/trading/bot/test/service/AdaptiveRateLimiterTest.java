@@ -0,0 +1,92 @@
+package tech.cassandre.trading.bot.test.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.exceptions.ExchangeException;
+import org.knowm.xchange.exceptions.RateLimitExceededException;
+import si.mazi.rescu.HttpStatusIOException;
+import si.mazi.rescu.InvocationResult;
+import tech.cassandre.trading.bot.util.base.AdaptiveRateLimiter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Services - Adaptive rate limiter")
+public class AdaptiveRateLimiterTest {
+
+    @Test
+    @DisplayName("Check throttling errors detection")
+    public void checkThrottlingErrors() {
+        final HttpStatusIOException tooManyRequests = new HttpStatusIOException("Too many requests", new InvocationResult("", 429));
+        tooManyRequests.setResponseHeaders(Map.of("retry-after", List.of("3")));
+        assertTrue(AdaptiveRateLimiter.isThrottling(tooManyRequests));
+        assertTrue(AdaptiveRateLimiter.isThrottling(new ExchangeException("Error", tooManyRequests)));
+        assertTrue(AdaptiveRateLimiter.isThrottling(new RateLimitExceededException()));
+        assertFalse(AdaptiveRateLimiter.isThrottling(new HttpStatusIOException("Error", new InvocationResult("", 500))));
+        assertFalse(AdaptiveRateLimiter.isThrottling(new IOException("Error")));
+        assertEquals(Duration.ofSeconds(3), AdaptiveRateLimiter.getRetryAfter(new ExchangeException("Error", tooManyRequests)).orElseThrow());
+        assertFalse(AdaptiveRateLimiter.getRetryAfter(new RateLimitExceededException()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Check back off and ramp up")
+    public void checkBackOffAndRampUp() throws InterruptedException {
+        final AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(Duration.ofMillis(10));
+        assertEquals(Duration.ofMillis(10), limiter.getInterval());
+        assertEquals(100, limiter.getEffectiveRate(), 0.001);
+
+        // First call is immediate, the next one waits for the interval.
+        assertEquals(0, limiter.acquire());
+        assertTrue(limiter.acquire() > 0);
+
+        // Throttled twice : interval is doubled each time and calls wait.
+        limiter.throttled(new RateLimitExceededException());
+        limiter.throttled(new RateLimitExceededException());
+        assertEquals(Duration.ofMillis(40), limiter.getInterval());
+        assertEquals(2, limiter.getThrottledCalls());
+        final long start = System.nanoTime();
+        limiter.acquire();
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(30).toNanos());
+
+        // Successful calls bring the interval back to the configured rate.
+        limiter.succeeded();
+        assertTrue(limiter.getInterval().compareTo(Duration.ofMillis(40)) < 0);
+        while (limiter.getInterval().compareTo(Duration.ofMillis(10)) > 0) {
+            limiter.succeeded();
+        }
+        assertEquals(Duration.ofMillis(10), limiter.getInterval());
+
+        // Then probe below it, up to four times faster.
+        for (int i = 0; i < 99; i++) {
+            limiter.succeeded();
+        }
+        assertEquals(Duration.ofMillis(10), limiter.getInterval());
+        limiter.succeeded();
+        assertEquals(Duration.ofMillis(9), limiter.getInterval());
+        for (int i = 0; i < 10_000; i++) {
+            limiter.succeeded();
+        }
+        assertEquals(Duration.ofNanos(2_500_000), limiter.getInterval());
+
+        // A throttled probe : the interval is doubled and the next probes stop just above the throttled interval.
+        limiter.throttled(new RateLimitExceededException());
+        assertEquals(Duration.ofMillis(5), limiter.getInterval());
+        for (int i = 0; i < 10_000; i++) {
+            limiter.succeeded();
+        }
+        assertEquals(Duration.ofNanos(2_750_000), limiter.getInterval());
+
+        // The interval never goes over the maximum.
+        for (int i = 0; i < 100; i++) {
+            limiter.throttled(new IOException("Too many requests"));
+        }
+        assertEquals(Duration.ofMinutes(1), limiter.getInterval());
+    }
+
+}
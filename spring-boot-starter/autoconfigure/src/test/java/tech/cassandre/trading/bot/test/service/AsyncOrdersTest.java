@@ -0,0 +1,185 @@
+package tech.cassandre.trading.bot.test.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.dto.trade.MarketOrder;
+import tech.cassandre.trading.bot.domain.Position;
+import tech.cassandre.trading.bot.dto.position.PositionCreationResultDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationRequestDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.service.intern.PositionServiceImplementation;
+import tech.cassandre.trading.bot.service.xchange.TradeServiceXChangeImplementation;
+import tech.cassandre.trading.bot.util.base.ExchangeExecutor;
+import tech.cassandre.trading.bot.util.bus.EventBus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Services - Asynchronous orders")
+public class AsyncOrdersTest {
+
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    @Test
+    @DisplayName("Check order created asynchronously")
+    public void checkCreateOrderAsync() throws Exception {
+        // The exchange answers once the test releases it, the market order of 2 fails.
+        final CountDownLatch exchangeAnswer = new CountDownLatch(1);
+        final List<String> exchangeThreads = new CopyOnWriteArrayList<>();
+        final org.knowm.xchange.service.trade.TradeService xChangeTradeService = mock(org.knowm.xchange.service.trade.TradeService.class);
+        when(xChangeTradeService.placeMarketOrder(any())).thenAnswer(invocation -> {
+            exchangeThreads.add(Thread.currentThread().getName());
+            assertTrue(exchangeAnswer.await(5, TimeUnit.SECONDS));
+            final MarketOrder order = invocation.getArgument(0);
+            if (order.getOriginalAmount().compareTo(new BigDecimal("2")) == 0) {
+                throw new IOException("Insufficient balance");
+            }
+            return "M" + order.getOriginalAmount();
+        });
+        final TradeServiceXChangeImplementation tradeService = new TradeServiceXChangeImplementation(1, xChangeTradeService, mock(TradeRepository.class));
+        final ExchangeExecutor exchangeExecutor = new ExchangeExecutor(2);
+        tradeService.setExchangeExecutor(exchangeExecutor);
+
+        try {
+            // The caller doesn't wait for the exchange.
+            final CompletableFuture<OrderCreationResultDTO> success = tradeService.createOrderAsync(getMarketOrderRequest("1"));
+            final CompletableFuture<OrderCreationResultDTO> failure = tradeService.createOrderAsync(getMarketOrderRequest("2"));
+            assertFalse(success.isDone());
+            assertFalse(failure.isDone());
+            exchangeAnswer.countDown();
+
+            // Results.
+            final OrderCreationResultDTO successResult = success.get(5, TimeUnit.SECONDS);
+            assertTrue(successResult.isSuccessful());
+            assertEquals("M1", successResult.getOrderId());
+            final OrderCreationResultDTO failureResult = failure.get(5, TimeUnit.SECONDS);
+            assertFalse(failureResult.isSuccessful());
+            assertTrue(failureResult.getErrorMessage().contains("Insufficient balance"));
+            assertTrue(failureResult.getException() instanceof IOException);
+            assertEquals(2, exchangeThreads.size());
+            assertTrue(exchangeThreads.stream().allMatch(name -> name.startsWith("cassandre-exchange-")));
+        } finally {
+            exchangeExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Check order canceled asynchronously")
+    public void checkCancelOrderAsync() throws Exception {
+        // Order O1 is canceled, order O2 is unknown and O3 fails.
+        final org.knowm.xchange.service.trade.TradeService xChangeTradeService = mock(org.knowm.xchange.service.trade.TradeService.class);
+        when(xChangeTradeService.cancelOrder("O1")).thenReturn(true);
+        when(xChangeTradeService.cancelOrder("O2")).thenReturn(false);
+        when(xChangeTradeService.cancelOrder("O3")).thenThrow(new IOException("Exchange unavailable"));
+        final TradeServiceXChangeImplementation tradeService = new TradeServiceXChangeImplementation(1, xChangeTradeService, mock(TradeRepository.class));
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        tradeService.setMeterRegistry(meterRegistry);
+        final ExchangeExecutor exchangeExecutor = new ExchangeExecutor(2);
+        tradeService.setExchangeExecutor(exchangeExecutor);
+
+        try {
+            assertTrue(tradeService.cancelOrderAsync("O1").get(5, TimeUnit.SECONDS));
+            assertFalse(tradeService.cancelOrderAsync("O2").get(5, TimeUnit.SECONDS));
+            assertFalse(tradeService.cancelOrderAsync("O3").get(5, TimeUnit.SECONDS));
+
+            // No order id : no exchange call.
+            final CompletableFuture<Boolean> noOrderId = tradeService.cancelOrderAsync(null);
+            assertTrue(noOrderId.isDone());
+            assertFalse(noOrderId.get());
+            verify(xChangeTradeService, times(3)).cancelOrder(any(String.class));
+
+            // Each cancellation waited for the rate limiter.
+            assertEquals(3, meterRegistry.get("cassandre.service.rate.limit.wait").timer().count());
+        } finally {
+            exchangeExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Check position created asynchronously on the event bus thread")
+    public void checkCreatePositionAsync() throws Exception {
+        // The opening orders are acknowledged by the test thread.
+        final TradeService tradeService = mock(TradeService.class);
+        final CompletableFuture<OrderCreationResultDTO> successfulOrder = new CompletableFuture<>();
+        final CompletableFuture<OrderCreationResultDTO> failedOrder = new CompletableFuture<>();
+        when(tradeService.createOrderAsync(any())).thenReturn(successfulOrder, failedOrder);
+
+        // The position is saved and sent by the thread completing the creation.
+        final List<String> savingThreads = new CopyOnWriteArrayList<>();
+        final PositionRepository positionRepository = mock(PositionRepository.class);
+        when(positionRepository.save(any())).thenAnswer(invocation -> {
+            savingThreads.add(Thread.currentThread().getName());
+            final Position position = invocation.getArgument(0);
+            position.setId(1);
+            return position;
+        });
+        final List<String> updateThreads = new CopyOnWriteArrayList<>();
+        final PositionServiceImplementation positionService = new PositionServiceImplementation(tradeService, positionRepository);
+        positionService.setPositionUpdateListener(p -> updateThreads.add(Thread.currentThread().getName()));
+        final EventBus eventBus = new EventBus(EventBus.DEFAULT_CAPACITY);
+        positionService.setCallbackExecutor(eventBus);
+        eventBus.start();
+
+        try {
+            // Successful creation.
+            final PositionRulesDTO rules = PositionRulesDTO.builder().stopGainPercentage(10).create();
+            final CompletableFuture<PositionCreationResultDTO> success = positionService.createPositionAsync(cp, BigDecimal.ONE, rules);
+            assertFalse(success.isDone());
+            assertTrue(positionService.getPositions().isEmpty());
+            successfulOrder.complete(new OrderCreationResultDTO("O1"));
+            final PositionCreationResultDTO successResult = success.get(5, TimeUnit.SECONDS);
+            assertTrue(successResult.isSuccessful());
+            assertEquals(1L, successResult.getPositionId());
+            assertEquals("O1", successResult.getOrderId());
+            assertEquals(OPENING, positionService.getPositionById(1).orElseThrow().getStatus());
+            assertEquals(List.of("cassandre-event-bus"), savingThreads);
+            assertEquals(List.of("cassandre-event-bus"), updateThreads);
+
+            // Failed creation : no position.
+            final CompletableFuture<PositionCreationResultDTO> failure = positionService.createPositionAsync(cp, BigDecimal.TEN, rules);
+            failedOrder.complete(new OrderCreationResultDTO("Insufficient balance", new IOException("Insufficient balance")));
+            final PositionCreationResultDTO failureResult = failure.get(5, TimeUnit.SECONDS);
+            assertFalse(failureResult.isSuccessful());
+            assertEquals("Insufficient balance", failureResult.getErrorMessage());
+            assertEquals(1, positionService.getPositions().size());
+            verify(positionRepository, times(1)).save(any());
+        } finally {
+            eventBus.stop();
+        }
+    }
+
+    /**
+     * Returns a market order request.
+     *
+     * @param amount amount
+     * @return request
+     */
+    private OrderCreationRequestDTO getMarketOrderRequest(final String amount) {
+        return OrderCreationRequestDTO.builder().type(BID).currencyPair(cp).amount(new BigDecimal(amount)).create();
+    }
+
+}
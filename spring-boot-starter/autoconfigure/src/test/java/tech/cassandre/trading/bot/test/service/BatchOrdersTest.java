@@ -0,0 +1,166 @@
+package tech.cassandre.trading.bot.test.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.dto.trade.MarketOrder;
+import org.mockito.ArgumentCaptor;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationRequestDTO;
+import tech.cassandre.trading.bot.dto.trade.OrderCreationResultDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.repository.PositionRepository;
+import tech.cassandre.trading.bot.repository.TradeRepository;
+import tech.cassandre.trading.bot.service.TradeService;
+import tech.cassandre.trading.bot.service.intern.PositionServiceImplementation;
+import tech.cassandre.trading.bot.service.xchange.TradeServiceXChangeImplementation;
+import tech.cassandre.trading.bot.util.base.ExchangeExecutor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.CLOSING;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.ASK;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Services - Batch orders")
+public class BatchOrdersTest {
+
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    @Test
+    @DisplayName("Check orders created at once")
+    public void checkCreateOrders() throws Exception {
+        // Market orders get the id "M" + amount, limit orders "L" + amount, the market order of 2 fails.
+        final org.knowm.xchange.service.trade.TradeService xChangeTradeService = mock(org.knowm.xchange.service.trade.TradeService.class);
+        when(xChangeTradeService.placeMarketOrder(any())).thenAnswer(invocation -> {
+            final MarketOrder order = invocation.getArgument(0);
+            if (order.getOriginalAmount().compareTo(new BigDecimal("2")) == 0) {
+                throw new IOException("Insufficient balance");
+            }
+            return "M" + order.getOriginalAmount();
+        });
+        when(xChangeTradeService.placeLimitOrder(any())).thenAnswer(invocation -> "L" + ((LimitOrder) invocation.getArgument(0)).getOriginalAmount());
+        final TradeServiceXChangeImplementation tradeService = new TradeServiceXChangeImplementation(1, xChangeTradeService, mock(TradeRepository.class));
+        final ExchangeExecutor exchangeExecutor = new ExchangeExecutor(4);
+        tradeService.setExchangeExecutor(exchangeExecutor);
+
+        try {
+            // All orders succeed : results are in the same order than the requests.
+            List<OrderCreationResultDTO> results = tradeService.createOrders(List.of(
+                    getMarketOrderRequest("1"),
+                    OrderCreationRequestDTO.builder().type(BID).currencyPair(cp).amount(new BigDecimal("3")).limitPrice(BigDecimal.ONE).create(),
+                    getMarketOrderRequest("4")));
+            assertEquals(3, results.size());
+            assertTrue(results.stream().allMatch(OrderCreationResultDTO::isSuccessful));
+            assertEquals("M1", results.get(0).getOrderId());
+            assertEquals("L3", results.get(1).getOrderId());
+            assertEquals("M4", results.get(2).getOrderId());
+
+            // One order fails : the others are created and the failure is returned for this order only.
+            results = tradeService.createOrders(List.of(
+                    getMarketOrderRequest("1"),
+                    getMarketOrderRequest("2"),
+                    getMarketOrderRequest("4")));
+            assertEquals(3, results.size());
+            assertTrue(results.get(0).isSuccessful());
+            assertEquals("M1", results.get(0).getOrderId());
+            assertFalse(results.get(1).isSuccessful());
+            assertNull(results.get(1).getOrderId());
+            assertTrue(results.get(1).getErrorMessage().contains("Insufficient balance"));
+            assertTrue(results.get(1).getException() instanceof IOException);
+            assertTrue(results.get(2).isSuccessful());
+            assertEquals("M4", results.get(2).getOrderId());
+        } finally {
+            exchangeExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Check several triggered positions are closed at once")
+    @SuppressWarnings("unchecked")
+    public void checkClosePositions() {
+        // Closing orders : the second one fails.
+        final TradeService tradeService = mock(TradeService.class);
+        when(tradeService.createOrders(anyList())).thenReturn(List.of(
+                new OrderCreationResultDTO("C1"),
+                new OrderCreationResultDTO("Error", new IOException("Error")),
+                new OrderCreationResultDTO("C3")));
+        final PositionServiceImplementation positionService = new PositionServiceImplementation(tradeService, mock(PositionRepository.class));
+        for (long id = 1; id <= 4; id++) {
+            positionService.restorePosition(getPosition(id, new BigDecimal(id)));
+        }
+
+        // Price 3.4 : positions 1 to 3 (stop gain at 2, 2.5 and 3, position 4 at 3.5) must be closed.
+        positionService.tickerUpdate(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("3.4")).create());
+        final ArgumentCaptor<List<OrderCreationRequestDTO>> requests = ArgumentCaptor.forClass(List.class);
+        verify(tradeService).createOrders(requests.capture());
+        verify(tradeService, never()).createSellMarketOrder(any(), any());
+        assertEquals(3, requests.getValue().size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ASK, requests.getValue().get(i).getType());
+            assertEquals(cp, requests.getValue().get(i).getCurrencyPair());
+            assertEquals(0, new BigDecimal(i + 1).compareTo(requests.getValue().get(i).getAmount()));
+            assertTrue(requests.getValue().get(i).isMarketOrder());
+        }
+
+        // Results are matched with the positions : the position whose order failed stays opened.
+        assertEquals(CLOSING, positionService.getPositionById(1).orElseThrow().getStatus());
+        assertEquals("C1", positionService.getPositionById(1).orElseThrow().getCloseOrderId());
+        assertEquals(OPENED, positionService.getPositionById(2).orElseThrow().getStatus());
+        assertNull(positionService.getPositionById(2).orElseThrow().getCloseOrderId());
+        assertEquals(CLOSING, positionService.getPositionById(3).orElseThrow().getStatus());
+        assertEquals("C3", positionService.getPositionById(3).orElseThrow().getCloseOrderId());
+        assertEquals(OPENED, positionService.getPositionById(4).orElseThrow().getStatus());
+
+        // A single position triggered is closed with one order (position 2 is checked again).
+        when(tradeService.createSellMarketOrder(any(), any())).thenReturn(new OrderCreationResultDTO("C2"));
+        positionService.tickerUpdate(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("3.45")).create());
+        verify(tradeService).createSellMarketOrder(cp, new BigDecimal("2"));
+        assertEquals(CLOSING, positionService.getPositionById(2).orElseThrow().getStatus());
+        assertEquals("C2", positionService.getPositionById(2).orElseThrow().getCloseOrderId());
+    }
+
+    /**
+     * Returns a market order request.
+     *
+     * @param amount amount
+     * @return request
+     */
+    private OrderCreationRequestDTO getMarketOrderRequest(final String amount) {
+        return OrderCreationRequestDTO.builder().type(BID).currencyPair(cp).amount(new BigDecimal(amount)).create();
+    }
+
+    /**
+     * Returns an opened position bought at 1 with a stop gain of (id + 1) * 50 %.
+     *
+     * @param id     position id
+     * @param amount amount
+     * @return position
+     */
+    private PositionDTO getPosition(final long id, final BigDecimal amount) {
+        final TradeDTO openTrade = TradeDTO.builder().id("T" + id).orderId("O" + id).type(BID).currencyPair(cp)
+                .originalAmount(amount).price(BigDecimal.ONE).create();
+        return new PositionDTO(id, OPENED, cp, amount, PositionRulesDTO.builder().stopGainPercentage((id + 1) * 50).create(),
+                "O" + id, null, Set.of(openTrade), null, null);
+    }
+
+}
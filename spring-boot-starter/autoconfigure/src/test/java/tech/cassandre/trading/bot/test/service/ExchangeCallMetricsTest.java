@@ -0,0 +1,81 @@
+package tech.cassandre.trading.bot.test.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.service.marketdata.MarketDataService;
+import tech.cassandre.trading.bot.batch.TickerFlux;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.xchange.MarketServiceXChangeImplementation;
+
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Services - Exchange call metrics")
+public class ExchangeCallMetricsTest {
+
+    private static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    @Test
+    @DisplayName("Check exchange calls are recorded in the meter registry")
+    public void checkExchangeCallMeters() throws Exception {
+        final Ticker ticker = new Ticker.Builder()
+                .currencyPair(new CurrencyPair("ETH", "BTC"))
+                .last(BigDecimal.ONE)
+                .timestamp(new Date())
+                .build();
+        final MarketDataService marketDataService = mock(MarketDataService.class);
+        when(marketDataService.getTicker(any()))
+                .thenReturn(ticker)
+                .thenThrow(new SocketTimeoutException("Read timed out"))
+                .thenReturn(ticker);
+
+        // Meters are registered in the registry set, not in the global one.
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final MarketServiceXChangeImplementation marketService = new MarketServiceXChangeImplementation(1, marketDataService);
+        marketService.setMeterRegistry(meterRegistry);
+        marketService.setRetries(1);
+        assertTrue(marketService.getTicker(cp).isPresent());
+        assertTrue(marketService.getTicker(cp).isPresent());
+
+        // Three attempts recorded by the same timer, one retry.
+        assertEquals(1, meterRegistry.find("cassandre.exchange.call").timers().size());
+        final Timer callTimer = meterRegistry.get("cassandre.exchange.call")
+                .tag("service", "MarketServiceXChangeImplementation")
+                .tag("call", "getTicker")
+                .timer();
+        assertEquals(3, callTimer.count());
+        final Counter retryCounter = meterRegistry.get("cassandre.exchange.call.retries").tag("call", "getTicker").counter();
+        assertEquals(1, retryCounter.count());
+        assertEquals(3, meterRegistry.get("cassandre.service.rate.limit.wait").timer().count());
+        assertTrue(meterRegistry.find("cassandre.service.rate.limit.interval").gauge() != null);
+
+        // Flux meters.
+        final TickerFlux tickerFlux = new TickerFlux(marketService);
+        tickerFlux.setMeterRegistry(meterRegistry);
+        tickerFlux.updateRequestedCurrencyPairs(Set.of(cp));
+        tickerFlux.getFlux().subscribe();
+        when(marketDataService.getTicker(any())).thenReturn(ticker);
+        tickerFlux.update();
+        assertEquals(1, meterRegistry.get("cassandre.flux.update").tag("flux", "TickerFlux").timer().count());
+        assertEquals(1, meterRegistry.get("cassandre.flux.emitted").tag("flux", "TickerFlux").counter().count());
+        assertEquals(1, meterRegistry.get("cassandre.tickers").tag("currency.pair", cp.toString()).counter().count());
+        assertNull(meterRegistry.find("cassandre.exchange.call").tag("call", "getTrades").timer());
+    }
+
+}
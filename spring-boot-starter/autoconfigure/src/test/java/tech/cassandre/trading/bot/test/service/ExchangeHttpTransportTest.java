@@ -0,0 +1,151 @@
+package tech.cassandre.trading.bot.test.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.knowm.xchange.ExchangeSpecification;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.kucoin.KucoinExchange;
+import org.knowm.xchange.service.marketdata.MarketDataService;
+import si.mazi.rescu.HttpStatusIOException;
+import si.mazi.rescu.InvocationResult;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.xchange.MarketServiceXChangeImplementation;
+import tech.cassandre.trading.bot.util.base.ExchangeHttpTransport;
+import tech.cassandre.trading.bot.util.parameters.ExchangeParameters;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+import java.math.BigDecimal;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Services - Exchange HTTP transport")
+public class ExchangeHttpTransportTest {
+
+    private static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    private String keepAlive;
+
+    private String maxConnections;
+
+    private SSLSocketFactory sslSocketFactory;
+
+    /**
+     * Saves the JVM wide HTTP settings changed by the tests.
+     */
+    @BeforeEach
+    public void saveJvmSettings() {
+        keepAlive = System.getProperty(ExchangeHttpTransport.KEEP_ALIVE_PROPERTY);
+        maxConnections = System.getProperty(ExchangeHttpTransport.MAX_CONNECTIONS_PROPERTY);
+        sslSocketFactory = HttpsURLConnection.getDefaultSSLSocketFactory();
+    }
+
+    /**
+     * Restores the JVM wide HTTP settings changed by the tests.
+     */
+    @AfterEach
+    public void restoreJvmSettings() {
+        restoreProperty(ExchangeHttpTransport.KEEP_ALIVE_PROPERTY, keepAlive);
+        restoreProperty(ExchangeHttpTransport.MAX_CONNECTIONS_PROPERTY, maxConnections);
+        HttpsURLConnection.setDefaultSSLSocketFactory(sslSocketFactory);
+    }
+
+    @Test
+    @DisplayName("Check timeouts only change the exchange specification by default")
+    public void checkTransportConfiguration() {
+        final ExchangeParameters.Http parameters = new ExchangeParameters.Http();
+        parameters.setConnectionTimeout(1000);
+        parameters.setReadTimeout(2000);
+        final ExchangeSpecification exchangeSpecification = new ExchangeSpecification(KucoinExchange.class);
+        new ExchangeHttpTransport(parameters).configure(exchangeSpecification);
+        assertEquals(1000, exchangeSpecification.getHttpConnTimeout());
+        assertEquals(2000, exchangeSpecification.getHttpReadTimeout());
+        assertEquals(keepAlive, System.getProperty(ExchangeHttpTransport.KEEP_ALIVE_PROPERTY));
+        assertEquals(maxConnections, System.getProperty(ExchangeHttpTransport.MAX_CONNECTIONS_PROPERTY));
+        assertSame(sslSocketFactory, HttpsURLConnection.getDefaultSSLSocketFactory());
+    }
+
+    @Test
+    @DisplayName("Check keep-alive and opened connections with the JVM settings")
+    public void checkJvmSettings() throws Exception {
+        System.clearProperty(ExchangeHttpTransport.KEEP_ALIVE_PROPERTY);
+        System.clearProperty(ExchangeHttpTransport.MAX_CONNECTIONS_PROPERTY);
+        final ExchangeParameters.Http parameters = new ExchangeParameters.Http();
+        parameters.setJvmSettings(true);
+        final ExchangeHttpTransport transport = new ExchangeHttpTransport(parameters);
+        transport.configure(new ExchangeSpecification(KucoinExchange.class));
+        assertEquals("true", System.getProperty(ExchangeHttpTransport.KEEP_ALIVE_PROPERTY));
+        assertEquals(String.valueOf(ExchangeHttpTransport.DEFAULT_MAX_IDLE_CONNECTIONS), System.getProperty(ExchangeHttpTransport.MAX_CONNECTIONS_PROPERTY));
+        assertNotSame(sslSocketFactory, HttpsURLConnection.getDefaultSSLSocketFactory());
+
+        // Each socket created by the HTTPS connections is counted, configuring twice doesn't count twice.
+        transport.configure(new ExchangeSpecification(KucoinExchange.class));
+        final long openedConnections = ExchangeHttpTransport.getOpenedConnections();
+        try (Socket ignored = HttpsURLConnection.getDefaultSSLSocketFactory().createSocket()) {
+            assertEquals(openedConnections + 1, ExchangeHttpTransport.getOpenedConnections());
+        }
+    }
+
+    @Test
+    @DisplayName("Check retries after a connection error")
+    public void checkRetries() throws Exception {
+        final Ticker ticker = new Ticker.Builder()
+                .currencyPair(new CurrencyPair("ETH", "BTC"))
+                .last(BigDecimal.ONE)
+                .timestamp(new Date())
+                .build();
+        final MarketDataService marketDataService = mock(MarketDataService.class);
+        when(marketDataService.getTicker(any()))
+                .thenThrow(new SocketTimeoutException("Read timed out"))
+                .thenReturn(ticker)
+                .thenThrow(new SocketTimeoutException("Read timed out"))
+                .thenThrow(new HttpStatusIOException("Internal error", new InvocationResult("", 500)));
+
+        // One retry : the ticker is retrieved.
+        final MarketServiceXChangeImplementation marketService = new MarketServiceXChangeImplementation(1, marketDataService);
+        marketService.setRetries(1);
+        assertTrue(marketService.getTicker(cp).isPresent());
+        verify(marketDataService, times(2)).getTicker(any());
+
+        // The connection error is retried, the HTTP error returned by the retry is not.
+        assertFalse(marketService.getTicker(cp).isPresent());
+        verify(marketDataService, times(4)).getTicker(any());
+
+        // No retry by default.
+        marketService.setRetries(0);
+        assertFalse(marketService.getTicker(cp).isPresent());
+        verify(marketDataService, times(5)).getTicker(any());
+    }
+
+    /**
+     * Restores a system property.
+     *
+     * @param name  property name
+     * @param value saved value (null if it was not set)
+     */
+    private void restoreProperty(final String name, final String value) {
+        if (value == null) {
+            System.clearProperty(name);
+        } else {
+            System.setProperty(name, value);
+        }
+    }
+
+}
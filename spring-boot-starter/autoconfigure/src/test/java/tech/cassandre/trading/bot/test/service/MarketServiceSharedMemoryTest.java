@@ -0,0 +1,108 @@
+package tech.cassandre.trading.bot.test.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.MarketService;
+import tech.cassandre.trading.bot.service.shared.MarketServiceSharedMemoryImplementation;
+import tech.cassandre.trading.bot.util.shared.TickerRingBuffer;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Service - Shared memory market service")
+public class MarketServiceSharedMemoryTest {
+
+    private final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    private final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(BTC, USDT);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Check tickers shared between publisher and consumers")
+    public void checkSharedTickers() {
+        final Path file = directory.resolve("tickers");
+        final TickerRingBuffer publisher = new TickerRingBuffer(file, 16);
+        final MarketService consumer1 = new MarketServiceSharedMemoryImplementation(new TickerRingBuffer(file, 16));
+        final MarketService consumer2 = new MarketServiceSharedMemoryImplementation(new TickerRingBuffer(file, 16));
+        assertFalse(consumer1.getTicker(cp1).isPresent());
+
+        final TickerDTO ticker = TickerDTO.builder()
+                .currencyPair(cp1)
+                .last(new BigDecimal("0.0342"))
+                .bid(new BigDecimal("0.0341"))
+                .volume(new BigDecimal("1234.5678"))
+                .timestampAsEpochInSeconds(1_600_000_000)
+                .create();
+        publisher.publish(ticker);
+        publisher.publish(TickerDTO.builder().currencyPair(cp2).last(new BigDecimal("10500")).timestampAsEpochInSeconds(1_600_000_001).create());
+
+        // Both consumers receive the same tickers.
+        for (MarketService consumer : List.of(consumer1, consumer2)) {
+            final TickerDTO received = consumer.getTicker(cp1).orElseThrow();
+            assertEquals(ticker, received);
+            assertEquals(0, new BigDecimal("0.0342").compareTo(received.getLast()));
+            assertEquals(0, new BigDecimal("1234.5678").compareTo(received.getVolume()));
+            assertEquals(0, new BigDecimal("10500").compareTo(consumer.getTicker(cp2).orElseThrow().getLast()));
+            assertEquals(0, new BigDecimal("1.0260").compareTo(consumer.getEstimatedBuyingCost(cp1, new BigDecimal("30")).orElseThrow().getValue()));
+        }
+    }
+
+    @Test
+    @DisplayName("Check a late consumer skips overwritten tickers")
+    public void checkOverwrittenTickers() {
+        final Path file = directory.resolve("tickers");
+        final TickerRingBuffer publisher = new TickerRingBuffer(file, 8);
+        final TickerRingBuffer consumer = new TickerRingBuffer(file, 8);
+        for (int i = 1; i <= 20; i++) {
+            publisher.publish(TickerDTO.builder().currencyPair(cp1).last(new BigDecimal(i)).timestampAsEpochInSeconds(i).create());
+        }
+
+        // Only the last 8 tickers are still in the ring buffer.
+        final List<TickerDTO> tickers = new ArrayList<>();
+        assertEquals(8, consumer.poll(tickers::add));
+        assertEquals(0, new BigDecimal("13").compareTo(tickers.get(0).getLast()));
+        assertEquals(0, new BigDecimal("20").compareTo(tickers.get(7).getLast()));
+        assertEquals(0, consumer.poll(tickers::add));
+
+        // A new consumer reads the tickers still in the ring buffer.
+        assertTrue(new TickerRingBuffer(file, 8).poll(t -> { }) > 0);
+    }
+
+    @Test
+    @DisplayName("Check a new consumer skips stale tickers")
+    public void checkStaleTickers() throws InterruptedException {
+        final Path file = directory.resolve("tickers");
+        final TickerRingBuffer publisher = new TickerRingBuffer(file, 8);
+        publisher.publish(TickerDTO.builder().currencyPair(cp1).last(BigDecimal.ONE).timestampAsEpochInSeconds(1).create());
+        Thread.sleep(100);
+
+        // The ticker left by the publisher is too old for a new consumer.
+        final TickerRingBuffer consumer = new TickerRingBuffer(file, 8, Duration.ofMillis(50));
+        assertEquals(0, consumer.poll(t -> { }));
+
+        // Fresh tickers are read.
+        publisher.publish(TickerDTO.builder().currencyPair(cp1).last(BigDecimal.TEN).timestampAsEpochInSeconds(2).create());
+        final List<TickerDTO> tickers = new ArrayList<>();
+        assertEquals(1, consumer.poll(tickers::add));
+        assertEquals(0, BigDecimal.TEN.compareTo(tickers.get(0).getLast()));
+
+        // With the default maximum age, both tickers are read.
+        assertEquals(2, new TickerRingBuffer(file, 8).poll(t -> { }));
+    }
+
+}
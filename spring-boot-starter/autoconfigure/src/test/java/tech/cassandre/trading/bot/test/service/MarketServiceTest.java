@@ -37,8 +37,8 @@ public class MarketServiceTest {
     @Test
     @DisplayName("Check get estimated buying cost")
     public void checkGetEstimatedBuyingCost() {
-        final CurrencyPairDTO anotherCurrencyPair = new CurrencyPairDTO(BTC, USDT);
-        final CurrencyPairDTO currencyPair = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO anotherCurrencyPair = CurrencyPairDTO.getInstance(BTC, USDT);
+        final CurrencyPairDTO currencyPair = CurrencyPairDTO.getInstance(ETH, BTC);
         final BigDecimal amount = new BigDecimal("3");
 
         // When the ticker doesn't exists.
@@ -60,9 +60,9 @@ public class PositionServiceTest extends BaseTest {
     @Autowired
     private TickerFlux tickerFlux;
 
-    public static final CurrencyPairDTO cp1 = new CurrencyPairDTO(ETH, BTC);
+    public static final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
 
-    public static final CurrencyPairDTO cp2 = new CurrencyPairDTO(USD, BTC);
+    public static final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(USD, BTC);
 
     @Test
     @DisplayName("Check position creation")
@@ -0,0 +1,130 @@
+package tech.cassandre.trading.bot.test.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.position.PositionDTO;
+import tech.cassandre.trading.bot.dto.position.PositionRulesDTO;
+import tech.cassandre.trading.bot.dto.trade.TradeDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.intern.PositionTriggerIndex;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENED;
+import static tech.cassandre.trading.bot.dto.position.PositionStatusDTO.OPENING;
+import static tech.cassandre.trading.bot.dto.trade.OrderTypeDTO.BID;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+
+@DisplayName("Services - Position trigger index")
+public class PositionTriggerIndexTest {
+
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
+
+    @Test
+    @DisplayName("Check only positions with a crossed trigger price are returned")
+    public void checkTriggerPrices() {
+        final PositionTriggerIndex index = new PositionTriggerIndex();
+        // Entry price 1 : position 1 triggers at 2 (gain), position 2 at 0.5 (loss), position 3 at 1.5 or 0.8.
+        index.index(getPosition(2, PositionRulesDTO.builder().stopLossPercentage(50).create()));
+        index.index(getPosition(1, PositionRulesDTO.builder().stopGainPercentage(100).create()));
+        index.index(getPosition(3, PositionRulesDTO.builder().stopGainPercentage(50).stopLossPercentage(20).create()));
+        index.index(getPosition(4, PositionRulesDTO.builder().create()));
+        assertEquals(4, index.size());
+
+        assertTrue(index.getPositionsToCheck(new BigDecimal("1")).isEmpty());
+        assertEquals(List.of(3L), getIds(index.getPositionsToCheck(new BigDecimal("1.5"))));
+        assertEquals(List.of(1L, 3L), getIds(index.getPositionsToCheck(new BigDecimal("2"))));
+        assertEquals(List.of(3L), getIds(index.getPositionsToCheck(new BigDecimal("0.8"))));
+        assertEquals(List.of(2L, 3L), getIds(index.getPositionsToCheck(new BigDecimal("0.4"))));
+
+        // A position closing leaves the index.
+        final PositionDTO position1 = index.getPositionsToCheck(new BigDecimal("2")).iterator().next();
+        position1.setCloseOrderId("C1");
+        index.index(position1);
+        assertEquals(3, index.size());
+        assertEquals(List.of(3L), getIds(index.getPositionsToCheck(new BigDecimal("2"))));
+
+        // Positions not opened are not indexed.
+        index.index(new PositionDTO(5, OPENING, cp, BigDecimal.ONE, PositionRulesDTO.builder().stopGainPercentage(1).create(),
+                "O5", null, null, null, null));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Check highest and lowest prices don't touch the index")
+    public void checkPriceRange() {
+        final PositionTriggerIndex index = new PositionTriggerIndex();
+        final PositionDTO position1 = getPosition(1, PositionRulesDTO.builder().stopGainPercentage(1000).create());
+        index.index(position1);
+        assertNull(position1.getHighestPrice());
+        assertNull(position1.getLowestPrice());
+
+        // Trending market : no position is returned while the trigger price is not reached.
+        for (int i = 1; i <= 1000; i++) {
+            final BigDecimal price = new BigDecimal(i).movePointLeft(2);
+            assertTrue(index.getPositionsToCheck(price).isEmpty());
+            index.updatePriceRange(price);
+        }
+        assertEquals(0, new BigDecimal("10").compareTo(position1.getHighestPrice()));
+        assertEquals(0, new BigDecimal("0.01").compareTo(position1.getLowestPrice()));
+
+        // A position opened later only reads the prices received since it was opened.
+        final PositionDTO position2 = getPosition(2, PositionRulesDTO.builder().create());
+        index.index(position2);
+        assertNull(position2.getHighestPrice());
+        index.updatePriceRange(new BigDecimal("5"));
+        index.updatePriceRange(new BigDecimal("6"));
+        assertEquals(0, new BigDecimal("6").compareTo(position2.getHighestPrice()));
+        assertEquals(0, new BigDecimal("5").compareTo(position2.getLowestPrice()));
+        assertEquals(0, new BigDecimal("10").compareTo(position1.getHighestPrice()));
+
+        // Re-indexing a position keeps the prices it reached.
+        index.index(position1);
+        index.updatePriceRange(new BigDecimal("11"));
+        assertEquals(0, new BigDecimal("11").compareTo(position1.getHighestPrice()));
+        assertEquals(0, new BigDecimal("0.01").compareTo(position1.getLowestPrice()));
+
+        // Once closing, highest and lowest prices don't change anymore.
+        position2.setCloseOrderId("C2");
+        index.index(position2);
+        index.updatePriceRange(new BigDecimal("12"));
+        index.updatePriceRange(new BigDecimal("0.001"));
+        assertEquals(0, new BigDecimal("11").compareTo(position2.getHighestPrice()));
+        assertEquals(0, new BigDecimal("5").compareTo(position2.getLowestPrice()));
+        assertEquals(0, new BigDecimal("12").compareTo(position1.getHighestPrice()));
+        assertEquals(0, new BigDecimal("0.001").compareTo(position1.getLowestPrice()));
+    }
+
+    /**
+     * Returns an opened position bought at 1.
+     *
+     * @param id    position id
+     * @param rules position rules
+     * @return position
+     */
+    private PositionDTO getPosition(final long id, final PositionRulesDTO rules) {
+        final TradeDTO openTrade = TradeDTO.builder().id("T" + id).orderId("O" + id).type(BID).currencyPair(cp)
+                .originalAmount(BigDecimal.ONE).price(BigDecimal.ONE).create();
+        return new PositionDTO(id, OPENED, cp, BigDecimal.ONE, rules, "O" + id, null, Set.of(openTrade), null, null);
+    }
+
+    /**
+     * Returns the ids of positions.
+     *
+     * @param positions positions
+     * @return ids
+     */
+    private List<Long> getIds(final Iterable<PositionDTO> positions) {
+        final List<Long> ids = new ArrayList<>();
+        positions.forEach(p -> ids.add(p.getId()));
+        return ids;
+    }
+
+}
@@ -36,7 +36,7 @@ import static tech.cassandre.trading.bot.util.parameters.ExchangeParameters.Rate
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 public class RatesTest {
 
-	private static final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+	private static final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
 
 	@Autowired
 	private UserService userService;
@@ -61,15 +61,15 @@ public class BasicCassandreStrategyTest extends BaseTest {
         assertFalse(strategy.getTradesUpdateReceived().isEmpty());
         assertFalse(strategy.getPositionsUpdateReceived().isEmpty());
         assertEquals(2, strategy.getLastTicker().size());
-        assertEquals(0, new BigDecimal("6").compareTo(strategy.getLastTicker().get(new CurrencyPairDTO(ETH, BTC)).getBid()));
+        assertEquals(0, new BigDecimal("6").compareTo(strategy.getLastTicker().get(CurrencyPairDTO.getInstance(ETH, BTC)).getBid()));
 
         // Checking that services are available.
         assertNotNull(strategy.getTradeService());
         assertNotNull(strategy.getPositionService());
 
         // Check getEstimatedBuyingCost()
-        assertTrue(strategy.getEstimatedBuyingCost(new CurrencyPairDTO(ETH, BTC), new BigDecimal(2)).isPresent());
-        assertEquals(0, new BigDecimal("12").compareTo(strategy.getEstimatedBuyingCost(new CurrencyPairDTO(ETH, BTC), new BigDecimal(2)).get().getValue()));
+        assertTrue(strategy.getEstimatedBuyingCost(CurrencyPairDTO.getInstance(ETH, BTC), new BigDecimal(2)).isPresent());
+        assertEquals(0, new BigDecimal("12").compareTo(strategy.getEstimatedBuyingCost(CurrencyPairDTO.getInstance(ETH, BTC), new BigDecimal(2)).get().getValue()));
 
         // Trading account test.
         with().await().untilAsserted(() -> assertEquals(3, strategy.getAccountsUpdatesReceived().size()));
@@ -81,8 +81,8 @@ public class BasicCassandreStrategyTest extends BaseTest {
         final AccountDTO account = strategy.getAccounts().get("03");
         assertNotNull(account);
         assertEquals(3, account.getBalances().size());
-        final CurrencyPairDTO cp1 = new CurrencyPairDTO(BTC, ETH);
-        final CurrencyPairDTO cp2 = new CurrencyPairDTO(BTC, USDT);
+        final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(BTC, ETH);
+        final CurrencyPairDTO cp2 = CurrencyPairDTO.getInstance(BTC, USDT);
 
         // canBuy().
         // Buying something for an asset we don't have.
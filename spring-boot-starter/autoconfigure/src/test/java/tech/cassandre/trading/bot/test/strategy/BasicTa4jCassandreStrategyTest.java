@@ -40,7 +40,7 @@ import static tech.cassandre.trading.bot.test.util.strategies.TestableTa4jCassan
 @Import(BasicTa4jCassandreStrategyTestMock.class)
 public class BasicTa4jCassandreStrategyTest extends BaseTest {
 
-    private final CurrencyPairDTO cp = new CurrencyPairDTO(BTC, USDT);
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(BTC, USDT);
 
     @Autowired
     private TestableTa4jCassandreStrategy strategy;
@@ -0,0 +1,91 @@
+package tech.cassandre.trading.bot.test.strategy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.RSIIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.util.ta4j.IndicatorRegistry;
+import tech.cassandre.trading.bot.util.ta4j.PrimitiveBarSeries;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Strategy - Indicator registry")
+public class IndicatorRegistryTest {
+
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(BTC, USDT);
+
+    private final Duration timeframe = Duration.ofMinutes(1);
+
+    private final ZonedDateTime start = ZonedDateTime.of(2020, 8, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    @Test
+    @DisplayName("Check indicators are shared and computed once per bar")
+    public void checkSharedIndicators() {
+        final IndicatorRegistry registry = new IndicatorRegistry();
+        final BarSeries series = new PrimitiveBarSeries("BTC/USDT", 50);
+        final AtomicInteger computations = new AtomicInteger();
+
+        final Indicator<Num> rsi1 = registry.getIndicator(cp, timeframe, "RSI(14)", series, s -> new CountingIndicator(new RSIIndicator(new ClosePriceIndicator(s), 14), computations));
+        final Indicator<Num> rsi2 = registry.getIndicator(cp, timeframe, "RSI(14)", series, s -> new CountingIndicator(new RSIIndicator(new ClosePriceIndicator(s), 14), computations));
+        final Indicator<Num> rsi3 = registry.getIndicator(cp, timeframe, "RSI(7)", series, s -> new RSIIndicator(new ClosePriceIndicator(s), 7));
+        assertSame(rsi1, rsi2);
+        assertNotSame(rsi1, rsi3);
+        assertEquals(2, registry.size());
+
+        final RSIIndicator expected = new RSIIndicator(new ClosePriceIndicator(series), 14);
+        for (int i = 0; i < 200; i++) {
+            series.addBar(start.plusMinutes(i), 100 + i % 7, 110, 90, 100 + i % 5, 1);
+            registry.barAdded(cp, timeframe, series.getEndIndex());
+            assertEquals(expected.getValue(series.getEndIndex()), rsi1.getValue(series.getEndIndex()));
+            rsi2.getValue(series.getEndIndex());
+        }
+        // One computation per bar whatever the number of readers.
+        assertEquals(200, computations.get());
+        // Values of the bars kept are still available after trimming.
+        rsi1.getValue(160);
+        assertEquals(200, computations.get());
+    }
+
+    /**
+     * Indicator counting its computations.
+     */
+    private static class CountingIndicator extends CachedIndicator<Num> {
+
+        private final Indicator<Num> indicator;
+
+        private final AtomicInteger computations;
+
+        CountingIndicator(final Indicator<Num> newIndicator, final AtomicInteger newComputations) {
+            super(newIndicator);
+            this.indicator = newIndicator;
+            this.computations = newComputations;
+        }
+
+        @Override
+        public Num getValue(final int index) {
+            computations.incrementAndGet();
+            return indicator.getValue(index);
+        }
+
+        @Override
+        protected Num calculate(final int index) {
+            return indicator.getValue(index);
+        }
+
+    }
+
+}
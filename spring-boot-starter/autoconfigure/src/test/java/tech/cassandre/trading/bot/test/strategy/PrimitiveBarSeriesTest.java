@@ -0,0 +1,100 @@
+package tech.cassandre.trading.bot.test.strategy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.DoubleNum;
+import tech.cassandre.trading.bot.util.ta4j.PrimitiveBarSeries;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Strategy - Primitive bar series")
+public class PrimitiveBarSeriesTest {
+
+    private final ZonedDateTime start = ZonedDateTime.of(2020, 8, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    @Test
+    @DisplayName("Check primitive bar series behaves like ta4j bar series")
+    public void checkSameAsBaseBarSeries() {
+        final BarSeries expected = new BaseBarSeriesBuilder().withNumTypeOf(DoubleNum.class).withName("ETH/BTC").build();
+        expected.setMaximumBarCount(100);
+        final BarSeries series = new PrimitiveBarSeries("ETH/BTC", 100);
+        final SMAIndicator expectedIndicator = new SMAIndicator(new ClosePriceIndicator(expected), 10);
+        final SMAIndicator indicator = new SMAIndicator(new ClosePriceIndicator(series), 10);
+
+        for (int i = 0; i < 250; i++) {
+            for (BarSeries s : new BarSeries[]{expected, series}) {
+                s.addBar(start.plusMinutes(i), i, i + 2, i - 1, i + 1, 10 * i);
+            }
+            assertEquals(expected.getBeginIndex(), series.getBeginIndex());
+            assertEquals(expected.getEndIndex(), series.getEndIndex());
+            assertEquals(expectedIndicator.getValue(series.getEndIndex()), indicator.getValue(series.getEndIndex()));
+        }
+        assertEquals(100, series.getBarCount());
+        assertEquals(150, series.getRemovedBarsCount());
+        assertEquals(expected.getBarData().size(), series.getBarData().size());
+        for (int i = series.getRemovedBarsCount(); i <= series.getEndIndex(); i++) {
+            assertEquals(expected.getBar(i).getEndTime(), series.getBar(i).getEndTime());
+            assertEquals(expected.getBar(i).getBeginTime(), series.getBar(i).getBeginTime());
+            assertEquals(expected.getBar(i).getOpenPrice(), series.getBar(i).getOpenPrice());
+            assertEquals(expected.getBar(i).getHighPrice(), series.getBar(i).getHighPrice());
+            assertEquals(expected.getBar(i).getLowPrice(), series.getBar(i).getLowPrice());
+            assertEquals(expected.getBar(i).getClosePrice(), series.getBar(i).getClosePrice());
+            assertEquals(expected.getBar(i).getVolume(), series.getBar(i).getVolume());
+        }
+        // Removed bars are replaced by the first bar.
+        assertEquals(expected.getBar(10).getEndTime(), series.getBar(10).getEndTime());
+        assertEquals(expected.getSubSeries(200, 210).getBar(0).getClosePrice(), series.getSubSeries(200, 210).getBar(0).getClosePrice());
+        assertEquals(249 + 1, ((PrimitiveBarSeries) series).getClosePrice(249));
+
+        // Bars must be added in order.
+        assertThrows(IllegalArgumentException.class, () -> series.addBar(start, 1, 1, 1, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Check trades, prices and maximum bar count change")
+    public void checkTradesAndResize() {
+        final PrimitiveBarSeries series = new PrimitiveBarSeries("ETH/BTC", 3);
+        series.addBar(Duration.ofMinutes(1), start);
+        assertNull(series.getLastBar().getClosePrice());
+        series.addTrade(2, 10);
+        series.addTrade(1, 12);
+        series.addPrice(9);
+        assertEquals(DoubleNum.valueOf(10), series.getLastBar().getOpenPrice());
+        assertEquals(DoubleNum.valueOf(12), series.getLastBar().getHighPrice());
+        assertEquals(DoubleNum.valueOf(9), series.getLastBar().getLowPrice());
+        assertEquals(DoubleNum.valueOf(9), series.getLastBar().getClosePrice());
+        assertEquals(DoubleNum.valueOf(3), series.getLastBar().getVolume());
+        assertEquals(DoubleNum.valueOf(32), series.getLastBar().getAmount());
+        assertEquals(2, series.getLastBar().getTrades());
+
+        for (int i = 1; i <= 4; i++) {
+            series.addBar(start.plusMinutes(i), i, i, i, i, i);
+        }
+        assertEquals(2, series.getRemovedBarsCount());
+        assertEquals(DoubleNum.valueOf(2), series.getFirstBar().getClosePrice());
+
+        // Growing keeps the bars, shrinking removes the oldest ones.
+        series.setMaximumBarCount(5);
+        series.addBar(start.plusMinutes(5), 5, 5, 5, 5, 5);
+        series.addBar(start.plusMinutes(6), 6, 6, 6, 6, 6);
+        assertEquals(5, series.getBarCount());
+        assertEquals(2, series.getRemovedBarsCount());
+        series.setMaximumBarCount(2);
+        assertEquals(2, series.getBarCount());
+        assertEquals(5, series.getRemovedBarsCount());
+        assertEquals(5, series.getClosePrice(5));
+        assertEquals(6, series.getClosePrice(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.getClosePrice(4));
+    }
+
+}
@@ -0,0 +1,136 @@
+package tech.cassandre.trading.bot.test.strategy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knowm.xchange.service.marketdata.MarketDataService;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyAmountDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.service.MarketService;
+import tech.cassandre.trading.bot.service.xchange.MarketServiceXChangeImplementation;
+import tech.cassandre.trading.bot.test.util.strategies.TestableTa4jCassandreStrategy;
+import tech.cassandre.trading.bot.util.candle.CandleStore;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Strategy - Warm up with historical data")
+public class StrategyWarmUpTest {
+
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(BTC, USDT);
+
+    private final ZonedDateTime start = ZonedDateTime.of(2020, 8, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Check bars read from the candle store")
+    public void checkHistoricalTickers() {
+        final MarketDataService marketDataService = mock(MarketDataService.class);
+        final MarketServiceXChangeImplementation marketService = new MarketServiceXChangeImplementation(1, marketDataService);
+
+        // No candle store : no history and no exchange call.
+        assertTrue(marketService.getHistoricalTickers(cp, Duration.ofHours(1), 10).isEmpty());
+        verifyNoInteractions(marketDataService);
+
+        // Bars saved in the candle store, the last one ending at the start of the bar in progress.
+        final CandleStore candleStore = new CandleStore(directory);
+        final ZonedDateTime lastBarEnd = ZonedDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.HOURS);
+        final List<TickerDTO> savedBars = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            savedBars.add(getBar(lastBarEnd.minusHours(3 - i), 10 + i));
+        }
+        candleStore.append(cp, Duration.ofHours(1), savedBars);
+        marketService.setCandleStore(candleStore);
+        final List<TickerDTO> bars = marketService.getHistoricalTickers(cp, Duration.ofHours(1), 10);
+        assertEquals(3, bars.size());
+        assertEquals(lastBarEnd.minusHours(2).toInstant(), bars.get(0).getTimestamp().toInstant());
+        assertEquals(0, new BigDecimal("11").compareTo(bars.get(0).getLast()));
+        assertEquals(0, new BigDecimal("13").compareTo(bars.get(2).getLast()));
+
+        // Only the last bars are returned.
+        final List<TickerDTO> lastBars = marketService.getHistoricalTickers(cp, Duration.ofHours(1), 2);
+        assertEquals(2, lastBars.size());
+        assertEquals(0, new BigDecimal("12").compareTo(lastBars.get(0).getLast()));
+        verifyNoInteractions(marketDataService);
+
+        // Other services have no history.
+        assertTrue(new MarketService() {
+            @Override
+            public Optional<TickerDTO> getTicker(final CurrencyPairDTO currencyPair) {
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<CurrencyAmountDTO> getEstimatedBuyingCost(final CurrencyPairDTO currencyPair, final BigDecimal amount) {
+                return Optional.empty();
+            }
+        }.getHistoricalTickers(cp, Duration.ofHours(1), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Check strategy warm up")
+    public void checkWarmUp() {
+        final TestableTa4jCassandreStrategy strategy = new TestableTa4jCassandreStrategy();
+        final List<TickerDTO> bars = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            bars.add(TickerDTO.builder()
+                    .currencyPair(cp)
+                    .open(new BigDecimal(100 + i))
+                    .high(new BigDecimal(110 + i))
+                    .low(new BigDecimal(90 + i))
+                    .last(new BigDecimal(100 + (i % 3) * 10))
+                    .volume(BigDecimal.ONE)
+                    .timestamp(Date.from(start.plusDays(i).toInstant()))
+                    .create());
+        }
+        // Bars closer than the delay between two bars (2 days) are skipped.
+        assertEquals(10, strategy.warmUp(bars));
+        assertEquals(8, strategy.getSeries().getBarCount());
+        assertEquals(0, strategy.warmUp(Collections.emptyList()));
+
+        // No signal and no ticker update during the warm up.
+        assertEquals(0, strategy.getEnterCount());
+        assertEquals(0, strategy.getExitCount());
+        assertTrue(strategy.getTickersUpdateReceived().isEmpty());
+        assertTrue(strategy.getLastTicker().isEmpty());
+    }
+
+    /**
+     * Returns a one hour bar.
+     *
+     * @param end   end of the bar
+     * @param price price
+     * @return bar
+     */
+    private TickerDTO getBar(final ZonedDateTime end, final int price) {
+        return TickerDTO.builder()
+                .currencyPair(cp)
+                .open(new BigDecimal(price))
+                .high(new BigDecimal(price))
+                .low(new BigDecimal(price))
+                .last(new BigDecimal(price))
+                .volume(BigDecimal.ONE)
+                .timestamp(Date.from(end.toInstant()))
+                .create();
+    }
+
+}
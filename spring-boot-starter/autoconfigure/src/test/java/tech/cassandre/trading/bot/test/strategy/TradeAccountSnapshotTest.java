@@ -0,0 +1,79 @@
+package tech.cassandre.trading.bot.test.strategy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.cassandre.trading.bot.dto.market.TickerDTO;
+import tech.cassandre.trading.bot.dto.user.AccountDTO;
+import tech.cassandre.trading.bot.dto.user.BalanceDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyDTO;
+import tech.cassandre.trading.bot.dto.util.CurrencyPairDTO;
+import tech.cassandre.trading.bot.test.util.strategies.TestableCassandreStrategy;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.BTC;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.ETH;
+import static tech.cassandre.trading.bot.dto.util.CurrencyDTO.USDT;
+
+@DisplayName("Strategy - Trade account snapshot")
+public class TradeAccountSnapshotTest {
+
+    private final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(BTC, USDT);
+
+    @Test
+    @DisplayName("Check trade account balances are updated with accounts")
+    public void checkTradeAccountSnapshot() {
+        final TestableCassandreStrategy strategy = new TestableCassandreStrategy();
+        strategy.tickerUpdate(TickerDTO.builder().currencyPair(cp).last(new BigDecimal("10000")).create());
+
+        // No trade account yet.
+        strategy.accountUpdate(getAccount("01", "main", Map.of(USDT, "5000", BTC, "5")));
+        assertFalse(strategy.getTradeAccount().isPresent());
+        assertFalse(strategy.canBuy(cp, new BigDecimal("0.1")));
+        assertFalse(strategy.canSell(BTC, new BigDecimal("1")));
+
+        // Trade account.
+        strategy.accountUpdate(getAccount("02", "trade", Map.of(USDT, "2000", BTC, "2")));
+        assertEquals("02", strategy.getTradeAccount().orElseThrow().getId());
+        assertEquals(0, new BigDecimal("2000").compareTo(strategy.getTradeAccountAvailableBalance(USDT)));
+        assertNull(strategy.getTradeAccountAvailableBalance(ETH));
+        assertTrue(strategy.canBuy(cp, new BigDecimal("0.2")));
+        assertFalse(strategy.canBuy(cp, new BigDecimal("0.2001")));
+        assertTrue(strategy.canBuy(cp, new BigDecimal("0.1"), new BigDecimal("1000")));
+        assertFalse(strategy.canBuy(cp, new BigDecimal("0.1"), new BigDecimal("1000.01")));
+        assertFalse(strategy.canBuy(CurrencyPairDTO.getInstance(ETH, USDT), new BigDecimal("0.1")));
+        assertTrue(strategy.canSell(BTC, new BigDecimal("2")));
+        assertFalse(strategy.canSell(BTC, new BigDecimal("1"), new BigDecimal("1.1")));
+        assertFalse(strategy.canSell(ETH, new BigDecimal("0.1")));
+
+        // The trade account balances change.
+        strategy.accountUpdate(getAccount("02", "trade", Map.of(USDT, "500")));
+        assertFalse(strategy.canBuy(cp, new BigDecimal("0.1")));
+        assertFalse(strategy.canSell(BTC, new BigDecimal("1")));
+        assertTrue(strategy.canBuy(strategy.getAccounts().get("01"), cp, new BigDecimal("0.1")));
+    }
+
+    /**
+     * Returns an account.
+     *
+     * @param id       id
+     * @param name     name
+     * @param balances available balances
+     * @return account
+     */
+    private AccountDTO getAccount(final String id, final String name, final Map<CurrencyDTO, String> balances) {
+        final Map<CurrencyDTO, BalanceDTO> accountBalances = new LinkedHashMap<>();
+        balances.forEach((currency, available) -> accountBalances.put(currency, BalanceDTO.builder()
+                .currency(currency)
+                .available(new BigDecimal(available))
+                .create()));
+        return AccountDTO.builder().id(id).name(name).balances(accountBalances).create();
+    }
+
+}
@@ -124,7 +124,7 @@ public class BasicCassandreStrategyTestMock extends BaseTest {
     public MarketService marketService() {
         MarketService service = mock(MarketService.class);
         // Returns three values.
-        final CurrencyPairDTO cp1 = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(ETH, BTC);
         given(service.getTicker(cp1)).willReturn(
                 BaseTest.getFakeTicker(cp1, new BigDecimal("1")),   // Ticker 01.
                 BaseTest.getFakeTicker(cp1, new BigDecimal("2")),   // Ticker 02.
@@ -132,7 +132,7 @@ public class BasicCassandreStrategyTestMock extends BaseTest {
                 BaseTest.getFakeTicker(cp1, new BigDecimal("4")),   // Ticker 04.
                 BaseTest.getFakeTicker(cp1, new BigDecimal("5")),   // Ticker 05.
                 BaseTest.getFakeTicker(cp1, new BigDecimal("6")),    // Ticker 06.
-                BaseTest.getFakeTicker(new CurrencyPairDTO(BTC, USDT), new BigDecimal("10000"))    // Ticker 07.
+                BaseTest.getFakeTicker(CurrencyPairDTO.getInstance(BTC, USDT), new BigDecimal("10000"))    // Ticker 07.
         );
         return service;
     }
@@ -166,7 +166,7 @@ public class BasicCassandreStrategyTestMock extends BaseTest {
         // Creates the mock.
         final PositionRulesDTO noRules = PositionRulesDTO.builder().create();
         PositionService positionService = mock(PositionService.class);
-        final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
         final BigDecimal amount = new BigDecimal("1");
 
         // Reply 1 : 2 positions.
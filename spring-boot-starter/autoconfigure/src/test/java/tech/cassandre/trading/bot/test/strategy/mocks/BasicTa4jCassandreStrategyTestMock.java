@@ -125,7 +125,7 @@ public class BasicTa4jCassandreStrategyTestMock extends BaseTest {
     public MarketService marketService() {
         MarketService service = mock(MarketService.class);
         // Returns three values.
-        final CurrencyPairDTO cp1 = new CurrencyPairDTO(BTC, USDT);
+        final CurrencyPairDTO cp1 = CurrencyPairDTO.getInstance(BTC, USDT);
         given(service.getTicker(cp1)).willReturn(
                 Optional.of(TickerDTO.builder().currencyPair(cp1)
                         .timestamp(BaseTest.createDay(1))
@@ -266,7 +266,7 @@ public class BasicTa4jCassandreStrategyTestMock extends BaseTest {
         // Creates the mock.
         final PositionRulesDTO noRules = PositionRulesDTO.builder().create();
         PositionService positionService = mock(PositionService.class);
-        final CurrencyPairDTO cp = new CurrencyPairDTO(ETH, BTC);
+        final CurrencyPairDTO cp = CurrencyPairDTO.getInstance(ETH, BTC);
         final BigDecimal amount = new BigDecimal("1");
 
         // Reply 1 : 2 positions.
@@ -28,8 +28,8 @@ public class NoTradingAccountStrategy extends BasicCassandreStrategy {
     @Override
     public final Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
         Set<CurrencyPairDTO> requestedTickers = new LinkedHashSet<>();
-        requestedTickers.add(new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.BTC));
-        requestedTickers.add(new CurrencyPairDTO(CurrencyDTO.ETH, CurrencyDTO.USDT));
+        requestedTickers.add(CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.BTC));
+        requestedTickers.add(CurrencyPairDTO.getInstance(CurrencyDTO.ETH, CurrencyDTO.USDT));
         return requestedTickers;
     }
 
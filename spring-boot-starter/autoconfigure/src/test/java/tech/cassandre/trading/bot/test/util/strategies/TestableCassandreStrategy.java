@@ -63,8 +63,8 @@ public class TestableCassandreStrategy extends BasicCassandreStrategy {
     @Override
     public final Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
         Set<CurrencyPairDTO> requestedTickers = new LinkedHashSet<>();
-        requestedTickers.add(new CurrencyPairDTO(ETH, BTC));
-        requestedTickers.add(new CurrencyPairDTO(ETH, USDT));
+        requestedTickers.add(CurrencyPairDTO.getInstance(ETH, BTC));
+        requestedTickers.add(CurrencyPairDTO.getInstance(ETH, USDT));
         return requestedTickers;
     }
 
@@ -32,7 +32,7 @@ public final class SimpleStrategy extends BasicCassandreStrategy {
 	@Override
 	public Set<CurrencyPairDTO> getRequestedCurrencyPairs() {
 		// We only ask about ETC/BTC (Base currency : ETH / Quote currency : BTC).
-		return Set.of(new CurrencyPairDTO(BTC, USDT));
+		return Set.of(CurrencyPairDTO.getInstance(BTC, USDT));
 	}
 
 	@Override
@@ -37,7 +37,7 @@ public final class SimpleTa4jStrategy extends BasicTa4jCassandreStrategy {
 
     @Override
     public CurrencyPairDTO getRequestedCurrencyPair() {
-        return new CurrencyPairDTO(BTC, USDT);
+        return CurrencyPairDTO.getInstance(BTC, USDT);
     }
 
     @Override
@@ -86,7 +86,7 @@ public final class SimpleTa4jStrategy extends BasicTa4jCassandreStrategy {
                     .create();
             // Create position.
             getPositionService().createPosition(
-                    new CurrencyPairDTO(BTC, USDT),
+                    CurrencyPairDTO.getInstance(BTC, USDT),
                     new BigDecimal("0.01"),
                     rules);
         }